@@ -35,6 +35,7 @@ import org.mule.api.registry.MuleRegistry;
 import org.mule.api.registry.RegistrationException;
 import org.mule.api.registry.Registry;
 import org.mule.api.security.SecurityManager;
+import org.mule.api.serialization.ObjectSerializer;
 import org.mule.api.store.ListableObjectStore;
 import org.mule.api.store.ObjectStoreManager;
 import org.mule.api.transaction.TransactionManagerFactory;
@@ -56,6 +57,7 @@ import org.mule.management.stats.AllStatistics;
 import org.mule.management.stats.ProcessingTimeWatcher;
 import org.mule.registry.DefaultRegistryBroker;
 import org.mule.registry.MuleRegistryHelper;
+import org.mule.serialization.JavaObjectSerializer;
 import org.mule.transport.DefaultPollingController;
 import org.mule.transport.PollingController;
 import org.mule.util.ApplicationShutdownSplashScreen;
@@ -171,6 +173,8 @@ public class DefaultMuleContext implements MuleContext
 
     private ExtensionsManager extensionsManager;
 
+    private volatile ObjectSerializer objectSerializer;
+
     /**
      * @deprecated Use empty constructor instead and use setter for dependencies.
      */
@@ -918,6 +922,23 @@ public class DefaultMuleContext implements MuleContext
         return this.expressionLanguage;
     }
 
+    @Override
+    public ObjectSerializer getObjectSerializer()
+    {
+        if (objectSerializer == null)
+        {
+            ObjectSerializer serializer = registryBroker.lookupObject(MuleProperties.OBJECT_SERIALIZER);
+            if (serializer == null)
+            {
+                JavaObjectSerializer javaObjectSerializer = new JavaObjectSerializer();
+                javaObjectSerializer.setMuleContext(this);
+                serializer = javaObjectSerializer;
+            }
+            objectSerializer = serializer;
+        }
+        return objectSerializer;
+    }
+
     @Override
     public LockFactory getLockFactory()
     {
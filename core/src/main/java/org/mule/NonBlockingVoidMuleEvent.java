@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule;
+
+import org.mule.api.processor.NonBlockingMessageProcessor;
+import org.mule.api.transport.NonBlockingReplyToHandler;
+
+/**
+ * A {@link NonBlockingVoidMuleEvent} is returned by a {@link NonBlockingMessageProcessor} that didn't
+ * complete the processing of the event yet. The result will be notified later to the
+ * {@link NonBlockingReplyToHandler} of the event, so the caller must not wait for it nor continue
+ * processing.
+ * <p/>
+ * Being a {@link VoidMuleEvent}, it has no message, so processors must check for void events with
+ * {@code instanceof} rather than comparing with {@link VoidMuleEvent#getInstance()}.
+ */
+public class NonBlockingVoidMuleEvent extends VoidMuleEvent
+{
+
+    private static final long serialVersionUID = -7457614395398164924L;
+
+    private static final NonBlockingVoidMuleEvent instance = new NonBlockingVoidMuleEvent();
+
+    public static NonBlockingVoidMuleEvent getInstance()
+    {
+        return instance;
+    }
+
+    private NonBlockingVoidMuleEvent()
+    {
+        super();
+    }
+}
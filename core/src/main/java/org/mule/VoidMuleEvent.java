@@ -39,7 +39,7 @@ public class VoidMuleEvent implements MuleEvent
         return instance;
     }
 
-    private VoidMuleEvent()
+    protected VoidMuleEvent()
     {
         super();
     }
@@ -26,6 +26,7 @@ import org.mule.api.registry.MuleRegistry;
 import org.mule.api.registry.RegistrationException;
 import org.mule.api.registry.Registry;
 import org.mule.api.security.SecurityManager;
+import org.mule.api.serialization.ObjectSerializer;
 import org.mule.api.store.ListableObjectStore;
 import org.mule.api.store.ObjectStoreManager;
 import org.mule.api.util.StreamCloserService;
@@ -315,6 +316,16 @@ public interface MuleContext extends Lifecycle
      */
     ExpressionLanguage getExpressionLanguage();
 
+    /**
+     * Returns the {@link ObjectSerializer} used by this context to serialize messages, events and
+     * sessions into persistent queues and object stores. The serializer can be replaced by registering
+     * a different one under the {@link org.mule.api.config.MuleProperties#OBJECT_SERIALIZER} key.
+     *
+     * @return a non null {@link ObjectSerializer}
+     * @since 3.7.0
+     */
+    ObjectSerializer getObjectSerializer();
+
     /**
      * Factory for creating locks for synchronizing mule components.
      *
@@ -143,6 +143,7 @@ public class MuleProperties
     public static final String DEFAULT_USER_OBJECT_STORE_NAME = "_defaultUserObjectStore";
     public static final String DEFAULT_USER_TRANSIENT_OBJECT_STORE_NAME = "_defaultTransientUserObjectStore";
     public static final String OBJECT_STORE_MANAGER = "_muleObjectStoreManager";
+    public static final String OBJECT_SERIALIZER = "_muleDefaultObjectSerializer";
     public static final String OBJECT_STORE_SIMPLE_MEMORY_NAME = "_simpleMemoryQueueStore";
     public static final String OBJECT_STORE_FILE_NAME = "_fileQueueStore";
     public static final String OBJECT_MULE_APPLICATION_PROPERTIES = "_muleProperties";
@@ -194,6 +195,9 @@ public class MuleProperties
     public static final String MULE_STREAMING_BUFFER_SIZE = SYSTEM_PROPERTY_PREFIX + "streaming.bufferSize";
     public static final String MULE_SIMPLE_LOG = SYSTEM_PROPERTY_PREFIX + "simpleLog";
     public static final String MULE_FORCE_CONSOLE_LOG = SYSTEM_PROPERTY_PREFIX + "forceConsoleLog";
+    public static final String MULE_HISTOGRAM_STATISTICS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "stats.histogram";
+    public static final String MULE_NOTIFICATION_RING_BUFFER_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.ringBufferSize";
+    public static final String MULE_NOTIFICATION_OVERFLOW_POLICY_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.overflowPolicy";
 
     public static final String CONTENT_TYPE_PROPERTY = "Content-Type";
 }
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.api.processor;
+
+import org.mule.NonBlockingVoidMuleEvent;
+import org.mule.api.transport.NonBlockingReplyToHandler;
+
+/**
+ * A {@link MessageProcessor} that can release the calling thread while waiting for the result of an
+ * operation.
+ * <p/>
+ * When the reply-to handler of the processed event is a {@link NonBlockingReplyToHandler}, the processor
+ * may return {@link NonBlockingVoidMuleEvent} and notify the result (or failure) to that handler once
+ * available, from any thread. Otherwise it must behave as a regular {@link MessageProcessor}.
+ */
+public interface NonBlockingMessageProcessor extends MessageProcessor
+{
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.api.serialization;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Defines a component capable of serializing and deserializing objects into/from an array
+ * of bytes. Mule uses the {@link ObjectSerializer} of the {@link org.mule.api.MuleContext}
+ * to store messages, events and sessions in persistent queues and object stores, and to
+ * transfer sessions between applications.
+ * <p/>
+ * Implementations must be thread safe. Objects implementing
+ * {@link org.mule.util.store.DeserializationPostInitialisable} must be initialised after
+ * being deserialized.
+ *
+ * @since 3.7.0
+ */
+public interface ObjectSerializer
+{
+
+    /**
+     * Serializes the given object into a an array of bytes
+     *
+     * @param object the object to be serialized. Might be <code>null</code>
+     * @return an array of bytes
+     * @throws SerializationException in case of unexpected exception
+     */
+    byte[] serialize(Object object) throws SerializationException;
+
+    /**
+     * Serializes the given object and writes the result into {@code out}
+     *
+     * @param object the object to be serialized. Might be <code>null</code>
+     * @param out    an {@link OutputStream} where the result will be written
+     * @throws SerializationException in case of unexpected exception
+     */
+    void serialize(Object object, OutputStream out) throws SerializationException;
+
+    /**
+     * Deserializes the given bytes using the execution class loader of the
+     * {@link org.mule.api.MuleContext}
+     *
+     * @param bytes an array of byte containing a serialized object
+     * @return the deserialized object
+     * @throws IllegalArgumentException if {@code bytes} is {@code null}
+     * @throws SerializationException   in case of unexpected exception
+     */
+    <T> T deserialize(byte[] bytes) throws SerializationException;
+
+    /**
+     * Deserializes the given bytes resolving classes with the given class loader
+     *
+     * @param bytes       an array of byte containing a serialized object
+     * @param classLoader the {@link ClassLoader} to resolve the classes of the serialized objects
+     * @return the deserialized object
+     * @throws IllegalArgumentException if {@code bytes} or {@code classLoader} are {@code null}
+     * @throws SerializationException   in case of unexpected exception
+     */
+    <T> T deserialize(byte[] bytes, ClassLoader classLoader) throws SerializationException;
+
+    /**
+     * Deserializes the given stream of bytes using the execution class loader of the
+     * {@link org.mule.api.MuleContext}. The stream is closed once the object is read.
+     *
+     * @param inputStream a stream of bytes containing a serialized object
+     * @return the deserialized object
+     * @throws IllegalArgumentException if {@code inputStream} is {@code null}
+     * @throws SerializationException   in case of unexpected exception
+     */
+    <T> T deserialize(InputStream inputStream) throws SerializationException;
+
+    /**
+     * Deserializes the given stream of bytes resolving classes with the given class loader.
+     * The stream is closed once the object is read.
+     *
+     * @param inputStream a stream of bytes containing a serialized object
+     * @param classLoader the {@link ClassLoader} to resolve the classes of the serialized objects
+     * @return the deserialized object
+     * @throws IllegalArgumentException if {@code inputStream} or {@code classLoader} are {@code null}
+     * @throws SerializationException   in case of unexpected exception
+     */
+    <T> T deserialize(InputStream inputStream, ClassLoader classLoader) throws SerializationException;
+}
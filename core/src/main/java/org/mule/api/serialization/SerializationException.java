@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.api.serialization;
+
+import org.mule.config.i18n.Message;
+
+/**
+ * Thrown by {@link ObjectSerializer} implementations when an object could
+ * not be serialized or deserialized. Extends the commons-lang exception thrown
+ * by {@link org.mule.util.SerializationUtils} so existing error handling
+ * keeps working regardless of the configured serializer.
+ *
+ * @since 3.7.0
+ */
+public class SerializationException extends org.apache.commons.lang.SerializationException
+{
+
+    private static final long serialVersionUID = -2550225226351711742L;
+
+    public SerializationException(Message message)
+    {
+        super(message.getMessage());
+    }
+
+    public SerializationException(Message message, Throwable cause)
+    {
+        super(message.getMessage(), cause);
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.api.transport;
+
+import org.mule.api.MessagingException;
+import org.mule.api.processor.NonBlockingMessageProcessor;
+
+/**
+ * {@link ReplyToHandler} that receives the result of a {@link NonBlockingMessageProcessor} which
+ * completed its processing asynchronously.
+ */
+public interface NonBlockingReplyToHandler extends ReplyToHandler
+{
+
+    /**
+     * Notifies that the processing of the event failed.
+     *
+     * @param exception the failure, with the event that was being processed
+     * @param replyTo the reply-to destination of the event
+     */
+    void processExceptionReplyTo(MessagingException exception, Object replyTo);
+
+}
@@ -91,7 +91,7 @@ public abstract class AbstractComponent implements Component, MuleContextAware,
 
     public AbstractComponent()
     {
-        statistics = new ComponentStatistics();
+        statistics = ComponentStatistics.newInstance();
         lifecycleManager = new ComponentLifecycleManager(getName(), this);
     }
 
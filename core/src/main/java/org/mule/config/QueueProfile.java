@@ -28,6 +28,7 @@ public class QueueProfile
 {
     private int maxOutstandingMessages = 0;
     private QueueStore<Serializable> objectStore;
+    private boolean mappedFileStore = Boolean.getBoolean(DefaultQueueConfiguration.MAPPED_FILE_STORE_PROPERTY_KEY);
 
     public static QueueProfile newInstancePersistingToDefaultMemoryQueueStore(MuleContext muleContext)
     {
@@ -55,6 +56,7 @@ public class QueueProfile
     {
         this.maxOutstandingMessages = queueProfile.getMaxOutstandingMessages();
         this.objectStore = queueProfile.objectStore;
+        this.mappedFileStore = queueProfile.isMappedFileStore();
     }
 
     public QueueProfile(int maxOutstandingMessages, QueueStore<Serializable> objectStore)
@@ -85,6 +87,28 @@ public class QueueProfile
         this.maxOutstandingMessages = maxOutstandingMessages;
     }
 
+    /**
+     * Whether persistent queues use segmented memory mapped files for storing their
+     * content instead of the default random access files.
+     *
+     * @return true if memory mapped files will be used
+     */
+    public boolean isMappedFileStore()
+    {
+        return mappedFileStore;
+    }
+
+    /**
+     * Whether persistent queues use segmented memory mapped files for storing their
+     * content instead of the default random access files.
+     *
+     * @param mappedFileStore true if memory mapped files must be used
+     */
+    public void setMappedFileStore(boolean mappedFileStore)
+    {
+        this.mappedFileStore = mappedFileStore;
+    }
+
     public QueueConfiguration configureQueue(MuleContext context, String component, QueueManager queueManager)
         throws InitialisationException
     {
@@ -103,7 +127,7 @@ public class QueueProfile
         {
             return new org.mule.util.queue.objectstore.QueueConfiguration(context, maxOutstandingMessages, objectStore);
         }
-        return new DefaultQueueConfiguration(maxOutstandingMessages, objectStore.isPersistent());
+        return new DefaultQueueConfiguration(maxOutstandingMessages, objectStore.isPersistent(), mappedFileStore);
     }
 
     public ListableObjectStore<Serializable> getObjectStore()
@@ -125,6 +149,6 @@ public class QueueProfile
     public String toString()
     {
         return "QueueProfile{maxOutstandingMessage=" + maxOutstandingMessages + ", storeType="
-               + objectStore.getClass() + "}";
+               + objectStore.getClass() + ", mappedFileStore=" + mappedFileStore + "}";
     }
 }
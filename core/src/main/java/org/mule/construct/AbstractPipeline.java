@@ -6,6 +6,8 @@
  */
 package org.mule.construct;
 
+import org.mule.DefaultMuleEvent;
+import org.mule.NonBlockingVoidMuleEvent;
 import org.mule.api.GlobalNameableObject;
 import org.mule.api.MessagingException;
 import org.mule.api.MuleContext;
@@ -23,11 +25,13 @@ import org.mule.api.processor.MessageProcessorBuilder;
 import org.mule.api.processor.MessageProcessorChainBuilder;
 import org.mule.api.processor.MessageProcessorContainer;
 import org.mule.api.processor.MessageProcessorPathElement;
+import org.mule.api.processor.NonBlockingMessageProcessor;
 import org.mule.api.processor.ProcessingStrategy;
 import org.mule.api.processor.StageNameSource;
 import org.mule.api.source.ClusterizableMessageSource;
 import org.mule.api.source.CompositeMessageSource;
 import org.mule.api.source.MessageSource;
+import org.mule.api.transport.NonBlockingReplyToHandler;
 import org.mule.config.i18n.CoreMessages;
 import org.mule.construct.flow.DefaultFlowProcessingStrategy;
 import org.mule.context.notification.PipelineMessageNotification;
@@ -35,6 +39,7 @@ import org.mule.exception.ChoiceMessagingExceptionStrategy;
 import org.mule.exception.RollbackMessagingExceptionStrategy;
 import org.mule.processor.AbstractFilteringMessageProcessor;
 import org.mule.processor.AbstractInterceptingMessageProcessor;
+import org.mule.processor.NonBlockingResponseReplyToHandler;
 import org.mule.processor.chain.DefaultMessageProcessorChainBuilder;
 import org.mule.processor.strategy.AsynchronousProcessingStrategy;
 import org.mule.processor.strategy.SynchronousProcessingStrategy;
@@ -93,35 +98,7 @@ public abstract class AbstractPipeline extends AbstractFlowConstruct implements
 
     protected void configurePreProcessors(MessageProcessorChainBuilder builder) throws MuleException
     {
-        builder.chain(new AbstractInterceptingMessageProcessor()
-        {
-            @Override
-            public MuleEvent process(MuleEvent event) throws MuleException
-            {
-                muleContext.getNotificationManager().fireNotification(
-                        new PipelineMessageNotification(AbstractPipeline.this, event,
-                                PipelineMessageNotification.PROCESS_START));
-
-                MuleEvent result = null;
-                MessagingException exceptionThrown = null;
-                try
-                {
-                    return processNext(event);
-                }
-                catch (MessagingException me)
-                {
-                    exceptionThrown = me;
-                    throw me;
-                }
-                finally
-                {
-                    MuleEvent notificationEvent = result != null ? result : event;
-                    muleContext.getNotificationManager().fireNotification(
-                            new PipelineMessageNotification(AbstractPipeline.this, notificationEvent,
-                                    PipelineMessageNotification.PROCESS_COMPLETE, exceptionThrown));
-                }
-            }
-        });
+        builder.chain(new ProcessNotificationMessageProcessor());
     }
 
     protected void configurePostProcessors(MessageProcessorChainBuilder builder) throws MuleException
@@ -387,7 +364,70 @@ public abstract class AbstractPipeline extends AbstractFlowConstruct implements
     }
 
 
-    public class ProcessIfPipelineStartedMessageProcessor extends AbstractFilteringMessageProcessor
+    /**
+     * Fires the notifications of the start and completion of the processing of an event, which may be
+     * completed asynchronously by a {@link NonBlockingMessageProcessor}.
+     */
+    private class ProcessNotificationMessageProcessor extends AbstractInterceptingMessageProcessor implements NonBlockingMessageProcessor
+    {
+
+        @Override
+        public MuleEvent process(MuleEvent event) throws MuleException
+        {
+            muleContext.getNotificationManager().fireNotification(
+                    new PipelineMessageNotification(AbstractPipeline.this, event,
+                            PipelineMessageNotification.PROCESS_START));
+
+            final MuleEvent requestEvent = event;
+            if (isNonBlocking(event))
+            {
+                event = new DefaultMuleEvent(event, event.getFlowConstruct(), new NonBlockingResponseReplyToHandler((NonBlockingReplyToHandler) event.getReplyToHandler())
+                {
+                    @Override
+                    protected MuleEvent processResponse(MuleEvent response)
+                    {
+                        fireProcessComplete(requestEvent, null);
+                        return response;
+                    }
+
+                    @Override
+                    protected void processException(MessagingException exception)
+                    {
+                        fireProcessComplete(requestEvent, exception);
+                    }
+                }, event.getReplyToDestination());
+            }
+
+            MuleEvent result = null;
+            MessagingException exceptionThrown = null;
+            try
+            {
+                result = processNext(event);
+                return result;
+            }
+            catch (MessagingException me)
+            {
+                exceptionThrown = me;
+                throw me;
+            }
+            finally
+            {
+                if (!(result instanceof NonBlockingVoidMuleEvent))
+                {
+                    fireProcessComplete(requestEvent, exceptionThrown);
+                }
+            }
+        }
+
+        private void fireProcessComplete(MuleEvent event, MessagingException exceptionThrown)
+        {
+            muleContext.getNotificationManager().fireNotification(
+                    new PipelineMessageNotification(AbstractPipeline.this, event,
+                            PipelineMessageNotification.PROCESS_COMPLETE, exceptionThrown));
+        }
+    }
+
+    public class ProcessIfPipelineStartedMessageProcessor extends AbstractFilteringMessageProcessor implements NonBlockingMessageProcessor
     {
 
         @Override
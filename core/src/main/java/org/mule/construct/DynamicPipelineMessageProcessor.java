@@ -15,6 +15,7 @@ import org.mule.api.processor.DynamicPipelineException;
 import org.mule.api.processor.InterceptingMessageProcessor;
 import org.mule.api.processor.MessageProcessor;
 import org.mule.api.processor.MessageProcessorChain;
+import org.mule.api.processor.NonBlockingMessageProcessor;
 import org.mule.config.i18n.CoreMessages;
 import org.mule.processor.AbstractInterceptingMessageProcessor;
 import org.mule.processor.chain.AbstractMessageProcessorChain;
@@ -34,7 +35,7 @@ import java.util.List;
  * If more than one client tries to use the functionality the 2nd one will fail due to
  * pipeline ID verification.
  */
-public class DynamicPipelineMessageProcessor extends AbstractInterceptingMessageProcessor implements DynamicPipeline
+public class DynamicPipelineMessageProcessor extends AbstractInterceptingMessageProcessor implements DynamicPipeline, NonBlockingMessageProcessor
 {
 
     private String pipelineId;
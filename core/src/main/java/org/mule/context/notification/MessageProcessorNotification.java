@@ -91,7 +91,7 @@ public class MessageProcessorNotification extends ServerNotification implements
     private static MuleEvent produceEvent(MuleEvent sourceEvent, FlowConstruct flowConstruct)
     {
         String rootId = lastRootMessageId.get();
-        if (sourceEvent != null && !VoidMuleEvent.getInstance().equals(sourceEvent))
+        if (sourceEvent != null && !(sourceEvent instanceof VoidMuleEvent))
         {
             lastRootMessageId.set(sourceEvent.getMessage().getMessageRootId());
             return sourceEvent;
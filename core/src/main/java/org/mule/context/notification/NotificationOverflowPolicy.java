@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.context.notification;
+
+/**
+ * What the {@link ServerNotificationManager} does with an asynchronous notification
+ * when its ring buffer is full.
+ */
+public enum NotificationOverflowPolicy
+{
+    /**
+     * The thread firing the notification waits until the dispatcher frees a slot, slowing
+     * the flows down to the pace of the notification listeners.
+     */
+    BLOCK,
+
+    /**
+     * The notification is discarded and counted, so flows are never slowed down by
+     * the notification listeners.
+     */
+    DROP
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.context.notification;
+
+import org.mule.api.context.notification.ServerNotification;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded multi producer, single consumer queue of notifications in the style of the
+ * LMAX Disruptor.
+ * <p/>
+ * Slots are preallocated, so publishing a notification allocates nothing and takes no lock:
+ * producers claim a sequence with a CAS, store the notification in the slot for that sequence
+ * and then mark the slot as published. The consumer drains every published slot in one pass,
+ * so notifications are delivered in batches when the listeners fall behind.
+ */
+class NotificationRingBuffer
+{
+
+    private static final long FULL_BUFFER_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final ServerNotification[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final NotificationOverflowPolicy overflowPolicy;
+
+    /**
+     * Next sequence to be claimed by a producer
+     */
+    private final AtomicLong claimed = new AtomicLong();
+
+    /**
+     * Next sequence to be read by the consumer, only written by the consumer
+     */
+    private volatile long consumed = 0;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Thread consumer;
+    private volatile boolean consumerWaiting = false;
+    private volatile boolean closed = false;
+
+    /**
+     * @param capacity rounded up to the next power of two
+     */
+    NotificationRingBuffer(int capacity, NotificationOverflowPolicy overflowPolicy)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive but was " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new ServerNotification[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+        {
+            published.set(i, -1);
+        }
+        this.mask = size - 1;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Publishes a notification, waiting for a free slot or dropping the notification
+     * when the buffer is full depending on the overflow policy. The consumer thread never
+     * waits for itself, it always drops.
+     *
+     * @return false if the notification was dropped or the buffer was closed
+     */
+    boolean publish(ServerNotification notification)
+    {
+        long sequence;
+        while (true)
+        {
+            if (closed)
+            {
+                return false;
+            }
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length)
+            {
+                if (overflowPolicy == NotificationOverflowPolicy.DROP || Thread.currentThread() == consumer)
+                {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                wakeUpConsumer();
+                LockSupport.parkNanos(this, FULL_BUFFER_WAIT_NANOS);
+            }
+            else if (claimed.compareAndSet(sequence, sequence + 1))
+            {
+                break;
+            }
+        }
+
+        int index = (int) sequence & mask;
+        slots[index] = notification;
+        // the volatile write makes the slot visible to the consumer and must happen
+        // before reading consumerWaiting, otherwise the consumer could miss it and sleep
+        published.set(index, sequence);
+        if (consumerWaiting)
+        {
+            wakeUpConsumer();
+        }
+        return true;
+    }
+
+    private void wakeUpConsumer()
+    {
+        Thread waiting = consumer;
+        if (waiting != null)
+        {
+            LockSupport.unpark(waiting);
+        }
+    }
+
+    /**
+     * Moves every published notification to the given batch, waiting up to the given
+     * timeout if there are none. Must only be called from a single thread.
+     *
+     * @return the number of notifications added to the batch
+     */
+    int drainTo(List<ServerNotification> batch, long timeout, TimeUnit unit)
+    {
+        consumer = Thread.currentThread();
+        int drained = drainTo(batch);
+        if (drained == 0 && !closed)
+        {
+            consumerWaiting = true;
+            // check again after announcing the wait so a concurrent publish is never missed
+            drained = drainTo(batch);
+            if (drained == 0)
+            {
+                LockSupport.parkNanos(this, unit.toNanos(timeout));
+                drained = drainTo(batch);
+            }
+            consumerWaiting = false;
+        }
+        return drained;
+    }
+
+    private int drainTo(List<ServerNotification> batch)
+    {
+        long next = consumed;
+        long available = claimed.get();
+        int drained = 0;
+        while (next < available)
+        {
+            int index = (int) next & mask;
+            if (published.get(index) != next)
+            {
+                // claimed but not yet published, the rest is taken in the next pass
+                break;
+            }
+            batch.add(slots[index]);
+            slots[index] = null;
+            next++;
+            drained++;
+        }
+        // frees the drained slots for the producers
+        consumed = next;
+        return drained;
+    }
+
+    /**
+     * Stops accepting notifications and wakes up both the consumer and any waiting producers
+     */
+    void close()
+    {
+        closed = true;
+        wakeUpConsumer();
+    }
+
+    int size()
+    {
+        return (int) (claimed.get() - consumed);
+    }
+
+    int capacity()
+    {
+        return slots.length;
+    }
+
+    long getDroppedCount()
+    {
+        return dropped.get();
+    }
+}
@@ -7,6 +7,7 @@
 package org.mule.context.notification;
 
 import org.mule.api.MuleContext;
+import org.mule.api.config.MuleProperties;
 import org.mule.api.context.MuleContextAware;
 import org.mule.api.context.WorkManager;
 import org.mule.api.context.notification.BlockingServerEvent;
@@ -17,8 +18,10 @@ import org.mule.api.lifecycle.Disposable;
 import org.mule.api.lifecycle.LifecycleException;
 import org.mule.util.ClassUtils;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
@@ -59,6 +62,12 @@ import org.apache.commons.logging.LogFactory;
  * <li>Disabling an event or interface disables all uses of that class or any subclass.</li>
  * <li>Enquiring whether an event is enabled returns true if any subclass is enabled.</li>
  * </ul>
+ *
+ * <p>Asynchronous notifications are queued in an unbounded queue by default. Setting a
+ * {@link #setRingBufferSize(int) ring buffer size} queues them in a preallocated
+ * {@link NotificationRingBuffer} instead, which is cheaper for the threads firing notifications,
+ * drops notifications nobody listens to before queueing them and delivers them in batches. The
+ * {@link NotificationOverflowPolicy} decides what happens when the buffer is full.</p>
  */
 public class ServerNotificationManager implements Work, Disposable, ServerNotificationHandler, MuleContextAware
 {
@@ -68,6 +77,10 @@ public class ServerNotificationManager implements Work, Disposable, ServerNotifi
     private Configuration configuration = new Configuration();
     private AtomicBoolean disposed = new AtomicBoolean(false);
     private BlockingDeque<ServerNotification> eventQueue = new LinkedBlockingDeque<ServerNotification>();
+    private int ringBufferSize = Integer.getInteger(MuleProperties.MULE_NOTIFICATION_RING_BUFFER_SIZE_PROPERTY, 0);
+    private NotificationOverflowPolicy overflowPolicy = NotificationOverflowPolicy.valueOf(
+            System.getProperty(MuleProperties.MULE_NOTIFICATION_OVERFLOW_POLICY_PROPERTY, NotificationOverflowPolicy.BLOCK.name()).toUpperCase());
+    private volatile NotificationRingBuffer ringBuffer = createRingBuffer();
     private MuleContext muleContext;
 
     @Override
@@ -87,6 +100,49 @@ public class ServerNotificationManager implements Work, Disposable, ServerNotifi
         this.dynamic = dynamic;
     }
 
+    /**
+     * Queues asynchronous notifications in a ring buffer of the given size instead of an unbounded
+     * queue, 0 goes back to the unbounded queue. Must be set before any notification is fired.
+     */
+    public void setRingBufferSize(int ringBufferSize)
+    {
+        this.ringBufferSize = ringBufferSize;
+        ringBuffer = createRingBuffer();
+    }
+
+    public int getRingBufferSize()
+    {
+        return ringBufferSize;
+    }
+
+    /**
+     * Decides what happens when the ring buffer is full. Must be set before any notification is fired.
+     */
+    public void setOverflowPolicy(NotificationOverflowPolicy overflowPolicy)
+    {
+        this.overflowPolicy = overflowPolicy;
+        ringBuffer = createRingBuffer();
+    }
+
+    public NotificationOverflowPolicy getOverflowPolicy()
+    {
+        return overflowPolicy;
+    }
+
+    /**
+     * @return the number of notifications dropped because the ring buffer was full
+     */
+    public long getDroppedNotificationCount()
+    {
+        NotificationRingBuffer buffer = ringBuffer;
+        return buffer == null ? 0 : buffer.getDroppedCount();
+    }
+
+    private NotificationRingBuffer createRingBuffer()
+    {
+        return ringBufferSize > 0 ? new NotificationRingBuffer(ringBufferSize, overflowPolicy) : null;
+    }
+
     public void start(WorkManager workManager, WorkListener workListener) throws LifecycleException
     {
         try
@@ -191,10 +247,20 @@ public class ServerNotificationManager implements Work, Disposable, ServerNotifi
         if (!disposed.get())
         {
             notification.setMuleContext(muleContext);
+            NotificationRingBuffer buffer = ringBuffer;
             if (notification instanceof BlockingServerEvent)
             {
                 notifyListeners(notification);
             }
+            else if (buffer != null)
+            {
+                // don't waste a slot on notifications no listener is interested in
+                if (isNotificationEnabled(notification.getClass()) && !buffer.publish(notification)
+                    && logger.isDebugEnabled() && !disposed.get())
+                {
+                    logger.debug("Notification dropped because the notification buffer is full: " + notification);
+                }
+            }
             else
             {
                 try
@@ -235,6 +301,11 @@ public class ServerNotificationManager implements Work, Disposable, ServerNotifi
     public void dispose()
     {
         disposed.set(true);
+        NotificationRingBuffer buffer = ringBuffer;
+        if (buffer != null)
+        {
+            buffer.close();
+        }
         configuration = null;
     }
 
@@ -250,6 +321,26 @@ public class ServerNotificationManager implements Work, Disposable, ServerNotifi
         }
     }
 
+    /**
+     * Delivers a batch of notifications resolving the policy only once
+     */
+    protected void notifyListeners(List<ServerNotification> notifications)
+    {
+        Configuration currentConfiguration = configuration;
+        if (!disposed.get() && currentConfiguration != null)
+        {
+            Policy policy = currentConfiguration.getPolicy();
+            for (ServerNotification notification : notifications)
+            {
+                policy.dispatch(notification);
+            }
+        }
+        else
+        {
+            logger.warn("Notifications not delivered after ServerNotificationManager disposal: " + notifications.size());
+        }
+    }
+
     @Override
     public void release()
     {
@@ -259,11 +350,28 @@ public class ServerNotificationManager implements Work, Disposable, ServerNotifi
     @Override
     public void run()
     {
+        List<ServerNotification> batch = new ArrayList<ServerNotification>();
         while (!disposed.get())
         {
             try
             {
                 int timeout = muleContext.getConfiguration().getDefaultQueueTimeout();
+                NotificationRingBuffer buffer = ringBuffer;
+                if (buffer != null)
+                {
+                    if (buffer.drainTo(batch, timeout, TimeUnit.MILLISECONDS) > 0)
+                    {
+                        try
+                        {
+                            notifyListeners(batch);
+                        }
+                        finally
+                        {
+                            batch.clear();
+                        }
+                    }
+                    continue;
+                }
                 ServerNotification notification = eventQueue.poll(timeout, TimeUnit.MILLISECONDS);
                 if (notification != null)
                 {
@@ -278,7 +386,7 @@ public class ServerNotificationManager implements Work, Disposable, ServerNotifi
     }
 
     /**
-     * @return DIRECT reference to an event queue
+     * @return DIRECT reference to an event queue, always empty when a ring buffer is used
      */
     public Queue<ServerNotification> getEventQueue()
     {
@@ -313,6 +421,11 @@ public class ServerNotificationManager implements Work, Disposable, ServerNotifi
         return configuration.getPolicy();
     }
 
+    NotificationRingBuffer ringBuffer()
+    {
+        return ringBuffer;
+    }
+
     public Map<Class<? extends ServerNotificationListener>, Set<Class<? extends ServerNotification>>> getInterfaceToTypes()
     {
         return Collections.unmodifiableMap(configuration.getInterfaceToTypes());
@@ -38,7 +38,9 @@ class MessageProcessorNotificationExecutionInterceptor implements MessageProcess
     public MuleEvent execute(MessageProcessor messageProcessor, MuleEvent event) throws MessagingException
     {
         ServerNotificationManager notificationManager = event.getMuleContext().getNotificationManager();
-        boolean fireNotification = event.isNotificationsEnabled();
+        // resolved once for both notifications, before building any of them
+        boolean fireNotification = event.isNotificationsEnabled() && notificationManager != null
+                                   && notificationManager.isNotificationEnabled(MessageProcessorNotification.class);
         if (fireNotification)
         {
             fireNotification(notificationManager, event.getFlowConstruct(), event, messageProcessor,
@@ -81,13 +83,9 @@ class MessageProcessorNotificationExecutionInterceptor implements MessageProcess
 
     protected void fireNotification(ServerNotificationManager serverNotificationManager, FlowConstruct flowConstruct, MuleEvent event, MessageProcessor processor, MessagingException exceptionThrown, int action)
     {
-        if (serverNotificationManager != null
-            && serverNotificationManager.isNotificationEnabled(MessageProcessorNotification.class))
+        if (flowConstruct instanceof MessageProcessorPathResolver && ((MessageProcessorPathResolver) flowConstruct).getProcessorPath(processor) != null)
         {
-            if (flowConstruct instanceof MessageProcessorPathResolver && ((MessageProcessorPathResolver) flowConstruct).getProcessorPath(processor) != null)
-            {
-                serverNotificationManager.fireNotification(new MessageProcessorNotification(flowConstruct, event, processor, exceptionThrown, action));
-            }
+            serverNotificationManager.fireNotification(new MessageProcessorNotification(flowConstruct, event, processor, exceptionThrown, action));
         }
     }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.execution;
+
+import org.mule.NonBlockingVoidMuleEvent;
+import org.mule.api.MessagingException;
+import org.mule.api.MuleEvent;
+import org.mule.api.construct.FlowConstruct;
+import org.mule.api.construct.MessageProcessorPathResolver;
+import org.mule.api.processor.MessageProcessor;
+import org.mule.management.stats.FlowConstructStatistics;
+
+/**
+ * Intercepts MessageProcessor execution to record its processing time in the statistics of the
+ * flow, when processing time histograms are enabled. The time of an intercepting processor
+ * includes the time of the processors that follow it. Executions completed asynchronously by a
+ * {@link org.mule.api.processor.NonBlockingMessageProcessor} are not recorded.
+ */
+class MessageProcessorStatisticsExecutionInterceptor implements MessageProcessorExecutionInterceptor
+{
+
+    private final MessageProcessorExecutionInterceptor next;
+
+    MessageProcessorStatisticsExecutionInterceptor(MessageProcessorExecutionInterceptor next)
+    {
+        this.next = next;
+    }
+
+    @Override
+    public MuleEvent execute(MessageProcessor messageProcessor, MuleEvent event) throws MessagingException
+    {
+        FlowConstruct flowConstruct = event.getFlowConstruct();
+        FlowConstructStatistics statistics = flowConstruct != null ? flowConstruct.getStatistics() : null;
+        if (statistics == null || !statistics.isMessageProcessorTimeEnabled() || !(flowConstruct instanceof MessageProcessorPathResolver))
+        {
+            return next.execute(messageProcessor, event);
+        }
+
+        long startTime = System.nanoTime();
+        MuleEvent result = next.execute(messageProcessor, event);
+        if (!(result instanceof NonBlockingVoidMuleEvent))
+        {
+            String processorPath = ((MessageProcessorPathResolver) flowConstruct).getProcessorPath(messageProcessor);
+            if (processorPath != null)
+            {
+                statistics.addMessageProcessorTime(processorPath, (System.nanoTime() - startTime) / 1000);
+            }
+        }
+        return result;
+    }
+}
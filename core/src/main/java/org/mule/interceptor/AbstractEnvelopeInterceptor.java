@@ -6,20 +6,29 @@
  */
 package org.mule.interceptor;
 
+import org.mule.DefaultMuleEvent;
+import org.mule.NonBlockingVoidMuleEvent;
+import org.mule.api.MessagingException;
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleException;
 import org.mule.api.construct.FlowConstruct;
 import org.mule.api.construct.FlowConstructAware;
 import org.mule.api.interceptor.Interceptor;
+import org.mule.api.processor.NonBlockingMessageProcessor;
+import org.mule.api.transport.NonBlockingReplyToHandler;
 import org.mule.management.stats.ProcessingTime;
 import org.mule.processor.AbstractInterceptingMessageProcessor;
+import org.mule.processor.NonBlockingResponseReplyToHandler;
 
 /**
  * <code>EnvelopeInterceptor</code> is an intercepter that will fire before and after
  * an event is received.
+ * <p/>
+ * When the intercepted processors complete the event asynchronously, {@link #after(MuleEvent)} and
+ * {@link #last(MuleEvent, ProcessingTime, long, boolean)} are invoked by the thread that completes it.
  */
 public abstract class AbstractEnvelopeInterceptor extends AbstractInterceptingMessageProcessor
-                                                  implements Interceptor, FlowConstructAware
+                                                  implements Interceptor, FlowConstructAware, NonBlockingMessageProcessor
 {
 
     protected FlowConstruct flowConstruct;
@@ -48,13 +57,27 @@ public abstract class AbstractEnvelopeInterceptor extends AbstractInterceptingMe
         try
         {
             resultEvent = before(event);
+            if (isNonBlocking(resultEvent))
+            {
+                resultEvent = new DefaultMuleEvent(resultEvent, resultEvent.getFlowConstruct(),
+                                                   new EnvelopeReplyToHandler((NonBlockingReplyToHandler) resultEvent.getReplyToHandler(), time, startTime),
+                                                   resultEvent.getReplyToDestination());
+            }
             resultEvent = processNext(resultEvent);
+            if (resultEvent instanceof NonBlockingVoidMuleEvent)
+            {
+                // The envelope is completed by the reply-to handler
+                return resultEvent;
+            }
             resultEvent = after(resultEvent);
             exceptionWasThrown = false;
         }
         finally
         {
-            resultEvent = last(resultEvent, time, startTime, exceptionWasThrown);
+            if (!(resultEvent instanceof NonBlockingVoidMuleEvent))
+            {
+                resultEvent = last(resultEvent, time, startTime, exceptionWasThrown);
+            }
         }
         return resultEvent;
     }
@@ -63,4 +86,48 @@ public abstract class AbstractEnvelopeInterceptor extends AbstractInterceptingMe
     {
         this.flowConstruct = flowConstruct;
     }
+
+    private class EnvelopeReplyToHandler extends NonBlockingResponseReplyToHandler
+    {
+
+        private final ProcessingTime time;
+        private final long startTime;
+
+        private EnvelopeReplyToHandler(NonBlockingReplyToHandler replyToHandler, ProcessingTime time, long startTime)
+        {
+            super(replyToHandler);
+            this.time = time;
+            this.startTime = startTime;
+        }
+
+        @Override
+        protected MuleEvent processResponse(MuleEvent event) throws MuleException
+        {
+            boolean exceptionWasThrown = true;
+            MuleEvent resultEvent = event;
+            try
+            {
+                resultEvent = after(event);
+                exceptionWasThrown = false;
+            }
+            finally
+            {
+                resultEvent = last(resultEvent, time, startTime, exceptionWasThrown);
+            }
+            return resultEvent;
+        }
+
+        @Override
+        protected void processException(MessagingException exception)
+        {
+            try
+            {
+                last(exception.getEvent(), time, startTime, true);
+            }
+            catch (MuleException e)
+            {
+                logger.warn("Error completing interceptor after a failure", e);
+            }
+        }
+    }
 }
@@ -36,6 +36,24 @@ public class ApplicationStatistics extends FlowConstructStatistics
         return totalEvents == 0 ? 0 : totalTime / totalEvents;
     }
 
+    @Override
+    public LatencyHistogram.Snapshot getProcessingTimeSnapshot()
+    {
+        LatencyHistogram.Snapshot snapshot = null;
+        for (FlowConstructStatistics stats : parent.getServiceStatistics())
+        {
+            if (!(stats instanceof ApplicationStatistics))
+            {
+                LatencyHistogram.Snapshot flowSnapshot = stats.getProcessingTimeSnapshot();
+                if (flowSnapshot != null)
+                {
+                    snapshot = snapshot == null ? flowSnapshot : snapshot.merge(flowSnapshot);
+                }
+            }
+        }
+        return snapshot;
+    }
+
     @Override
     public long getProcessedEvents()
     {
@@ -6,6 +6,7 @@
  */
 package org.mule.management.stats;
 
+import org.mule.api.config.MuleProperties;
 import org.mule.api.management.stats.Statistics;
 import org.mule.management.stats.printers.SimplePrinter;
 import org.mule.util.StringUtils;
@@ -34,9 +35,9 @@ public class ComponentStatistics implements Statistics
     private long executedEvent = 0;
     private long totalExecTime = 0;
     private boolean enabled = false;
-    private long intervalTime = 0;
+    protected long intervalTime = 0;
     private long currentIntervalStartTime = 0;
-    private boolean statIntervalTimeEnabled = false;
+    protected boolean statIntervalTimeEnabled = false;
 
     /**
      * The constructor added to initialize the interval time in ms that stats   
@@ -70,6 +71,20 @@ public class ComponentStatistics implements Statistics
         }
     }
 
+    /**
+     * Creates the statistics for a component or a flow. {@link HistogramComponentStatistics} are
+     * created when enabled through the {@link MuleProperties#MULE_HISTOGRAM_STATISTICS_PROPERTY}
+     * system property.
+     */
+    public static ComponentStatistics newInstance()
+    {
+        if (Boolean.getBoolean(MuleProperties.MULE_HISTOGRAM_STATISTICS_PROPERTY))
+        {
+            return new HistogramComponentStatistics();
+        }
+        return new ComponentStatistics();
+    }
+
     public void clear()
     {
         minExecutionTime = 0;
@@ -9,15 +9,34 @@ package org.mule.management.stats;
 import org.mule.api.processor.ProcessingStrategy;
 import org.mule.processor.strategy.AsynchronousProcessingStrategy;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class FlowConstructStatistics extends AbstractFlowConstructStatistics implements QueueStatistics
 {
     private static final long serialVersionUID = 5337576392583767442L;
+    /**
+     * Processing times of message processors are recorded in microseconds, up to an hour
+     */
+    private static final long MESSAGE_PROCESSOR_MAXIMUM_TIME = TimeUnit.HOURS.toMicros(1);
+    /**
+     * A flow may have many processors, so their histograms use fewer stripes than the flow one
+     */
+    private static final int MESSAGE_PROCESSOR_STRIPES = 4;
     private final AtomicLong executionError = new AtomicLong(0);
     private final AtomicLong fatalError = new AtomicLong(0);
     private int threadPoolSize = 0;
-    protected final ComponentStatistics flowStatistics = new ComponentStatistics();
+    protected final ComponentStatistics flowStatistics = ComponentStatistics.newInstance();
+    // only kept along with the processing time histograms, keyed by message processor path
+    private final ConcurrentMap<String, LatencyHistogram> messageProcessorTimes =
+            flowStatistics instanceof HistogramComponentStatistics ? new ConcurrentHashMap<String, LatencyHistogram>() : null;
     
     // these can't sensibly converted to AtomicLong as they are processed together
     // in incQueuedEvent
@@ -94,6 +113,10 @@ public class FlowConstructStatistics extends AbstractFlowConstructStatistics imp
         {
             flowStatistics.clear();
         }
+        if (messageProcessorTimes != null)
+        {
+            messageProcessorTimes.clear();
+        }
     }
 
     public void addCompleteFlowExecutionTime(long time)
@@ -131,6 +154,132 @@ public class FlowConstructStatistics extends AbstractFlowConstructStatistics imp
         return flowStatistics.getTotalExecutionTime();
     }
 
+    /**
+     * @return a view of the processing times recorded since the statistics were cleared, or null
+     *         if processing time histograms are not enabled
+     * @see org.mule.api.config.MuleProperties#MULE_HISTOGRAM_STATISTICS_PROPERTY
+     */
+    public LatencyHistogram.Snapshot getProcessingTimeSnapshot()
+    {
+        if (flowStatistics instanceof HistogramComponentStatistics)
+        {
+            return ((HistogramComponentStatistics) flowStatistics).getExecutionTimeSnapshot();
+        }
+        return null;
+    }
+
+    /**
+     * @param percentile between 0 and 100, for example 99.9
+     * @return the processing time below which the given percentage of the events fall, or 0 if
+     *         processing time histograms are not enabled
+     */
+    public long getProcessingTimePercentile(double percentile)
+    {
+        LatencyHistogram.Snapshot snapshot = getProcessingTimeSnapshot();
+        return snapshot == null ? 0 : snapshot.getPercentile(percentile);
+    }
+
+    /**
+     * @return true if the processing time of every message processor of the flow is recorded,
+     *         which happens when the statistics and processing time histograms are enabled
+     * @see org.mule.api.config.MuleProperties#MULE_HISTOGRAM_STATISTICS_PROPERTY
+     */
+    public boolean isMessageProcessorTimeEnabled()
+    {
+        return enabled && messageProcessorTimes != null;
+    }
+
+    /**
+     * Records the time taken by a message processor of the flow. Only to be called when
+     * {@link #isMessageProcessorTimeEnabled()}.
+     *
+     * @param processorPath the path of the processor in the flow
+     * @param time the processing time in microseconds
+     */
+    public void addMessageProcessorTime(String processorPath, long time)
+    {
+        LatencyHistogram histogram = messageProcessorTimes.get(processorPath);
+        if (histogram == null)
+        {
+            histogram = new LatencyHistogram(MESSAGE_PROCESSOR_MAXIMUM_TIME, MESSAGE_PROCESSOR_STRIPES);
+            LatencyHistogram existing = messageProcessorTimes.putIfAbsent(processorPath, histogram);
+            if (existing != null)
+            {
+                histogram = existing;
+            }
+        }
+        histogram.record(time);
+    }
+
+    /**
+     * @return the paths of the message processors whose processing time was recorded since the
+     *         statistics were cleared
+     */
+    public Set<String> getMessageProcessorPaths()
+    {
+        if (messageProcessorTimes == null)
+        {
+            return Collections.emptySet();
+        }
+        return new TreeSet<String>(messageProcessorTimes.keySet());
+    }
+
+    /**
+     * @return a view of the processing times in microseconds of the given message processor, or
+     *         null if nothing was recorded for it
+     */
+    public LatencyHistogram.Snapshot getMessageProcessorTimeSnapshot(String processorPath)
+    {
+        LatencyHistogram histogram = messageProcessorTimes == null ? null : messageProcessorTimes.get(processorPath);
+        return histogram == null ? null : histogram.snapshot();
+    }
+
+    /**
+     * @param percentile between 0 and 100, for example 99.9
+     * @return the processing time in microseconds below which the given percentage of the
+     *         executions of the message processor fall, or 0 if nothing was recorded for it
+     */
+    public long getMessageProcessorTimePercentile(String processorPath, double percentile)
+    {
+        LatencyHistogram.Snapshot snapshot = getMessageProcessorTimeSnapshot(processorPath);
+        return snapshot == null ? 0 : snapshot.getPercentile(percentile);
+    }
+
+    /**
+     * Takes a view of the processing times recorded since the last reset and starts recording a
+     * new interval, without resetting the rest of the statistics.
+     *
+     * @return the processing times of the interval, or null if processing time histograms are not
+     *         enabled
+     */
+    public LatencyHistogram.Snapshot snapshotAndResetProcessingTimes()
+    {
+        if (flowStatistics instanceof HistogramComponentStatistics)
+        {
+            return ((HistogramComponentStatistics) flowStatistics).snapshotAndResetExecutionTimes();
+        }
+        return null;
+    }
+
+    /**
+     * Same as {@link #snapshotAndResetProcessingTimes()} for the processing times of every message
+     * processor.
+     *
+     * @return the processing times of the interval in microseconds, sorted by processor path
+     */
+    public Map<String, LatencyHistogram.Snapshot> snapshotAndResetMessageProcessorTimes()
+    {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<String, LatencyHistogram.Snapshot>();
+        if (messageProcessorTimes != null)
+        {
+            for (Map.Entry<String, LatencyHistogram> entry : messageProcessorTimes.entrySet())
+            {
+                snapshots.put(entry.getKey(), entry.getValue().snapshotAndReset());
+            }
+        }
+        return snapshots;
+    }
+
     public long getExecutionErrors()
     {
         return executionError.get();
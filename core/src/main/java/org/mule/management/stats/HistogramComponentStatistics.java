@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.management.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ComponentStatistics} that do not lock when recording execution times and that keep a
+ * {@link LatencyHistogram} of the execution times, so percentiles can be reported in addition
+ * to the minimum, maximum and average.
+ * <p/>
+ * Counters are striped by thread and the histogram is lock free, so recording does not become a
+ * contention point when many threads process events of the same flow or component. Values are
+ * read without locking and may not reflect executions that are being recorded concurrently.
+ */
+public class HistogramComponentStatistics extends ComponentStatistics
+{
+
+    private static final long serialVersionUID = 4374726735093406546L;
+
+    private final StripedCounter executedEvents = new StripedCounter();
+    private final StripedCounter totalExecutionTime = new StripedCounter();
+    private final AtomicLong minExecutionTime = new AtomicLong();
+    private final AtomicLong maxExecutionTime = new AtomicLong();
+    private final AtomicLong currentIntervalStartTime = new AtomicLong();
+    private final LatencyHistogram executionTimes = new LatencyHistogram();
+
+    @Override
+    public void clear()
+    {
+        super.clear();
+        executedEvents.reset();
+        totalExecutionTime.reset();
+        minExecutionTime.set(0);
+        maxExecutionTime.set(0);
+        executionTimes.reset();
+    }
+
+    @Override
+    public void addExecutionBranchTime(boolean first, long branch, long total)
+    {
+        checkInterval();
+        if (first)
+        {
+            executedEvents.increment();
+        }
+        totalExecutionTime.add(ProcessingTime.getEffectiveTime(branch));
+        updateMax(ProcessingTime.getEffectiveTime(total));
+    }
+
+    @Override
+    public void addCompleteExecutionTime(long time)
+    {
+        long effectiveTime = ProcessingTime.getEffectiveTime(time);
+        updateMin(effectiveTime);
+        executionTimes.record(effectiveTime);
+    }
+
+    @Override
+    public void addExecutionTime(long time)
+    {
+        checkInterval();
+        long effectiveTime = ProcessingTime.getEffectiveTime(time);
+        executedEvents.increment();
+        totalExecutionTime.add(effectiveTime);
+        updateMin(effectiveTime);
+        updateMax(effectiveTime);
+        executionTimes.record(effectiveTime);
+    }
+
+    private void checkInterval()
+    {
+        if (statIntervalTimeEnabled)
+        {
+            long currentTime = System.currentTimeMillis();
+            long intervalStartTime = currentIntervalStartTime.get();
+            if (intervalStartTime == 0)
+            {
+                currentIntervalStartTime.compareAndSet(0, currentTime);
+            }
+            else if ((currentTime - intervalStartTime) > intervalTime
+                     && currentIntervalStartTime.compareAndSet(intervalStartTime, currentTime))
+            {
+                clear();
+            }
+        }
+    }
+
+    private void updateMin(long time)
+    {
+        long current;
+        while (((current = minExecutionTime.get()) == 0 || time < current)
+               && !minExecutionTime.compareAndSet(current, time))
+        {
+            // retry
+        }
+    }
+
+    private void updateMax(long time)
+    {
+        long current;
+        while (time > (current = maxExecutionTime.get()) && !maxExecutionTime.compareAndSet(current, time))
+        {
+            // retry
+        }
+    }
+
+    @Override
+    public long getMaxExecutionTime()
+    {
+        return maxExecutionTime.get();
+    }
+
+    @Override
+    public long getMinExecutionTime()
+    {
+        return minExecutionTime.get();
+    }
+
+    @Override
+    public long getTotalExecutionTime()
+    {
+        return totalExecutionTime.sum();
+    }
+
+    @Override
+    public long getExecutedEvents()
+    {
+        return executedEvents.sum();
+    }
+
+    @Override
+    public long getAverageExecutionTime()
+    {
+        long events = getExecutedEvents();
+        return events == 0 ? 0 : Math.round((double) getTotalExecutionTime() / events);
+    }
+
+    /**
+     * @param percentile between 0 and 100, for example 99.9
+     * @return the execution time below which the given percentage of the executions fall
+     */
+    public long getExecutionTimePercentile(double percentile)
+    {
+        return executionTimes.snapshot().getPercentile(percentile);
+    }
+
+    /**
+     * @return a consistent view of the execution times recorded since the last reset
+     */
+    public LatencyHistogram.Snapshot getExecutionTimeSnapshot()
+    {
+        return executionTimes.snapshot();
+    }
+
+    /**
+     * Takes a view of the execution times recorded since the last reset and starts recording a
+     * new interval, without affecting the other statistics.
+     */
+    public LatencyHistogram.Snapshot snapshotAndResetExecutionTimes()
+    {
+        return executionTimes.snapshotAndReset();
+    }
+}
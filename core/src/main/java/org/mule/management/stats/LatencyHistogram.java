@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.management.stats;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock free histogram of non negative latencies with bounded relative error, in the spirit
+ * of HdrHistogram.
+ * <p/>
+ * Values below {@link #LINEAR_LIMIT} are counted exactly. Larger values are grouped in buckets
+ * whose width doubles every {@link #SUB_BUCKETS} buckets, so every value is reported with an
+ * error lower than 1 / {@link #SUB_BUCKETS} of its magnitude. Values over the maximum trackable
+ * value are counted in the last bucket, although the maximum is tracked exactly.
+ * <p/>
+ * Bucket counts are striped by thread like {@link StripedCounter}, so concurrent recording does not
+ * contend even when most of the values fall in the same bucket. Stripes are only allocated once a
+ * thread records in them, and their number can be limited for histograms that are kept in large
+ * numbers.
+ */
+public class LatencyHistogram implements Serializable
+{
+
+    private static final long serialVersionUID = 2781733617766300826L;
+
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+    /**
+     * Default maximum trackable value, roughly 70 minutes when recording milliseconds
+     */
+    static final long MAXIMUM_VALUE = (1L << 22) - 1;
+
+    private final long maximumValue;
+    private final int buckets;
+    private final AtomicReferenceArray<AtomicLongArray> counts;
+    private final StripedCounter total = new StripedCounter();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    public LatencyHistogram()
+    {
+        this(MAXIMUM_VALUE, StripedCounter.STRIPES);
+    }
+
+    /**
+     * @param maximumValue highest value counted in its own bucket, larger values are counted
+     *        in the last bucket
+     * @param stripes maximum number of stripes of the bucket counts, rounded down to a power of two
+     */
+    public LatencyHistogram(long maximumValue, int stripes)
+    {
+        if (maximumValue < LINEAR_LIMIT)
+        {
+            throw new IllegalArgumentException("Maximum value must be at least " + LINEAR_LIMIT + " but was " + maximumValue);
+        }
+        this.maximumValue = maximumValue;
+        this.buckets = bucketIndex(maximumValue) + 1;
+        this.counts = new AtomicReferenceArray<AtomicLongArray>(Integer.highestOneBit(Math.max(1, Math.min(stripes, StripedCounter.STRIPES))));
+    }
+
+    /**
+     * Records a value, negative values are recorded as 0.
+     */
+    public void record(long value)
+    {
+        long recorded = Math.max(0, value);
+        stripeCounts().incrementAndGet(bucketIndex(Math.min(recorded, maximumValue)));
+        total.add(recorded);
+        updateMin(recorded);
+        updateMax(recorded);
+    }
+
+    private AtomicLongArray stripeCounts()
+    {
+        int stripe = StripedCounter.stripe() & (counts.length() - 1);
+        AtomicLongArray stripeCounts = counts.get(stripe);
+        if (stripeCounts == null)
+        {
+            counts.compareAndSet(stripe, null, new AtomicLongArray(buckets));
+            stripeCounts = counts.get(stripe);
+        }
+        return stripeCounts;
+    }
+
+    private void updateMin(long value)
+    {
+        long current;
+        while (value < (current = min.get()))
+        {
+            if (min.compareAndSet(current, value))
+            {
+                return;
+            }
+        }
+    }
+
+    private void updateMax(long value)
+    {
+        long current;
+        while (value > (current = max.get()))
+        {
+            if (max.compareAndSet(current, value))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes a snapshot of the recorded values. Values recorded while the snapshot is
+     * being taken may or may not be included.
+     */
+    public Snapshot snapshot()
+    {
+        long[] bucketCounts = new long[buckets];
+        long count = 0;
+        for (int stripe = 0; stripe < counts.length(); stripe++)
+        {
+            AtomicLongArray stripeCounts = counts.get(stripe);
+            for (int i = 0; stripeCounts != null && i < buckets; i++)
+            {
+                long bucketCount = stripeCounts.get(i);
+                bucketCounts[i] += bucketCount;
+                count += bucketCount;
+            }
+        }
+        return new Snapshot(bucketCounts, count, total.sum(), min.get(), max.get());
+    }
+
+    /**
+     * Takes a snapshot of the recorded values and resets the histogram. Values recorded while
+     * the snapshot is being taken are either included in the snapshot or kept for the next one.
+     */
+    public Snapshot snapshotAndReset()
+    {
+        long[] bucketCounts = new long[buckets];
+        long count = 0;
+        for (int stripe = 0; stripe < counts.length(); stripe++)
+        {
+            AtomicLongArray stripeCounts = counts.get(stripe);
+            for (int i = 0; stripeCounts != null && i < buckets; i++)
+            {
+                long bucketCount = stripeCounts.getAndSet(i, 0);
+                bucketCounts[i] += bucketCount;
+                count += bucketCount;
+            }
+        }
+        // total, min and max are only approximate for values recorded during the reset
+        long sum = total.sum();
+        total.add(-sum);
+        return new Snapshot(bucketCounts, count, sum, min.getAndSet(Long.MAX_VALUE), max.getAndSet(Long.MIN_VALUE));
+    }
+
+    public void reset()
+    {
+        snapshotAndReset();
+    }
+
+    static int bucketIndex(long value)
+    {
+        if (value < LINEAR_LIMIT)
+        {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * @return the highest value counted in the given bucket
+     */
+    static long bucketUpperBound(int index)
+    {
+        if (index < LINEAR_LIMIT)
+        {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * An immutable view of the values recorded by a {@link LatencyHistogram}
+     */
+    public static class Snapshot
+    {
+
+        private final long[] bucketCounts;
+        private final long count;
+        private final long total;
+        private final long min;
+        private final long max;
+
+        Snapshot(long[] bucketCounts, long count, long total, long min, long max)
+        {
+            this.bucketCounts = bucketCounts;
+            this.count = count;
+            this.total = total;
+            this.min = count == 0 ? 0 : min;
+            this.max = count == 0 ? 0 : max;
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public long getTotal()
+        {
+            return total;
+        }
+
+        public long getMin()
+        {
+            return min;
+        }
+
+        public long getMax()
+        {
+            return max;
+        }
+
+        /**
+         * @return a snapshot with the values of both this and the given snapshot, which must be
+         *         taken from a histogram with the same maximum trackable value
+         */
+        public Snapshot merge(Snapshot other)
+        {
+            if (bucketCounts.length != other.bucketCounts.length)
+            {
+                throw new IllegalArgumentException("Cannot merge snapshots of histograms with different ranges");
+            }
+            long[] mergedCounts = new long[bucketCounts.length];
+            for (int i = 0; i < mergedCounts.length; i++)
+            {
+                mergedCounts[i] = bucketCounts[i] + other.bucketCounts[i];
+            }
+            if (count == 0 || other.count == 0)
+            {
+                Snapshot nonEmpty = count == 0 ? other : this;
+                return new Snapshot(mergedCounts, nonEmpty.count, nonEmpty.total, nonEmpty.min, nonEmpty.max);
+            }
+            return new Snapshot(mergedCounts, count + other.count, total + other.total,
+                                Math.min(min, other.min), Math.max(max, other.max));
+        }
+
+        public long getMean()
+        {
+            return count == 0 ? 0 : Math.round((double) total / count);
+        }
+
+        /**
+         * @param percentile between 0 and 100, for example 99.9
+         * @return the value below which the given percentage of the recorded values fall, 0 if
+         *         nothing was recorded
+         */
+        public long getPercentile(double percentile)
+        {
+            if (percentile < 0 || percentile > 100)
+            {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100 but was " + percentile);
+            }
+            if (count == 0)
+            {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long accumulated = 0;
+            for (int i = 0; i < bucketCounts.length; i++)
+            {
+                accumulated += bucketCounts[i];
+                if (accumulated >= rank)
+                {
+                    // the last bucket also counts the values over the maximum trackable value
+                    return i == bucketCounts.length - 1 ? max : Math.max(min, Math.min(max, bucketUpperBound(i)));
+                }
+            }
+            return max;
+        }
+    }
+}
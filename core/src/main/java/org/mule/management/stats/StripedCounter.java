@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.management.stats;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that spreads updates across several cells selected by the updating thread,
+ * so concurrent updates rarely contend on the same memory location. Reading the value
+ * sums all the cells, so it is more expensive than updating it.
+ * <p/>
+ * Reads are not atomic with respect to concurrent updates, which is fine for statistics.
+ */
+class StripedCounter implements Serializable
+{
+
+    private static final long serialVersionUID = -3307453744839469349L;
+
+    /**
+     * Cells are spaced by a cache line (8 longs) to avoid false sharing
+     */
+    private static final int CELL_SPACING = 8;
+    static final int STRIPES = stripes();
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * CELL_SPACING);
+
+    public void add(long value)
+    {
+        cells.addAndGet(stripe() * CELL_SPACING, value);
+    }
+
+    public void increment()
+    {
+        add(1);
+    }
+
+    public long sum()
+    {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++)
+        {
+            sum += cells.get(i * CELL_SPACING);
+        }
+        return sum;
+    }
+
+    public void reset()
+    {
+        for (int i = 0; i < STRIPES; i++)
+        {
+            cells.set(i * CELL_SPACING, 0);
+        }
+    }
+
+    /**
+     * @return the stripe assigned to the current thread, always in [0, {@link #STRIPES})
+     */
+    static int stripe()
+    {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+    }
+
+    private static int stripes()
+    {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return Math.min(16, Integer.highestOneBit(Math.max(1, processors - 1)) << 1);
+    }
+}
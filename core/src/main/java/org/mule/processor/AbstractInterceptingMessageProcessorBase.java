@@ -6,6 +6,7 @@
  */
 package org.mule.processor;
 
+import org.mule.DefaultMuleEvent;
 import org.mule.VoidMuleEvent;
 import org.mule.api.AnnotatedObject;
 import org.mule.api.MessagingException;
@@ -19,6 +20,8 @@ import org.mule.api.processor.MessageProcessor;
 import org.mule.api.processor.MessageProcessorChain;
 import org.mule.api.processor.MessageProcessorContainer;
 import org.mule.api.processor.MessageProcessorPathElement;
+import org.mule.api.processor.NonBlockingMessageProcessor;
+import org.mule.api.transport.NonBlockingReplyToHandler;
 import org.mule.execution.MessageProcessorExecutionTemplate;
 import org.mule.util.NotificationUtils;
 import org.mule.util.ObjectUtils;
@@ -84,7 +87,7 @@ public abstract class AbstractInterceptingMessageProcessorBase
             }
             return null;
         }
-        else if (VoidMuleEvent.getInstance().equals(event))
+        else if (event instanceof VoidMuleEvent)
         {
             return event;
         }
@@ -95,6 +98,12 @@ public abstract class AbstractInterceptingMessageProcessorBase
                 logger.trace("Invoking next MessageProcessor: '" + next.getClass().getName() + "' ");
             }
 
+            if (event.getReplyToHandler() instanceof NonBlockingReplyToHandler && !(next instanceof NonBlockingMessageProcessor))
+            {
+                // Only non-blocking processors may complete the event asynchronously
+                event = new DefaultMuleEvent(event, event.getFlowConstruct(), null, event.getReplyToDestination());
+            }
+
             MessageProcessorExecutionTemplate executionTemplateToUse = (!(next instanceof MessageProcessorChain)) ? messageProcessorExecutorWithNotifications : messageProcessorExecutorWithoutNotifications;
 
             try
@@ -136,9 +145,20 @@ public abstract class AbstractInterceptingMessageProcessorBase
         annotations.putAll(newAnnotations);
     }
 
+    /**
+     * @return true if the processors that follow this one may complete the event asynchronously, in
+     *         which case {@link #processNext(MuleEvent)} returns a {@link org.mule.NonBlockingVoidMuleEvent}
+     *         and the result is notified to the reply-to handler of the event. Only intercepting
+     *         processors that are {@link NonBlockingMessageProcessor}s get such events.
+     */
+    protected boolean isNonBlocking(MuleEvent event)
+    {
+        return event.getReplyToHandler() instanceof NonBlockingReplyToHandler && next instanceof NonBlockingMessageProcessor;
+    }
+
     protected boolean isEventValid(MuleEvent event)
     {
-        return event != null && !VoidMuleEvent.getInstance().equals(event);
+        return event != null && !(event instanceof VoidMuleEvent);
     }
 
     @Override
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.processor;
+
+import org.mule.VoidMuleEvent;
+import org.mule.api.MessagingException;
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleException;
+import org.mule.api.MuleMessage;
+import org.mule.api.processor.NonBlockingMessageProcessor;
+import org.mule.api.transport.NonBlockingReplyToHandler;
+
+/**
+ * {@link NonBlockingReplyToHandler} used by intercepting {@link NonBlockingMessageProcessor}s to apply
+ * their response processing once the processors they intercept complete asynchronously, before
+ * notifying the result to the reply-to handler of the intercepted event.
+ */
+public abstract class NonBlockingResponseReplyToHandler implements NonBlockingReplyToHandler
+{
+
+    private final NonBlockingReplyToHandler replyToHandler;
+
+    public NonBlockingResponseReplyToHandler(NonBlockingReplyToHandler replyToHandler)
+    {
+        this.replyToHandler = replyToHandler;
+    }
+
+    @Override
+    public void processReplyTo(MuleEvent event, MuleMessage returnMessage, Object replyTo) throws MuleException
+    {
+        MuleEvent response;
+        try
+        {
+            response = processResponse(event);
+        }
+        catch (MessagingException e)
+        {
+            replyToHandler.processExceptionReplyTo(e, replyTo);
+            return;
+        }
+        catch (MuleException e)
+        {
+            replyToHandler.processExceptionReplyTo(new MessagingException(event, e), replyTo);
+            return;
+        }
+
+        replyToHandler.processReplyTo(response, response != null && !(response instanceof VoidMuleEvent) ? response.getMessage() : null, replyTo);
+    }
+
+    @Override
+    public void processExceptionReplyTo(MessagingException exception, Object replyTo)
+    {
+        processException(exception);
+        replyToHandler.processExceptionReplyTo(exception, replyTo);
+    }
+
+    /**
+     * Applies the response processing to the result of the intercepted processors.
+     */
+    protected abstract MuleEvent processResponse(MuleEvent event) throws MuleException;
+
+    /**
+     * Applies the response processing when the intercepted processors fail. The exception is then
+     * notified as is.
+     */
+    protected abstract void processException(MessagingException exception);
+}
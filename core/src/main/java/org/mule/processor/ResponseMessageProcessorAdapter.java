@@ -54,7 +54,7 @@ public class ResponseMessageProcessorAdapter extends AbstractResponseMessageProc
         {
             MuleEvent copy = (MuleEvent) ((ThreadSafeAccess) event).newThreadCopy();
             MuleEvent result = responseProcessor.process(event);
-            if (result == null || VoidMuleEvent.getInstance().equals(result))
+            if (result == null || result instanceof VoidMuleEvent)
             {
                 // If <response> returns null then it acts as an implicit branch like in flows, the different
                 // here is that what's next, it's not another message processor that follows this one in the
@@ -6,22 +6,27 @@
  */
 package org.mule.processor.chain;
 
+import org.mule.DefaultMuleEvent;
 import org.mule.MessageExchangePattern;
+import org.mule.NonBlockingVoidMuleEvent;
 import org.mule.OptimizedRequestContext;
 import org.mule.VoidMuleEvent;
 import org.mule.api.MessagingException;
 import org.mule.api.MuleContext;
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleException;
+import org.mule.api.MuleMessage;
 import org.mule.api.component.Component;
 import org.mule.api.construct.FlowConstruct;
 import org.mule.api.construct.Pipeline;
 import org.mule.api.endpoint.OutboundEndpoint;
 import org.mule.api.processor.MessageProcessor;
 import org.mule.api.processor.MessageProcessorChain;
+import org.mule.api.processor.NonBlockingMessageProcessor;
 import org.mule.api.processor.RequestReplyReplierMessageProcessor;
 import org.mule.api.service.Service;
 import org.mule.api.transformer.Transformer;
+import org.mule.api.transport.NonBlockingReplyToHandler;
 import org.mule.construct.Flow;
 import org.mule.execution.MessageProcessorExecutionTemplate;
 import org.mule.routing.MessageFilter;
@@ -31,7 +36,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
-public class DefaultMessageProcessorChain extends AbstractMessageProcessorChain
+public class DefaultMessageProcessorChain extends AbstractMessageProcessorChain implements NonBlockingMessageProcessor
 {
     protected MessageProcessorExecutionTemplate messageProcessorExecutionTemplate = MessageProcessorExecutionTemplate.createExecutionTemplate();
 
@@ -72,45 +77,107 @@ public class DefaultMessageProcessorChain extends AbstractMessageProcessorChain
 
     protected MuleEvent doProcess(MuleEvent event) throws MuleException
     {
-        if (event.getMuleContext() != null
-            && event.getMuleContext().getConfiguration().isFlowEndingWithOneWayEndpointReturnsNull())
+        boolean flowEndingWithOneWayEndpointReturnsNull = event.getMuleContext() != null
+                                                          && event.getMuleContext().getConfiguration().isFlowEndingWithOneWayEndpointReturnsNull();
+        NonBlockingReplyToHandler nonBlockingReplyToHandler = null;
+        if (event.getReplyToHandler() instanceof NonBlockingReplyToHandler)
+        {
+            if (flowEndingWithOneWayEndpointReturnsNull || event.getFlowConstruct() instanceof Service)
+            {
+                // Non-blocking processing is only supported by the default implementation for flows
+                event = new DefaultMuleEvent(event, event.getFlowConstruct(), null, event.getReplyToDestination());
+            }
+            else
+            {
+                nonBlockingReplyToHandler = (NonBlockingReplyToHandler) event.getReplyToHandler();
+            }
+        }
+
+        if (flowEndingWithOneWayEndpointReturnsNull)
         {
             return doProcessFlowEndingWithOneWayEndpointReturnsNull(event);
         }
         else
         {
-            FlowConstruct flowConstruct = event.getFlowConstruct();
-            boolean flowConstructIsNotAService = !(flowConstruct instanceof Service);
-            MuleEvent copy = null;
-            
-            for (int i = 0; i < processors.size(); i++)
-            {
-                MessageProcessor processor = processors.get(i);
-                if (flowConstructIsNotAService && processorMayReturnNull(processor))
+            return doProcess(event, 0, nonBlockingReplyToHandler);
+        }
+    }
+
+    /**
+     * Processes the event with the processors of this chain starting from the given index. When a
+     * {@link NonBlockingReplyToHandler} is given, {@link NonBlockingMessageProcessor}s can complete
+     * asynchronously: the rest of the chain is then processed once their result is available, and
+     * the final result is notified to that handler.
+     */
+    private MuleEvent doProcess(MuleEvent event, int firstProcessorIndex, NonBlockingReplyToHandler nonBlockingReplyToHandler) throws MessagingException
+    {
+        FlowConstruct flowConstruct = event.getFlowConstruct();
+        boolean flowConstructIsNotAService = !(flowConstruct instanceof Service);
+        MuleEvent copy = null;
+
+        for (int i = firstProcessorIndex; i < processors.size(); i++)
+        {
+            MessageProcessor processor = processors.get(i);
+            if (flowConstructIsNotAService && processorMayReturnNull(processor))
+            {
+                copy = OptimizedRequestContext.criticalSetEvent(event);
+            }
+
+            if (nonBlockingReplyToHandler != null)
+            {
+                event = messageProcessorExecutionTemplate.execute(processor, createNonBlockingEvent(event, processor, i, nonBlockingReplyToHandler));
+                if (event instanceof NonBlockingVoidMuleEvent)
                 {
-                    copy = OptimizedRequestContext.criticalSetEvent(event);
+                    // The rest of the chain is processed by the continuation once the processor completes
+                    return event;
                 }
-
+            }
+            else
+            {
                 event = messageProcessorExecutionTemplate.execute(processor, event);
+            }
 
-                if (VoidMuleEvent.getInstance().equals(event))
+            if (VoidMuleEvent.getInstance().equals(event))
+            {
+                if (flowConstructIsNotAService)
                 {
-                    if (flowConstructIsNotAService)
-                    {
-                        event = copy;
-                    }
-                    else
-                    {
-                        // But in a service we don't do any implicit branching.
-                        return null;
-                    }
+                    event = copy;
                 }
-                else if (event == null)
+                else
                 {
+                    // But in a service we don't do any implicit branching.
                     return null;
                 }
             }
-            return event;
+            else if (event == null)
+            {
+                return null;
+            }
+
+            if (nonBlockingReplyToHandler != null && event.getReplyToHandler() != nonBlockingReplyToHandler)
+            {
+                event = new DefaultMuleEvent(event, event.getFlowConstruct(), nonBlockingReplyToHandler, event.getReplyToDestination());
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Only non-blocking processors, which get a continuation of this chain, are allowed to complete
+     * asynchronously. The rest of processors may use the result of nested processors, or process the
+     * response of the processors they intercept, so they get an event without the non-blocking handler.
+     */
+    private MuleEvent createNonBlockingEvent(MuleEvent event, MessageProcessor processor, int processorIndex, NonBlockingReplyToHandler nonBlockingReplyToHandler)
+    {
+        if (processor instanceof NonBlockingMessageProcessor)
+        {
+            return new DefaultMuleEvent(event, event.getFlowConstruct(),
+                                        new ChainContinuationReplyToHandler(processorIndex + 1, nonBlockingReplyToHandler),
+                                        event.getReplyToDestination());
+        }
+        else
+        {
+            return new DefaultMuleEvent(event, event.getFlowConstruct(), null, event.getReplyToDestination());
         }
     }
 
@@ -214,4 +281,48 @@ public class DefaultMessageProcessorChain extends AbstractMessageProcessorChain
     {
         super.setMuleContext(context);
     }
+
+    /**
+     * Resumes the processing of the chain after the processor at the previous index completed
+     * asynchronously.
+     */
+    private class ChainContinuationReplyToHandler implements NonBlockingReplyToHandler
+    {
+
+        private final int nextProcessorIndex;
+        private final NonBlockingReplyToHandler replyToHandler;
+
+        private ChainContinuationReplyToHandler(int nextProcessorIndex, NonBlockingReplyToHandler replyToHandler)
+        {
+            this.nextProcessorIndex = nextProcessorIndex;
+            this.replyToHandler = replyToHandler;
+        }
+
+        @Override
+        public void processReplyTo(MuleEvent event, MuleMessage returnMessage, Object replyTo) throws MuleException
+        {
+            MuleEvent result;
+            try
+            {
+                OptimizedRequestContext.unsafeSetEvent(event);
+                result = doProcess(event, nextProcessorIndex, replyToHandler);
+            }
+            catch (MessagingException e)
+            {
+                replyToHandler.processExceptionReplyTo(e, replyTo);
+                return;
+            }
+
+            if (!(result instanceof NonBlockingVoidMuleEvent))
+            {
+                replyToHandler.processReplyTo(result, result != null ? result.getMessage() : null, replyTo);
+            }
+        }
+
+        @Override
+        public void processExceptionReplyTo(MessagingException exception, Object replyTo)
+        {
+            replyToHandler.processExceptionReplyTo(exception, replyTo);
+        }
+    }
 }
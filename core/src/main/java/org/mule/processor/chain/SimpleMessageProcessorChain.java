@@ -6,10 +6,12 @@
  */
 package org.mule.processor.chain;
 
+import org.mule.DefaultMuleEvent;
 import org.mule.VoidMuleEvent;
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleException;
 import org.mule.api.processor.MessageProcessor;
+import org.mule.api.transport.NonBlockingReplyToHandler;
 
 import java.util.List;
 
@@ -37,6 +39,12 @@ public class SimpleMessageProcessorChain extends DefaultMessageProcessorChain
 
     protected MuleEvent doProcess(MuleEvent event) throws MuleException
     {
+        if (event.getReplyToHandler() instanceof NonBlockingReplyToHandler)
+        {
+            // Processors of this chain are always invoked synchronously
+            event = new DefaultMuleEvent(event, event.getFlowConstruct(), null, event.getReplyToDestination());
+        }
+
         for (int i = 0; i < processors.size(); i++)
         {
             MessageProcessor processor = processors.get(i);
@@ -37,6 +37,7 @@ import org.mule.util.StringMessageUtils;
 import org.mule.util.concurrent.ThreadNameHelper;
 import org.mule.util.monitor.Expirable;
 import org.mule.util.monitor.ExpiryMonitor;
+import org.mule.util.monitor.TimerWheel;
 import org.mule.util.store.DeserializationPostInitialisable;
 
 import java.io.Serializable;
@@ -48,6 +49,14 @@ import java.util.concurrent.TimeUnit;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+/**
+ * Correlates events in {@link EventGroup}s and aggregates each group once it is complete.
+ * <p/>
+ * Groups are guarded by a lock chosen by hashing the group id among {@link #GROUP_LOCKS} locks,
+ * so events of different groups are usually correlated in parallel. Group timeouts are tracked
+ * in a {@link TimerWheel}, so groups that are waiting for more events cost nothing to the
+ * expiry thread until their deadline is reached.
+ */
 public class EventCorrelator implements Startable, Stoppable, Disposable
 {
 
@@ -62,6 +71,19 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
 
     private static final long ONE_DAY_IN_MILLI = 1000 * 60 * 60 * 24;
 
+    /**
+     * Number of locks among which the event groups are spread, a power of two
+     */
+    public static final int GROUP_LOCKS = 256;
+
+    private static final int EXPIRY_TICKS_PER_WHEEL = 512;
+
+    /**
+     * How often the groups in the store are checked for groups whose timeout is not being
+     * tracked, like groups recovered from a persistent store or created by another node
+     */
+    private static final long UNTRACKED_GROUPS_CHECK_INTERVAL = 1000 * 60;
+
     protected long groupTimeToLive = ONE_DAY_IN_MILLI;
 
     /**
@@ -71,11 +93,16 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
      */
     protected ListableObjectStore<EventGroup> eventGroups;
 
-    protected final Object groupsLock = new Object();
+    private final Object[] groupLocks = new Object[GROUP_LOCKS];
 
-    // @GuardedBy groupsLock
     protected ObjectStore<Long> processedGroups = null;
 
+    /**
+     * Deadlines of the groups being correlated, only used when there is a timeout
+     */
+    private final TimerWheel<Serializable> groupDeadlines = new TimerWheel<Serializable>(
+            ExpiringGroupMonitoringThread.DELAY_TIME, EXPIRY_TICKS_PER_WHEEL);
+
     private long timeout = -1; // undefined
 
     private boolean failOnTimeout = true;
@@ -140,6 +167,22 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
                                                                                           + ".eventGroups",
                                                                                           persistentStores);
         this.flowConstruct = flowConstruct;
+        for (int i = 0; i < groupLocks.length; i++)
+        {
+            groupLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * @return the lock guarding the group with the given id
+     */
+    protected Object getGroupLock(Object groupId)
+    {
+        int hash = groupId.hashCode();
+        // spread the high bits, as done by HashMap, since ids often differ only in their suffix
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        hash ^= (hash >>> 7) ^ (hash >>> 4);
+        return groupLocks[hash & (GROUP_LOCKS - 1)];
     }
 
     public void forceGroupExpiry(String groupId) throws MessagingException
@@ -223,12 +266,15 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
             }
 
             // does the group exist?
+            boolean groupCreated = false;
             if (group == null)
             {
                 // ..apparently not, so create a new one & add it
                 try
                 {
-                    group = this.addEventGroup(callback.createEventGroup(event, groupId));
+                    EventGroup newGroup = callback.createEventGroup(event, groupId);
+                    group = this.addEventGroup(newGroup);
+                    groupCreated = group == newGroup;
                 }
                 catch (ObjectStoreException e)
                 {
@@ -237,8 +283,27 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
             }
 
             // ensure that only one thread at a time evaluates this EventGroup
-            synchronized (groupsLock)
+            synchronized (getGroupLock(groupId))
             {
+                try
+                {
+                    if (isGroupAlreadyProcessed(groupId))
+                    {
+                        if (groupCreated)
+                        {
+                            // the previous group was removed right after it was looked up, so nobody else
+                            // will remove the one created here
+                            discardEventGroup(group);
+                        }
+                        // the group was aggregated or expired after it was looked up, so start over
+                        continue;
+                    }
+                }
+                catch (ObjectStoreException e)
+                {
+                    throw new RoutingException(event, timeoutMessageProcessor, e);
+                }
+
                 if (logger.isDebugEnabled())
                 {
                     logger.debug("Adding event to aggregator group: " + groupId);
@@ -317,6 +382,7 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
         try
         {
             eventGroups.store((Serializable) group.getGroupId(), group);
+            scheduleGroupExpiry(group);
             return group;
         }
         catch (ObjectAlreadyExistsException e)
@@ -325,29 +391,54 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
         }
     }
 
+    /**
+     * The group is marked as processed before it is removed, so that events that arrive meanwhile are dropped
+     * instead of creating a new group.
+     */
     protected void removeEventGroup(EventGroup group) throws ObjectStoreException
     {
         final Object groupId = group.getGroupId();
-        eventGroups.remove((Serializable) groupId);
         addProcessedGroup(groupId);
+        eventGroups.remove((Serializable) groupId);
+        groupDeadlines.cancel((Serializable) groupId);
     }
 
-    protected void addProcessedGroup(Object id) throws ObjectStoreException
+    private void discardEventGroup(EventGroup group) throws ObjectStoreException
     {
-        synchronized (groupsLock)
+        final Serializable groupId = (Serializable) group.getGroupId();
+        try
         {
-            processedGroups.store((Serializable) id, System.currentTimeMillis());
+            eventGroups.remove(groupId);
         }
+        catch (ObjectDoesNotExistException e)
+        {
+            // already discarded
+        }
+        groupDeadlines.cancel(groupId);
+        group.clear();
     }
 
-    protected boolean isGroupAlreadyProcessed(Object id) throws ObjectStoreException
+    private void scheduleGroupExpiry(EventGroup group)
     {
-        synchronized (groupsLock)
+        if (timeout != 0)
         {
-            return processedGroups.contains((Serializable) id);
+            groupDeadlines.schedule((Serializable) group.getGroupId(), group.getCreated() + timeout);
         }
     }
 
+    /**
+     * The processed groups store is bounded and thread safe, so it does not need a lock
+     */
+    protected void addProcessedGroup(Object id) throws ObjectStoreException
+    {
+        processedGroups.store((Serializable) id, System.currentTimeMillis());
+    }
+
+    protected boolean isGroupAlreadyProcessed(Object id) throws ObjectStoreException
+    {
+        return processedGroups.contains((Serializable) id);
+    }
+
     public boolean isFailOnTimeout()
     {
         return failOnTimeout;
@@ -488,6 +579,7 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
 
         private ExpiryMonitor expiryMonitor;
         public static final long DELAY_TIME = 10;
+        private long lastUntrackedGroupsCheck = 0;
 
         public ExpiringGroupMonitoringThread()
         {
@@ -536,21 +628,29 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
                 return;
             }
 
+            long now = System.currentTimeMillis();
+            if (now - lastUntrackedGroupsCheck >= UNTRACKED_GROUPS_CHECK_INTERVAL)
+            {
+                trackUntrackedGroups();
+                lastUntrackedGroupsCheck = now;
+            }
+
             List<EventGroup> expired = new ArrayList<EventGroup>(1);
-            try
+            for (Serializable groupId : groupDeadlines.advance(now))
             {
-                for (Serializable o : eventGroups.allKeys())
+                try
                 {
-                    EventGroup group = getEventGroup(o);
-                    if (group.getCreated() + getTimeout() < System.currentTimeMillis())
+                    EventGroup group = getEventGroup(groupId);
+                    // the group may have been completed right after its deadline was reached
+                    if (group != null)
                     {
                         expired.add(group);
                     }
                 }
-            }
-            catch (ObjectStoreException e)
-            {
-                logger.warn("expiry failed dues to ObjectStoreException " + e);
+                catch (ObjectStoreException e)
+                {
+                    logger.warn("expiry failed dues to ObjectStoreException " + e);
+                }
             }
             if (expired.size() > 0)
             {
@@ -582,6 +682,32 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
             }
         }
 
+        /**
+         * Tracks the deadline of the groups in the store that were not created through this
+         * correlator
+         */
+        private void trackUntrackedGroups()
+        {
+            try
+            {
+                for (Serializable groupId : eventGroups.allKeys())
+                {
+                    if (!groupDeadlines.isScheduled(groupId))
+                    {
+                        EventGroup group = getEventGroup(groupId);
+                        if (group != null)
+                        {
+                            scheduleGroupExpiry(group);
+                        }
+                    }
+                }
+            }
+            catch (ObjectStoreException e)
+            {
+                logger.warn("expiry failed dues to ObjectStoreException " + e);
+            }
+        }
+
         @Override
         public void dispose()
         {
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.serialization;
+
+import org.mule.api.MuleContext;
+import org.mule.api.context.MuleContextAware;
+import org.mule.api.serialization.ObjectSerializer;
+import org.mule.api.serialization.SerializationException;
+import org.mule.config.i18n.CoreMessages;
+import org.mule.util.Preconditions;
+import org.mule.util.store.DeserializationPostInitialisable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.output.ByteArrayOutputStream;
+
+/**
+ * Base class for {@link ObjectSerializer} implementations. Validates the arguments,
+ * resolves the default class loader from the {@link MuleContext}, initialises
+ * {@link DeserializationPostInitialisable} objects and translates failures into
+ * {@link SerializationException}.
+ *
+ * @since 3.7.0
+ */
+public abstract class AbstractObjectSerializer implements ObjectSerializer, MuleContextAware
+{
+
+    protected MuleContext muleContext;
+
+    @Override
+    public byte[] serialize(Object object) throws SerializationException
+    {
+        try
+        {
+            return doSerialize(object);
+        }
+        catch (SerializationException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new SerializationException(CoreMessages.createStaticMessage("Could not serialize object"), e);
+        }
+    }
+
+    @Override
+    public void serialize(Object object, OutputStream out) throws SerializationException
+    {
+        Preconditions.checkArgument(out != null, "The OutputStream must not be null");
+        try
+        {
+            doSerialize(object, out);
+        }
+        catch (SerializationException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new SerializationException(CoreMessages.createStaticMessage("Could not serialize object"), e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes) throws SerializationException
+    {
+        return deserialize(bytes, getExecutionClassLoader());
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, ClassLoader classLoader) throws SerializationException
+    {
+        Preconditions.checkArgument(bytes != null, "The byte[] must not be null");
+        return deserialize(new ByteArrayInputStream(bytes), classLoader);
+    }
+
+    @Override
+    public <T> T deserialize(InputStream inputStream) throws SerializationException
+    {
+        return deserialize(inputStream, getExecutionClassLoader());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(InputStream inputStream, ClassLoader classLoader) throws SerializationException
+    {
+        Preconditions.checkArgument(inputStream != null, "The InputStream must not be null");
+        Preconditions.checkArgument(classLoader != null, "The ClassLoader must not be null");
+        try
+        {
+            Object object = doDeserialize(inputStream, classLoader);
+            if (object instanceof DeserializationPostInitialisable)
+            {
+                DeserializationPostInitialisable.Implementation.init(object, muleContext);
+            }
+            return (T) object;
+        }
+        catch (SerializationException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new SerializationException(CoreMessages.createStaticMessage("Could not deserialize object"), e);
+        }
+        finally
+        {
+            try
+            {
+                inputStream.close();
+            }
+            catch (IOException e)
+            {
+                // ignore close exception
+            }
+        }
+    }
+
+    /**
+     * Serializes the given object into an array of bytes. The default implementation
+     * serializes into a new in memory stream.
+     */
+    protected byte[] doSerialize(Object object) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doSerialize(object, out);
+        return out.toByteArray();
+    }
+
+    protected abstract void doSerialize(Object object, OutputStream out) throws Exception;
+
+    protected abstract Object doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception;
+
+    private ClassLoader getExecutionClassLoader()
+    {
+        Preconditions.checkState(muleContext != null, "The MuleContext must be set before deserializing without a ClassLoader");
+        return muleContext.getExecutionClassLoader();
+    }
+
+    @Override
+    public void setMuleContext(MuleContext context)
+    {
+        this.muleContext = context;
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.serialization;
+
+import org.mule.DefaultMuleEvent;
+import org.mule.DefaultMuleMessage;
+import org.mule.MessageExchangePattern;
+import org.mule.MessagePropertiesContext;
+import org.mule.api.transport.PropertyScope;
+import org.mule.session.DefaultMuleSession;
+import org.mule.transformer.types.SimpleDataType;
+import org.mule.transport.NullPayload;
+import org.mule.util.CaseInsensitiveHashMap;
+import org.mule.util.CopyOnWriteCaseInsensitiveMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link org.mule.api.serialization.ObjectSerializer} producing a compact representation of
+ * {@link Serializable} objects.
+ * <p/>
+ * Strings, byte arrays and boxed primitives are written directly with a one byte type tag.
+ * Any other object is written with java serialization but, instead of the full class
+ * descriptor, only an id is written for registered classes and only the class name and its
+ * serialVersionUID for the rest. When reading, descriptors are resolved from the local classes.
+ * This drastically reduces the size of serialized messages and events, whose object graph
+ * contains many small classes, and the time spent writing and parsing their descriptors.
+ * Buffers used for serializing into arrays of bytes are reused per thread.
+ * <p/>
+ * Since descriptors are resolved from the local classes, data can only be read if the classes
+ * are compatible with the ones used to write it, and the serializer reading the data must have
+ * the same {@link #setRegisteredClasses(java.util.List) registered classes}, in the same order,
+ * as the one that wrote it. Stores written with a different serializer can not be read.
+ *
+ * @since 3.7.0
+ */
+public class CompactObjectSerializer extends AbstractObjectSerializer
+{
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BYTE_ARRAY = 2;
+    private static final byte INTEGER = 3;
+    private static final byte LONG = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte OBJECT = 6;
+
+    private static final byte REGISTERED_CLASS = 1;
+    private static final byte UNREGISTERED_CLASS = 2;
+
+    private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+    private static final int MAXIMUM_REUSED_BUFFER_SIZE = 1024 * 1024;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final List<Class<?>> DEFAULT_REGISTERED_CLASSES = Collections.unmodifiableList(Arrays.<Class<?>>asList(
+            String.class, Integer.class, Long.class, Boolean.class, Number.class, Date.class, byte[].class, Object[].class,
+            ArrayList.class, LinkedList.class, HashMap.class, LinkedHashMap.class, TreeMap.class, HashSet.class,
+            ConcurrentHashMap.class, CaseInsensitiveHashMap.class, CopyOnWriteCaseInsensitiveMap.class,
+            DefaultMuleMessage.class, MessagePropertiesContext.class, DefaultMuleEvent.class, DefaultMuleSession.class,
+            MessageExchangePattern.class, PropertyScope.class, SimpleDataType.class, NullPayload.class));
+
+    private final ThreadLocal<ReusableByteArrayOutputStream> buffers = new ThreadLocal<ReusableByteArrayOutputStream>()
+    {
+        @Override
+        protected ReusableByteArrayOutputStream initialValue()
+        {
+            return new ReusableByteArrayOutputStream();
+        }
+    };
+
+    private volatile List<Class<?>> registeredClasses = DEFAULT_REGISTERED_CLASSES;
+    private volatile Map<Class<?>, Integer> registeredClassIds = indexClasses(DEFAULT_REGISTERED_CLASSES);
+
+    /**
+     * Registers additional classes so only an id is written to identify them. Registered
+     * classes must be the same, and registered in the same order, when reading the
+     * serialized data.
+     *
+     * @param classes classes to register in addition to the default ones
+     */
+    public void setRegisteredClasses(List<Class<?>> classes)
+    {
+        List<Class<?>> allClasses = new ArrayList<Class<?>>(DEFAULT_REGISTERED_CLASSES);
+        allClasses.addAll(classes);
+        this.registeredClassIds = indexClasses(allClasses);
+        this.registeredClasses = Collections.unmodifiableList(allClasses);
+    }
+
+    public List<Class<?>> getRegisteredClasses()
+    {
+        return registeredClasses;
+    }
+
+    private static Map<Class<?>, Integer> indexClasses(List<Class<?>> classes)
+    {
+        Map<Class<?>, Integer> ids = new HashMap<Class<?>, Integer>();
+        for (int i = 0; i < classes.size(); i++)
+        {
+            ids.put(classes.get(i), i);
+        }
+        return ids;
+    }
+
+    @Override
+    protected byte[] doSerialize(Object object) throws Exception
+    {
+        ReusableByteArrayOutputStream buffer = buffers.get();
+        buffer.reset();
+        doSerialize(object, buffer);
+        byte[] bytes = buffer.toByteArray();
+        if (buffer.capacity() > MAXIMUM_REUSED_BUFFER_SIZE)
+        {
+            buffers.remove();
+        }
+        return bytes;
+    }
+
+    @Override
+    protected void doSerialize(Object object, OutputStream out) throws Exception
+    {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        if (object == null)
+        {
+            dataOut.writeByte(NULL);
+        }
+        else if (object instanceof String)
+        {
+            byte[] bytes = ((String) object).getBytes(UTF_8);
+            dataOut.writeByte(STRING);
+            dataOut.writeInt(bytes.length);
+            dataOut.write(bytes);
+        }
+        else if (object instanceof byte[])
+        {
+            byte[] bytes = (byte[]) object;
+            dataOut.writeByte(BYTE_ARRAY);
+            dataOut.writeInt(bytes.length);
+            dataOut.write(bytes);
+        }
+        else if (object instanceof Integer)
+        {
+            dataOut.writeByte(INTEGER);
+            dataOut.writeInt((Integer) object);
+        }
+        else if (object instanceof Long)
+        {
+            dataOut.writeByte(LONG);
+            dataOut.writeLong((Long) object);
+        }
+        else if (object instanceof Boolean)
+        {
+            dataOut.writeByte(BOOLEAN);
+            dataOut.writeBoolean((Boolean) object);
+        }
+        else
+        {
+            dataOut.writeByte(OBJECT);
+            ObjectOutputStream objectOut = new CompactObjectOutputStream(dataOut, registeredClassIds);
+            objectOut.writeObject(object);
+            objectOut.flush();
+        }
+        dataOut.flush();
+    }
+
+    @Override
+    protected Object doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception
+    {
+        DataInputStream dataIn = new DataInputStream(inputStream);
+        byte type = dataIn.readByte();
+        switch (type)
+        {
+            case NULL:
+                return null;
+            case STRING:
+                return new String(readBytes(dataIn), UTF_8);
+            case BYTE_ARRAY:
+                return readBytes(dataIn);
+            case INTEGER:
+                return dataIn.readInt();
+            case LONG:
+                return dataIn.readLong();
+            case BOOLEAN:
+                return dataIn.readBoolean();
+            case OBJECT:
+                return new CompactObjectInputStream(dataIn, classLoader, registeredClasses).readObject();
+            default:
+                throw new StreamCorruptedException("Unknown serialized type " + type);
+        }
+    }
+
+    private byte[] readBytes(DataInputStream dataIn) throws IOException
+    {
+        int length = dataIn.readInt();
+        if (length < 0)
+        {
+            throw new EOFException();
+        }
+        byte[] bytes = new byte[length];
+        dataIn.readFully(bytes);
+        return bytes;
+    }
+
+    private static class CompactObjectOutputStream extends ObjectOutputStream
+    {
+
+        private final Map<Class<?>, Integer> registeredClassIds;
+
+        CompactObjectOutputStream(OutputStream out, Map<Class<?>, Integer> registeredClassIds) throws IOException
+        {
+            super(out);
+            this.registeredClassIds = registeredClassIds;
+        }
+
+        @Override
+        protected void writeStreamHeader() throws IOException
+        {
+            // type tag already identifies the stream
+        }
+
+        @Override
+        protected void writeClassDescriptor(ObjectStreamClass descriptor) throws IOException
+        {
+            Integer id = registeredClassIds.get(descriptor.forClass());
+            if (id != null)
+            {
+                writeByte(REGISTERED_CLASS);
+                writeShort(id);
+            }
+            else
+            {
+                writeByte(UNREGISTERED_CLASS);
+                writeUTF(descriptor.getName());
+                writeLong(descriptor.getSerialVersionUID());
+            }
+        }
+    }
+
+    private static class CompactObjectInputStream extends ObjectInputStream
+    {
+
+        private final ClassLoader classLoader;
+        private final List<Class<?>> registeredClasses;
+
+        CompactObjectInputStream(InputStream in, ClassLoader classLoader, List<Class<?>> registeredClasses) throws IOException
+        {
+            super(in);
+            this.classLoader = classLoader;
+            this.registeredClasses = registeredClasses;
+        }
+
+        @Override
+        protected void readStreamHeader() throws IOException
+        {
+            // no header is written
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException
+        {
+            byte type = readByte();
+            if (type == REGISTERED_CLASS)
+            {
+                int id = readUnsignedShort();
+                if (id >= registeredClasses.size())
+                {
+                    throw new InvalidClassException("Unknown registered class id " + id);
+                }
+                return ObjectStreamClass.lookupAny(registeredClasses.get(id));
+            }
+            else if (type == UNREGISTERED_CLASS)
+            {
+                String className = readUTF();
+                long serialVersionUID = readLong();
+                ObjectStreamClass descriptor = ObjectStreamClass.lookupAny(Class.forName(className, false, classLoader));
+                if (descriptor.getSerialVersionUID() != serialVersionUID)
+                {
+                    throw new InvalidClassException(className, "local class incompatible: stream serialVersionUID = "
+                                                               + serialVersionUID + ", local class serialVersionUID = "
+                                                               + descriptor.getSerialVersionUID());
+                }
+                return descriptor;
+            }
+            throw new StreamCorruptedException("Unknown class descriptor type " + type);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass descriptor) throws IOException, ClassNotFoundException
+        {
+            Class<?> resolved = descriptor.forClass();
+            return resolved != null ? resolved : Class.forName(descriptor.getName(), false, classLoader);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException
+        {
+            Class<?>[] interfaceClasses = new Class<?>[interfaces.length];
+            for (int i = 0; i < interfaces.length; i++)
+            {
+                interfaceClasses[i] = Class.forName(interfaces[i], false, classLoader);
+            }
+            return java.lang.reflect.Proxy.getProxyClass(classLoader, interfaceClasses);
+        }
+    }
+
+    private static class ReusableByteArrayOutputStream extends ByteArrayOutputStream
+    {
+
+        ReusableByteArrayOutputStream()
+        {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        int capacity()
+        {
+            return buf.length;
+        }
+    }
+}
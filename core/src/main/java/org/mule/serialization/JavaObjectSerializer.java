@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.serialization;
+
+import org.mule.util.SerializationUtils;
+
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+import org.apache.commons.io.input.ClassLoaderObjectInputStream;
+
+/**
+ * {@link org.mule.api.serialization.ObjectSerializer} using standard java serialization.
+ * This is the default serializer of the {@link org.mule.api.MuleContext}. Only
+ * {@link Serializable} objects are supported.
+ *
+ * @since 3.7.0
+ */
+public class JavaObjectSerializer extends AbstractObjectSerializer
+{
+
+    @Override
+    protected byte[] doSerialize(Object object) throws Exception
+    {
+        return SerializationUtils.serialize((Serializable) object);
+    }
+
+    @Override
+    protected void doSerialize(Object object, OutputStream out) throws Exception
+    {
+        SerializationUtils.serialize((Serializable) object, out);
+    }
+
+    @Override
+    protected Object doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception
+    {
+        ObjectInputStream in = new ClassLoaderObjectInputStream(classLoader, inputStream);
+        return in.readObject();
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.session;
+
+import org.mule.api.MuleException;
+import org.mule.api.MuleMessage;
+import org.mule.api.MuleSession;
+import org.mule.api.config.MuleProperties;
+import org.mule.api.model.SessionException;
+import org.mule.api.security.SecurityContext;
+import org.mule.api.serialization.ObjectSerializer;
+import org.mule.api.serialization.SerializationException;
+import org.mule.config.i18n.MessageFactory;
+import org.mule.util.Base64;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.collections.map.LRUMap;
+import org.apache.commons.io.output.ByteArrayOutputStream;
+
+/**
+ * A session handler that stores the session in the "MULE_SESSION" property using a compact,
+ * versioned binary encoding instead of java serialization of the whole {@link DefaultMuleSession}.
+ * <p/>
+ * Only the session id, its validity, its security context and its serializable properties
+ * are written. String properties are written directly and any other value is written
+ * with the {@link ObjectSerializer} of the context. The resulting bytes are Base64 encoded, so the
+ * header can travel over text based transports such as HTTP or JMS.
+ * <p/>
+ * No header is written for sessions that are valid and have neither properties nor a security
+ * context, in which case the receiving side just creates a new session. Sessions decoded from a
+ * header that only hold immutable values are cached by the encoded bytes that follow the session
+ * id, so headers carrying the same properties, which are common when the same kind of session
+ * travels through several hops, are only decoded once whatever their session id.
+ * <p/>
+ * Headers written by {@link SerializeAndEncodeSessionHandler} are still accepted, so this handler
+ * can be enabled on the receiving side before the sending side is updated.
+ *
+ * @since 3.7.0
+ */
+public class BinaryEncodedSessionHandler extends SerializeAndEncodeSessionHandler
+{
+
+    static final byte FORMAT_VERSION = 1;
+
+    private static final byte STRING_VALUE = 1;
+    private static final byte OBJECT_VALUE = 2;
+
+    private static final int JAVA_SERIALIZATION_MAGIC = 0xACED;
+    private static final int DEFAULT_CACHE_SIZE = 256;
+    private static final int MAXIMUM_CACHED_LENGTH = 4 * 1024;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @SuppressWarnings("unchecked")
+    private final Map<ByteBuffer, MuleSession> decodedSessions = Collections.synchronizedMap(new LRUMap(DEFAULT_CACHE_SIZE));
+
+    @Override
+    public MuleSession retrieveSessionInfoFromMessage(MuleMessage message) throws MuleException
+    {
+        Object header = message.getInboundProperty(MuleProperties.MULE_SESSION_PROPERTY);
+        if (!(header instanceof String))
+        {
+            return null;
+        }
+
+        byte[] bytes = Base64.decode((String) header);
+        if (bytes == null || bytes.length == 0)
+        {
+            return null;
+        }
+        if (isJavaSerialized(bytes))
+        {
+            return super.retrieveSessionInfoFromMessage(message);
+        }
+
+        ByteBuffer cacheKey = getCacheKey(bytes);
+        if (cacheKey != null)
+        {
+            MuleSession cachedSession = decodedSessions.get(cacheKey);
+            if (cachedSession != null)
+            {
+                // sessions are mutable so every message gets its own copy
+                return copy(cachedSession, decodeId(bytes));
+            }
+        }
+
+        MuleSession session = decode(bytes, message.getMuleContext().getObjectSerializer());
+        if (cacheKey != null && isImmutable(session))
+        {
+            decodedSessions.put(cacheKey, new DefaultMuleSession(session));
+        }
+        return session;
+    }
+
+    @Override
+    public void storeSessionInfoToMessage(MuleSession session, MuleMessage message) throws MuleException
+    {
+        if (isEmpty(session))
+        {
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Session " + session.getId() + " is empty, no Session header added to message");
+            }
+            return;
+        }
+
+        String encodedSession;
+        try
+        {
+            encodedSession = Base64.encodeBytes(encode(session, message.getMuleContext().getObjectSerializer()), Base64.DONT_BREAK_LINES);
+        }
+        catch (IOException e)
+        {
+            throw new SessionException(MessageFactory.createStaticMessage("Unable to encode MuleSession"), e);
+        }
+
+        if (logger.isDebugEnabled())
+        {
+            logger.debug("Adding binary encoded Session header to message: " + encodedSession);
+        }
+        message.setOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY, encodedSession);
+    }
+
+    private boolean isEmpty(MuleSession session)
+    {
+        return session.isValid() && session.getSecurityContext() == null && session.getPropertyNamesAsSet().isEmpty();
+    }
+
+    /**
+     * Only sessions holding immutable values can be cached, as the copies handed out share the
+     * property values and the security context of the cached session.
+     */
+    private boolean isImmutable(MuleSession session)
+    {
+        if (session.getSecurityContext() != null)
+        {
+            return false;
+        }
+        for (String key : session.getPropertyNamesAsSet())
+        {
+            Object value = session.getProperty(key);
+            if (!(value instanceof String || value instanceof Boolean || value instanceof Integer || value instanceof Long))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The cache key is made of the encoded bytes that follow the session id, which is different
+     * for every session.
+     *
+     * @return the cache key, or null if the session can not be cached
+     */
+    private ByteBuffer getCacheKey(byte[] bytes)
+    {
+        if (bytes.length < 3 || bytes[0] != FORMAT_VERSION)
+        {
+            return null;
+        }
+        int offset = 3 + ((bytes[1] & 0xFF) << 8 | (bytes[2] & 0xFF));
+        if (offset > bytes.length || bytes.length - offset > MAXIMUM_CACHED_LENGTH)
+        {
+            return null;
+        }
+        return ByteBuffer.wrap(bytes, offset, bytes.length - offset).slice();
+    }
+
+    private String decodeId(byte[] bytes) throws SessionException
+    {
+        try
+        {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+            return in.readUTF();
+        }
+        catch (IOException e)
+        {
+            throw new SessionException(MessageFactory.createStaticMessage("Unable to decode Session header"), e);
+        }
+    }
+
+    private MuleSession copy(MuleSession session, String id)
+    {
+        DefaultMuleSession copy = new DefaultMuleSession(id);
+        copy.setValid(session.isValid());
+        for (String key : session.getPropertyNamesAsSet())
+        {
+            copy.setProperty(key, session.getProperty(key));
+        }
+        return copy;
+    }
+
+    private boolean isJavaSerialized(byte[] bytes)
+    {
+        return bytes.length > 1 && ((bytes[0] & 0xFF) << 8 | (bytes[1] & 0xFF)) == JAVA_SERIALIZATION_MAGIC;
+    }
+
+    byte[] encode(MuleSession session, ObjectSerializer serializer) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeByte(FORMAT_VERSION);
+        out.writeUTF(session.getId());
+        out.writeBoolean(session.isValid());
+
+        SecurityContext securityContext = session.getSecurityContext();
+        if (securityContext != null)
+        {
+            out.writeBoolean(true);
+            writeBytes(out, serializer.serialize(securityContext));
+        }
+        else
+        {
+            out.writeBoolean(false);
+        }
+
+        // copies the properties so they can not change while being written
+        DefaultMuleSession copy = new DefaultMuleSession(session);
+        copy.removeNonSerializableProperties();
+        out.writeInt(copy.getProperties().size());
+        for (Map.Entry<String, Object> property : copy.getProperties().entrySet())
+        {
+            out.writeUTF(property.getKey());
+            if (property.getValue() instanceof String)
+            {
+                out.writeByte(STRING_VALUE);
+                writeBytes(out, ((String) property.getValue()).getBytes(UTF_8));
+            }
+            else
+            {
+                out.writeByte(OBJECT_VALUE);
+                writeBytes(out, serializer.serialize(property.getValue()));
+            }
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    MuleSession decode(byte[] bytes, ObjectSerializer serializer) throws SessionException
+    {
+        try
+        {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION)
+            {
+                throw new SessionException(MessageFactory.createStaticMessage("Unsupported Session header format version " + version));
+            }
+
+            DefaultMuleSession session = new DefaultMuleSession(in.readUTF());
+            session.setValid(in.readBoolean());
+            if (in.readBoolean())
+            {
+                session.setSecurityContext(serializer.<SecurityContext>deserialize(readBytes(in)));
+            }
+
+            int propertyCount = in.readInt();
+            for (int i = 0; i < propertyCount; i++)
+            {
+                String key = in.readUTF();
+                byte type = in.readByte();
+                if (type == STRING_VALUE)
+                {
+                    session.setProperty(key, new String(readBytes(in), UTF_8));
+                }
+                else if (type == OBJECT_VALUE)
+                {
+                    Object value = serializer.deserialize(readBytes(in));
+                    session.setProperty(key, value);
+                }
+                else
+                {
+                    throw new SessionException(MessageFactory.createStaticMessage("Unknown Session property type " + type));
+                }
+            }
+            return session;
+        }
+        catch (IOException e)
+        {
+            throw new SessionException(MessageFactory.createStaticMessage("Unable to decode Session header"), e);
+        }
+        catch (SerializationException e)
+        {
+            throw new SessionException(MessageFactory.createStaticMessage("Unable to decode Session header"), e);
+        }
+    }
+
+    private void writeBytes(DataOutputStream out, byte[] bytes) throws IOException
+    {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private byte[] readBytes(DataInputStream in) throws IOException
+    {
+        int length = in.readInt();
+        if (length < 0 || length > in.available())
+        {
+            throw new IOException("Invalid length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
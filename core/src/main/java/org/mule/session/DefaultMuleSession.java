@@ -67,6 +67,15 @@ public final class DefaultMuleSession implements MuleSession
         properties = Collections.synchronizedMap(new CaseInsensitiveHashMap/* <String, Object> */());
     }
 
+    /**
+     * Creates an empty session with the given id, used to restore sessions propagated between Mule instances
+     */
+    DefaultMuleSession(String id)
+    {
+        this.id = id;
+        properties = Collections.synchronizedMap(new CaseInsensitiveHashMap/* <String, Object> */());
+    }
+
     public DefaultMuleSession(MuleSession session)
     {
         this.id = session.getId();
@@ -12,7 +12,6 @@ import org.mule.api.MuleMessage;
 import org.mule.api.MuleSession;
 import org.mule.api.config.MuleProperties;
 import org.mule.api.transport.SessionHandler;
-import org.mule.util.SerializationUtils;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -34,7 +33,7 @@ public class SerializeOnlySessionHandler implements SessionHandler
 
         if (serializedSession != null)
         {
-            session = (MuleSession) SerializationUtils.deserialize(serializedSession, message.getMuleContext());
+            session = message.getMuleContext().getObjectSerializer().deserialize(serializedSession);
         }
         return session;
     }
@@ -49,7 +48,7 @@ public class SerializeOnlySessionHandler implements SessionHandler
 
     public void storeSessionInfoToMessage(MuleSession session, MuleMessage message) throws MuleException
     {
-        byte[] serializedSession = SerializationUtils.serialize(removeNonSerializableProperties(session,message.getMuleContext()));
+        byte[] serializedSession = message.getMuleContext().getObjectSerializer().serialize(removeNonSerializableProperties(session, message.getMuleContext()));
         
         if (logger.isDebugEnabled())
         {
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.journal;
+
+import org.mule.api.MuleRuntimeException;
+import org.mule.config.i18n.CoreMessages;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Writes journal entries to a file using group commit.
+ * <p/>
+ * Entries logged concurrently are appended to a shared in memory batch. A single writer
+ * thread writes the whole batch to the journal file, and forces it to the storage device
+ * if required by the {@link JournalDurability}, releasing every thread waiting for an
+ * entry of the batch at once.
+ */
+class GroupCommitJournalWriter
+{
+
+    private static final int INITIAL_BATCH_SIZE = 64 * 1024;
+    private static final int MAXIMUM_BATCH_SIZE = 4 * 1024 * 1024;
+
+    protected transient Log logger = LogFactory.getLog(getClass());
+
+    private final JournalDurability durability;
+    private final long batchIntervalNanos;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private final OutputStream channelOutputStream;
+    private final Thread writerThread;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition pendingEntries = lock.newCondition();
+    private final Condition batchWritten = lock.newCondition();
+    /**
+     * Prevents the journal file from being truncated while a batch is written.
+     */
+    private final Object writeLock = new Object();
+
+    private ByteArrayOutputStream pendingBatch = new ByteArrayOutputStream(INITIAL_BATCH_SIZE);
+    private ByteArrayOutputStream writingBatch = new ByteArrayOutputStream(INITIAL_BATCH_SIZE);
+    private long appendedBytes = 0;
+    private long writtenBytes = 0;
+    private boolean running = true;
+    private IOException failure;
+
+    /**
+     * @param journalFile file where entries are appended
+     * @param durability durability level for the written entries
+     * @param batchInterval time in milliseconds the writer waits for more entries before writing a batch
+     */
+    public GroupCommitJournalWriter(File journalFile, JournalDurability durability, long batchInterval)
+    {
+        this.durability = durability;
+        this.batchIntervalNanos = TimeUnit.MILLISECONDS.toNanos(batchInterval);
+        try
+        {
+            this.randomAccessFile = new RandomAccessFile(journalFile, "rw");
+            this.channel = randomAccessFile.getChannel();
+            this.channel.position(channel.size());
+        }
+        catch (IOException e)
+        {
+            throw new MuleRuntimeException(e);
+        }
+        this.channelOutputStream = Channels.newOutputStream(channel);
+        this.writerThread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                writeBatches();
+            }
+        }, "journal-writer[" + journalFile.getName() + "]");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Appends a serialized entry to the current batch.
+     *
+     * @param serializedEntry entry content
+     * @return the position of the journal after the entry, to be used with {@link #awaitWritten(long)}
+     */
+    public long append(ByteArrayOutputStream serializedEntry)
+    {
+        lock.lock();
+        try
+        {
+            checkState();
+            serializedEntry.writeTo(pendingBatch);
+            appendedBytes += serializedEntry.size();
+            pendingEntries.signal();
+            return appendedBytes;
+        }
+        catch (IOException e)
+        {
+            throw new MuleRuntimeException(e);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the journal was written up to the given position according to the durability level.
+     *
+     * @param position position returned by {@link #append(java.io.ByteArrayOutputStream)}
+     */
+    public void awaitWritten(long position)
+    {
+        if (durability == JournalDurability.NONE)
+        {
+            return;
+        }
+        lock.lock();
+        try
+        {
+            while (writtenBytes < position)
+            {
+                checkFailure();
+                batchWritten.await();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new MuleRuntimeException(e);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discards the pending entries and empties the journal file.
+     */
+    public void clear()
+    {
+        synchronized (writeLock)
+        {
+            lock.lock();
+            try
+            {
+                pendingBatch.reset();
+                writtenBytes = appendedBytes;
+                batchWritten.signalAll();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+            try
+            {
+                channel.truncate(0);
+            }
+            catch (IOException e)
+            {
+                throw new MuleRuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the pending entries, stops the writer thread and releases the journal file.
+     */
+    public void close()
+    {
+        lock.lock();
+        try
+        {
+            running = false;
+            pendingEntries.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        try
+        {
+            writerThread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        try
+        {
+            randomAccessFile.close();
+        }
+        catch (IOException e)
+        {
+            logger.warn(e.getMessage());
+            if (logger.isDebugEnabled())
+            {
+                logger.debug(e);
+            }
+        }
+    }
+
+    private void writeBatches()
+    {
+        while (waitForPendingEntries())
+        {
+            synchronized (writeLock)
+            {
+                long batchEnd;
+                lock.lock();
+                try
+                {
+                    ByteArrayOutputStream batch = pendingBatch;
+                    pendingBatch = writingBatch;
+                    writingBatch = batch;
+                    batchEnd = appendedBytes;
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+
+                try
+                {
+                    writingBatch.writeTo(channelOutputStream);
+                    if (durability == JournalDurability.FSYNC)
+                    {
+                        channel.force(false);
+                    }
+                    writingBatch.reset();
+                }
+                catch (IOException e)
+                {
+                    logger.error("Failure writing transaction journal", e);
+                    lock.lock();
+                    try
+                    {
+                        failure = e;
+                        batchWritten.signalAll();
+                    }
+                    finally
+                    {
+                        lock.unlock();
+                    }
+                    return;
+                }
+
+                lock.lock();
+                try
+                {
+                    writtenBytes = Math.max(writtenBytes, batchEnd);
+                    batchWritten.signalAll();
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if there are entries to write, false if the writer was closed and all entries were written
+     */
+    private boolean waitForPendingEntries()
+    {
+        lock.lock();
+        try
+        {
+            while (running && pendingBatch.size() == 0)
+            {
+                pendingEntries.await();
+            }
+            long remaining = batchIntervalNanos;
+            while (running && remaining > 0 && pendingBatch.size() < MAXIMUM_BATCH_SIZE)
+            {
+                remaining = pendingEntries.awaitNanos(remaining);
+            }
+            return pendingBatch.size() > 0;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            running = false;
+            return pendingBatch.size() > 0;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private void checkState()
+    {
+        checkFailure();
+        if (!running)
+        {
+            throw new MuleRuntimeException(CoreMessages.createStaticMessage("Transaction journal is already closed"));
+        }
+    }
+
+    private void checkFailure()
+    {
+        if (failure != null)
+        {
+            throw new MuleRuntimeException(CoreMessages.createStaticMessage("Failure writing transaction journal"), failure);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.journal;
+
+/**
+ * Durability guarantee provided by a transaction journal using group commit
+ * when a checkpoint operation (commit, rollback or prepare) is logged.
+ */
+public enum JournalDurability
+{
+    /**
+     * Checkpoint operations return as soon as the entry is buffered. Entries are
+     * written to the journal file in the background so the last entries may be lost
+     * if the JVM crashes.
+     */
+    NONE,
+
+    /**
+     * Checkpoint operations return once the batch containing the entry was written
+     * to the journal file. Entries survive a JVM crash but not an operating system crash.
+     */
+    FLUSH,
+
+    /**
+     * Checkpoint operations return once the batch containing the entry was written
+     * and forced to the storage device.
+     */
+    FSYNC
+}
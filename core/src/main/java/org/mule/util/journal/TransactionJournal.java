@@ -31,6 +31,17 @@ import org.apache.commons.logging.LogFactory;
 public class TransactionJournal<T, K extends JournalEntry<T>>
 {
 
+    /**
+     * System property to enable group commit with the given {@link JournalDurability} level (none, flush or fsync).
+     * If not set every entry is written to the journal file as soon as it is logged.
+     */
+    public static final String DURABILITY_PROPERTY_KEY = "mule.queue.journal.durability";
+    /**
+     * System property to configure the time in milliseconds the group commit writer waits for more entries before
+     * writing a batch. Default is 0 which means a batch is written as soon as the previous one finishes.
+     */
+    public static final String GROUP_COMMIT_INTERVAL_PROPERTY_KEY = "mule.queue.journal.groupcommit.interval";
+
     private static final int MAXIMUM_LOG_FILE_ENTRIES = 50000;
 
     private transient Log logger = LogFactory.getLog(getClass());
@@ -50,6 +61,16 @@ public class TransactionJournal<T, K extends JournalEntry<T>>
      * @param logFilesDirectory directory used to store the journal files.
      */
     public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate, JournalEntrySerializer journalEntrySerializer)
+    {
+        this(logFilesDirectory, transactionCompletePredicate, journalEntrySerializer, getConfiguredDurability(), Long.getLong(GROUP_COMMIT_INTERVAL_PROPERTY_KEY, 0));
+    }
+
+    /**
+     * @param logFilesDirectory directory used to store the journal files.
+     * @param durability durability level for group commit. If null group commit is not used.
+     * @param groupCommitInterval time in milliseconds to wait for more entries before writing a group commit batch
+     */
+    public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate, JournalEntrySerializer journalEntrySerializer, JournalDurability durability, long groupCommitInterval)
     {
         File logFileDirectory = new File(logFilesDirectory);
         if (!logFileDirectory.exists())
@@ -60,11 +81,22 @@ public class TransactionJournal<T, K extends JournalEntry<T>>
         File logFile2 = new File(logFileDirectory, "tx2.log");
         logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
 
-        this.currentLogFile = new TransactionJournalFile(logFile1, journalEntrySerializer);
-        this.notCurrentLogFile = new TransactionJournalFile(logFile2, journalEntrySerializer);
+        if (durability != null)
+        {
+            logger.info(String.format("Using group commit for tx logs with durability %s", durability));
+        }
+
+        this.currentLogFile = new TransactionJournalFile(logFile1, journalEntrySerializer, durability, groupCommitInterval);
+        this.notCurrentLogFile = new TransactionJournalFile(logFile2, journalEntrySerializer, durability, groupCommitInterval);
         this.transactionCompletePredicate = transactionCompletePredicate;
     }
 
+    private static JournalDurability getConfiguredDurability()
+    {
+        String durability = System.getProperty(DURABILITY_PROPERTY_KEY);
+        return durability == null ? null : JournalDurability.valueOf(durability.trim().toUpperCase());
+    }
+
     /**
      * Log an update operation over a transactional resource
      *
@@ -81,16 +113,26 @@ public class TransactionJournal<T, K extends JournalEntry<T>>
      *
      * Most likely this is an operation such as COMMIT, ROLLBACK or PREPARE of a TX.
      *
+     * When using group commit this method returns once the entry was written according to
+     * the configured {@link JournalDurability}. The wait happens outside the journal lock
+     * so concurrent transactions are written in the same batch.
+     *
      * @param journalEntry journal entry with the checkpoint operation details
      */
-    public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry)
+    public void logCheckpointOperation(JournalEntry<T> journalEntry)
     {
-        TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-        logFile.logOperation(journalEntry);
-        if (transactionCompletePredicate.isTransactionComplete(journalEntry))
+        TransactionJournalFile logFile;
+        long position;
+        synchronized (this)
         {
-            logFile.clearEntriesForTransaction(journalEntry.getTxId());
+            logFile = determineLogFile(journalEntry.getTxId());
+            position = logFile.logOperation(journalEntry);
+            if (transactionCompletePredicate.isTransactionComplete(journalEntry))
+            {
+                logFile.clearEntriesForTransaction(journalEntry.getTxId());
+            }
         }
+        logFile.awaitWritten(position);
     }
 
     /**
@@ -12,6 +12,7 @@ import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -53,11 +54,26 @@ class TransactionJournalFile<T, K extends JournalEntry<T>>
     private DataOutputStream logFileOutputStream;
     private int journalOperations = 0;
 
+    private final GroupCommitJournalWriter groupCommitWriter;
+    private final ByteArrayOutputStream entryBuffer;
+    private final DataOutputStream entryOutputStream;
+
     /**
      * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get loaded from it.
      * @param journalEntrySerializer serializer for {@link org.mule.util.journal.JournalEntry}
      */
     public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer)
+    {
+        this(journalFile, journalEntrySerializer, null, 0);
+    }
+
+    /**
+     * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get loaded from it.
+     * @param journalEntrySerializer serializer for {@link org.mule.util.journal.JournalEntry}
+     * @param durability durability level when using group commit. If null every entry is written to the file as soon as it is logged.
+     * @param groupCommitInterval time in milliseconds to wait for more entries before writing a group commit batch
+     */
+    public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer, JournalDurability durability, long groupCommitInterval)
     {
         this.journalFile = journalFile;
         this.journalEntrySerializer = journalEntrySerializer;
@@ -65,18 +81,54 @@ class TransactionJournalFile<T, K extends JournalEntry<T>>
         {
             loadAllEntries();
         }
-        createLogOutputStream();
+        if (durability == null)
+        {
+            groupCommitWriter = null;
+            entryBuffer = null;
+            entryOutputStream = null;
+            createLogOutputStream();
+        }
+        else
+        {
+            groupCommitWriter = new GroupCommitJournalWriter(journalFile, durability, groupCommitInterval);
+            entryBuffer = new ByteArrayOutputStream();
+            entryOutputStream = new DataOutputStream(entryBuffer);
+        }
     }
 
     /**
      * Adds a journal entry for an operation done over a transactional resource
      * @param journalEntry operation details
+     * @return the position of the journal after the entry, to be used with {@link #awaitWritten(long)}
      */
-    public synchronized void logOperation(K journalEntry)
+    public synchronized long logOperation(K journalEntry)
     {
         entries.put(journalEntry.getTxId(), journalEntry);
-        journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
         journalOperations++;
+        if (groupCommitWriter == null)
+        {
+            journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
+            return journalOperations;
+        }
+        entryBuffer.reset();
+        journalEntrySerializer.serialize(journalEntry, entryOutputStream);
+        return groupCommitWriter.append(entryBuffer);
+    }
+
+    /**
+     * Waits until the journal was written up to the given position. When group commit is not used
+     * entries are already written by {@link #logOperation(JournalEntry)} so this method returns immediately.
+     *
+     * Must be called without holding any lock so other transactions can be added to the same batch.
+     *
+     * @param position position returned by {@link #logOperation(JournalEntry)}
+     */
+    public void awaitWritten(long position)
+    {
+        if (groupCommitWriter != null)
+        {
+            groupCommitWriter.awaitWritten(position);
+        }
     }
 
     /**
@@ -110,6 +162,11 @@ class TransactionJournalFile<T, K extends JournalEntry<T>>
      */
     public synchronized void close()
     {
+        if (groupCommitWriter != null)
+        {
+            groupCommitWriter.close();
+            return;
+        }
         try
         {
             logFileOutputStream.close();
@@ -156,6 +213,12 @@ class TransactionJournalFile<T, K extends JournalEntry<T>>
      */
     public synchronized void clear()
     {
+        if (groupCommitWriter != null)
+        {
+            entries.clear();
+            groupCommitWriter.clear();
+            return;
+        }
         close();
         entries.clear();
         FileUtils.deleteQuietly(journalFile);
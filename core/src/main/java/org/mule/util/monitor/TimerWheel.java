@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.monitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A hashed timer wheel that tracks deadlines for keys.
+ * <p/>
+ * Time is divided in ticks of a fixed duration and every key is hashed by its deadline tick to
+ * one of the buckets of the wheel. {@link #advance(long)} only visits the buckets of the ticks
+ * elapsed since the previous call, so the cost of tracking a key that has not expired yet is
+ * paid once per revolution of the wheel instead of on every check. Deadlines are honoured
+ * with the precision of a tick.
+ * <p/>
+ * Keys can be scheduled and cancelled from any thread, but {@link #advance(long)} must always
+ * be called from the same thread.
+ */
+public class TimerWheel<K>
+{
+
+    private final long tickDuration;
+    private final int mask;
+    private final Set<K>[] buckets;
+    private final ConcurrentMap<K, Timeout> timeouts = new ConcurrentHashMap<K, Timeout>();
+
+    /**
+     * Last tick whose bucket was visited, only written by the advancing thread
+     */
+    private volatile long lastTick = Long.MIN_VALUE;
+
+    /**
+     * @param tickDuration duration of a tick in milliseconds
+     * @param ticksPerWheel number of buckets, rounded up to the next power of two
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickDuration, int ticksPerWheel)
+    {
+        if (tickDuration <= 0)
+        {
+            throw new IllegalArgumentException("Tick duration must be positive but was " + tickDuration);
+        }
+        if (ticksPerWheel <= 0)
+        {
+            throw new IllegalArgumentException("Ticks per wheel must be positive but was " + ticksPerWheel);
+        }
+        int size = Integer.highestOneBit(ticksPerWheel) == ticksPerWheel ? ticksPerWheel : Integer.highestOneBit(ticksPerWheel) << 1;
+        this.tickDuration = tickDuration;
+        this.mask = size - 1;
+        this.buckets = new Set[size];
+        for (int i = 0; i < size; i++)
+        {
+            buckets[i] = Collections.newSetFromMap(new ConcurrentHashMap<K, Boolean>());
+        }
+    }
+
+    /**
+     * Schedules a key to expire once the given time is reached, replacing any previous
+     * deadline for the same key.
+     *
+     * @param deadline time in milliseconds, deadlines in the past expire on the next tick
+     */
+    public void schedule(K key, long deadline)
+    {
+        int bucket = bucketFor(deadline);
+        Timeout previous = timeouts.put(key, new Timeout(deadline, bucket));
+        if (previous != null && previous.bucket != bucket)
+        {
+            buckets[previous.bucket].remove(key);
+        }
+        buckets[bucket].add(key);
+    }
+
+    /**
+     * @return true if the key was scheduled
+     */
+    public boolean cancel(K key)
+    {
+        Timeout timeout = timeouts.remove(key);
+        if (timeout != null)
+        {
+            buckets[timeout.bucket].remove(key);
+        }
+        return timeout != null;
+    }
+
+    public boolean isScheduled(K key)
+    {
+        return timeouts.containsKey(key);
+    }
+
+    public int size()
+    {
+        return timeouts.size();
+    }
+
+    /**
+     * Visits the buckets of the ticks fully elapsed at the given time, removing and returning
+     * the keys whose deadline was reached. The first call visits the whole wheel.
+     *
+     * @param now current time in milliseconds
+     * @return the expired keys, in no particular order
+     */
+    public List<K> advance(long now)
+    {
+        List<K> expired = new ArrayList<K>();
+        long currentTick = now / tickDuration - 1;
+        long previousTick = lastTick;
+        // never visit a bucket twice in the same call, even if several revolutions elapsed
+        long fromTick = previousTick == Long.MIN_VALUE ? currentTick - mask : Math.max(previousTick + 1, currentTick - mask);
+        for (long tick = fromTick; tick <= currentTick; tick++)
+        {
+            // publish the tick before visiting its bucket so keys scheduled concurrently
+            // with a deadline in the past go to a bucket not visited yet
+            lastTick = tick;
+            int bucket = (int) (tick & mask);
+            for (Iterator<K> keys = buckets[bucket].iterator(); keys.hasNext(); )
+            {
+                K key = keys.next();
+                Timeout timeout = timeouts.get(key);
+                boolean scheduledHere = timeout != null && timeout.bucket == bucket;
+                if (scheduledHere && timeout.deadline > now)
+                {
+                    // due in a later revolution
+                    continue;
+                }
+                keys.remove();
+                if (scheduledHere && timeouts.remove(key, timeout))
+                {
+                    expired.add(key);
+                }
+                else
+                {
+                    // cancelled, or rescheduled while being visited, in which case the key
+                    // may belong to this bucket again
+                    Timeout current = timeouts.get(key);
+                    if (current != null && current.bucket == bucket)
+                    {
+                        buckets[bucket].add(key);
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    private int bucketFor(long deadline)
+    {
+        long tick = deadline / tickDuration;
+        long visitedTick = lastTick;
+        if (visitedTick != Long.MIN_VALUE && tick <= visitedTick)
+        {
+            tick = visitedTick + 1;
+        }
+        return (int) (tick & mask);
+    }
+
+    private static final class Timeout
+    {
+
+        private final long deadline;
+        private final int bucket;
+
+        private Timeout(long deadline, int bucket)
+        {
+            this.deadline = deadline;
+            this.bucket = bucket;
+        }
+    }
+}
@@ -9,8 +9,14 @@ package org.mule.util.queue;
 public class DefaultQueueConfiguration implements QueueConfiguration
 {
 
+    /**
+     * System property to use {@link MappedFileQueueStoreDelegate} by default for persistent queues.
+     */
+    public static final String MAPPED_FILE_STORE_PROPERTY_KEY = "mule.queue.mappedfilestore";
+
     private final boolean persistent;
     private final int capacity;
+    private final boolean mappedFileStore;
 
     public DefaultQueueConfiguration()
     {
@@ -18,9 +24,15 @@ public class DefaultQueueConfiguration implements QueueConfiguration
     }
 
     public DefaultQueueConfiguration(int capacity, boolean isPersistent)
+    {
+        this(capacity, isPersistent, Boolean.getBoolean(MAPPED_FILE_STORE_PROPERTY_KEY));
+    }
+
+    public DefaultQueueConfiguration(int capacity, boolean isPersistent, boolean mappedFileStore)
     {
         this.capacity = capacity;
         this.persistent = isPersistent;
+        this.mappedFileStore = mappedFileStore;
     }
 
     @Override
@@ -35,11 +47,20 @@ public class DefaultQueueConfiguration implements QueueConfiguration
         return capacity;
     }
 
+    /**
+     * @return true if persistent queues must be stored using {@link MappedFileQueueStoreDelegate},
+     *         false if {@link DualRandomAccessFileQueueStoreDelegate} must be used
+     */
+    public boolean isMappedFileStore()
+    {
+        return mappedFileStore;
+    }
+
     @Override
     public String toString()
     {
         return String.format("DefaultQueueConfiguration{" +
-               "persistent=%s, capacity=%s}", persistent, capacity);
+               "persistent=%s, capacity=%s, mappedFileStore=%s}", persistent, capacity, mappedFileStore);
     }
 
     @Override
@@ -53,6 +74,7 @@ public class DefaultQueueConfiguration implements QueueConfiguration
         {
             return false;
         }
-        return persistent == ((DefaultQueueConfiguration)obj).persistent && capacity == ((DefaultQueueConfiguration)obj).capacity;
+        return persistent == ((DefaultQueueConfiguration)obj).persistent && capacity == ((DefaultQueueConfiguration)obj).capacity
+               && mappedFileStore == ((DefaultQueueConfiguration)obj).mappedFileStore;
     }
 }
@@ -46,7 +46,11 @@ public class DefaultQueueStore implements RecoverableQueueStore
         {
             this.config = new DefaultQueueConfiguration();
         }
-        if (this.config.isPersistent())
+        if (this.config.isPersistent() && isMappedFileStore(this.config))
+        {
+            delegate = new MappedFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(), muleContext, this.config.getCapacity());
+        }
+        else if (this.config.isPersistent())
         {
             delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(), muleContext, this.config.getCapacity());
         }
@@ -56,6 +60,15 @@ public class DefaultQueueStore implements RecoverableQueueStore
         }
     }
 
+    private boolean isMappedFileStore(QueueConfiguration config)
+    {
+        if (config instanceof DefaultQueueConfiguration)
+        {
+            return ((DefaultQueueConfiguration) config).isMappedFileStore();
+        }
+        return Boolean.getBoolean(DefaultQueueConfiguration.MAPPED_FILE_STORE_PROPERTY_KEY);
+    }
+
     @Override
     public boolean equals(Object obj)
     {
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Growable double ended queue of primitive longs.
+ * <p/>
+ * Used to keep the location of queue entries without boxing every offset
+ * in a {@link Long} as {@link java.util.LinkedList} does.
+ * <p/>
+ * This class is not thread safe.
+ */
+class LongRingBuffer
+{
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+    private long[] elements;
+    private int head;
+    private int size;
+
+    public LongRingBuffer()
+    {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public LongRingBuffer(int initialCapacity)
+    {
+        int capacity = Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1;
+        elements = new long[capacity];
+    }
+
+    /**
+     * Adds an element at the end of the buffer.
+     *
+     * @param value element to add
+     */
+    public void addLast(long value)
+    {
+        ensureCapacity();
+        elements[(head + size) & (elements.length - 1)] = value;
+        size++;
+    }
+
+    /**
+     * Adds an element at the beginning of the buffer.
+     *
+     * @param value element to add
+     */
+    public void addFirst(long value)
+    {
+        ensureCapacity();
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = value;
+        size++;
+    }
+
+    /**
+     * @return the first element of the buffer without removing it
+     * @throws NoSuchElementException if the buffer is empty
+     */
+    public long getFirst()
+    {
+        if (size == 0)
+        {
+            throw new NoSuchElementException();
+        }
+        return elements[head];
+    }
+
+    /**
+     * Removes and returns the first element of the buffer.
+     *
+     * @return the first element of the buffer
+     * @throws NoSuchElementException if the buffer is empty
+     */
+    public long removeFirst()
+    {
+        long value = getFirst();
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * @param index position relative to the beginning of the buffer
+     * @return the element at the given position
+     */
+    public long get(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        return elements[(head + index) & (elements.length - 1)];
+    }
+
+    /**
+     * Removes the element at the given position shifting the following elements.
+     * <p/>
+     * This is a linear operation so it must be used only on non performance
+     * critical paths.
+     *
+     * @param index position relative to the beginning of the buffer
+     */
+    public void removeAt(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        int mask = elements.length - 1;
+        for (int i = index; i < size - 1; i++)
+        {
+            elements[(head + i) & mask] = elements[(head + i + 1) & mask];
+        }
+        size--;
+    }
+
+    /**
+     * @return number of elements in the buffer
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return true if there are no elements in the buffer, false otherwise
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes all the elements of the buffer.
+     */
+    public void clear()
+    {
+        head = 0;
+        size = 0;
+    }
+
+    private void ensureCapacity()
+    {
+        if (size < elements.length)
+        {
+            return;
+        }
+        long[] newElements = new long[elements.length << 1];
+        int firstChunkLength = elements.length - head;
+        System.arraycopy(elements, head, newElements, 0, firstChunkLength);
+        System.arraycopy(elements, 0, newElements, firstChunkLength, head);
+        elements = newElements;
+        head = 0;
+    }
+}
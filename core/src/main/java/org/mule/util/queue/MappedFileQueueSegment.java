@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+import org.mule.api.MuleRuntimeException;
+import org.mule.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Append only segment of a {@link MappedFileQueueStoreDelegate} backed by a memory mapped file.
+ * <p/>
+ * Each record is stored as a length, a flag byte and the record data. The length is written
+ * after the data so a record with a non zero length is always complete. A zero length marks the
+ * end of the written data in the segment.
+ */
+class MappedFileQueueSegment
+{
+
+    static final int RECORD_HEADER_SIZE = 5;
+    static final byte FLAG_NONE = 0;
+    static final byte FLAG_OUT_OF_ORDER = 1;
+    static final byte FLAG_REMOVED = 2;
+    private static final int FLAG_OFFSET = 4;
+
+    private final Log logger = LogFactory.getLog(this.getClass());
+    private final int id;
+    private final QueueFileProvider queueFileProvider;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+
+    public MappedFileQueueSegment(int id, QueueFileProvider queueFileProvider, int size)
+    {
+        this.id = id;
+        this.queueFileProvider = queueFileProvider;
+        try
+        {
+            FileChannel channel = queueFileProvider.getRandomAccessFile().getChannel();
+            long mappedSize = Math.max(size, channel.size());
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+        }
+        catch (IOException e)
+        {
+            throw new MuleRuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the id of this segment
+     */
+    public int getId()
+    {
+        return id;
+    }
+
+    /**
+     * @return the file where the segment data is stored
+     */
+    public File getFile()
+    {
+        return queueFileProvider.getFile();
+    }
+
+    /**
+     * @param dataLength length of the data to write
+     * @return true if a record with the given data length fits in this segment
+     */
+    public boolean hasRoomFor(int dataLength)
+    {
+        return (long) writePosition + RECORD_HEADER_SIZE + dataLength <= buffer.capacity();
+    }
+
+    /**
+     * Appends a record at the end of the segment.
+     *
+     * @param data record data
+     * @param flag record flag
+     * @return the position of the record within the segment
+     */
+    public int append(byte[] data, byte flag)
+    {
+        int position = writePosition;
+        buffer.put(position + FLAG_OFFSET, flag);
+        ByteBuffer target = buffer.duplicate();
+        target.position(position + RECORD_HEADER_SIZE);
+        target.put(data);
+        buffer.putInt(position, data.length);
+        writePosition = position + RECORD_HEADER_SIZE + data.length;
+        return position;
+    }
+
+    /**
+     * @param position position of a record
+     * @return the length of the record at the given position, zero if there is no complete record there
+     */
+    public int getLength(int position)
+    {
+        if ((long) position + RECORD_HEADER_SIZE > buffer.capacity())
+        {
+            return 0;
+        }
+        int length = buffer.getInt(position);
+        if (length < 0 || (long) position + RECORD_HEADER_SIZE + length > buffer.capacity())
+        {
+            return 0;
+        }
+        return length;
+    }
+
+    /**
+     * @param position position of a record
+     * @return the flag of the record at the given position
+     */
+    public byte getFlag(int position)
+    {
+        return buffer.get(position + FLAG_OFFSET);
+    }
+
+    /**
+     * Updates the flag of the record at the given position
+     *
+     * @param position position of a record
+     * @param flag new flag
+     */
+    public void setFlag(int position, byte flag)
+    {
+        buffer.put(position + FLAG_OFFSET, flag);
+    }
+
+    /**
+     * @param position position of a record
+     * @return the data of the record at the given position
+     */
+    public byte[] read(int position)
+    {
+        int length = buffer.getInt(position);
+        byte[] data = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(position + RECORD_HEADER_SIZE);
+        source.get(data);
+        return data;
+    }
+
+    /**
+     * @param position position of a record
+     * @return the position of the record following the one at the given position
+     */
+    public int nextPosition(int position)
+    {
+        return position + RECORD_HEADER_SIZE + getLength(position);
+    }
+
+    /**
+     * Sets the position where the next record will be written. Used during recovery.
+     *
+     * @param writePosition position after the last complete record
+     */
+    public void setWritePosition(int writePosition)
+    {
+        this.writePosition = writePosition;
+    }
+
+    /**
+     * Flushes the segment content to the storage device.
+     */
+    public void force()
+    {
+        buffer.force();
+    }
+
+    /**
+     * Releases the resources held by this segment.
+     */
+    public void close()
+    {
+        try
+        {
+            buffer = null;
+            queueFileProvider.close();
+        }
+        catch (IOException e)
+        {
+            logger.warn("failure closing queue segment file: " + e.getMessage());
+            if (logger.isDebugEnabled())
+            {
+                logger.debug(e);
+            }
+        }
+    }
+
+    /**
+     * Releases the resources held by this segment and deletes its file.
+     */
+    public void delete()
+    {
+        close();
+        FileUtils.deleteQuietly(getFile());
+    }
+}
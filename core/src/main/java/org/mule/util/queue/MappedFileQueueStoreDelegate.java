@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+import org.mule.api.MuleContext;
+import org.mule.api.MuleRuntimeException;
+import org.mule.util.Preconditions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation using a set of append only, memory mapped
+ * segment files for storing the queue data.
+ * <p/>
+ * New entries are always appended to the last segment. Once a segment is full a new one is created, and
+ * segments are deleted once all their entries are consumed. Consuming an entry does not modify the segment,
+ * instead a read cursor is stored in a separate control file. Only entries that are taken out of order
+ * (those returned to the queue through {@link #untake(java.io.Serializable)} or removed during recovery)
+ * require their flag to be updated within the segment.
+ * <p/>
+ * The location of every entry is kept in a {@link LongRingBuffer} so no object is created per entry
+ * besides the entry itself.
+ * <p/>
+ * Data written to a memory mapped file survives a JVM crash as soon as it is written. In order to also
+ * survive an operating system crash set the {@link #SYNC_PROPERTY_KEY} system property to true so every
+ * write is forced to the storage device.
+ */
+public class MappedFileQueueStoreDelegate extends AbstractQueueStoreDelegate implements TransactionalQueueStoreDelegate
+{
+
+    public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.queue.segmentsize";
+    public static final String SYNC_PROPERTY_KEY = "mule.queue.mappedfilestore.sync";
+    private static final int FOUR_MEGABYTES = 4 * 1024 * 1024;
+    private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+    private static final String SEGMENT_SUFFIX = "-segment-";
+    private static final String QUEUE_DATA_CONTROL_SUFFIX = "-mapped-crl";
+    private static final int CONTROL_DATA_SIZE = 12;
+    private static final int CURSOR_OFFSET = 0;
+    private static final int LAST_SEGMENT_OFFSET = 8;
+
+    protected final Log logger = LogFactory.getLog(this.getClass());
+    private final MuleContext muleContext;
+    private final String queueName;
+    private final File queuesDirectory;
+    private final int segmentSize;
+    private final boolean sync;
+    private final QueueFileProvider controlFileProvider;
+    private final MappedByteBuffer controlData;
+    private final List<MappedFileQueueSegment> segments = new ArrayList<MappedFileQueueSegment>();
+    private final LongRingBuffer locations = new LongRingBuffer();
+
+    public MappedFileQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity)
+    {
+        super(capacity);
+        this.muleContext = muleContext;
+        this.queueName = queueName;
+        this.segmentSize = Integer.getInteger(SEGMENT_SIZE_PROPERTY_KEY, FOUR_MEGABYTES);
+        this.sync = Boolean.getBoolean(SYNC_PROPERTY_KEY);
+        this.queuesDirectory = getQueuesDirectory(workingDirectory);
+        if (!queuesDirectory.exists())
+        {
+            Preconditions.checkState(queuesDirectory.mkdirs(), "Could not create queue store directory " + queuesDirectory.getAbsolutePath());
+        }
+        controlFileProvider = new QueueFileProvider(queuesDirectory, queueName + QUEUE_DATA_CONTROL_SUFFIX);
+        try
+        {
+            controlData = controlFileProvider.getRandomAccessFile().getChannel().map(FileChannel.MapMode.READ_WRITE, 0, CONTROL_DATA_SIZE);
+        }
+        catch (IOException e)
+        {
+            throw new MuleRuntimeException(e);
+        }
+        recover();
+
+        if (logger.isDebugEnabled())
+        {
+            logger.debug(String.format("Queue %s has %s messages", queueName, getSize()));
+        }
+    }
+
+    private static File getQueuesDirectory(String workingDirectory)
+    {
+        return new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY);
+    }
+
+    private void recover()
+    {
+        long cursor = controlData.getLong(CURSOR_OFFSET);
+        int firstSegmentId = segmentIdOf(cursor);
+        int lastSegmentId = Math.max(firstSegmentId, controlData.getInt(LAST_SEGMENT_OFFSET));
+        for (int segmentId = firstSegmentId; segmentId <= lastSegmentId; segmentId++)
+        {
+            MappedFileQueueSegment segment = new MappedFileQueueSegment(segmentId, new QueueFileProvider(queuesDirectory, segmentFileName(segmentId)), segmentSize);
+            segments.add(segment);
+            int position = segmentId == firstSegmentId ? positionOf(cursor) : 0;
+            while (segment.getLength(position) > 0)
+            {
+                byte flag = segment.getFlag(position);
+                if (flag == MappedFileQueueSegment.FLAG_NONE)
+                {
+                    locations.addLast(toLocation(segmentId, position));
+                }
+                else if (flag == MappedFileQueueSegment.FLAG_OUT_OF_ORDER)
+                {
+                    locations.addFirst(toLocation(segmentId, position));
+                }
+                position = segment.nextPosition(position);
+            }
+            segment.setWritePosition(position);
+        }
+        writeControlData(cursor);
+    }
+
+    @Override
+    protected void addFirst(Serializable item) throws InterruptedException
+    {
+        locations.addFirst(append(muleContext.getObjectSerializer().serialize(item), MappedFileQueueSegment.FLAG_OUT_OF_ORDER));
+    }
+
+    @Override
+    protected void add(Serializable item)
+    {
+        locations.addLast(append(muleContext.getObjectSerializer().serialize(item), MappedFileQueueSegment.FLAG_NONE));
+    }
+
+    @Override
+    protected Serializable removeFirst() throws InterruptedException
+    {
+        if (locations.isEmpty())
+        {
+            return null;
+        }
+        long location = locations.removeFirst();
+        MappedFileQueueSegment segment = getSegment(segmentIdOf(location));
+        int position = positionOf(location);
+        byte[] data = segment.read(position);
+        if (segment.getFlag(position) == MappedFileQueueSegment.FLAG_NONE)
+        {
+            // every entry appended before this one was already consumed so the cursor can move forward
+            writeControlData(toLocation(segment.getId(), segment.nextPosition(position)));
+            deleteSegmentsBefore(segment.getId());
+        }
+        else
+        {
+            segment.setFlag(position, MappedFileQueueSegment.FLAG_REMOVED);
+            forceIfRequired(segment);
+        }
+        return deserialize(data);
+    }
+
+    @Override
+    protected Serializable getFirst() throws InterruptedException
+    {
+        if (locations.isEmpty())
+        {
+            return null;
+        }
+        return deserialize(read(locations.getFirst()));
+    }
+
+    @Override
+    protected int size()
+    {
+        return locations.size();
+    }
+
+    @Override
+    protected boolean isEmpty()
+    {
+        return locations.isEmpty();
+    }
+
+    @Override
+    protected void doClear()
+    {
+        int nextSegmentId = getLastSegment().getId() + 1;
+        for (MappedFileQueueSegment segment : segments)
+        {
+            segment.delete();
+        }
+        segments.clear();
+        locations.clear();
+        segments.add(createSegment(nextSegmentId, segmentSize));
+        writeControlData(toLocation(nextSegmentId, 0));
+    }
+
+    @Override
+    protected boolean doAddAll(Collection<? extends Serializable> items)
+    {
+        for (Serializable item : items)
+        {
+            add(item);
+        }
+        return true;
+    }
+
+    public synchronized Collection<Serializable> allElements()
+    {
+        List<Serializable> elements = new LinkedList<Serializable>();
+        for (int i = 0; i < locations.size(); i++)
+        {
+            try
+            {
+                elements.add(deserialize(read(locations.get(i))));
+            }
+            catch (Exception e)
+            {
+                logger.warn("Failure trying to deserialize value " + e.getMessage());
+                if (logger.isDebugEnabled())
+                {
+                    logger.debug(e);
+                }
+            }
+        }
+        return elements;
+    }
+
+    @Override
+    public synchronized void remove(Serializable value)
+    {
+        for (int i = 0; i < locations.size(); i++)
+        {
+            long location = locations.get(i);
+            if (deserialize(read(location)).equals(value))
+            {
+                MappedFileQueueSegment segment = getSegment(segmentIdOf(location));
+                segment.setFlag(positionOf(location), MappedFileQueueSegment.FLAG_REMOVED);
+                forceIfRequired(segment);
+                locations.removeAt(i);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean contains(Serializable value)
+    {
+        for (int i = 0; i < locations.size(); i++)
+        {
+            if (deserialize(read(locations.get(i))).equals(value))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        for (MappedFileQueueSegment segment : segments)
+        {
+            segment.close();
+        }
+        try
+        {
+            controlFileProvider.close();
+        }
+        catch (IOException e)
+        {
+            logger.warn("failure closing queue data control file: " + e.getMessage());
+            if (logger.isDebugEnabled())
+            {
+                logger.debug(e);
+            }
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        synchronized (this)
+        {
+            doClear();
+            close();
+        }
+    }
+
+    private long append(byte[] data, byte flag)
+    {
+        MappedFileQueueSegment segment = getLastSegment();
+        if (!segment.hasRoomFor(data.length))
+        {
+            segment = createSegment(segment.getId() + 1, Math.max(segmentSize, MappedFileQueueSegment.RECORD_HEADER_SIZE + data.length));
+            segments.add(segment);
+            if (logger.isDebugEnabled())
+            {
+                logger.debug(String.format("Queue %s switched to segment %s", queueName, segment.getId()));
+            }
+            writeControlData(controlData.getLong(CURSOR_OFFSET));
+        }
+        int position = segment.append(data, flag);
+        forceIfRequired(segment);
+        return toLocation(segment.getId(), position);
+    }
+
+    private byte[] read(long location)
+    {
+        return getSegment(segmentIdOf(location)).read(positionOf(location));
+    }
+
+    private MappedFileQueueSegment createSegment(int segmentId, int size)
+    {
+        QueueFileProvider segmentFileProvider = new QueueFileProvider(queuesDirectory, segmentFileName(segmentId));
+        if (!segmentFileProvider.isNewFile())
+        {
+            // left over from a crash before the control data was updated
+            try
+            {
+                segmentFileProvider.close();
+                segmentFileProvider.recreate();
+            }
+            catch (IOException e)
+            {
+                throw new MuleRuntimeException(e);
+            }
+        }
+        return new MappedFileQueueSegment(segmentId, segmentFileProvider, size);
+    }
+
+    private void deleteSegmentsBefore(int segmentId)
+    {
+        while (segments.get(0).getId() < segmentId)
+        {
+            segments.remove(0).delete();
+        }
+    }
+
+    private MappedFileQueueSegment getSegment(int segmentId)
+    {
+        return segments.get(segmentId - segments.get(0).getId());
+    }
+
+    private MappedFileQueueSegment getLastSegment()
+    {
+        return segments.get(segments.size() - 1);
+    }
+
+    private void writeControlData(long cursor)
+    {
+        controlData.putLong(CURSOR_OFFSET, cursor);
+        controlData.putInt(LAST_SEGMENT_OFFSET, getLastSegment().getId());
+        if (sync)
+        {
+            controlData.force();
+        }
+    }
+
+    private void forceIfRequired(MappedFileQueueSegment segment)
+    {
+        if (sync)
+        {
+            segment.force();
+        }
+    }
+
+    private String segmentFileName(int segmentId)
+    {
+        return queueName + SEGMENT_SUFFIX + segmentId;
+    }
+
+    private Serializable deserialize(byte[] valueAsBytes)
+    {
+        return muleContext.getObjectSerializer().deserialize(valueAsBytes);
+    }
+
+    private static long toLocation(int segmentId, int position)
+    {
+        return ((long) segmentId << 32) | (position & 0xFFFFFFFFL);
+    }
+
+    private static int segmentIdOf(long location)
+    {
+        return (int) (location >>> 32);
+    }
+
+    private static int positionOf(long location)
+    {
+        return (int) location;
+    }
+}
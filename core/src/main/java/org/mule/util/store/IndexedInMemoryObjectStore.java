@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.store;
+
+import static org.mule.api.store.ObjectStoreManager.UNBOUNDED;
+import org.mule.api.store.ExpirableObjectStore;
+import org.mule.api.store.ListableObjectStore;
+import org.mule.api.store.ObjectAlreadyExistsException;
+import org.mule.api.store.ObjectDoesNotExistException;
+import org.mule.api.store.ObjectStoreException;
+import org.mule.config.i18n.CoreMessages;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <code>IndexedInMemoryObjectStore</code> is an optionally bounded in-memory store with periodic
+ * expiry of old entries that can be used instead of {@link InMemoryObjectStore}.
+ * <p/>
+ * Entries are indexed by key in a {@link ConcurrentHashMap} so lookups do not block and updates
+ * only contend on the segment of the key. A separate queue keeps the entries in the order they
+ * were stored, which is also their expiration order, so the expiry process only visits the
+ * entries that actually expire. Removing an entry just marks it in the expiry queue; marked
+ * entries are discarded when they reach the head of the queue or, if they exceed the number of
+ * live entries, by the next expiry run.
+ * <p/>
+ * As with {@link InMemoryObjectStore} the bounded size is a <i>soft</i> limit only enforced by
+ * the expiry process.
+ */
+public class IndexedInMemoryObjectStore<T extends Serializable> extends AbstractMonitoredObjectStore<T>
+    implements ListableObjectStore<T>, ExpirableObjectStore<T>
+{
+
+    private static final int NO_LIMIT = -1;
+
+    private final ConcurrentMap<Serializable, StoredEntry<T>> index = new ConcurrentHashMap<Serializable, StoredEntry<T>>();
+    private final Queue<StoredEntry<T>> expiryQueue = new ConcurrentLinkedQueue<StoredEntry<T>>();
+    private final AtomicInteger removedEntries = new AtomicInteger();
+
+    @Override
+    public boolean isPersistent()
+    {
+        return false;
+    }
+
+    @Override
+    public void open() throws ObjectStoreException
+    {
+        // this is a no-op
+    }
+
+    @Override
+    public void close() throws ObjectStoreException
+    {
+        // this is a no-op
+    }
+
+    @Override
+    public boolean contains(Serializable key) throws ObjectStoreException
+    {
+        checkKey(key);
+        return index.containsKey(key);
+    }
+
+    @Override
+    public void store(Serializable key, T value) throws ObjectStoreException
+    {
+        checkKey(key);
+        StoredEntry<T> entry = new StoredEntry<T>(key, value, System.nanoTime());
+        if (index.putIfAbsent(key, entry) != null)
+        {
+            throw new ObjectAlreadyExistsException();
+        }
+        expiryQueue.add(entry);
+    }
+
+    @Override
+    public T retrieve(Serializable key) throws ObjectStoreException
+    {
+        checkKey(key);
+        StoredEntry<T> entry = index.get(key);
+        if (entry == null)
+        {
+            throw new ObjectDoesNotExistException(CoreMessages.objectNotFound(key));
+        }
+        return entry.value;
+    }
+
+    @Override
+    public T remove(Serializable key) throws ObjectStoreException
+    {
+        checkKey(key);
+        StoredEntry<T> entry = index.remove(key);
+        if (entry == null)
+        {
+            throw new ObjectDoesNotExistException(CoreMessages.objectNotFound(key));
+        }
+        entry.removed = true;
+        removedEntries.incrementAndGet();
+        return entry.value;
+    }
+
+    @Override
+    public synchronized void clear() throws ObjectStoreException
+    {
+        expiryQueue.clear();
+        index.clear();
+        removedEntries.set(0);
+    }
+
+    @Override
+    public List<Serializable> allKeys() throws ObjectStoreException
+    {
+        return new ArrayList<Serializable>(index.keySet());
+    }
+
+    /**
+     * Expires entries using the configuration of this store, where negative values
+     * mean there is no limit.
+     */
+    @Override
+    public void expire()
+    {
+        doExpire(entryTTL > 0 ? entryTTL : NO_LIMIT, maxEntries >= 0 ? maxEntries : NO_LIMIT);
+    }
+
+    /**
+     * Expires entries using the given configuration, where {@link org.mule.api.store.ObjectStoreManager#UNBOUNDED}
+     * means there is no limit.
+     */
+    @Override
+    public void expire(int entryTTL, int maxEntries) throws ObjectStoreException
+    {
+        doExpire(entryTTL == UNBOUNDED ? NO_LIMIT : entryTTL, maxEntries == UNBOUNDED ? NO_LIMIT : maxEntries);
+    }
+
+    private synchronized void doExpire(int entryTTL, int maxEntries)
+    {
+        final long now = System.nanoTime();
+        int excess = maxEntries == NO_LIMIT ? 0 : index.size() - maxEntries;
+        int excessEntries = 0;
+        int expiredEntries = 0;
+
+        StoredEntry<T> oldestEntry;
+        while ((oldestEntry = expiryQueue.peek()) != null)
+        {
+            if (oldestEntry.removed)
+            {
+                expiryQueue.poll();
+                removedEntries.decrementAndGet();
+            }
+            else if (excess > 0)
+            {
+                evict(oldestEntry);
+                excess--;
+                excessEntries++;
+            }
+            else if (entryTTL != NO_LIMIT && TimeUnit.NANOSECONDS.toMillis(now - oldestEntry.timestamp) >= entryTTL)
+            {
+                evict(oldestEntry);
+                expiredEntries++;
+            }
+            else
+            {
+                break;
+            }
+        }
+
+        if (removedEntries.get() > index.size())
+        {
+            purgeRemovedEntries();
+        }
+
+        if (logger.isDebugEnabled())
+        {
+            logger.debug("Expired " + excessEntries + " excess entries and " + expiredEntries + " old entries");
+        }
+    }
+
+    private void evict(StoredEntry<T> entry)
+    {
+        expiryQueue.poll();
+        if (!index.remove(entry.key, entry))
+        {
+            // removed concurrently, the entry was already accounted as removed
+            removedEntries.decrementAndGet();
+        }
+    }
+
+    /**
+     * Discards removed entries that are not at the head of the expiry queue. The cost of
+     * traversing the queue is amortized by the removals that produced those entries.
+     */
+    private void purgeRemovedEntries()
+    {
+        int purged = 0;
+        for (Iterator<StoredEntry<T>> iterator = expiryQueue.iterator(); iterator.hasNext(); )
+        {
+            if (iterator.next().removed)
+            {
+                iterator.remove();
+                purged++;
+            }
+        }
+        removedEntries.addAndGet(-purged);
+    }
+
+    private void checkKey(Serializable key) throws ObjectStoreException
+    {
+        if (key == null)
+        {
+            throw new ObjectStoreException(CoreMessages.objectIsNull("id"));
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + " " + index.keySet();
+    }
+
+    private static class StoredEntry<T>
+    {
+        private final Serializable key;
+        private final T value;
+        private final long timestamp;
+        private volatile boolean removed;
+
+        private StoredEntry(Serializable key, T value, long timestamp)
+        {
+            this.key = key;
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+    }
+}
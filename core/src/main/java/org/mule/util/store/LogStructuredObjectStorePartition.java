@@ -0,0 +1,836 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.util.store;
+
+import static org.mule.api.store.ObjectStoreManager.UNBOUNDED;
+import org.mule.api.MuleContext;
+import org.mule.api.store.ObjectAlreadyExistsException;
+import org.mule.api.store.ObjectDoesNotExistException;
+import org.mule.api.store.ObjectStoreException;
+import org.mule.api.store.ObjectStoreNotAvaliableException;
+import org.mule.config.i18n.CoreMessages;
+import org.mule.util.concurrent.DaemonThreadFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link PersistentObjectStorePartition} that appends every operation to a single log file
+ * instead of creating a file per entry.
+ * <p/>
+ * Only the keys and the location of the values within the log are kept in memory. The index keeps
+ * the entries in the order they were stored so expiration only visits the entries that actually
+ * expire. Removed and expired entries leave garbage in the log, which is discarded by rewriting the
+ * live entries to a new log once the garbage exceeds the live data. Compaction runs after
+ * {@link #expire(int, int)}, which the object store manager invokes from its monitor thread, or in
+ * the background after {@link #remove(java.io.Serializable)} for partitions that are never expired.
+ * The live entries are rewritten without holding the partition lock, which is only taken to append
+ * the records written meanwhile and to replace the log, so readers and writers are not blocked
+ * while the log is rewritten.
+ * <p/>
+ * Entries stored by a {@link PersistentObjectStorePartition} in the same directory are imported
+ * into the log when the partition is opened.
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> extends PersistentObjectStorePartition<T>
+{
+
+    static final String LOG_FILE = "partition.log";
+    static final String COMPACTION_FILE = "partition.log.compact";
+    private static final String OBJECT_FILE_EXTENSION = ".obj";
+
+    private static final byte STORE_OPERATION = 1;
+    private static final byte REMOVE_OPERATION = 2;
+    private static final byte STRING_KEY = 1;
+    private static final byte SERIALIZED_KEY = 2;
+    /**
+     * operation, timestamp, key type and key length
+     */
+    private static final int RECORD_HEADER_SIZE = 1 + 8 + 1 + 4;
+    private static final int MINIMUM_SIZE_TO_COMPACT = 1024 * 1024;
+    private static final long COMPACTION_THREAD_KEEP_ALIVE_SECONDS = 10;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final MuleContext muleContext;
+    private final File partitionDirectory;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LinkedHashMap<Serializable, LogEntry> index = new LinkedHashMap<Serializable, LogEntry>();
+    // serializes compactions with each other and with closing the partition
+    private final Object compactionLock = new Object();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean(false);
+
+    private RandomAccessFile logFile;
+    private FileChannel logChannel;
+    private long logLength;
+    private long liveBytes;
+    // changes whenever the log is truncated or reopened, so a running compaction can detect it
+    private int logVersion;
+    private ExecutorService compactionExecutor;
+
+    LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory)
+    {
+        super(muleContext, partitionName, partitionDirectory);
+        this.muleContext = muleContext;
+        this.partitionDirectory = partitionDirectory;
+    }
+
+    LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory)
+        throws ObjectStoreNotAvaliableException
+    {
+        super(muleContext, partitionDirectory);
+        this.muleContext = muleContext;
+        this.partitionDirectory = partitionDirectory;
+    }
+
+    /**
+     * @param partitionDirectory directory of a persistent partition
+     * @return true if the partition stores its entries in a log, including a compacted log that
+     *         was not renamed yet
+     */
+    static boolean isLogStructured(File partitionDirectory)
+    {
+        return new File(partitionDirectory, LOG_FILE).exists() || new File(partitionDirectory, COMPACTION_FILE).exists();
+    }
+
+    @Override
+    public synchronized void open() throws ObjectStoreException
+    {
+        super.open();
+        lock.writeLock().lock();
+        try
+        {
+            if (logChannel == null)
+            {
+                index.clear();
+                liveBytes = 0;
+                openLog();
+                loadIndex();
+                importEntryFiles();
+            }
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws ObjectStoreException
+    {
+        synchronized (compactionLock)
+        {
+            lock.writeLock().lock();
+            try
+            {
+                closeLog();
+                if (compactionExecutor != null)
+                {
+                    compactionExecutor.shutdown();
+                    compactionExecutor = null;
+                }
+            }
+            finally
+            {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public List<Serializable> allKeys() throws ObjectStoreException
+    {
+        lock.readLock().lock();
+        try
+        {
+            return Collections.unmodifiableList(new ArrayList<Serializable>(index.keySet()));
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(Serializable key) throws ObjectStoreException
+    {
+        checkKey(key);
+        lock.readLock().lock();
+        try
+        {
+            return index.containsKey(key);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void store(Serializable key, T value) throws ObjectStoreException
+    {
+        checkKey(key);
+        byte[] keyBytes = serializeKey(key);
+        byte[] valueBytes = muleContext.getObjectSerializer().serialize(value);
+
+        lock.writeLock().lock();
+        try
+        {
+            if (index.containsKey(key))
+            {
+                throw new ObjectAlreadyExistsException();
+            }
+            long timestamp = System.currentTimeMillis();
+            long recordPosition = append(STORE_OPERATION, timestamp, keyBytes, valueBytes);
+            index.put(key, new LogEntry(valuePosition(recordPosition, keyBytes.length), valueBytes.length, timestamp));
+            liveBytes += recordSize(keyBytes.length, valueBytes.length);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public T retrieve(Serializable key) throws ObjectStoreException
+    {
+        checkKey(key);
+        byte[] valueBytes;
+        lock.readLock().lock();
+        try
+        {
+            valueBytes = readValue(logChannel, getEntry(key));
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+        return deserializeValue(valueBytes);
+    }
+
+    @Override
+    public T remove(Serializable key) throws ObjectStoreException
+    {
+        checkKey(key);
+        byte[] valueBytes;
+        lock.writeLock().lock();
+        try
+        {
+            LogEntry entry = getEntry(key);
+            valueBytes = readValue(logChannel, entry);
+            removeEntry(key, entry);
+            scheduleCompactionIfRequired();
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+        return deserializeValue(valueBytes);
+    }
+
+    @Override
+    public void clear() throws ObjectStoreException
+    {
+        lock.writeLock().lock();
+        try
+        {
+            index.clear();
+            liveBytes = 0;
+            if (logChannel != null)
+            {
+                logChannel.truncate(0);
+                logLength = 0;
+                logVersion++;
+            }
+        }
+        catch (IOException e)
+        {
+            throw new ObjectStoreException(CoreMessages.createStaticMessage("Could not clear ObjectStore"), e);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void expire(int entryTTL, int maxEntries) throws ObjectStoreException
+    {
+        lock.writeLock().lock();
+        try
+        {
+            Iterator<Map.Entry<Serializable, LogEntry>> entries = index.entrySet().iterator();
+            int excess = maxEntries == UNBOUNDED ? 0 : index.size() - maxEntries;
+            final long now = System.currentTimeMillis();
+            while (entries.hasNext())
+            {
+                Map.Entry<Serializable, LogEntry> entry = entries.next();
+                boolean expired = entryTTL != UNBOUNDED && (now - entry.getValue().timestamp) >= entryTTL;
+                if (excess <= 0 && !expired)
+                {
+                    break;
+                }
+                appendRemove(entry.getKey(), entry.getValue());
+                entries.remove();
+                excess--;
+            }
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+        // already in the monitor thread of the object store manager
+        compactIfRequired();
+    }
+
+    private void checkKey(Serializable key) throws ObjectStoreException
+    {
+        if (key == null)
+        {
+            throw new ObjectStoreException(CoreMessages.objectIsNull("key"));
+        }
+    }
+
+    private LogEntry getEntry(Serializable key) throws ObjectDoesNotExistException
+    {
+        LogEntry entry = index.get(key);
+        if (entry == null)
+        {
+            String message = "Key does not exist: " + key;
+            throw new ObjectDoesNotExistException(CoreMessages.createStaticMessage(message));
+        }
+        return entry;
+    }
+
+    private void removeEntry(Serializable key, LogEntry entry) throws ObjectStoreException
+    {
+        appendRemove(key, entry);
+        index.remove(key);
+    }
+
+    private void appendRemove(Serializable key, LogEntry entry) throws ObjectStoreException
+    {
+        byte[] keyBytes = serializeKey(key);
+        append(REMOVE_OPERATION, System.currentTimeMillis(), keyBytes, new byte[0]);
+        liveBytes -= recordSize(keyBytes.length, entry.length);
+    }
+
+    private long append(byte operation, long timestamp, byte[] keyBytes, byte[] valueBytes) throws ObjectStoreException
+    {
+        ByteBuffer record = ByteBuffer.allocate(recordSize(keyBytes.length, valueBytes.length));
+        writeRecord(record, operation, timestamp, keyBytes, valueBytes);
+        long position = logLength;
+        try
+        {
+            writeFully(logChannel, record, position);
+        }
+        catch (IOException e)
+        {
+            throw new ObjectStoreException(e);
+        }
+        logLength += record.capacity();
+        return position;
+    }
+
+    private void writeRecord(ByteBuffer record, byte operation, long timestamp, byte[] keyBytes, byte[] valueBytes)
+    {
+        record.putInt(record.capacity() - 4);
+        record.put(operation);
+        record.putLong(timestamp);
+        record.put(keyBytes[0]);
+        record.putInt(keyBytes.length - 1);
+        record.put(keyBytes, 1, keyBytes.length - 1);
+        record.put(valueBytes);
+        record.flip();
+    }
+
+    /**
+     * @param keyLength length of the key as returned by {@link #serializeKey(java.io.Serializable)}, the key
+     *        type byte is part of the record header
+     */
+    private static int recordSize(int keyLength, int valueLength)
+    {
+        return 4 + RECORD_HEADER_SIZE + keyLength - 1 + valueLength;
+    }
+
+    private static long valuePosition(long recordPosition, int keyLength)
+    {
+        return recordPosition + 4 + RECORD_HEADER_SIZE + keyLength - 1;
+    }
+
+    private byte[] readValue(FileChannel channel, LogEntry entry) throws ObjectStoreException
+    {
+        try
+        {
+            return readValueBytes(channel, entry);
+        }
+        catch (IOException e)
+        {
+            throw new ObjectStoreException(e);
+        }
+    }
+
+    private static byte[] readValueBytes(FileChannel channel, LogEntry entry) throws IOException
+    {
+        ByteBuffer value = ByteBuffer.allocate(entry.length);
+        while (value.hasRemaining())
+        {
+            if (channel.read(value, entry.position + value.position()) < 0)
+            {
+                throw new EOFException();
+            }
+        }
+        return value.array();
+    }
+
+    private T deserializeValue(byte[] valueBytes) throws ObjectStoreException
+    {
+        try
+        {
+            return muleContext.getObjectSerializer().deserialize(valueBytes);
+        }
+        catch (Exception e)
+        {
+            throw new ObjectStoreException(e);
+        }
+    }
+
+    /**
+     * Keys are most of the times strings so they are written as UTF-8 instead of using the object serializer.
+     * The first byte of the result defines the key type.
+     */
+    private byte[] serializeKey(Serializable key)
+    {
+        byte[] keyBytes;
+        byte keyType;
+        if (key instanceof String)
+        {
+            keyBytes = ((String) key).getBytes(UTF_8);
+            keyType = STRING_KEY;
+        }
+        else
+        {
+            keyBytes = muleContext.getObjectSerializer().serialize(key);
+            keyType = SERIALIZED_KEY;
+        }
+        byte[] result = new byte[keyBytes.length + 1];
+        result[0] = keyType;
+        System.arraycopy(keyBytes, 0, result, 1, keyBytes.length);
+        return result;
+    }
+
+    private Serializable deserializeKey(byte keyType, byte[] keyBytes)
+    {
+        if (keyType == STRING_KEY)
+        {
+            return new String(keyBytes, UTF_8);
+        }
+        return muleContext.getObjectSerializer().deserialize(keyBytes);
+    }
+
+    private boolean isCompactionRequired()
+    {
+        return logChannel != null && logLength >= MINIMUM_SIZE_TO_COMPACT && logLength - liveBytes >= liveBytes;
+    }
+
+    /**
+     * Compacts the log in the background if required. Must be called holding the write lock.
+     */
+    private void scheduleCompactionIfRequired()
+    {
+        if (!isCompactionRequired() || !compactionScheduled.compareAndSet(false, true))
+        {
+            return;
+        }
+        if (compactionExecutor == null)
+        {
+            // the thread is only kept while there are compactions to run
+            compactionExecutor = new ThreadPoolExecutor(0, 1, COMPACTION_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                                                        new LinkedBlockingQueue<Runnable>(),
+                                                        new DaemonThreadFactory("object.store." + getPartitionName() + ".compaction"));
+        }
+        try
+        {
+            compactionExecutor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        compactIfRequired();
+                    }
+                    catch (ObjectStoreException e)
+                    {
+                        logger.warn("Could not compact object store partition " + getPartitionName(), e);
+                    }
+                    finally
+                    {
+                        compactionScheduled.set(false);
+                    }
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            compactionScheduled.set(false);
+        }
+    }
+
+    /**
+     * Rewrites the live entries to a new log if the garbage exceeds the live data. The entries are
+     * copied without holding the lock, then the records appended meanwhile are copied under the
+     * write lock before atomically replacing the log. The index only points to the new log once it
+     * replaced the old one.
+     */
+    private void compactIfRequired() throws ObjectStoreException
+    {
+        synchronized (compactionLock)
+        {
+            FileChannel sourceChannel;
+            long snapshotLength;
+            int snapshotVersion;
+            List<Map.Entry<Serializable, LogEntry>> liveEntries;
+            lock.readLock().lock();
+            try
+            {
+                if (!isCompactionRequired())
+                {
+                    return;
+                }
+                sourceChannel = logChannel;
+                snapshotLength = logLength;
+                snapshotVersion = logVersion;
+                liveEntries = new ArrayList<Map.Entry<Serializable, LogEntry>>(index.size());
+                for (Map.Entry<Serializable, LogEntry> entry : index.entrySet())
+                {
+                    liveEntries.add(new AbstractMap.SimpleImmutableEntry<Serializable, LogEntry>(entry));
+                }
+            }
+            finally
+            {
+                lock.readLock().unlock();
+            }
+
+            if (logger.isDebugEnabled())
+            {
+                logger.debug(String.format("Compacting object store partition %s, log size %s, live data %s",
+                                           getPartitionName(), snapshotLength, liveBytes));
+            }
+            File compactionFile = new File(partitionDirectory, COMPACTION_FILE);
+            boolean replaced = false;
+            try
+            {
+                RandomAccessFile compactedFile = new RandomAccessFile(compactionFile, "rw");
+                try
+                {
+                    FileChannel compactedChannel = compactedFile.getChannel();
+                    compactedChannel.truncate(0);
+                    Map<Serializable, LogEntry> compactedEntries = new HashMap<Serializable, LogEntry>();
+                    long compactedLength = 0;
+                    for (Map.Entry<Serializable, LogEntry> entry : liveEntries)
+                    {
+                        byte[] keyBytes = serializeKey(entry.getKey());
+                        byte[] valueBytes = readValueBytes(sourceChannel, entry.getValue());
+                        ByteBuffer record = ByteBuffer.allocate(recordSize(keyBytes.length, valueBytes.length));
+                        writeRecord(record, STORE_OPERATION, entry.getValue().timestamp, keyBytes, valueBytes);
+                        writeFully(compactedChannel, record, compactedLength);
+                        compactedEntries.put(entry.getKey(), new LogEntry(valuePosition(compactedLength, keyBytes.length),
+                                                                          valueBytes.length, entry.getValue().timestamp));
+                        compactedLength += record.capacity();
+                    }
+
+                    lock.writeLock().lock();
+                    try
+                    {
+                        if (logChannel != sourceChannel || logVersion != snapshotVersion)
+                        {
+                            // the partition was closed or cleared meanwhile
+                            return;
+                        }
+                        long tailLength = logLength - snapshotLength;
+                        compactedChannel.position(compactedLength);
+                        long copied = 0;
+                        while (copied < tailLength)
+                        {
+                            copied += sourceChannel.transferTo(snapshotLength + copied, tailLength - copied, compactedChannel);
+                        }
+                        compactedChannel.force(false);
+                        compactedFile.close();
+
+                        List<LogEntry> newEntries = new ArrayList<LogEntry>(index.size());
+                        for (Map.Entry<Serializable, LogEntry> entry : index.entrySet())
+                        {
+                            LogEntry current = entry.getValue();
+                            newEntries.add(current.position >= snapshotLength
+                                           ? new LogEntry(current.position - snapshotLength + compactedLength, current.length, current.timestamp)
+                                           : compactedEntries.get(entry.getKey()));
+                        }
+
+                        closeLog();
+                        try
+                        {
+                            Files.move(compactionFile.toPath(), new File(partitionDirectory, LOG_FILE).toPath(),
+                                       StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                        }
+                        catch (IOException e)
+                        {
+                            openLog();
+                            throw e;
+                        }
+                        replaced = true;
+                        Iterator<LogEntry> newEntriesIterator = newEntries.iterator();
+                        for (Map.Entry<Serializable, LogEntry> entry : index.entrySet())
+                        {
+                            entry.setValue(newEntriesIterator.next());
+                        }
+                        openLog();
+                    }
+                    finally
+                    {
+                        lock.writeLock().unlock();
+                    }
+                }
+                finally
+                {
+                    compactedFile.close();
+                }
+            }
+            catch (IOException e)
+            {
+                throw new ObjectStoreException(e);
+            }
+            finally
+            {
+                if (!replaced && compactionFile.exists() && !compactionFile.delete())
+                {
+                    logger.warn("Could not delete object store compaction file " + compactionFile.getAbsolutePath());
+                }
+            }
+        }
+    }
+
+    private void openLog() throws ObjectStoreException
+    {
+        try
+        {
+            File compactionFile = new File(partitionDirectory, COMPACTION_FILE);
+            File log = new File(partitionDirectory, LOG_FILE);
+            if (compactionFile.exists())
+            {
+                if (log.exists())
+                {
+                    // compaction was interrupted before replacing the log
+                    Files.delete(compactionFile.toPath());
+                }
+                else
+                {
+                    // only the compacted log is left, which already holds every entry
+                    Files.move(compactionFile.toPath(), log.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            logFile = new RandomAccessFile(log, "rw");
+            logChannel = logFile.getChannel();
+            logLength = logChannel.size();
+        }
+        catch (IOException e)
+        {
+            throw new ObjectStoreException(e);
+        }
+    }
+
+    private void closeLog()
+    {
+        if (logFile != null)
+        {
+            try
+            {
+                logFile.close();
+            }
+            catch (IOException e)
+            {
+                logger.warn("error closing file " + new File(partitionDirectory, LOG_FILE).getAbsolutePath());
+            }
+            logFile = null;
+            logChannel = null;
+            logVersion++;
+        }
+    }
+
+    private void loadIndex() throws ObjectStoreException
+    {
+        long position = 0;
+        DataInputStream input = null;
+        try
+        {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(new File(partitionDirectory, LOG_FILE))));
+            while (position < logLength)
+            {
+                int recordLength = input.readInt();
+                byte operation = input.readByte();
+                long timestamp = input.readLong();
+                byte keyType = input.readByte();
+                int keyLength = input.readInt();
+                if (recordLength < RECORD_HEADER_SIZE || keyLength < 0 || keyLength > recordLength - RECORD_HEADER_SIZE
+                    || position + 4 + recordLength > logLength)
+                {
+                    throw new EOFException();
+                }
+                byte[] keyBytes = new byte[keyLength];
+                input.readFully(keyBytes);
+                int valueLength = recordLength - RECORD_HEADER_SIZE - keyLength;
+                if (input.skipBytes(valueLength) != valueLength)
+                {
+                    throw new EOFException();
+                }
+                Serializable key = deserializeKey(keyType, keyBytes);
+                if (operation == STORE_OPERATION)
+                {
+                    index.put(key, new LogEntry(valuePosition(position, keyLength + 1), valueLength, timestamp));
+                    liveBytes += 4 + recordLength;
+                }
+                else
+                {
+                    LogEntry removed = index.remove(key);
+                    if (removed != null)
+                    {
+                        liveBytes -= recordSize(keyLength + 1, removed.length);
+                    }
+                }
+                position += 4 + recordLength;
+            }
+        }
+        catch (EOFException e)
+        {
+            logger.warn(String.format("Object store partition %s log is truncated at position %s, probably because " +
+                                      "mule was not shutdown properly. Discarding incomplete data.", getPartitionName(), position));
+            try
+            {
+                logChannel.truncate(position);
+                logLength = position;
+            }
+            catch (IOException ioe)
+            {
+                throw new ObjectStoreException(ioe);
+            }
+        }
+        catch (Exception e)
+        {
+            String message = String.format("Could not restore object store data from %1s",
+                                           partitionDirectory.getAbsolutePath());
+            throw new ObjectStoreException(CoreMessages.createStaticMessage(message), e);
+        }
+        finally
+        {
+            if (input != null)
+            {
+                try
+                {
+                    input.close();
+                }
+                catch (IOException e)
+                {
+                    logger.warn("error closing file " + new File(partitionDirectory, LOG_FILE).getAbsolutePath());
+                }
+            }
+        }
+    }
+
+    private void importEntryFiles() throws ObjectStoreException
+    {
+        File[] files = partitionDirectory.listFiles(new FileFilter()
+        {
+            @Override
+            public boolean accept(File file)
+            {
+                return !file.isDirectory() && file.getName().endsWith(OBJECT_FILE_EXTENSION);
+            }
+        });
+        if (files == null || files.length == 0)
+        {
+            return;
+        }
+        logger.info(String.format("Importing %s entries into object store partition %s log", files.length, getPartitionName()));
+        Arrays.sort(files, new Comparator<File>()
+        {
+            public int compare(File f1, File f2)
+            {
+                return Long.valueOf(f1.lastModified()).compareTo(f2.lastModified());
+            }
+        });
+        for (File file : files)
+        {
+            StoreValue<T> storeValue = deserialize(file);
+            if (!index.containsKey(storeValue.getKey()))
+            {
+                byte[] keyBytes = serializeKey(storeValue.getKey());
+                byte[] valueBytes = muleContext.getObjectSerializer().serialize(storeValue.getValue());
+                long recordPosition = append(STORE_OPERATION, file.lastModified(), keyBytes, valueBytes);
+                index.put(storeValue.getKey(), new LogEntry(valuePosition(recordPosition, keyBytes.length), valueBytes.length, file.lastModified()));
+                liveBytes += recordSize(keyBytes.length, valueBytes.length);
+            }
+            if (!file.delete())
+            {
+                logger.warn("Could not delete imported object store file " + file.getAbsolutePath());
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Location of a stored value within the log
+     */
+    private static class LogEntry
+    {
+        private final long position;
+        private final int length;
+        private final long timestamp;
+
+        private LogEntry(long position, int length, long timestamp)
+        {
+            this.position = position;
+            this.length = length;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -30,11 +30,17 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
 {
 
     public static final String OBJECT_STORE_DIR = "objectstore";
+    /**
+     * System property to make new partitions store their entries in a single log file.
+     * See {@link LogStructuredObjectStorePartition}.
+     */
+    public static final String LOG_STRUCTURED_PROPERTY_KEY = "mule.objectstore.logstructured";
 
     private MuleContext muleContext;
     private File storeDirectory;
     private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<String, PersistentObjectStorePartition>();
     private boolean initialized = false;
+    private boolean logStructured = Boolean.getBoolean(LOG_STRUCTURED_PROPERTY_KEY);
 
     public PartitionedPersistentObjectStore()
     {
@@ -83,7 +89,10 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
 
     private void createPartition(String partitionName) throws ObjectStoreException
     {
-        PersistentObjectStorePartition persistentObjectStorePartition = new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory());
+        File partitionDirectory = getNewPartitionDirectory();
+        PersistentObjectStorePartition persistentObjectStorePartition = logStructured
+                                                                        ? new LogStructuredObjectStorePartition(muleContext, partitionName, partitionDirectory)
+                                                                        : new PersistentObjectStorePartition(muleContext, partitionName, partitionDirectory);
         persistentObjectStorePartition.open();
         partitionsByName.put(partitionName, persistentObjectStorePartition);
     }
@@ -213,7 +222,9 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
         {
             try
             {
-                PersistentObjectStorePartition persistentObjectStorePartition = new PersistentObjectStorePartition(muleContext, partitionDirectory);
+                PersistentObjectStorePartition persistentObjectStorePartition = logStructured || LogStructuredObjectStorePartition.isLogStructured(partitionDirectory)
+                                                                                ? new LogStructuredObjectStorePartition(muleContext, partitionDirectory)
+                                                                                : new PersistentObjectStorePartition(muleContext, partitionDirectory);
                 persistentObjectStorePartition.open();
                 partitionsByName.put(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
             }
@@ -230,6 +241,21 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
         muleContext = context;
     }
 
+    public boolean isLogStructured()
+    {
+        return logStructured;
+    }
+
+    /**
+     * @param logStructured true if the partitions created by this store must keep their entries
+     *        in a single log file instead of a file per entry. Partitions already stored as a log
+     *        are always loaded as such.
+     */
+    public void setLogStructured(boolean logStructured)
+    {
+        this.logStructured = logStructured;
+    }
+
     @Override
     public void expire(int entryTTL, int maxEntries) throws ObjectStoreException
     {
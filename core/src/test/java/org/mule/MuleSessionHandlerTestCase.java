@@ -24,6 +24,7 @@ import org.mule.api.transport.SessionHandler;
 import org.mule.security.DefaultMuleAuthentication;
 import org.mule.security.DefaultSecurityContextFactory;
 import org.mule.security.MuleCredentials;
+import org.mule.serialization.JavaObjectSerializer;
 import org.mule.session.DefaultMuleSession;
 import org.mule.session.LegacySessionHandler;
 import org.mule.session.SerializeAndEncodeSessionHandler;
@@ -56,6 +57,9 @@ public class MuleSessionHandlerTestCase extends AbstractMuleTestCase
         when(configuration.getDefaultEncoding()).thenReturn(Charsets.UTF_8.name());
         when(muleContext.getConfiguration()).thenReturn(configuration);
         when(muleContext.getExecutionClassLoader()).thenReturn(Thread.currentThread().getContextClassLoader());
+        JavaObjectSerializer objectSerializer = new JavaObjectSerializer();
+        objectSerializer.setMuleContext(muleContext);
+        when(muleContext.getObjectSerializer()).thenReturn(objectSerializer);
     }
 
     @BeforeClass
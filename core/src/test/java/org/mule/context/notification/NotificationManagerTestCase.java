@@ -6,12 +6,18 @@
  */
 package org.mule.context.notification;
 
+import org.mule.api.context.notification.ServerNotification;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
@@ -179,6 +185,35 @@ public class NotificationManagerTestCase extends AbstractMuleTestCase
         assertTrue(listener2.isNotified());
     }
 
+    @Test
+    public void testRingBufferSkipsNotificationsWithoutListeners() throws ClassNotFoundException
+    {
+        registerDefaultEvents();
+        registerDefaultListeners();
+        manager.setRingBufferSize(4);
+        manager.fireNotification(new Event3());
+        manager.fireNotification(new Event2());
+        List<ServerNotification> batch = new ArrayList<ServerNotification>();
+        manager.ringBuffer().drainTo(batch, 0, TimeUnit.MILLISECONDS);
+        assertEquals(1, batch.size());
+        manager.notifyListeners(batch);
+        assertTrue(listener2.isNotified());
+    }
+
+    @Test
+    public void testRingBufferDropPolicy() throws ClassNotFoundException
+    {
+        registerDefaultEvents();
+        registerDefaultListeners();
+        manager.setOverflowPolicy(NotificationOverflowPolicy.DROP);
+        manager.setRingBufferSize(2);
+        for (int i = 0; i < 5; i++)
+        {
+            manager.fireNotification(new Event2());
+        }
+        assertEquals(3, manager.getDroppedNotificationCount());
+    }
+
     protected void assertNoListenersNotified()
     {
         assertFalse(listener1.isNotified());
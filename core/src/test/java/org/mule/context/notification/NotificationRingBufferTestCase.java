@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.context.notification;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import org.mule.api.context.notification.ServerNotification;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+@SmallTest
+public class NotificationRingBufferTestCase extends AbstractMuleTestCase
+{
+
+    private static final int TIMEOUT = 5000;
+
+    private final List<ServerNotification> batch = new ArrayList<ServerNotification>();
+
+    @Test
+    public void capacityIsRoundedToPowerOfTwo()
+    {
+        assertThat(new NotificationRingBuffer(5, NotificationOverflowPolicy.DROP).capacity(), is(8));
+        assertThat(new NotificationRingBuffer(8, NotificationOverflowPolicy.DROP).capacity(), is(8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCapacity()
+    {
+        new NotificationRingBuffer(0, NotificationOverflowPolicy.DROP);
+    }
+
+    @Test
+    public void drainsInPublishingOrder()
+    {
+        NotificationRingBuffer buffer = new NotificationRingBuffer(4, NotificationOverflowPolicy.DROP);
+        Event1 first = new Event1();
+        Event2 second = new Event2();
+
+        buffer.publish(first);
+        buffer.publish(second);
+
+        assertThat(buffer.drainTo(batch, 0, TimeUnit.MILLISECONDS), is(2));
+        assertThat(batch.get(0), sameInstance((ServerNotification) first));
+        assertThat(batch.get(1), sameInstance((ServerNotification) second));
+        assertThat(buffer.size(), is(0));
+    }
+
+    @Test
+    public void wrapsAround()
+    {
+        NotificationRingBuffer buffer = new NotificationRingBuffer(2, NotificationOverflowPolicy.DROP);
+        for (int i = 0; i < 10; i++)
+        {
+            assertThat(buffer.publish(new Event1()), is(true));
+            assertThat(buffer.drainTo(batch, 0, TimeUnit.MILLISECONDS), is(1));
+        }
+
+        assertThat(batch.size(), is(10));
+        assertThat(buffer.getDroppedCount(), is(0L));
+    }
+
+    @Test
+    public void dropsWhenFull()
+    {
+        NotificationRingBuffer buffer = new NotificationRingBuffer(2, NotificationOverflowPolicy.DROP);
+
+        assertThat(buffer.publish(new Event1()), is(true));
+        assertThat(buffer.publish(new Event1()), is(true));
+        assertThat(buffer.publish(new Event1()), is(false));
+
+        assertThat(buffer.getDroppedCount(), is(1L));
+        assertThat(buffer.drainTo(batch, 0, TimeUnit.MILLISECONDS), is(2));
+    }
+
+    @Test
+    public void blocksWhenFullUntilDrained() throws Exception
+    {
+        final NotificationRingBuffer buffer = new NotificationRingBuffer(1, NotificationOverflowPolicy.BLOCK);
+        buffer.publish(new Event1());
+        final CountDownLatch published = new CountDownLatch(1);
+        Thread producer = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                buffer.publish(new Event2());
+                published.countDown();
+            }
+        };
+        producer.start();
+
+        assertThat(published.await(100, TimeUnit.MILLISECONDS), is(false));
+        assertThat(buffer.drainTo(batch, 0, TimeUnit.MILLISECONDS), is(1));
+        assertThat(published.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+        assertThat(buffer.drainTo(batch, 0, TimeUnit.MILLISECONDS), is(1));
+        assertThat(buffer.getDroppedCount(), is(0L));
+    }
+
+    @Test
+    public void closeReleasesBlockedProducers() throws Exception
+    {
+        final NotificationRingBuffer buffer = new NotificationRingBuffer(1, NotificationOverflowPolicy.BLOCK);
+        buffer.publish(new Event1());
+        final AtomicBoolean accepted = new AtomicBoolean(true);
+        Thread producer = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                accepted.set(buffer.publish(new Event1()));
+            }
+        };
+        producer.start();
+
+        buffer.close();
+        producer.join(TIMEOUT);
+
+        assertThat(producer.isAlive(), is(false));
+        assertThat(accepted.get(), is(false));
+    }
+
+    @Test
+    public void waitingConsumerIsWokenUp() throws Exception
+    {
+        final NotificationRingBuffer buffer = new NotificationRingBuffer(4, NotificationOverflowPolicy.BLOCK);
+        final CountDownLatch drained = new CountDownLatch(1);
+        Thread consumer = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                if (buffer.drainTo(batch, 1, TimeUnit.MINUTES) == 1)
+                {
+                    drained.countDown();
+                }
+            }
+        };
+        consumer.start();
+
+        Thread.sleep(50);
+        buffer.publish(new Event1());
+
+        assertThat(drained.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+    }
+
+    @Test
+    public void concurrentProducersKeepTheirOrder() throws Exception
+    {
+        final NotificationRingBuffer buffer = new NotificationRingBuffer(64, NotificationOverflowPolicy.BLOCK);
+        final int producers = 4;
+        final int notificationsPerProducer = 5000;
+        Thread[] threads = new Thread[producers];
+        for (int i = 0; i < producers; i++)
+        {
+            final String producerId = String.valueOf(i);
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for (int j = 0; j < notificationsPerProducer; j++)
+                    {
+                        buffer.publish(new SequencedEvent(producerId, j));
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        Map<String, Integer> lastSequences = new HashMap<String, Integer>();
+        int received = 0;
+        while (received < producers * notificationsPerProducer)
+        {
+            buffer.drainTo(batch, TIMEOUT, TimeUnit.MILLISECONDS);
+            for (ServerNotification notification : batch)
+            {
+                SequencedEvent event = (SequencedEvent) notification;
+                Integer last = lastSequences.get(event.getResourceIdentifier());
+                assertThat(event.sequence, is(last == null ? 0 : last + 1));
+                lastSequences.put(event.getResourceIdentifier(), event.sequence);
+            }
+            received += batch.size();
+            batch.clear();
+        }
+
+        assertThat(buffer.getDroppedCount(), is(0L));
+    }
+
+    private static class SequencedEvent extends Event1
+    {
+
+        private final int sequence;
+
+        SequencedEvent(String producerId, int sequence)
+        {
+            super(producerId);
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.execution;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import org.mule.NonBlockingVoidMuleEvent;
+import org.mule.api.MuleEvent;
+import org.mule.api.config.MuleProperties;
+import org.mule.api.construct.Pipeline;
+import org.mule.api.processor.MessageProcessor;
+import org.mule.management.stats.FlowConstructStatistics;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class MessageProcessorStatisticsExecutionInterceptorTestCase extends AbstractMuleTestCase
+{
+
+    private static final String PROCESSOR_PATH = "/test/processors/0";
+
+    @Rule
+    public SystemProperty histogramStatistics = new SystemProperty(MuleProperties.MULE_HISTOGRAM_STATISTICS_PROPERTY, "true");
+
+    @Mock
+    private MessageProcessorExecutionInterceptor mockNextInterceptor;
+    @Mock
+    private MessageProcessor mockMessageProcessor;
+    @Mock
+    private Pipeline mockPipeline;
+    @Mock
+    private MuleEvent mockMuleEvent;
+    @Mock
+    private MuleEvent mockResultMuleEvent;
+    private FlowConstructStatistics statistics;
+    private MessageProcessorStatisticsExecutionInterceptor interceptor;
+
+    @Before
+    public void setUpTest()
+    {
+        statistics = new FlowConstructStatistics("Flow", "test");
+        statistics.setEnabled(true);
+        when(mockMuleEvent.getFlowConstruct()).thenReturn(mockPipeline);
+        when(mockPipeline.getStatistics()).thenReturn(statistics);
+        when(mockPipeline.getProcessorPath(mockMessageProcessor)).thenReturn(PROCESSOR_PATH);
+        interceptor = new MessageProcessorStatisticsExecutionInterceptor(mockNextInterceptor);
+    }
+
+    @Test
+    public void recordsProcessingTime() throws Exception
+    {
+        when(mockNextInterceptor.execute(mockMessageProcessor, mockMuleEvent)).thenReturn(mockResultMuleEvent);
+
+        assertThat(interceptor.execute(mockMessageProcessor, mockMuleEvent), is(mockResultMuleEvent));
+        assertThat(statistics.getMessageProcessorPaths(), contains(PROCESSOR_PATH));
+        assertThat(statistics.getMessageProcessorTimeSnapshot(PROCESSOR_PATH).getCount(), is(1L));
+    }
+
+    @Test
+    public void doesNotRecordWhenStatisticsAreDisabled() throws Exception
+    {
+        statistics.setEnabled(false);
+        when(mockNextInterceptor.execute(mockMessageProcessor, mockMuleEvent)).thenReturn(mockResultMuleEvent);
+
+        assertThat(interceptor.execute(mockMessageProcessor, mockMuleEvent), is(mockResultMuleEvent));
+        assertThat(statistics.getMessageProcessorPaths(), empty());
+    }
+
+    @Test
+    public void doesNotRecordNonBlockingExecution() throws Exception
+    {
+        when(mockNextInterceptor.execute(mockMessageProcessor, mockMuleEvent)).thenReturn(NonBlockingVoidMuleEvent.getInstance());
+
+        interceptor.execute(mockMessageProcessor, mockMuleEvent);
+
+        assertThat(statistics.getMessageProcessorPaths(), empty());
+    }
+}
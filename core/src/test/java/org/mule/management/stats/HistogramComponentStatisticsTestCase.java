@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.management.stats;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import org.mule.api.config.MuleProperties;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+@SmallTest
+public class HistogramComponentStatisticsTestCase extends AbstractMuleTestCase
+{
+
+    @Rule
+    public SystemProperty histogramStatistics = new SystemProperty(MuleProperties.MULE_HISTOGRAM_STATISTICS_PROPERTY, "true");
+
+    private final HistogramComponentStatistics statistics = new HistogramComponentStatistics();
+
+    @Test
+    public void executionTimes()
+    {
+        statistics.addExecutionTime(10);
+        statistics.addExecutionTime(20);
+        statistics.addExecutionTime(0);
+
+        assertThat(statistics.getExecutedEvents(), is(3L));
+        assertThat(statistics.getMinExecutionTime(), is(1L));
+        assertThat(statistics.getMaxExecutionTime(), is(20L));
+        assertThat(statistics.getTotalExecutionTime(), is(31L));
+        assertThat(statistics.getAverageExecutionTime(), is(10L));
+        assertThat(statistics.getExecutionTimePercentile(50), is(10L));
+        assertThat(statistics.getExecutionTimePercentile(100), is(20L));
+    }
+
+    @Test
+    public void branchExecutionTimes()
+    {
+        statistics.addExecutionBranchTime(true, 5, 5);
+        statistics.addExecutionBranchTime(false, 7, 12);
+        statistics.addCompleteExecutionTime(12);
+
+        assertThat(statistics.getExecutedEvents(), is(1L));
+        assertThat(statistics.getTotalExecutionTime(), is(12L));
+        assertThat(statistics.getMinExecutionTime(), is(12L));
+        assertThat(statistics.getMaxExecutionTime(), is(12L));
+        assertThat(statistics.getExecutionTimeSnapshot().getCount(), is(1L));
+    }
+
+    @Test
+    public void clear()
+    {
+        statistics.addExecutionTime(10);
+
+        statistics.clear();
+
+        assertThat(statistics.getExecutedEvents(), is(0L));
+        assertThat(statistics.getMaxExecutionTime(), is(0L));
+        assertThat(statistics.getAverageExecutionTime(), is(0L));
+        assertThat(statistics.getExecutionTimeSnapshot().getCount(), is(0L));
+    }
+
+    @Test
+    public void snapshotAndResetKeepsCounters()
+    {
+        statistics.addExecutionTime(10);
+
+        assertThat(statistics.snapshotAndResetExecutionTimes().getCount(), is(1L));
+        assertThat(statistics.getExecutionTimeSnapshot().getCount(), is(0L));
+        assertThat(statistics.getExecutedEvents(), is(1L));
+    }
+
+    @Test
+    public void flowStatisticsUseHistogramsWhenEnabled()
+    {
+        FlowConstructStatistics flowStatistics = new FlowConstructStatistics("Flow", "test");
+        flowStatistics.setEnabled(true);
+        flowStatistics.addFlowExecutionBranchTime(15, 15);
+        flowStatistics.addCompleteFlowExecutionTime(15);
+
+        assertThat(ComponentStatistics.newInstance(), instanceOf(HistogramComponentStatistics.class));
+        assertThat(flowStatistics.getProcessingTimePercentile(99), is(15L));
+    }
+
+    @Test
+    public void flowStatisticsWithoutHistograms()
+    {
+        System.clearProperty(MuleProperties.MULE_HISTOGRAM_STATISTICS_PROPERTY);
+        FlowConstructStatistics flowStatistics = new FlowConstructStatistics("Flow", "test");
+        flowStatistics.addCompleteFlowExecutionTime(15);
+
+        assertThat(ComponentStatistics.newInstance(), not(instanceOf(HistogramComponentStatistics.class)));
+        assertThat(flowStatistics.getProcessingTimePercentile(99), is(0L));
+    }
+
+    @Test
+    public void messageProcessorTimes()
+    {
+        FlowConstructStatistics flowStatistics = new FlowConstructStatistics("Flow", "test");
+        flowStatistics.setEnabled(true);
+        flowStatistics.addMessageProcessorTime("/test/processors/1", 30);
+        flowStatistics.addMessageProcessorTime("/test/processors/0", 10);
+        flowStatistics.addMessageProcessorTime("/test/processors/0", 20);
+
+        assertThat(flowStatistics.isMessageProcessorTimeEnabled(), is(true));
+        assertThat(flowStatistics.getMessageProcessorPaths(), contains("/test/processors/0", "/test/processors/1"));
+        assertThat(flowStatistics.getMessageProcessorTimeSnapshot("/test/processors/0").getCount(), is(2L));
+        assertThat(flowStatistics.getMessageProcessorTimePercentile("/test/processors/0", 100), is(20L));
+        assertThat(flowStatistics.getMessageProcessorTimePercentile("/test/processors/1", 50), is(30L));
+
+        flowStatistics.clear();
+
+        assertThat(flowStatistics.getMessageProcessorPaths(), empty());
+        assertThat(flowStatistics.getMessageProcessorTimeSnapshot("/test/processors/0"), nullValue());
+    }
+
+    @Test
+    public void messageProcessorTimesCoverSlowProcessors()
+    {
+        FlowConstructStatistics flowStatistics = new FlowConstructStatistics("Flow", "test");
+        flowStatistics.setEnabled(true);
+        long tenSeconds = TimeUnit.SECONDS.toMicros(10);
+        flowStatistics.addMessageProcessorTime("/test/processors/0", 20);
+        flowStatistics.addMessageProcessorTime("/test/processors/0", tenSeconds);
+
+        assertThat(flowStatistics.getMessageProcessorTimePercentile("/test/processors/0", 99), is(tenSeconds));
+        assertThat(flowStatistics.getMessageProcessorTimePercentile("/test/processors/0", 50), is(20L));
+    }
+
+    @Test
+    public void snapshotAndResetProcessingTimes()
+    {
+        FlowConstructStatistics flowStatistics = new FlowConstructStatistics("Flow", "test");
+        flowStatistics.setEnabled(true);
+        flowStatistics.addFlowExecutionBranchTime(15, 15);
+        flowStatistics.addCompleteFlowExecutionTime(15);
+        flowStatistics.addMessageProcessorTime("/test/processors/0", 10);
+
+        assertThat(flowStatistics.snapshotAndResetProcessingTimes().getCount(), is(1L));
+        Map<String, LatencyHistogram.Snapshot> processorTimes = flowStatistics.snapshotAndResetMessageProcessorTimes();
+        assertThat(processorTimes.get("/test/processors/0").getCount(), is(1L));
+
+        assertThat(flowStatistics.getProcessingTimeSnapshot().getCount(), is(0L));
+        assertThat(flowStatistics.getMessageProcessorTimeSnapshot("/test/processors/0").getCount(), is(0L));
+        assertThat(flowStatistics.getProcessedEvents(), is(1L));
+    }
+
+    @Test
+    public void messageProcessorTimesWithoutHistograms()
+    {
+        System.clearProperty(MuleProperties.MULE_HISTOGRAM_STATISTICS_PROPERTY);
+        FlowConstructStatistics flowStatistics = new FlowConstructStatistics("Flow", "test");
+        flowStatistics.setEnabled(true);
+
+        assertThat(flowStatistics.isMessageProcessorTimeEnabled(), is(false));
+        assertThat(flowStatistics.getMessageProcessorPaths(), empty());
+        assertThat(flowStatistics.getMessageProcessorTimePercentile("/test/processors/0", 99), is(0L));
+    }
+}
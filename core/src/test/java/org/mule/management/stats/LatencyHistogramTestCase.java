@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.management.stats;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+@SmallTest
+public class LatencyHistogramTestCase extends AbstractMuleTestCase
+{
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void bucketsCoverAllValues()
+    {
+        for (long value = 0; value <= LatencyHistogram.MAXIMUM_VALUE; value++)
+        {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertThat(value, lessThanOrEqualTo(LatencyHistogram.bucketUpperBound(index)));
+            if (index > 0)
+            {
+                assertThat(value, greaterThanOrEqualTo(LatencyHistogram.bucketUpperBound(index - 1) + 1));
+            }
+        }
+    }
+
+    @Test
+    public void percentilesHaveBoundedError()
+    {
+        for (int i = 1; i <= 1000; i++)
+        {
+            histogram.record(i);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount(), is(1000L));
+        assertThat(snapshot.getMin(), is(1L));
+        assertThat(snapshot.getMax(), is(1000L));
+        assertThat(snapshot.getTotal(), is(500500L));
+        assertWithinError(snapshot.getPercentile(50), 500);
+        assertWithinError(snapshot.getPercentile(99), 990);
+        assertWithinError(snapshot.getPercentile(99.9), 999);
+        assertThat(snapshot.getPercentile(100), is(1000L));
+    }
+
+    @Test
+    public void valuesOverMaximumKeepExactMax()
+    {
+        histogram.record(LatencyHistogram.MAXIMUM_VALUE * 10);
+
+        assertThat(histogram.snapshot().getPercentile(100), is(LatencyHistogram.MAXIMUM_VALUE * 10));
+    }
+
+    @Test
+    public void emptySnapshot()
+    {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount(), is(0L));
+        assertThat(snapshot.getMin(), is(0L));
+        assertThat(snapshot.getMax(), is(0L));
+        assertThat(snapshot.getPercentile(99), is(0L));
+    }
+
+    @Test
+    public void snapshotAndReset()
+    {
+        histogram.record(10);
+        histogram.record(20);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshotAndReset();
+        histogram.record(5);
+
+        assertThat(snapshot.getCount(), is(2L));
+        assertThat(snapshot.getMax(), is(20L));
+        assertThat(histogram.snapshot().getCount(), is(1L));
+        assertThat(histogram.snapshot().getMax(), is(5L));
+        assertThat(histogram.snapshot().getTotal(), is(5L));
+    }
+
+    @Test
+    public void mergeSnapshots()
+    {
+        LatencyHistogram other = new LatencyHistogram();
+        histogram.record(10);
+        other.record(1000);
+
+        LatencyHistogram.Snapshot merged = histogram.snapshot().merge(other.snapshot());
+
+        assertThat(merged.getCount(), is(2L));
+        assertThat(merged.getMin(), is(10L));
+        assertThat(merged.getMax(), is(1000L));
+        assertThat(merged.getPercentile(50), is(10L));
+    }
+
+    @Test
+    public void concurrentRecording() throws Exception
+    {
+        final int threads = 4;
+        final int valuesPerThread = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] recorders = new Thread[threads];
+        for (int i = 0; i < threads; i++)
+        {
+            recorders[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                    for (int j = 0; j < valuesPerThread; j++)
+                    {
+                        histogram.record(j % 100);
+                    }
+                }
+            };
+            recorders[i].start();
+        }
+        start.countDown();
+        for (Thread recorder : recorders)
+        {
+            recorder.join();
+        }
+
+        assertThat(histogram.snapshot().getCount(), is((long) threads * valuesPerThread));
+    }
+
+    @Test
+    public void customRangeKeepsBoundedError()
+    {
+        long maximumValue = TimeUnit.HOURS.toMicros(1);
+        LatencyHistogram microsHistogram = new LatencyHistogram(maximumValue, 1);
+        for (int i = 1; i <= 100; i++)
+        {
+            microsHistogram.record(TimeUnit.SECONDS.toMicros(i));
+        }
+
+        LatencyHistogram.Snapshot snapshot = microsHistogram.snapshot();
+
+        assertWithinError(snapshot.getPercentile(50), TimeUnit.SECONDS.toMicros(50));
+        assertWithinError(snapshot.getPercentile(99), TimeUnit.SECONDS.toMicros(99));
+        assertThat(snapshot.getPercentile(100), is(TimeUnit.SECONDS.toMicros(100)));
+    }
+
+    @Test
+    public void concurrentRecordingWithFewerStripes() throws Exception
+    {
+        final LatencyHistogram singleStripeHistogram = new LatencyHistogram(LatencyHistogram.MAXIMUM_VALUE, 1);
+        Thread recorder = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                singleStripeHistogram.record(10);
+            }
+        };
+        recorder.start();
+        singleStripeHistogram.record(20);
+        recorder.join();
+
+        assertThat(singleStripeHistogram.snapshot().getCount(), is(2L));
+        assertThat(singleStripeHistogram.snapshotAndReset().getMax(), is(20L));
+        assertThat(singleStripeHistogram.snapshot().getCount(), is(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsToMergeSnapshotsOfDifferentRanges()
+    {
+        histogram.snapshot().merge(new LatencyHistogram(LatencyHistogram.MAXIMUM_VALUE * 2, 1).snapshot());
+    }
+
+    private void assertWithinError(long actual, long expected)
+    {
+        long error = expected / LatencyHistogram.SUB_BUCKETS + 1;
+        assertThat(actual, allOf(greaterThanOrEqualTo(expected - error), lessThanOrEqualTo(expected + error)));
+    }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.processor;
 
+import org.mule.NonBlockingVoidMuleEvent;
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleException;
 import org.mule.api.processor.MessageProcessor;
@@ -16,6 +17,7 @@ import org.mule.transformer.simple.StringAppendTransformer;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class ResponseMessageProcessorAdapterTestCase extends AbstractMuleContextTestCase
 {
@@ -62,6 +64,14 @@ public class ResponseMessageProcessorAdapterTestCase extends AbstractMuleContext
         assertEquals("012", builder.build().process(getTestEventUsingFlow("0")).getMessageAsString());
     }
 
+    @Test
+    public void testResponseAdaptorSkipsNonBlockingVoidEvent() throws MuleException, Exception
+    {
+        DefaultMessageProcessorChainBuilder builder = new DefaultMessageProcessorChainBuilder();
+        builder.chain(new ResponseMessageProcessorAdapter(new StringAppendTransformer("3")), new ReturnNonBlockingVoidMP());
+        assertSame(NonBlockingVoidMuleEvent.getInstance(), builder.build().process(getTestEventUsingFlow("0")));
+    }
+
     private static class ReturnNullMP implements MessageProcessor
     {
         public MuleEvent process(MuleEvent event) throws MuleException
@@ -70,4 +80,12 @@ public class ResponseMessageProcessorAdapterTestCase extends AbstractMuleContext
         }
     }
 
+    private static class ReturnNonBlockingVoidMP implements MessageProcessor
+    {
+        public MuleEvent process(MuleEvent event) throws MuleException
+        {
+            return NonBlockingVoidMuleEvent.getInstance();
+        }
+    }
+
 }
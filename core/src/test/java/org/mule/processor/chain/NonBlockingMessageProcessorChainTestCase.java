@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.processor.chain;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import org.mule.DefaultMuleEvent;
+import org.mule.NonBlockingVoidMuleEvent;
+import org.mule.api.MessagingException;
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleException;
+import org.mule.api.MuleMessage;
+import org.mule.api.processor.MessageProcessorChain;
+import org.mule.api.processor.NonBlockingMessageProcessor;
+import org.mule.api.transport.NonBlockingReplyToHandler;
+import org.mule.config.i18n.CoreMessages;
+import org.mule.interceptor.AbstractEnvelopeInterceptor;
+import org.mule.management.stats.ProcessingTime;
+import org.mule.processor.ResponseMessageProcessorAdapter;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.transformer.simple.StringAppendTransformer;
+
+import org.junit.Test;
+
+public class NonBlockingMessageProcessorChainTestCase extends AbstractMuleContextTestCase
+{
+
+    private final TestNonBlockingReplyToHandler replyToHandler = new TestNonBlockingReplyToHandler();
+    private final TestNonBlockingMessageProcessor nonBlockingProcessor = new TestNonBlockingMessageProcessor();
+
+    @Test
+    public void resumesChainWhenNonBlockingProcessorCompletes() throws Exception
+    {
+        MessageProcessorChain chain = new DefaultMessageProcessorChainBuilder().chain(
+                new StringAppendTransformer("1"), nonBlockingProcessor, new StringAppendTransformer("2")).build();
+
+        assertThat(chain.process(createNonBlockingEvent("0")), instanceOf(NonBlockingVoidMuleEvent.class));
+        assertThat(replyToHandler.result, nullValue());
+
+        nonBlockingProcessor.complete();
+
+        assertThat(replyToHandler.result.getMessageAsString(), is("012"));
+    }
+
+    @Test
+    public void processesInterceptedProcessorsSynchronously() throws Exception
+    {
+        MessageProcessorChain chain = new DefaultMessageProcessorChainBuilder().chain(
+                new StringAppendTransformer("1"), new ResponseMessageProcessorAdapter(new StringAppendTransformer("3")),
+                nonBlockingProcessor, new StringAppendTransformer("2")).build();
+
+        MuleEvent result = chain.process(createNonBlockingEvent("0"));
+
+        assertThat(result, not(instanceOf(NonBlockingVoidMuleEvent.class)));
+        assertThat(result.getMessageAsString(), is("0123"));
+        assertThat(nonBlockingProcessor.event, nullValue());
+        assertThat(replyToHandler.result, nullValue());
+    }
+
+    @Test
+    public void completesEnvelopeInterceptorWhenNonBlockingProcessorCompletes() throws Exception
+    {
+        TestEnvelopeInterceptor interceptor = new TestEnvelopeInterceptor();
+        MessageProcessorChain chain = new DefaultMessageProcessorChainBuilder().chain(
+                interceptor, nonBlockingProcessor, new StringAppendTransformer("1")).build();
+
+        assertThat(chain.process(createNonBlockingEvent("0")), instanceOf(NonBlockingVoidMuleEvent.class));
+        assertThat(interceptor.lastEvent, nullValue());
+
+        nonBlockingProcessor.complete();
+
+        assertThat(interceptor.lastEvent.getMessageAsString(), is("01after"));
+        assertThat(interceptor.exceptionWasThrown, is(false));
+        assertThat(replyToHandler.result.getMessageAsString(), is("01after"));
+    }
+
+    @Test
+    public void completesEnvelopeInterceptorWhenNonBlockingProcessorFails() throws Exception
+    {
+        TestEnvelopeInterceptor interceptor = new TestEnvelopeInterceptor();
+        MessageProcessorChain chain = new DefaultMessageProcessorChainBuilder().chain(
+                interceptor, nonBlockingProcessor, new StringAppendTransformer("1")).build();
+
+        chain.process(createNonBlockingEvent("0"));
+        nonBlockingProcessor.fail();
+
+        assertThat(interceptor.lastEvent, notNullValue());
+        assertThat(interceptor.exceptionWasThrown, is(true));
+        assertThat(replyToHandler.result, nullValue());
+        assertThat(replyToHandler.exception, notNullValue());
+    }
+
+    private MuleEvent createNonBlockingEvent(Object data) throws Exception
+    {
+        MuleEvent event = getTestEventUsingFlow(data);
+        return new DefaultMuleEvent(event, event.getFlowConstruct(), replyToHandler, null);
+    }
+
+    private static class TestNonBlockingMessageProcessor implements NonBlockingMessageProcessor
+    {
+
+        private MuleEvent event;
+
+        @Override
+        public MuleEvent process(MuleEvent event) throws MuleException
+        {
+            if (event.getReplyToHandler() instanceof NonBlockingReplyToHandler)
+            {
+                this.event = event;
+                return NonBlockingVoidMuleEvent.getInstance();
+            }
+            return event;
+        }
+
+        private void complete() throws MuleException
+        {
+            event.getReplyToHandler().processReplyTo(event, event.getMessage(), null);
+        }
+
+        private void fail()
+        {
+            ((NonBlockingReplyToHandler) event.getReplyToHandler()).processExceptionReplyTo(
+                    new MessagingException(CoreMessages.createStaticMessage("Failed"), event), null);
+        }
+    }
+
+    private static class TestNonBlockingReplyToHandler implements NonBlockingReplyToHandler
+    {
+
+        private MuleEvent result;
+        private MessagingException exception;
+
+        @Override
+        public void processReplyTo(MuleEvent event, MuleMessage returnMessage, Object replyTo) throws MuleException
+        {
+            result = event;
+        }
+
+        @Override
+        public void processExceptionReplyTo(MessagingException exception, Object replyTo)
+        {
+            this.exception = exception;
+        }
+    }
+
+    private static class TestEnvelopeInterceptor extends AbstractEnvelopeInterceptor
+    {
+
+        private MuleEvent lastEvent;
+        private boolean exceptionWasThrown;
+
+        @Override
+        public MuleEvent before(MuleEvent event) throws MuleException
+        {
+            return event;
+        }
+
+        @Override
+        public MuleEvent after(MuleEvent event) throws MuleException
+        {
+            return new StringAppendTransformer("after").process(event);
+        }
+
+        @Override
+        public MuleEvent last(MuleEvent event, ProcessingTime time, long startTime, boolean exceptionWasThrown) throws MuleException
+        {
+            this.lastEvent = event;
+            this.exceptionWasThrown = exceptionWasThrown;
+            return event;
+        }
+    }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.routing.correlation;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.doReturn;
@@ -34,6 +35,9 @@ import org.mule.tck.probe.Prober;
 import org.mule.tck.size.SmallTest;
 import org.mule.util.store.SimpleMemoryObjectStore;
 
+import java.io.Serializable;
+import java.net.URI;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
@@ -51,6 +55,7 @@ public class EventCorrelatorTestCase extends AbstractMuleTestCase
     public static final String OBJECT_STOR_NAME_PREFIX = "prefix";
     public static final String TEST_GROUP_ID = "groupId";
     public static final boolean USE_PERSISTENT_STORE = false;
+    private static final long LATE_EVENT_TIMEOUT = 5000;
 
     private static final Logger logger = LoggerFactory.getLogger(EventCorrelatorTestCase.class);
 
@@ -78,6 +83,7 @@ public class EventCorrelatorTestCase extends AbstractMuleTestCase
     private FlowConstruct mockFlowConstruct;
 
     private ListableObjectStore<EventGroup> memoryObjectStore = new SimpleMemoryObjectStore<EventGroup>();
+    private EventCorrelator eventCorrelator;
 
     @Test(expected = CorrelationTimeoutException.class)
     public void initAfterDeserializationAfterForceGroupExpiry() throws Exception
@@ -112,6 +118,68 @@ public class EventCorrelatorTestCase extends AbstractMuleTestCase
         verify(mockEventGroup, times(1)).initAfterDeserialisation(mockMuleContext);
     }
 
+    @Test
+    public void dropsEventReceivedWhileGroupIsRemoved() throws Exception
+    {
+        final Thread lateEventProcessor = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    eventCorrelator.process(mockMuleEvent);
+                }
+                catch (Exception e)
+                {
+                    logger.debug("Could not process late event", e);
+                }
+            }
+        };
+        memoryObjectStore = new SimpleMemoryObjectStore<EventGroup>()
+        {
+            @Override
+            protected EventGroup doRemove(Serializable key)
+            {
+                EventGroup removed = super.doRemove(key);
+                if (lateEventProcessor.getState() != Thread.State.NEW)
+                {
+                    return removed;
+                }
+
+                // process an event of the group from another thread before the removal completes
+                lateEventProcessor.start();
+                new PollingProber(LATE_EVENT_TIMEOUT, 10).check(new Probe()
+                {
+                    public boolean isSatisfied()
+                    {
+                        return !lateEventProcessor.isAlive() || doContains(TEST_GROUP_ID);
+                    }
+
+                    public String describeFailure()
+                    {
+                        return "Late event was not processed.";
+                    }
+                });
+                return removed;
+            }
+        };
+        mockProcessedGroups = new SimpleMemoryObjectStore<Long>();
+        when(mockMessagingInfoMapping.getCorrelationId(isA(MuleMessage.class))).thenReturn(TEST_GROUP_ID);
+        when(mockEventCorrelatorCallback.shouldAggregateEvents(mockEventGroup)).thenReturn(true);
+        when(mockEventCorrelatorCallback.aggregateEvents(mockEventGroup)).thenReturn(mockMuleEvent);
+        when(mockMuleEvent.getMessageSourceURI()).thenReturn(URI.create("test://source"));
+        EventGroup lateGroup = mock(EventGroup.class);
+        when(lateGroup.getGroupId()).thenReturn(TEST_GROUP_ID);
+        when(mockEventCorrelatorCallback.createEventGroup(mockMuleEvent, TEST_GROUP_ID)).thenReturn(lateGroup);
+        eventCorrelator = createEventCorrelator();
+
+        eventCorrelator.process(mockMuleEvent);
+        lateEventProcessor.join(LATE_EVENT_TIMEOUT);
+
+        assertFalse("A group was left behind for the removed group", memoryObjectStore.contains(TEST_GROUP_ID));
+    }
+
     @Test
     public void disposeObjectStoresIfDisposable() throws Exception
     {
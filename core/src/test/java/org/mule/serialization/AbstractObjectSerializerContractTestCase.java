@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.serialization;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import org.mule.DefaultMuleMessage;
+import org.mule.api.MuleContext;
+import org.mule.api.MuleMessage;
+import org.mule.api.serialization.ObjectSerializer;
+import org.mule.api.serialization.SerializationException;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public abstract class AbstractObjectSerializerContractTestCase extends AbstractMuleContextTestCase
+{
+
+    protected ObjectSerializer serializer;
+
+    @Before
+    public void createSerializer() throws Exception
+    {
+        serializer = createSerializer(muleContext);
+    }
+
+    protected abstract ObjectSerializer createSerializer(MuleContext muleContext);
+
+    @Test
+    public void nullObject()
+    {
+        assertThat(serializer.deserialize(serializer.serialize(null)), is(nullValue()));
+    }
+
+    @Test
+    public void string()
+    {
+        assertRoundtrip("Hello \u00e1\u00e9\u00ed\u00f3\u00fa");
+    }
+
+    @Test
+    public void byteArray()
+    {
+        byte[] bytes = new byte[] {1, 2, 3};
+        byte[] deserialized = serializer.deserialize(serializer.serialize(bytes));
+        assertThat(deserialized, equalTo(bytes));
+    }
+
+    @Test
+    public void boxedPrimitives()
+    {
+        assertRoundtrip(Integer.MIN_VALUE);
+        assertRoundtrip(Long.MAX_VALUE);
+        assertRoundtrip(Boolean.TRUE);
+        assertRoundtrip(3.5d);
+    }
+
+    @Test
+    public void objectGraph()
+    {
+        Map<String, Object> map = new HashMap<String, Object>();
+        List<Object> list = new ArrayList<Object>();
+        list.add(new Date(0));
+        list.add(new TestBean("bean"));
+        list.add(list.size());
+        map.put("list", list);
+        map.put("sameList", list);
+
+        Map<String, Object> deserialized = serializer.deserialize(serializer.serialize((Serializable) map));
+
+        assertThat(deserialized.get("list"), equalTo((Object) list));
+        assertThat(deserialized.get("sameList"), sameInstance(deserialized.get("list")));
+    }
+
+    @Test
+    public void streams()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(new TestBean("bean"), out);
+        TestBean deserialized = serializer.deserialize(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(deserialized, equalTo(new TestBean("bean")));
+    }
+
+    @Test
+    public void muleMessageIsInitialised() throws Exception
+    {
+        MuleMessage message = new DefaultMuleMessage(TEST_MESSAGE, muleContext);
+        message.setOutboundProperty("foo", "bar");
+
+        MuleMessage deserialized = serializer.deserialize(serializer.serialize(message));
+
+        assertThat(deserialized, instanceOf(DefaultMuleMessage.class));
+        assertThat((String) deserialized.getPayload(), equalTo(TEST_MESSAGE));
+        assertThat((String) deserialized.getOutboundProperty("foo"), equalTo("bar"));
+        assertThat(deserialized.getMuleContext(), is(muleContext));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void failsToSerializeNotSerializableObject()
+    {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("key", new Object());
+        serializer.serialize(map);
+    }
+
+    @Test(expected = SerializationException.class)
+    public void failsToDeserializeCorruptedData()
+    {
+        byte[] bytes = serializer.serialize(new TestBean("bean"));
+        serializer.deserialize(Arrays.copyOf(bytes, bytes.length / 2));
+    }
+
+    protected void assertRoundtrip(Serializable object)
+    {
+        Object deserialized = serializer.deserialize(serializer.serialize(object));
+        assertThat(deserialized, equalTo((Object) object));
+    }
+
+    public static class TestBean implements Serializable
+    {
+
+        private static final long serialVersionUID = 3391232372040218633L;
+
+        private final String name;
+
+        public TestBean(String name)
+        {
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof TestBean && name.equals(((TestBean) obj).name);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return name.hashCode();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.serialization;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import org.mule.DefaultMuleMessage;
+import org.mule.api.MuleContext;
+import org.mule.api.MuleMessage;
+import org.mule.api.serialization.ObjectSerializer;
+import org.mule.api.serialization.SerializationException;
+
+import java.util.Collections;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.junit.Test;
+
+public class CompactObjectSerializerTestCase extends AbstractObjectSerializerContractTestCase
+{
+
+    @Override
+    protected ObjectSerializer createSerializer(MuleContext muleContext)
+    {
+        CompactObjectSerializer serializer = new CompactObjectSerializer();
+        serializer.setMuleContext(muleContext);
+        return serializer;
+    }
+
+    @Test
+    public void muleMessageIsSmallerThanWithJavaSerialization() throws Exception
+    {
+        MuleMessage message = new DefaultMuleMessage(TEST_MESSAGE, muleContext);
+        message.setOutboundProperty("foo", "bar");
+
+        assertThat(serializer.serialize(message).length, lessThan(SerializationUtils.serialize(message).length));
+    }
+
+    @Test
+    public void registeredClassesAreWrittenAsIds()
+    {
+        CompactObjectSerializer registeringSerializer = (CompactObjectSerializer) createSerializer(muleContext);
+        registeringSerializer.setRegisteredClasses(Collections.<Class<?>>singletonList(TestBean.class));
+        TestBean bean = new TestBean("bean");
+
+        byte[] bytes = registeringSerializer.serialize(bean);
+
+        assertThat(bytes.length, lessThan(serializer.serialize(bean).length));
+        assertThat(registeringSerializer.<TestBean>deserialize(bytes), equalTo(bean));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void failsToReadClassRegisteredOnlyByWriter()
+    {
+        CompactObjectSerializer registeringSerializer = (CompactObjectSerializer) createSerializer(muleContext);
+        registeringSerializer.setRegisteredClasses(Collections.<Class<?>>singletonList(TestBean.class));
+
+        serializer.deserialize(registeringSerializer.serialize(new TestBean("bean")));
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.serialization;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import org.mule.api.MuleContext;
+import org.mule.api.serialization.ObjectSerializer;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.junit.Test;
+
+public class JavaObjectSerializerTestCase extends AbstractObjectSerializerContractTestCase
+{
+
+    @Override
+    protected ObjectSerializer createSerializer(MuleContext muleContext)
+    {
+        JavaObjectSerializer serializer = new JavaObjectSerializer();
+        serializer.setMuleContext(muleContext);
+        return serializer;
+    }
+
+    @Test
+    public void compatibleWithJavaSerialization()
+    {
+        TestBean bean = new TestBean("bean");
+        assertThat(serializer.serialize(bean), equalTo(SerializationUtils.serialize(bean)));
+        assertThat(serializer.<TestBean>deserialize(SerializationUtils.serialize(bean)), equalTo(bean));
+    }
+}
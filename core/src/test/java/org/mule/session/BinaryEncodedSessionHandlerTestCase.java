@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.session;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.DefaultMuleMessage;
+import org.mule.api.MuleContext;
+import org.mule.api.MuleSession;
+import org.mule.api.config.MuleConfiguration;
+import org.mule.api.config.MuleProperties;
+import org.mule.api.model.SessionException;
+import org.mule.api.security.SecurityContext;
+import org.mule.api.serialization.ObjectSerializer;
+import org.mule.security.DefaultMuleAuthentication;
+import org.mule.security.DefaultSecurityContextFactory;
+import org.mule.security.MuleCredentials;
+import org.mule.serialization.JavaObjectSerializer;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.util.Base64;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class BinaryEncodedSessionHandlerTestCase extends AbstractMuleTestCase
+{
+
+    private MuleContext muleContext;
+    private BinaryEncodedSessionHandler handler = new BinaryEncodedSessionHandler();
+
+    @Before
+    public void setUp() throws Exception
+    {
+        muleContext = mock(MuleContext.class);
+        MuleConfiguration configuration = mock(MuleConfiguration.class);
+        when(configuration.getDefaultEncoding()).thenReturn("UTF-8");
+        when(muleContext.getConfiguration()).thenReturn(configuration);
+        when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+        JavaObjectSerializer objectSerializer = new JavaObjectSerializer();
+        objectSerializer.setMuleContext(muleContext);
+        when(muleContext.getObjectSerializer()).thenReturn(objectSerializer);
+    }
+
+    @Test
+    public void sessionPropertiesAreRestored() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("fooString", "bar");
+        session.setProperty("fooDate", new Date(0));
+        List<String> list = new ArrayList<String>();
+        list.add("bar");
+        session.setProperty("fooList", list);
+        session.setProperty("fooNotSerializable", new Object());
+
+        MuleSession restored = roundtrip(session);
+
+        assertThat(restored.getId(), equalTo(session.getId()));
+        assertThat(restored.<String>getProperty("fooString"), equalTo("bar"));
+        assertThat(restored.<Date>getProperty("fooDate"), equalTo(new Date(0)));
+        assertThat(restored.<List<String>>getProperty("fooList"), equalTo(list));
+        assertThat(restored.getProperty("fooNotSerializable"), nullValue());
+    }
+
+    @Test
+    public void securityContextIsRestored() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setSecurityContext(new DefaultSecurityContextFactory().create(
+                new DefaultMuleAuthentication(new MuleCredentials("joe", "secret".toCharArray()))));
+
+        SecurityContext securityContext = roundtrip(session).getSecurityContext();
+
+        assertThat((String) securityContext.getAuthentication().getPrincipal(), equalTo("joe"));
+    }
+
+    @Test
+    public void invalidSessionIsRestored() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setValid(false);
+
+        assertThat(roundtrip(session).isValid(), equalTo(false));
+    }
+
+    @Test
+    public void emptySessionAddsNoHeader() throws Exception
+    {
+        DefaultMuleMessage message = new DefaultMuleMessage("Test Message", muleContext);
+
+        handler.storeSessionInfoToMessage(new DefaultMuleSession(), message);
+
+        assertThat(message.getOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY), nullValue());
+    }
+
+    @Test
+    public void headerIsSmallerThanSerializedSession() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("foo", "bar");
+
+        DefaultMuleMessage message = new DefaultMuleMessage("Test Message", muleContext);
+        handler.storeSessionInfoToMessage(session, message);
+        DefaultMuleMessage serializedMessage = new DefaultMuleMessage("Test Message", muleContext);
+        new SerializeAndEncodeSessionHandler().storeSessionInfoToMessage(session, serializedMessage);
+
+        assertThat(message.<String>getOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY).length(),
+                   lessThan(serializedMessage.<String>getOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY).length()));
+    }
+
+    @Test
+    public void cachedSessionsAreCopied() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("foo", "bar");
+        DefaultMuleMessage message = new DefaultMuleMessage("Test Message", muleContext);
+        handler.storeSessionInfoToMessage(session, message);
+        message.setInboundProperty(MuleProperties.MULE_SESSION_PROPERTY, message.getOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY));
+
+        MuleSession first = handler.retrieveSessionInfoFromMessage(message);
+        first.setProperty("foo", "changed");
+        MuleSession second = handler.retrieveSessionInfoFromMessage(message);
+
+        assertThat(second, not(sameInstance(first)));
+        assertThat(second.<String>getProperty("foo"), equalTo("bar"));
+    }
+
+    @Test
+    public void sessionsWithSamePropertiesAreDecodedOnce() throws Exception
+    {
+        ObjectSerializer serializer = spy(muleContext.getObjectSerializer());
+        when(muleContext.getObjectSerializer()).thenReturn(serializer);
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("foo", 1);
+        MuleSession otherSession = new DefaultMuleSession();
+        otherSession.setProperty("foo", 1);
+
+        MuleSession restored = roundtrip(session);
+        MuleSession otherRestored = roundtrip(otherSession);
+
+        assertThat(restored.getId(), equalTo(session.getId()));
+        assertThat(otherRestored.getId(), equalTo(otherSession.getId()));
+        assertThat(otherRestored.<Integer>getProperty("foo"), equalTo(1));
+        verify(serializer, times(1)).deserialize(any(byte[].class));
+    }
+
+    @Test
+    public void acceptsSerializedSessionHeader() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("foo", "bar");
+        DefaultMuleMessage message = new DefaultMuleMessage("Test Message", muleContext);
+        new SerializeAndEncodeSessionHandler().storeSessionInfoToMessage(session, message);
+        message.setInboundProperty(MuleProperties.MULE_SESSION_PROPERTY, message.getOutboundProperty(MuleProperties.MULE_SESSION_PROPERTY));
+
+        assertThat(handler.retrieveSessionInfoFromMessage(message).<String>getProperty("foo"), equalTo("bar"));
+    }
+
+    @Test(expected = SessionException.class)
+    public void failsOnUnknownFormatVersion() throws Exception
+    {
+        DefaultMuleMessage message = new DefaultMuleMessage("Test Message", muleContext);
+        message.setInboundProperty(MuleProperties.MULE_SESSION_PROPERTY,
+                                   Base64.encodeBytes(new byte[] {BinaryEncodedSessionHandler.FORMAT_VERSION + 1, 0, 0}));
+
+        handler.retrieveSessionInfoFromMessage(message);
+    }
+
+    @Test(expected = SessionException.class)
+    public void failsOnTruncatedHeader() throws Exception
+    {
+        MuleSession session = new DefaultMuleSession();
+        session.setProperty("foo", "bar");
+        byte[] bytes = handler.encode(session, muleContext.getObjectSerializer());
+        DefaultMuleMessage message = new DefaultMuleMessage("Test Message", muleContext);
+        message.setInboundProperty(MuleProperties.MULE_SESSION_PROPERTY, Base64.encodeBytes(bytes, 0, bytes.length - 2));
+
+        handler.retrieveSessionInfoFromMessage(message);
+    }
+
+    @Test(expected = SessionException.class)
+    public void failsOnUnknownPropertyType() throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(BinaryEncodedSessionHandler.FORMAT_VERSION);
+        out.writeUTF("id");
+        out.writeBoolean(true);
+        out.writeBoolean(false);
+        out.writeInt(1);
+        out.writeUTF("foo");
+        out.writeByte(Byte.MAX_VALUE);
+        out.flush();
+        DefaultMuleMessage message = new DefaultMuleMessage("Test Message", muleContext);
+        message.setInboundProperty(MuleProperties.MULE_SESSION_PROPERTY, Base64.encodeBytes(bytes.toByteArray()));
+
+        handler.retrieveSessionInfoFromMessage(message);
+    }
+
+    private MuleSession roundtrip(MuleSession session) throws Exception
+    {
+        DefaultMuleMessage message = new DefaultMuleMessage("Test Message", muleContext);
+        handler.storeSessionInfoToMessage(session, message);
+        // moves the stored session to the inbound scope so it can be retrieved
+        Object header = message.removeProperty(MuleProperties.MULE_SESSION_PROPERTY);
+        message.setInboundProperty(MuleProperties.MULE_SESSION_PROPERTY, header);
+        return handler.retrieveSessionInfoFromMessage(message);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.util.monitor.TimerWheel;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+@SmallTest
+public class TimerWheelTestCase extends AbstractMuleTestCase
+{
+
+    private static final long TICK = 10;
+
+    private final TimerWheel<String> wheel = new TimerWheel<String>(TICK, 8);
+
+    @Test
+    public void expiresOnceTheDeadlineTickElapsed()
+    {
+        wheel.advance(1000);
+        wheel.schedule("a", 1025);
+        wheel.schedule("b", 1055);
+
+        assertThat(wheel.advance(1020), is(empty()));
+        assertThat(wheel.advance(1030), containsInAnyOrder("a"));
+        assertThat(wheel.advance(1050), is(empty()));
+        assertThat(wheel.advance(1060), containsInAnyOrder("b"));
+        assertThat(wheel.size(), is(0));
+    }
+
+    @Test
+    public void deadlinesBeyondOneRevolution()
+    {
+        wheel.advance(1000);
+        wheel.schedule("a", 1000 + 20 * TICK);
+
+        assertThat(wheel.advance(1000 + 10 * TICK), is(empty()));
+        assertThat(wheel.advance(1000 + 19 * TICK), is(empty()));
+        assertThat(wheel.advance(1000 + 21 * TICK), containsInAnyOrder("a"));
+    }
+
+    @Test
+    public void pastDeadlinesExpireOnNextTick()
+    {
+        wheel.advance(1000);
+        wheel.schedule("a", 500);
+
+        assertThat(wheel.advance(1010), containsInAnyOrder("a"));
+    }
+
+    @Test
+    public void firstAdvanceVisitsWholeWheel()
+    {
+        wheel.schedule("a", 0);
+        wheel.schedule("b", 35);
+        wheel.schedule("c", 10000);
+
+        assertThat(wheel.advance(5000), containsInAnyOrder("a", "b"));
+        assertThat(wheel.isScheduled("c"), is(true));
+    }
+
+    @Test
+    public void advanceCatchesUpAfterSeveralRevolutions()
+    {
+        wheel.advance(1000);
+        for (int i = 0; i < 20; i++)
+        {
+            wheel.schedule("key" + i, 1000 + i * TICK);
+        }
+
+        assertThat(wheel.advance(1000 + 100 * TICK).size(), is(20));
+    }
+
+    @Test
+    public void cancel()
+    {
+        wheel.advance(1000);
+        wheel.schedule("a", 1025);
+
+        assertThat(wheel.cancel("a"), is(true));
+        assertThat(wheel.cancel("a"), is(false));
+        assertThat(wheel.advance(1100), is(empty()));
+    }
+
+    @Test
+    public void rescheduleReplacesDeadline()
+    {
+        wheel.advance(1000);
+        wheel.schedule("a", 1025);
+        wheel.schedule("a", 1065);
+
+        assertThat(wheel.advance(1040), is(empty()));
+        assertThat(wheel.advance(1070), containsInAnyOrder("a"));
+    }
+
+    @Test
+    public void concurrentScheduling() throws Exception
+    {
+        final TimerWheel<String> concurrentWheel = new TimerWheel<String>(1, 64);
+        final int threads = 4;
+        final int keysPerThread = 5000;
+        Thread[] schedulers = new Thread[threads];
+        for (int i = 0; i < threads; i++)
+        {
+            final int thread = i;
+            schedulers[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    long now = System.currentTimeMillis();
+                    for (int j = 0; j < keysPerThread; j++)
+                    {
+                        concurrentWheel.schedule(thread + "-" + j, now + j % 50);
+                    }
+                }
+            };
+            schedulers[i].start();
+        }
+
+        Set<String> expired = new HashSet<String>();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (expired.size() < threads * keysPerThread && System.currentTimeMillis() < deadline)
+        {
+            expired.addAll(concurrentWheel.advance(System.currentTimeMillis()));
+            Thread.sleep(1);
+        }
+
+        assertThat(expired.size(), is(threads * keysPerThread));
+        assertThat(concurrentWheel.size(), is(0));
+    }
+}
@@ -51,12 +51,50 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
         assertThat(entry.getValue(), equalTo(payload));
     }
 
+    @Test
+    public void groupCommitEntriesAreWrittenBeforeReturning() throws Exception
+    {
+        final String queueName = "queue";
+        final Serializable payload = "Hello World!";
+        final int txId = 1;
+
+        TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(JournalDurability.FSYNC);
+        journal.logOperation(new LocalQueueTxJournalEntry(txId, (byte) 6, queueName, payload));
+        long position = journal.logOperation(new LocalQueueTxJournalEntry(txId, (byte) 6, queueName, payload));
+        journal.awaitWritten(position);
+
+        TransactionJournalFile<Integer, LocalQueueTxJournalEntry> recoveredJournal = openJournal();
+        assertThat(recoveredJournal.getLogEntries(txId).size(), equalTo(2));
+        recoveredJournal.close();
+        journal.close();
+    }
+
+    @Test
+    public void groupCommitClearEmptiesJournal() throws Exception
+    {
+        final int txId = 1;
+
+        TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(JournalDurability.FLUSH);
+        journal.awaitWritten(journal.logOperation(new LocalQueueTxJournalEntry(txId, (byte) 6, "queue", "Hello World!")));
+        journal.clear();
+        journal.close();
+
+        journal = openJournal();
+        assertThat(journal.getLogEntries(txId).isEmpty(), is(true));
+        journal.close();
+    }
+
     private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal()
+    {
+        return openJournal(null);
+    }
+
+    private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal(JournalDurability durability)
     {
         File journalFile = new File(temporaryFolder.getRoot(), "journal");
         JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
 
-        return new TransactionJournalFile(journalFile, serializer);
+        return new TransactionJournalFile(journalFile, serializer, durability, 0);
     }
 
 }
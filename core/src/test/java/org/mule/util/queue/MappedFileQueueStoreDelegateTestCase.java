@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+import org.mule.api.MuleContext;
+import org.mule.serialization.JavaObjectSerializer;
+import org.mule.tck.MuleTestUtils;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+@SmallTest
+public class MappedFileQueueStoreDelegateTestCase extends AbstractMuleTestCase
+{
+
+    private static final int SEGMENT_SIZE = 100;
+    private static final int NUMBER_OF_MESSAGES = 50;
+
+    @Rule
+    public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+    @Test
+    public void readMessagesInOrderAcrossSegments() throws Exception
+    {
+        MuleTestUtils.testWithSystemProperty(MappedFileQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY,
+                                             String.valueOf(SEGMENT_SIZE), new MuleTestUtils.TestCallback()
+        {
+            @Override
+            public void run() throws Exception
+            {
+                MappedFileQueueStoreDelegate queueStore = createTestQueueStore();
+                for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+                {
+                    queueStore.add(createTestDataForIndex(i));
+                }
+                assertThat(queueStore.getSize(), is(NUMBER_OF_MESSAGES));
+                for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+                {
+                    assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(i)));
+                }
+                assertThat(queueStore.removeFirst(), nullValue());
+                queueStore.close();
+            }
+        });
+    }
+
+    @Test
+    public void recoverPendingMessagesAfterClose() throws Exception
+    {
+        MuleTestUtils.testWithSystemProperty(MappedFileQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY,
+                                             String.valueOf(SEGMENT_SIZE), new MuleTestUtils.TestCallback()
+        {
+            @Override
+            public void run() throws Exception
+            {
+                int consumedMessages = NUMBER_OF_MESSAGES / 2;
+                MappedFileQueueStoreDelegate queueStore = createTestQueueStore();
+                for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+                {
+                    queueStore.add(createTestDataForIndex(i));
+                }
+                for (int i = 0; i < consumedMessages; i++)
+                {
+                    queueStore.removeFirst();
+                }
+                queueStore.close();
+
+                queueStore = createTestQueueStore();
+                assertThat(queueStore.getSize(), is(NUMBER_OF_MESSAGES - consumedMessages));
+                assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(consumedMessages)));
+                queueStore.close();
+            }
+        });
+    }
+
+    @Test
+    public void recoverUntakenMessagesFirst() throws Exception
+    {
+        MappedFileQueueStoreDelegate queueStore = createTestQueueStore();
+        queueStore.add(createTestDataForIndex(0));
+        queueStore.add(createTestDataForIndex(1));
+        String firstValue = (String) queueStore.removeFirst();
+        queueStore.addFirst(firstValue);
+        queueStore.close();
+
+        queueStore = createTestQueueStore();
+        assertThat(queueStore.getSize(), is(2));
+        assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(0)));
+        assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(1)));
+        queueStore.close();
+    }
+
+    @Test
+    public void removedMessagesAreNotRecovered() throws Exception
+    {
+        MappedFileQueueStoreDelegate queueStore = createTestQueueStore();
+        queueStore.add(createTestDataForIndex(0));
+        queueStore.add(createTestDataForIndex(1));
+        queueStore.remove(createTestDataForIndex(0));
+        assertThat(queueStore.contains(createTestDataForIndex(0)), is(false));
+        queueStore.close();
+
+        queueStore = createTestQueueStore();
+        assertThat(queueStore.getSize(), is(1));
+        assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(1)));
+        queueStore.close();
+    }
+
+    @Test
+    public void consumedSegmentsAreDeleted() throws Exception
+    {
+        MuleTestUtils.testWithSystemProperty(MappedFileQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY,
+                                             String.valueOf(SEGMENT_SIZE), new MuleTestUtils.TestCallback()
+        {
+            @Override
+            public void run() throws Exception
+            {
+                MappedFileQueueStoreDelegate queueStore = createTestQueueStore();
+                for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+                {
+                    queueStore.add(createTestDataForIndex(i));
+                }
+                for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+                {
+                    queueStore.removeFirst();
+                }
+                queueStore.close();
+                File queueStoreDirectory = new File(workingDirectory.getRoot(), "queuestore");
+                // control file plus the segment holding the last consumed message
+                assertThat(queueStoreDirectory.list().length, is(2));
+            }
+        });
+    }
+
+    private String createTestDataForIndex(int index)
+    {
+        return "some value " + index;
+    }
+
+    private MappedFileQueueStoreDelegate createTestQueueStore()
+    {
+        final MuleContext mockMuleContext = Mockito.mock(MuleContext.class);
+        when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+        JavaObjectSerializer objectSerializer = new JavaObjectSerializer();
+        objectSerializer.setMuleContext(mockMuleContext);
+        when(mockMuleContext.getObjectSerializer()).thenReturn(objectSerializer);
+        return new MappedFileQueueStoreDelegate("test-queue", workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0);
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.store;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mule.api.store.ObjectStoreManager.UNBOUNDED;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.Serializable;
+
+import org.junit.Test;
+
+@SmallTest
+public class IndexedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
+{
+
+    private final IndexedInMemoryObjectStore<String> store = new IndexedInMemoryObjectStore<String>();
+
+    @Test
+    public void expiresOldestEntriesOverMaxEntries() throws Exception
+    {
+        storeObjects("1", "2", "3", "4", "5");
+        store.setMaxEntries(3);
+
+        store.expire();
+
+        assertObjectsExpired("1", "2");
+        assertObjectsInStore("3", "4", "5");
+    }
+
+    @Test
+    public void negativeMaxEntriesKeepsAllEntries() throws Exception
+    {
+        storeObjects("1", "2", "3");
+        store.setMaxEntries(-1);
+
+        store.expire();
+
+        assertObjectsInStore("1", "2", "3");
+    }
+
+    @Test
+    public void expiresEntriesOverTtl() throws Exception
+    {
+        storeObjects("1");
+        Thread.sleep(50);
+        storeObjects("2");
+
+        store.expire(40, UNBOUNDED);
+
+        assertObjectsExpired("1");
+        assertObjectsInStore("2");
+    }
+
+    @Test
+    public void removedEntriesDoNotCountForMaxEntries() throws Exception
+    {
+        storeObjects("1", "2", "3", "4");
+        store.remove("2");
+        store.remove("3");
+
+        store.expire(UNBOUNDED, 2);
+
+        assertObjectsInStore("1", "4");
+        assertThat(store.allKeys(), containsInAnyOrder((Serializable) "1", "4"));
+    }
+
+    @Test
+    public void removedKeyCanBeStoredAgain() throws Exception
+    {
+        storeObjects("1", "2");
+        store.remove("1");
+        storeObjects("1");
+
+        store.expire(UNBOUNDED, 1);
+
+        assertObjectsExpired("2");
+        assertEquals("1", store.retrieve("1"));
+    }
+
+    private void storeObjects(String... objects) throws Exception
+    {
+        for (String entry : objects)
+        {
+            store.store(entry, entry);
+        }
+    }
+
+    private void assertObjectsInStore(String... identifiers) throws Exception
+    {
+        for (String id : identifiers)
+        {
+            assertTrue("id " + id + " not in store " + store, store.contains(id));
+        }
+    }
+
+    private void assertObjectsExpired(String... identifiers) throws Exception
+    {
+        for (String id : identifiers)
+        {
+            assertFalse(store.contains(id));
+        }
+    }
+}
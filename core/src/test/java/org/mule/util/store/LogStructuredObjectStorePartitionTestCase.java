@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.util.store;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.mule.api.store.ObjectStoreManager.UNBOUNDED;
+import org.mule.api.MuleContext;
+import org.mule.api.store.ObjectAlreadyExistsException;
+import org.mule.api.store.ObjectDoesNotExistException;
+import org.mule.api.store.ObjectStoreException;
+import org.mule.serialization.JavaObjectSerializer;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+import org.mule.util.FileUtils;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase
+{
+
+    private static final int COMPACTION_TIMEOUT = 5000;
+
+    @Rule
+    public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+    @Mock
+    private MuleContext muleContext;
+
+    private LogStructuredObjectStorePartition<Serializable> partition;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+        JavaObjectSerializer objectSerializer = new JavaObjectSerializer();
+        objectSerializer.setMuleContext(muleContext);
+        when(muleContext.getObjectSerializer()).thenReturn(objectSerializer);
+        partition = new LogStructuredObjectStorePartition<Serializable>(muleContext, "test", objectStoreFolder.getRoot());
+        partition.open();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        partition.close();
+    }
+
+    @Test
+    public void entriesAreRecoveredAfterReopening() throws Exception
+    {
+        partition.store("key1", "value1");
+        partition.store("key2", "value2");
+        partition.store("key3", "value3");
+        partition.remove("key2");
+
+        reopen();
+
+        assertThat(partition.allKeys(), contains((Serializable) "key1", "key3"));
+        assertEquals("value1", partition.retrieve("key1"));
+        assertEquals("value3", partition.retrieve("key3"));
+        assertFalse(partition.contains("key2"));
+    }
+
+    @Test(expected = ObjectAlreadyExistsException.class)
+    public void failsToStoreExistentKey() throws Exception
+    {
+        partition.store("key", "value");
+        partition.store("key", "otherValue");
+    }
+
+    @Test(expected = ObjectDoesNotExistException.class)
+    public void failsToRemoveUnexistentKey() throws Exception
+    {
+        partition.remove("key");
+    }
+
+    @Test(expected = ObjectStoreException.class)
+    public void failsToStoreNullKey() throws Exception
+    {
+        partition.store(null, "value");
+    }
+
+    @Test
+    public void expiresOldestEntriesOverMaxEntries() throws Exception
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            partition.store("key" + i, "value" + i);
+        }
+
+        partition.expire(UNBOUNDED, 3);
+        reopen();
+
+        assertThat(partition.allKeys(), contains((Serializable) "key7", "key8", "key9"));
+    }
+
+    @Test
+    public void expiresEntriesOverTtl() throws Exception
+    {
+        partition.store("key1", "value1");
+        partition.store("key2", "value2");
+        Thread.sleep(10);
+
+        partition.expire(1, UNBOUNDED);
+
+        assertTrue(partition.allKeys().isEmpty());
+    }
+
+    @Test
+    public void discardsIncompleteRecordAfterCrash() throws Exception
+    {
+        partition.store("key1", "value1");
+        partition.store("key2", "value2");
+        partition.close();
+
+        RandomAccessFile logFile = new RandomAccessFile(getLogFile(), "rw");
+        try
+        {
+            logFile.setLength(logFile.length() - 1);
+        }
+        finally
+        {
+            logFile.close();
+        }
+
+        partition.open();
+        assertThat(partition.allKeys(), contains((Serializable) "key1"));
+
+        partition.store("key3", "value3");
+        reopen();
+        assertThat(partition.allKeys(), contains((Serializable) "key1", "key3"));
+        assertEquals("value3", partition.retrieve("key3"));
+    }
+
+    @Test
+    public void compactsLogWhenEntriesAreRemoved() throws Exception
+    {
+        byte[] value = new byte[64 * 1024];
+        for (int i = 0; i < 40; i++)
+        {
+            partition.store("key" + i, value);
+        }
+        final long fullLength = getLogFile().length();
+        for (int i = 0; i < 35; i++)
+        {
+            partition.remove("key" + i);
+        }
+
+        new PollingProber(COMPACTION_TIMEOUT, 50).check(new JUnitProbe()
+        {
+            @Override
+            protected boolean test() throws Exception
+            {
+                assertThat(getLogFile().length(), lessThan(fullLength / 2));
+                return true;
+            }
+
+            @Override
+            public String describeFailure()
+            {
+                return "Log was not compacted";
+            }
+        });
+        assertEquals(value.length, ((byte[]) partition.retrieve("key39")).length);
+        reopen();
+        assertEquals(5, partition.allKeys().size());
+        assertEquals(value.length, ((byte[]) partition.retrieve("key37")).length);
+    }
+
+    @Test
+    public void compactsLogWhenEntriesExpire() throws Exception
+    {
+        byte[] value = new byte[64 * 1024];
+        for (int i = 0; i < 40; i++)
+        {
+            partition.store("key" + i, value);
+        }
+        long fullLength = getLogFile().length();
+
+        partition.expire(UNBOUNDED, 5);
+
+        assertThat(getLogFile().length(), lessThan(fullLength / 2));
+        assertThat(partition.allKeys(), contains((Serializable) "key35", "key36", "key37", "key38", "key39"));
+        partition.store("key40", "value40");
+        assertEquals(value.length, ((byte[]) partition.retrieve("key35")).length);
+        reopen();
+        assertEquals(6, partition.allKeys().size());
+        assertEquals("value40", partition.retrieve("key40"));
+        assertFalse(getCompactionFile().exists());
+    }
+
+    @Test
+    public void discardsInterruptedCompaction() throws Exception
+    {
+        partition.store("key1", "value1");
+        partition.close();
+        FileUtils.writeStringToFile(getCompactionFile(), "incomplete");
+
+        partition.open();
+
+        assertEquals("value1", partition.retrieve("key1"));
+        assertFalse(getCompactionFile().exists());
+    }
+
+    @Test
+    public void recoversCompactedLogThatWasNotRenamed() throws Exception
+    {
+        partition.store("key1", "value1");
+        partition.close();
+        assertTrue(getLogFile().renameTo(getCompactionFile()));
+
+        assertTrue(LogStructuredObjectStorePartition.isLogStructured(objectStoreFolder.getRoot()));
+        partition.open();
+
+        assertEquals("value1", partition.retrieve("key1"));
+        assertTrue(getLogFile().exists());
+    }
+
+    @Test
+    public void removesEntryOnlyOnce() throws Exception
+    {
+        final int removers = 4;
+        for (int i = 0; i < 50; i++)
+        {
+            partition.store("key", "value");
+            final CountDownLatch start = new CountDownLatch(1);
+            final AtomicInteger removed = new AtomicInteger();
+            List<Thread> threads = new ArrayList<Thread>();
+            for (int j = 0; j < removers; j++)
+            {
+                Thread thread = new Thread()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try
+                        {
+                            start.await();
+                            partition.remove("key");
+                            removed.incrementAndGet();
+                        }
+                        catch (Exception e)
+                        {
+                            // removed by another thread
+                        }
+                    }
+                };
+                thread.start();
+                threads.add(thread);
+            }
+            start.countDown();
+            for (Thread thread : threads)
+            {
+                thread.join();
+            }
+            assertEquals(1, removed.get());
+        }
+    }
+
+    @Test
+    public void importsEntriesStoredAsFiles() throws Exception
+    {
+        partition.close();
+        File directory = objectStoreFolder.newFolder("legacy");
+        PersistentObjectStorePartition<Serializable> legacyPartition = new PersistentObjectStorePartition<Serializable>(muleContext, "legacy", directory);
+        legacyPartition.open();
+        legacyPartition.store("key", "value");
+
+        partition = new LogStructuredObjectStorePartition<Serializable>(muleContext, directory);
+        partition.open();
+
+        assertEquals("value", partition.retrieve("key"));
+        assertEquals("legacy", partition.getPartitionName());
+        assertTrue(LogStructuredObjectStorePartition.isLogStructured(directory));
+    }
+
+    private void reopen() throws ObjectStoreException
+    {
+        partition.close();
+        partition = new LogStructuredObjectStorePartition<Serializable>(muleContext, objectStoreFolder.getRoot());
+        partition.open();
+    }
+
+    private File getLogFile()
+    {
+        return new File(objectStoreFolder.getRoot(), LogStructuredObjectStorePartition.LOG_FILE);
+    }
+
+    private File getCompactionFile()
+    {
+        return new File(objectStoreFolder.getRoot(), LogStructuredObjectStorePartition.COMPACTION_FILE);
+    }
+}
@@ -14,6 +14,7 @@ import static org.mockito.Mockito.when;
 import org.mule.api.MuleContext;
 import org.mule.api.store.ObjectAlreadyExistsException;
 import org.mule.api.store.ObjectStoreException;
+import org.mule.serialization.JavaObjectSerializer;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 
 import java.io.File;
@@ -45,6 +46,9 @@ public class PartitionedPersistentObjectStoreTestCase extends AbstractMuleTestCa
         numberOfPartitions = 3;
         when(mockMuleContext.getConfiguration().getWorkingDirectory()).thenReturn(".");
         when(mockMuleContext.getExecutionClassLoader()).thenReturn(Thread.currentThread().getContextClassLoader());
+        JavaObjectSerializer objectSerializer = new JavaObjectSerializer();
+        objectSerializer.setMuleContext(mockMuleContext);
+        when(mockMuleContext.getObjectSerializer()).thenReturn(objectSerializer);
         os = new PartitionedPersistentObjectStore<Serializable>(mockMuleContext);
         File objectStorePersistDir = new File(PartitionedPersistentObjectStore.OBJECT_STORE_DIR);
         if (objectStorePersistDir.exists())
@@ -15,6 +15,7 @@ import static org.mockito.Mockito.when;
 import org.mule.api.MuleContext;
 import org.mule.api.store.ObjectDoesNotExistException;
 import org.mule.api.store.ObjectStoreException;
+import org.mule.serialization.JavaObjectSerializer;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
@@ -43,6 +44,9 @@ public class PersistentObjectStorePartitionTestCase extends AbstractMuleTestCase
     public void setUp() throws Exception
     {
         when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+        JavaObjectSerializer objectSerializer = new JavaObjectSerializer();
+        objectSerializer.setMuleContext(muleContext);
+        when(muleContext.getObjectSerializer()).thenReturn(objectSerializer);
         partition = new PersistentObjectStorePartition(muleContext, "test", objectStoreFolder.getRoot());
         partition.open();
     }
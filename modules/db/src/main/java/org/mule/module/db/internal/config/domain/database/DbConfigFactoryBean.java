@@ -51,6 +51,8 @@ public class DbConfigFactoryBean extends AbstractFactoryBean<DbConfig> implement
     private Map<String, String> connectionProperties;
     private List<DbType> customDataTypes;
     private RetryPolicyTemplate retryPolicyTemplate;
+    private boolean cacheQueryParameterTypes = true;
+    private int statementCacheSize;
 
     @Override
     public Class<?> getObjectType()
@@ -75,6 +77,8 @@ public class DbConfigFactoryBean extends AbstractFactoryBean<DbConfig> implement
         dbConfig.setDriverClassName(driverClassName);
         dbConfig.setMuleContext(muleContext);
         dbConfig.setRetryPolicyTemplate(retryPolicyTemplate);
+        dbConfig.setCacheQueryParameterTypes(cacheQueryParameterTypes);
+        dbConfig.setStatementCacheSize(statementCacheSize);
 
         return dbConfig;
     }
@@ -236,6 +240,16 @@ public class DbConfigFactoryBean extends AbstractFactoryBean<DbConfig> implement
         this.retryPolicyTemplate = retryPolicyTemplate;
     }
 
+    public void setCacheQueryParameterTypes(boolean cacheQueryParameterTypes)
+    {
+        this.cacheQueryParameterTypes = cacheQueryParameterTypes;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize)
+    {
+        this.statementCacheSize = statementCacheSize;
+    }
+
     @Override
     public void dispose()
     {
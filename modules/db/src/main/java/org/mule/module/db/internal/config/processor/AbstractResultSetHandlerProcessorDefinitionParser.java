@@ -7,10 +7,13 @@
 
 package org.mule.module.db.internal.config.processor;
 
-import org.mule.module.db.internal.result.row.InsensitiveMapRowHandler;
 import org.mule.module.db.internal.result.resultset.IteratorResultSetHandler;
 import org.mule.module.db.internal.result.resultset.ListResultSetHandler;
 import org.mule.module.db.internal.result.resultset.ResultSetHandler;
+import org.mule.module.db.internal.result.row.ColumnarRowHandlerFactory;
+import org.mule.module.db.internal.result.row.InsensitiveMapRowHandler;
+import org.mule.module.db.internal.result.row.RowHandlerFactory;
+import org.mule.module.db.internal.result.row.SharedRowHandlerFactory;
 
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.xml.ParserContext;
@@ -19,11 +22,15 @@ import org.w3c.dom.Element;
 public abstract class AbstractResultSetHandlerProcessorDefinitionParser extends AbstractSingleQueryProcessorDefinitionParser
 {
 
+    public static final String COMPACT_ROWS_ATTRIBUTE = "compactRows";
+
     protected ResultSetHandler resultSetHandler;
+    protected boolean compactRows;
 
     @Override
     protected void doParseElement(Element element, ParserContext context, BeanDefinitionBuilder builder)
     {
+        compactRows = Boolean.parseBoolean(element.getAttribute(COMPACT_ROWS_ATTRIBUTE));
         super.doParseElement(element, context, builder);
         builder.addConstructorArgValue(streaming);
     }
@@ -33,15 +40,23 @@ public abstract class AbstractResultSetHandlerProcessorDefinitionParser extends
     {
         super.processStreamingAttribute(builder, streamingValue);
 
-        InsensitiveMapRowHandler recordHandler = new InsensitiveMapRowHandler();
+        RowHandlerFactory rowHandlerFactory;
+        if (compactRows)
+        {
+            rowHandlerFactory = new ColumnarRowHandlerFactory();
+        }
+        else
+        {
+            rowHandlerFactory = new SharedRowHandlerFactory(new InsensitiveMapRowHandler());
+        }
 
         if (Boolean.parseBoolean(streamingValue))
         {
-            resultSetHandler = new IteratorResultSetHandler(recordHandler);
+            resultSetHandler = new IteratorResultSetHandler(rowHandlerFactory);
         }
         else
         {
-            resultSetHandler = new ListResultSetHandler(recordHandler);
+            resultSetHandler = new ListResultSetHandler(rowHandlerFactory);
         }
     }
 }
@@ -41,6 +41,8 @@ public class BulkUpdateMessageProcessorFactoryBean implements FactoryBean<Messag
     private String target;
     private QueryMetadataProvider queryMetadataProvider;
     private AutoGeneratedKeyStrategy autoGeneratedKeyStrategy;
+    private int chunkSize;
+    private boolean commitPerChunk;
 
     public BulkUpdateMessageProcessorFactoryBean(DbConfigResolver dbConfigResolver, QueryResolver queryResolver, BulkQueryExecutorFactory bulkUpdateExecutorFactory, TransactionalAction transactionalAction, List<QueryType> validQueryTypes, Query query)
     {
@@ -63,7 +65,10 @@ public class BulkUpdateMessageProcessorFactoryBean implements FactoryBean<Messag
         }
         else
         {
-            bulkUpdateMessageProcessor = new PreparedBulkUpdateMessageProcessor(dbConfigResolver, queryResolver, bulkUpdateExecutorFactory, transactionalAction, validQueryTypes);
+            PreparedBulkUpdateMessageProcessor preparedBulkUpdateMessageProcessor = new PreparedBulkUpdateMessageProcessor(dbConfigResolver, queryResolver, bulkUpdateExecutorFactory, transactionalAction, validQueryTypes);
+            preparedBulkUpdateMessageProcessor.setChunkSize(chunkSize);
+            preparedBulkUpdateMessageProcessor.setCommitPerChunk(commitPerChunk);
+            bulkUpdateMessageProcessor = preparedBulkUpdateMessageProcessor;
         }
 
         bulkUpdateMessageProcessor.setSource(source);
@@ -105,4 +110,14 @@ public class BulkUpdateMessageProcessorFactoryBean implements FactoryBean<Messag
     {
         this.autoGeneratedKeyStrategy = autoGeneratedKeyStrategy;
     }
+
+    public void setChunkSize(int chunkSize)
+    {
+        this.chunkSize = chunkSize;
+    }
+
+    public void setCommitPerChunk(boolean commitPerChunk)
+    {
+        this.commitPerChunk = commitPerChunk;
+    }
 }
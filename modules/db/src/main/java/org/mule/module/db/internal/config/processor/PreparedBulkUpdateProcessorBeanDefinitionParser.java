@@ -22,6 +22,9 @@ import org.w3c.dom.Element;
 public class PreparedBulkUpdateProcessorBeanDefinitionParser extends AbstractSingleQueryProcessorDefinitionParser
 {
 
+    public static final String BULK_CHUNK_SIZE_ATTRIBUTE = "bulkChunkSize";
+    public static final String COMMIT_PER_CHUNK_ATTRIBUTE = "commitPerChunk";
+
     private final List<QueryType> validQueryTypes;
 
     public PreparedBulkUpdateProcessorBeanDefinitionParser(List<QueryType> validQueryTypes)
@@ -43,9 +46,23 @@ public class PreparedBulkUpdateProcessorBeanDefinitionParser extends AbstractSin
         builder.addConstructorArgValue(validQueryTypes);
         parseAutoGeneratedKeys(element, builder);
         parseMetadataProvider(element, builder);
+        parseBulkChunking(element, builder);
         builder.addConstructorArgValue(queryBean);
     }
 
+    protected void parseBulkChunking(Element element, BeanDefinitionBuilder builder)
+    {
+        if (element.hasAttribute(BULK_CHUNK_SIZE_ATTRIBUTE))
+        {
+            builder.addPropertyValue("chunkSize", element.getAttribute(BULK_CHUNK_SIZE_ATTRIBUTE));
+        }
+
+        if (element.hasAttribute(COMMIT_PER_CHUNK_ATTRIBUTE))
+        {
+            builder.addPropertyValue("commitPerChunk", element.getAttribute(COMMIT_PER_CHUNK_ATTRIBUTE));
+        }
+    }
+
     @Override
     protected BeanDefinition getParamResolverBeanDefinition()
     {
@@ -35,9 +35,34 @@ import java.util.concurrent.Executor;
 public class DefaultDbConnection extends AbstractDbConnection
 {
 
+    private final PreparedStatementCache statementCache;
+
     public DefaultDbConnection(Connection delegate, TransactionalAction transactionalAction, DefaultDbConnectionReleaser connectionReleaseListener, ParamTypeResolverFactory paramTypeResolverFactory)
+    {
+        this(delegate, transactionalAction, connectionReleaseListener, paramTypeResolverFactory, 0);
+    }
+
+    /**
+     * @param statementCacheSize maximum number of idle prepared statements kept open
+     *                           for reuse while the connection is open, 0 disables the cache
+     */
+    public DefaultDbConnection(Connection delegate, TransactionalAction transactionalAction, DefaultDbConnectionReleaser connectionReleaseListener, ParamTypeResolverFactory paramTypeResolverFactory, int statementCacheSize)
     {
         super(delegate, transactionalAction, connectionReleaseListener, paramTypeResolverFactory);
+        this.statementCache = statementCacheSize > 0 ? new PreparedStatementCache(delegate, statementCacheSize) : null;
+    }
+
+    @Override
+    public void release()
+    {
+        // Connections joined to a transaction are not closed on release, so the cache is kept
+        // for their next use and only closed along with the connection
+        if (statementCache != null)
+        {
+            statementCache.clear();
+        }
+
+        super.release();
     }
 
     @Override
@@ -49,6 +74,11 @@ public class DefaultDbConnection extends AbstractDbConnection
     @Override
     public PreparedStatement prepareStatement(String sql) throws SQLException
     {
+        if (statementCache != null)
+        {
+            return statementCache.prepareStatement(sql, Statement.NO_GENERATED_KEYS);
+        }
+
         return delegate.prepareStatement(sql);
     }
 
@@ -91,6 +121,11 @@ public class DefaultDbConnection extends AbstractDbConnection
     @Override
     public void close() throws SQLException
     {
+        if (statementCache != null)
+        {
+            statementCache.close();
+        }
+
         delegate.close();
     }
 
@@ -241,6 +276,11 @@ public class DefaultDbConnection extends AbstractDbConnection
     @Override
     public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException
     {
+        if (statementCache != null)
+        {
+            return statementCache.prepareStatement(sql, autoGeneratedKeys);
+        }
+
         return delegate.prepareStatement(sql, autoGeneratedKeys);
     }
 
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.domain.connection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Caches the {@link PreparedStatement} created from a {@link Connection}.
+ * <p/>
+ * Statements are handed out wrapped in a proxy whose {@link PreparedStatement#close()} returns
+ * the statement to the cache instead of closing it, so a statement prepared once, for example
+ * to read the parameter metadata of a query, is reused the next time the same SQL is prepared
+ * on the same connection. A statement is never handed out twice while it is in use. When the
+ * cache is full the least recently used idle statement is closed.
+ * <p/>
+ * Released statements get their parameters, batch, maximum rows, fetch size and query timeout
+ * reset, so settings used by one execution don't leak into the next one.
+ */
+class PreparedStatementCache
+{
+
+    private static final Log logger = LogFactory.getLog(PreparedStatementCache.class);
+
+    private final Connection connection;
+    private final int maxSize;
+    private final LinkedHashMap<StatementKey, PreparedStatement> idleStatements;
+    private boolean closed;
+
+    PreparedStatementCache(Connection connection, int maxSize)
+    {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.idleStatements = new LinkedHashMap<StatementKey, PreparedStatement>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns an idle statement for the given SQL or prepares a new one
+     *
+     * @param sql SQL text to prepare
+     * @param autoGeneratedKeys one of {@link Statement#RETURN_GENERATED_KEYS} or
+     *                          {@link Statement#NO_GENERATED_KEYS}
+     * @return a statement that returns to the cache when closed
+     * @throws SQLException if the statement cannot be prepared
+     */
+    PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException
+    {
+        StatementKey key = new StatementKey(sql, autoGeneratedKeys);
+
+        PreparedStatement statement;
+        synchronized (this)
+        {
+            statement = idleStatements.remove(key);
+        }
+
+        if (statement == null)
+        {
+            if (autoGeneratedKeys == Statement.NO_GENERATED_KEYS)
+            {
+                statement = connection.prepareStatement(sql);
+            }
+            else
+            {
+                statement = connection.prepareStatement(sql, autoGeneratedKeys);
+            }
+        }
+
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {PreparedStatement.class},
+                                                          new CachedStatementInvocationHandler(key, statement));
+    }
+
+    /**
+     * Closes the idle statements and stops caching. Statements still in use are closed when they
+     * are released.
+     */
+    void close()
+    {
+        synchronized (this)
+        {
+            closed = true;
+        }
+        clear();
+    }
+
+    /**
+     * Closes the idle statements. Statements still in use are cached again when they are released,
+     * unless the cache was closed.
+     */
+    void clear()
+    {
+        List<PreparedStatement> statements;
+        synchronized (this)
+        {
+            statements = new ArrayList<PreparedStatement>(idleStatements.values());
+            idleStatements.clear();
+        }
+
+        for (PreparedStatement statement : statements)
+        {
+            closeQuietly(statement);
+        }
+    }
+
+    synchronized int size()
+    {
+        return idleStatements.size();
+    }
+
+    private void release(StatementKey key, PreparedStatement statement) throws SQLException
+    {
+        if (statement.isClosed())
+        {
+            return;
+        }
+
+        try
+        {
+            reset(statement);
+        }
+        catch (SQLException e)
+        {
+            closeQuietly(statement);
+            throw e;
+        }
+
+        PreparedStatement evicted = null;
+        synchronized (this)
+        {
+            if (!closed && !idleStatements.containsKey(key))
+            {
+                idleStatements.put(key, statement);
+                statement = null;
+
+                if (idleStatements.size() > maxSize)
+                {
+                    Iterator<PreparedStatement> eldest = idleStatements.values().iterator();
+                    evicted = eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+
+        if (statement != null)
+        {
+            statement.close();
+        }
+        if (evicted != null)
+        {
+            closeQuietly(evicted);
+        }
+    }
+
+    private void reset(PreparedStatement statement) throws SQLException
+    {
+        statement.clearParameters();
+        statement.clearBatch();
+        statement.setMaxRows(0);
+        statement.setFetchSize(0);
+        statement.setQueryTimeout(0);
+    }
+
+    private void closeQuietly(PreparedStatement statement)
+    {
+        try
+        {
+            statement.close();
+        }
+        catch (SQLException e)
+        {
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Error closing cached statement", e);
+            }
+        }
+    }
+
+    private static class StatementKey
+    {
+
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        private StatementKey(String sql, int autoGeneratedKeys)
+        {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof StatementKey))
+            {
+                return false;
+            }
+
+            StatementKey that = (StatementKey) o;
+            return autoGeneratedKeys == that.autoGeneratedKeys && sql.equals(that.sql);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * sql.hashCode() + autoGeneratedKeys;
+        }
+    }
+
+    private class CachedStatementInvocationHandler implements InvocationHandler
+    {
+
+        private final StatementKey key;
+        private final PreparedStatement statement;
+        private boolean released;
+
+        private CachedStatementInvocationHandler(StatementKey key, PreparedStatement statement)
+        {
+            this.key = key;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+        {
+            String methodName = method.getName();
+
+            if ("close".equals(methodName) && method.getParameterTypes().length == 0)
+            {
+                if (!released)
+                {
+                    released = true;
+                    release(key, statement);
+                }
+                return null;
+            }
+            else if ("isClosed".equals(methodName))
+            {
+                return released || statement.isClosed();
+            }
+            else if ("equals".equals(methodName) && method.getParameterTypes().length == 1)
+            {
+                return proxy == args[0];
+            }
+            else if ("hashCode".equals(methodName) && method.getParameterTypes().length == 0)
+            {
+                return System.identityHashCode(proxy);
+            }
+
+            if (released && method.getDeclaringClass() != Object.class)
+            {
+                throw new SQLException("Statement is closed");
+            }
+
+            try
+            {
+                return method.invoke(statement, args);
+            }
+            catch (InvocationTargetException e)
+            {
+                throw e.getCause();
+            }
+        }
+    }
+}
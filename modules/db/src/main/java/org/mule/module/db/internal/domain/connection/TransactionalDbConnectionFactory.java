@@ -13,6 +13,7 @@ import org.mule.module.db.internal.domain.transaction.DbTransactionManager;
 import org.mule.module.db.internal.domain.transaction.TransactionalAction;
 import org.mule.module.db.internal.domain.type.DbTypeManager;
 import org.mule.module.db.internal.resolver.param.GenericParamTypeResolverFactory;
+import org.mule.module.db.internal.resolver.param.ParamTypeResolverFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -34,13 +35,27 @@ public class TransactionalDbConnectionFactory implements DbConnectionFactory
     protected final DbTypeManager dbTypeManager;
     private final ConnectionFactory connectionFactory;
     private final DataSource dataSource;
+    private final ParamTypeResolverFactory paramTypeResolverFactory;
+    private final int statementCacheSize;
 
     public TransactionalDbConnectionFactory(DbTransactionManager dbTransactionManager, DbTypeManager dbTypeManager, ConnectionFactory connectionFactory, DataSource dataSource)
+    {
+        this(dbTransactionManager, dbTypeManager, connectionFactory, dataSource, new GenericParamTypeResolverFactory(dbTypeManager), 0);
+    }
+
+    /**
+     * @param paramTypeResolverFactory factory shared by all the created connections to resolve parameter types
+     * @param statementCacheSize maximum number of prepared statements cached by each created connection,
+     *                           0 disables statement caching
+     */
+    public TransactionalDbConnectionFactory(DbTransactionManager dbTransactionManager, DbTypeManager dbTypeManager, ConnectionFactory connectionFactory, DataSource dataSource, ParamTypeResolverFactory paramTypeResolverFactory, int statementCacheSize)
     {
         this.dbTransactionManager = dbTransactionManager;
         this.dbTypeManager = dbTypeManager;
         this.connectionFactory = connectionFactory;
         this.dataSource = dataSource;
+        this.paramTypeResolverFactory = paramTypeResolverFactory;
+        this.statementCacheSize = statementCacheSize;
     }
 
     @Override
@@ -86,7 +101,7 @@ public class TransactionalDbConnectionFactory implements DbConnectionFactory
 
     protected DbConnection doCreateDbConnection(Connection connection, TransactionalAction transactionalAction)
     {
-        return new DefaultDbConnection(connection, transactionalAction, new DefaultDbConnectionReleaser(this), new GenericParamTypeResolverFactory(dbTypeManager));
+        return new DefaultDbConnection(connection, transactionalAction, new DefaultDbConnectionReleaser(this), paramTypeResolverFactory, statementCacheSize);
     }
 
     private Connection getConnectionFromTransaction(Transaction tx, DataSource dataSource) throws SQLException
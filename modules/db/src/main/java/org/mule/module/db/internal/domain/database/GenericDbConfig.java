@@ -26,6 +26,7 @@ import org.mule.module.db.internal.domain.connection.TransactionalDbConnectionFa
 import org.mule.module.db.internal.domain.transaction.TransactionCoordinationDbTransactionManager;
 import org.mule.module.db.internal.domain.type.DbTypeManager;
 import org.mule.module.db.internal.domain.xa.CompositeDataSourceDecorator;
+import org.mule.module.db.internal.resolver.param.GenericParamTypeResolverFactory;
 
 import com.mchange.v2.c3p0.DataSources;
 
@@ -68,6 +69,8 @@ public class GenericDbConfig implements DbConfig, Initialisable, Disposable
     private MuleContext muleContext;
     private String url;
     private RetryPolicyTemplate retryPolicyTemplate;
+    private boolean cacheQueryParameterTypes = true;
+    private int statementCacheSize;
 
     public GenericDbConfig(DataSource dataSource, String name, DbTypeManager dbTypeManager)
     {
@@ -171,7 +174,8 @@ public class GenericDbConfig implements DbConfig, Initialisable, Disposable
             connectionFactory = new RetryConnectionFactory(retryPolicyTemplate, new SimpleConnectionFactory());
         }
 
-        dbConnectionFactory = new TransactionalDbConnectionFactory(new TransactionCoordinationDbTransactionManager(), dbTypeManager, connectionFactory, this.getDataSource());
+        dbConnectionFactory = new TransactionalDbConnectionFactory(new TransactionCoordinationDbTransactionManager(), dbTypeManager, connectionFactory, this.getDataSource(),
+                                                                   new GenericParamTypeResolverFactory(dbTypeManager, cacheQueryParameterTypes), statementCacheSize);
     }
 
     @Override
@@ -307,4 +311,14 @@ public class GenericDbConfig implements DbConfig, Initialisable, Disposable
     {
         this.retryPolicyTemplate = retryPolicyTemplate;
     }
+
+    public void setCacheQueryParameterTypes(boolean cacheQueryParameterTypes)
+    {
+        this.cacheQueryParameterTypes = cacheQueryParameterTypes;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize)
+    {
+        this.statementCacheSize = statementCacheSize;
+    }
 }
@@ -13,6 +13,7 @@ import org.mule.module.db.internal.domain.query.Query;
 import org.mule.module.db.internal.domain.query.QueryParamValue;
 
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -41,4 +42,18 @@ public interface BulkExecutor
      * @throws SQLException if a database access error occurs or this method is called on a closed connection
      */
     Object execute(DbConnection connection, Query query, List<List<QueryParamValue>> paramValues) throws SQLException;
+
+    /**
+     * Executes a parameterized query using a stream of parameter sets, executing a batch every
+     * time a chunk of parameter sets is added, so only one chunk is kept in memory
+     *
+     * @param connection connection to the database where the query will be executed. Non null
+     * @param query parameterized query to executed using the sets of parameters
+     * @param paramValues parameters to use to execute the query, consumed lazily
+     * @param chunkSize maximum number of parameter sets executed in the same batch. Must be positive
+     * @param commitPerChunk indicates whether or not the connection is committed after each batch
+     * @return the total number of rows affected by the query
+     * @throws SQLException if a database access error occurs or this method is called on a closed connection
+     */
+    Object execute(DbConnection connection, Query query, Iterator<List<QueryParamValue>> paramValues, int chunkSize, boolean commitPerChunk) throws SQLException;
 }
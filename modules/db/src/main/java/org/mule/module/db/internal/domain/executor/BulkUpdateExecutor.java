@@ -19,6 +19,8 @@ import org.mule.module.db.internal.domain.statement.StatementFactory;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -62,6 +64,93 @@ public class BulkUpdateExecutor extends AbstractExecutor implements BulkExecutor
 
     @Override
     public Object execute(DbConnection connection, Query query, List<List<QueryParamValue>> paramValues) throws SQLException
+    {
+        PreparedStatement preparedStatement = createPreparedStatement(connection, query);
+
+        try
+        {
+            return executeBatch(preparedStatement, query.getQueryTemplate(), paramValues);
+        }
+        finally
+        {
+            preparedStatement.clearParameters();
+            preparedStatement.close();
+        }
+    }
+
+    @Override
+    public Object execute(DbConnection connection, Query query, Iterator<List<QueryParamValue>> paramValues, int chunkSize, boolean commitPerChunk) throws SQLException
+    {
+        if (chunkSize <= 0)
+        {
+            throw new IllegalArgumentException("Chunk size must be positive but was " + chunkSize);
+        }
+
+        PreparedStatement preparedStatement = createPreparedStatement(connection, query);
+        boolean restoreAutoCommit = false;
+        try
+        {
+            if (commitPerChunk && connection.getAutoCommit())
+            {
+                connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+
+            long updateCount = 0;
+            List<List<QueryParamValue>> chunk = new ArrayList<List<QueryParamValue>>(chunkSize);
+
+            while (paramValues.hasNext())
+            {
+                chunk.add(paramValues.next());
+
+                if (chunk.size() == chunkSize || !paramValues.hasNext())
+                {
+                    updateCount += sumUpdateCounts(executeBatch(preparedStatement, query.getQueryTemplate(), chunk));
+                    chunk.clear();
+
+                    if (commitPerChunk)
+                    {
+                        connection.commit();
+                    }
+                }
+            }
+
+            return updateCount;
+        }
+        catch (SQLException e)
+        {
+            if (commitPerChunk)
+            {
+                rollbackChunk(connection);
+            }
+            throw e;
+        }
+        catch (RuntimeException e)
+        {
+            if (commitPerChunk)
+            {
+                rollbackChunk(connection);
+            }
+            throw e;
+        }
+        finally
+        {
+            try
+            {
+                preparedStatement.clearParameters();
+                preparedStatement.close();
+            }
+            finally
+            {
+                if (restoreAutoCommit)
+                {
+                    connection.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
+    private PreparedStatement createPreparedStatement(DbConnection connection, Query query) throws SQLException
     {
         Statement statement = statementFactory.create(connection, query.getQueryTemplate());
 
@@ -70,25 +159,53 @@ public class BulkUpdateExecutor extends AbstractExecutor implements BulkExecutor
             throw new IllegalArgumentException("Bulk update must be executed on a prepared statement");
         }
 
-        PreparedStatement preparedStatement = (PreparedStatement) statement;
-        PreparedBulkQueryLogger queryLogger = queryLoggerFactory.createBulkQueryLogger(logger, query.getQueryTemplate(), paramValues.size());
-        try
+        return (PreparedStatement) statement;
+    }
+
+    private int[] executeBatch(PreparedStatement preparedStatement, QueryTemplate queryTemplate, List<List<QueryParamValue>> paramValues) throws SQLException
+    {
+        PreparedBulkQueryLogger queryLogger = queryLoggerFactory.createBulkQueryLogger(logger, queryTemplate, paramValues.size());
+
+        for (List<QueryParamValue> params : paramValues)
+        {
+            doProcessParameters(preparedStatement, queryTemplate, params, queryLogger);
+            preparedStatement.addBatch();
+            queryLogger.addParameterSet();
+        }
+
+        queryLogger.logQuery();
+
+        return preparedStatement.executeBatch();
+    }
+
+    /**
+     * Adds the update counts of a batch. Drivers can return {@link Statement#SUCCESS_NO_INFO}
+     * instead of the count of a statement, those statements are not counted.
+     */
+    private long sumUpdateCounts(int[] updateCounts)
+    {
+        long result = 0;
+
+        for (int updateCount : updateCounts)
         {
-            for (List<QueryParamValue> params : paramValues)
+            if (updateCount > 0)
             {
-                doProcessParameters(preparedStatement, query.getQueryTemplate(), params, queryLogger);
-                preparedStatement.addBatch();
-                queryLogger.addParameterSet();
+                result += updateCount;
             }
+        }
 
-            queryLogger.logQuery();
+        return result;
+    }
 
-            return preparedStatement.executeBatch();
+    private void rollbackChunk(DbConnection connection)
+    {
+        try
+        {
+            connection.rollback();
         }
-        finally
+        catch (SQLException e)
         {
-            preparedStatement.clearParameters();
-            statement.close();
+            logger.warn("Unable to rollback the bulk update chunk that failed", e);
         }
     }
 }
@@ -15,8 +15,11 @@ import org.mule.module.db.internal.domain.query.QueryType;
 import org.mule.module.db.internal.domain.transaction.TransactionalAction;
 import org.mule.module.db.internal.resolver.database.DbConfigResolver;
 import org.mule.module.db.internal.resolver.query.QueryResolver;
+import org.mule.util.IOUtils;
 import org.mule.util.StringUtils;
 
+import java.io.Closeable;
+import java.io.InputStream;
 import java.util.Iterator;
 import java.util.List;
 
@@ -43,21 +46,25 @@ public abstract class AbstractBulkUpdateMessageProcessor extends AbstractDbMessa
 
     protected Iterator<Object> getIterator(MuleEvent muleEvent)
     {
-        Object bulkData;
+        return getIterator(getBulkData(muleEvent), muleEvent.getEncoding());
+    }
 
+    protected Object getBulkData(MuleEvent muleEvent)
+    {
         if (StringUtils.isEmpty(source))
         {
-            bulkData = muleEvent.getMessage().getPayload();
+            return muleEvent.getMessage().getPayload();
         }
         else
         {
-            bulkData = muleContext.getExpressionManager().evaluate(source, muleEvent);
+            return muleContext.getExpressionManager().evaluate(source, muleEvent);
         }
-
-        return getIterator(bulkData);
     }
 
-    private Iterator<Object> getIterator(Object bulkData)
+    /**
+     * Iterates the items of the bulk data. Streams are read lazily, every line being an item.
+     */
+    protected Iterator<Object> getIterator(Object bulkData, String encoding)
     {
         if (bulkData instanceof Iterable)
         {
@@ -67,15 +74,30 @@ public abstract class AbstractBulkUpdateMessageProcessor extends AbstractDbMessa
         {
             return (Iterator<Object>) bulkData;
         }
+        else if (bulkData instanceof InputStream)
+        {
+            return (Iterator) IOUtils.lineIterator((InputStream) bulkData, encoding);
+        }
         else
         {
             throw new IllegalArgumentException(
-                    String.format("Bulk mode operations require Iterable/Iterator as input. Got %s instead",
+                    String.format("Bulk mode operations require Iterable/Iterator/InputStream as input. Got %s instead",
                                   bulkData != null ? bulkData.getClass().getCanonicalName() : "null")
             );
         }
     }
 
+    /**
+     * Releases the resources held by streamed bulk data once it has been consumed
+     */
+    protected void closeBulkData(Object bulkData)
+    {
+        if (bulkData instanceof Closeable && !(bulkData instanceof Iterable))
+        {
+            IOUtils.closeQuietly((Closeable) bulkData);
+        }
+    }
+
     @Override
     protected List<QueryType> getValidQueryTypes()
     {
@@ -22,6 +22,7 @@ import org.mule.module.db.internal.resolver.database.DbConfigResolver;
 import org.mule.module.db.internal.resolver.param.DynamicParamValueResolver;
 import org.mule.module.db.internal.resolver.param.ParamValueResolver;
 import org.mule.module.db.internal.resolver.query.QueryResolver;
+import org.mule.transaction.TransactionCoordination;
 
 import java.sql.SQLException;
 import java.util.Iterator;
@@ -40,6 +41,9 @@ import java.util.List;
 public class PreparedBulkUpdateMessageProcessor extends AbstractBulkUpdateMessageProcessor
 {
 
+    private int chunkSize;
+    private boolean commitPerChunk;
+
     public PreparedBulkUpdateMessageProcessor(DbConfigResolver dbConfigResolver, QueryResolver queryResolver, BulkQueryExecutorFactory bulkUpdateExecutorFactory, TransactionalAction transactionalAction, List<QueryType> validQueryTypes)
     {
         super(dbConfigResolver, transactionalAction, validQueryTypes, queryResolver, bulkUpdateExecutorFactory);
@@ -52,29 +56,106 @@ public class PreparedBulkUpdateMessageProcessor extends AbstractBulkUpdateMessag
 
         validateQueryType(query.getQueryTemplate());
 
-        List<List<QueryParamValue>> paramValues = resolveParamSets(muleEvent, query);
+        Object bulkData = getBulkData(muleEvent);
+        try
+        {
+            Iterator<List<QueryParamValue>> paramSets = new ParamSetIterator(getIterator(bulkData, muleEvent.getEncoding()), muleEvent, query);
+
+            BulkExecutor bulkUpdateExecutor = bulkUpdateExecutorFactory.create();
 
-        BulkExecutor bulkUpdateExecutor = bulkUpdateExecutorFactory.create();
-        return bulkUpdateExecutor.execute(connection, query, paramValues);
+            if (chunkSize > 0)
+            {
+                return bulkUpdateExecutor.execute(connection, query, paramSets, chunkSize, commitPerChunk && !isTransactionJoined(connection));
+            }
+            else
+            {
+                return bulkUpdateExecutor.execute(connection, query, resolveParamSets(paramSets));
+            }
+        }
+        finally
+        {
+            closeBulkData(bulkData);
+        }
     }
 
-    private List<List<QueryParamValue>> resolveParamSets(MuleEvent muleEvent, Query query)
+    private List<List<QueryParamValue>> resolveParamSets(Iterator<List<QueryParamValue>> paramSets)
     {
-        final Iterator<Object> paramsIterator = getIterator(muleEvent);
-
-        ParamValueResolver paramValueResolver = new DynamicParamValueResolver(muleContext.getExpressionManager());
-
         List<List<QueryParamValue>> result = new LinkedList<List<QueryParamValue>>();
 
-        while (paramsIterator.hasNext())
+        while (paramSets.hasNext())
         {
-            MuleMessage itemMessage = new DefaultMuleMessage(paramsIterator.next(), muleContext);
-            MuleEvent itemEvent = new DefaultMuleEvent(itemMessage, muleEvent);
-            List<QueryParamValue> queryParamValues = paramValueResolver.resolveParams(itemEvent, query.getParamValues());
-            result.add(queryParamValues);
+            result.add(paramSets.next());
         }
 
         return result;
     }
 
+    /**
+     * Chunks are never committed on a connection that belongs to a transaction, the
+     * transaction decides when the changes are committed
+     */
+    private boolean isTransactionJoined(DbConnection connection)
+    {
+        return connection.getTransactionalAction() != TransactionalAction.NOT_SUPPORTED && TransactionCoordination.getInstance().getTransaction() != null;
+    }
+
+    /**
+     * Sets the number of items executed in the same batch. When positive, the items of the bulk
+     * data are consumed lazily and the operation returns the total number of affected rows
+     * instead of the update count of each item. Defaults to 0, meaning all the items are executed
+     * in a single batch.
+     */
+    public void setChunkSize(int chunkSize)
+    {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Indicates whether or not each chunk is committed once executed, so a failure only rolls back
+     * the chunk being executed. Ignored when the operation joins a transaction or no chunk size
+     * was configured.
+     */
+    public void setCommitPerChunk(boolean commitPerChunk)
+    {
+        this.commitPerChunk = commitPerChunk;
+    }
+
+    /**
+     * Resolves the parameters of each item of the bulk data when the item is requested
+     */
+    private class ParamSetIterator implements Iterator<List<QueryParamValue>>
+    {
+
+        private final Iterator<Object> items;
+        private final MuleEvent muleEvent;
+        private final Query query;
+        private final ParamValueResolver paramValueResolver = new DynamicParamValueResolver(muleContext.getExpressionManager());
+
+        private ParamSetIterator(Iterator<Object> items, MuleEvent muleEvent, Query query)
+        {
+            this.items = items;
+            this.muleEvent = muleEvent;
+            this.query = query;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return items.hasNext();
+        }
+
+        @Override
+        public List<QueryParamValue> next()
+        {
+            MuleMessage itemMessage = new DefaultMuleMessage(items.next(), muleContext);
+            MuleEvent itemEvent = new DefaultMuleEvent(itemMessage, muleEvent);
+            return paramValueResolver.resolveParams(itemEvent, query.getParamValues());
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
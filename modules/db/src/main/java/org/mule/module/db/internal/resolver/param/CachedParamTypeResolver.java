@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.resolver.param;
+
+import org.mule.module.db.internal.domain.connection.DbConnection;
+import org.mule.module.db.internal.domain.query.QueryTemplate;
+import org.mule.module.db.internal.domain.type.DbType;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the parameter types resolved by a delegate resolver for each query template, so
+ * the database metadata is read only the first time a query is executed.
+ * <p/>
+ * The cache is shared by all the connections of the same database configuration and is
+ * keyed by the query template instance. Dynamic query templates are created for every
+ * execution, so they are never cached. Failures are not cached either.
+ */
+public class CachedParamTypeResolver implements ParamTypeResolver
+{
+
+    private final ParamTypeResolver delegate;
+    private final ConcurrentMap<QueryTemplate, Map<Integer, DbType>> paramTypesCache;
+
+    public CachedParamTypeResolver(ParamTypeResolver delegate, ConcurrentMap<QueryTemplate, Map<Integer, DbType>> paramTypesCache)
+    {
+        this.delegate = delegate;
+        this.paramTypesCache = paramTypesCache;
+    }
+
+    @Override
+    public Map<Integer, DbType> getParameterTypes(DbConnection connection, QueryTemplate queryTemplate) throws SQLException
+    {
+        if (queryTemplate.isDynamic())
+        {
+            return delegate.getParameterTypes(connection, queryTemplate);
+        }
+
+        Map<Integer, DbType> paramTypes = paramTypesCache.get(queryTemplate);
+
+        if (paramTypes == null)
+        {
+            paramTypes = Collections.unmodifiableMap(delegate.getParameterTypes(connection, queryTemplate));
+            paramTypesCache.putIfAbsent(queryTemplate, paramTypes);
+        }
+
+        return paramTypes;
+    }
+}
@@ -9,8 +9,13 @@ package org.mule.module.db.internal.resolver.param;
 
 import org.mule.module.db.internal.domain.query.QueryTemplate;
 import org.mule.module.db.internal.domain.query.QueryType;
+import org.mule.module.db.internal.domain.type.DbType;
 import org.mule.module.db.internal.domain.type.DbTypeManager;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Creates {@link ParamTypeResolver} for generic databases
  */
@@ -18,10 +23,22 @@ public class GenericParamTypeResolverFactory implements ParamTypeResolverFactory
 {
 
     private final DbTypeManager dbTypeManager;
+    private final ConcurrentMap<QueryTemplate, Map<Integer, DbType>> paramTypesCache;
 
     public GenericParamTypeResolverFactory(DbTypeManager dbTypeManager)
+    {
+        this(dbTypeManager, false);
+    }
+
+    /**
+     * @param dbTypeManager type manager used to resolve parameter types
+     * @param cacheParamTypes whether the parameter types read from the database metadata are
+     *                        cached for every resolver created by this factory
+     */
+    public GenericParamTypeResolverFactory(DbTypeManager dbTypeManager, boolean cacheParamTypes)
     {
         this.dbTypeManager = dbTypeManager;
+        this.paramTypesCache = cacheParamTypes ? new ConcurrentHashMap<QueryTemplate, Map<Integer, DbType>>() : null;
     }
 
     public ParamTypeResolver create(QueryTemplate queryTemplate)
@@ -37,6 +54,11 @@ public class GenericParamTypeResolverFactory implements ParamTypeResolverFactory
             metadataParamTypeResolver = new QueryParamTypeResolver(dbTypeManager);
         }
 
+        if (paramTypesCache != null)
+        {
+            metadataParamTypeResolver = new CachedParamTypeResolver(metadataParamTypeResolver, paramTypesCache);
+        }
+
         return new DefaultParamTypeResolver(dbTypeManager, metadataParamTypeResolver);
     }
 }
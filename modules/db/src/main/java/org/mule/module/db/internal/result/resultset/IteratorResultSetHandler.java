@@ -9,6 +9,8 @@ package org.mule.module.db.internal.result.resultset;
 
 import org.mule.module.db.internal.domain.connection.DbConnection;
 import org.mule.module.db.internal.result.row.RowHandler;
+import org.mule.module.db.internal.result.row.RowHandlerFactory;
+import org.mule.module.db.internal.result.row.SharedRowHandlerFactory;
 import org.mule.module.db.internal.result.statement.StatementStreamingResultSetCloser;
 
 import java.sql.ResultSet;
@@ -20,12 +22,17 @@ import java.sql.SQLException;
 public class IteratorResultSetHandler implements ResultSetHandler
 {
 
-    private final RowHandler rowHandler;
+    private final RowHandlerFactory rowHandlerFactory;
     private StatementStreamingResultSetCloser streamingResultSetCloser = new StatementStreamingResultSetCloser();
 
     public IteratorResultSetHandler(RowHandler rowHandler)
     {
-        this.rowHandler = rowHandler;
+        this(new SharedRowHandlerFactory(rowHandler));
+    }
+
+    public IteratorResultSetHandler(RowHandlerFactory rowHandlerFactory)
+    {
+        this.rowHandlerFactory = rowHandlerFactory;
     }
 
     @Override
@@ -33,6 +40,6 @@ public class IteratorResultSetHandler implements ResultSetHandler
     {
         streamingResultSetCloser.trackResultSet(connection, resultSet);
 
-        return new ResultSetIterator(connection, resultSet, rowHandler, streamingResultSetCloser);
+        return new ResultSetIterator(connection, resultSet, rowHandlerFactory.create(), streamingResultSetCloser);
     }
 }
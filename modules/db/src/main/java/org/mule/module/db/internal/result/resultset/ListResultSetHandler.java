@@ -9,6 +9,8 @@ package org.mule.module.db.internal.result.resultset;
 
 import org.mule.module.db.internal.domain.connection.DbConnection;
 import org.mule.module.db.internal.result.row.RowHandler;
+import org.mule.module.db.internal.result.row.RowHandlerFactory;
+import org.mule.module.db.internal.result.row.SharedRowHandlerFactory;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -22,17 +24,23 @@ import java.util.Map;
 public class ListResultSetHandler implements ResultSetHandler
 {
 
-    private final RowHandler rowHandler;
+    private final RowHandlerFactory rowHandlerFactory;
 
     public ListResultSetHandler(RowHandler rowHandler)
     {
-        this.rowHandler = rowHandler;
+        this(new SharedRowHandlerFactory(rowHandler));
+    }
+
+    public ListResultSetHandler(RowHandlerFactory rowHandlerFactory)
+    {
+        this.rowHandlerFactory = rowHandlerFactory;
     }
 
     @Override
     public Object processResultSet(DbConnection connection, ResultSet resultSet) throws SQLException
     {
         List<Map<String, Object>> results = new LinkedList<Map<String, Object>>();
+        RowHandler rowHandler = rowHandlerFactory.create();
 
         while (resultSet.next())
         {
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.row;
+
+import java.io.Serializable;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps the column labels of a result set to their positions. An instance is shared by
+ * all the {@link ColumnarRow} created from the same result set.
+ * <p/>
+ * Labels are matched ignoring case, as {@link org.mule.util.CaseInsensitiveHashMap} does.
+ */
+public class ColumnIndex implements Serializable
+{
+
+    private static final long serialVersionUID = 4713952281264981347L;
+
+    private final String[] labels;
+    private final Map<String, Integer> positions;
+
+    public ColumnIndex(String[] labels)
+    {
+        this.labels = labels.clone();
+        this.positions = new HashMap<String, Integer>(labels.length * 2);
+
+        Set<String> lowerCaseLabels = new HashSet<String>(labels.length * 2);
+        for (int i = 0; i < labels.length; i++)
+        {
+            if (!lowerCaseLabels.add(labels[i].toLowerCase()))
+            {
+                throw new IllegalArgumentException("Record cannot be mapped as it contains multiple columns with the same label. Define column aliases to solve this problem");
+            }
+            positions.put(labels[i], i);
+        }
+    }
+
+    /**
+     * Creates the index for the columns described by a result set metadata
+     *
+     * @param metaData metadata of the result set. Non null
+     * @return a new index
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static ColumnIndex create(ResultSetMetaData metaData) throws SQLException
+    {
+        String[] labels = new String[metaData.getColumnCount()];
+
+        for (int i = 0; i < labels.length; i++)
+        {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+
+        return new ColumnIndex(labels);
+    }
+
+    public int size()
+    {
+        return labels.length;
+    }
+
+    public String getLabel(int position)
+    {
+        return labels[position];
+    }
+
+    /**
+     * Finds the position of a column
+     *
+     * @param label label of the column to find, ignoring case
+     * @return zero based position of the column or -1 when there is no such column
+     */
+    public int indexOf(Object label)
+    {
+        if (!(label instanceof String))
+        {
+            return -1;
+        }
+
+        Integer position = positions.get(label);
+        if (position != null)
+        {
+            return position;
+        }
+
+        for (int i = 0; i < labels.length; i++)
+        {
+            if (labels[i].equalsIgnoreCase((String) label))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
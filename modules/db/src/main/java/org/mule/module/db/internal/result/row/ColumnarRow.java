@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.row;
+
+import org.mule.util.CaseInsensitiveHashMap;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Case insensitive map containing the values of a row, stored by column position and
+ * backed by a {@link ColumnIndex} shared with the rest of the rows of the same result set.
+ * <p/>
+ * Values of existing columns can be replaced in place. Adding or removing keys copies the
+ * row into a {@link CaseInsensitiveHashMap} which is used from then on.
+ */
+public class ColumnarRow extends AbstractMap<String, Object> implements Serializable
+{
+
+    private static final long serialVersionUID = -3167925036591620142L;
+
+    private final ColumnIndex columnIndex;
+    private final Object[] values;
+    private Map<String, Object> expandedRow;
+    private transient Set<Map.Entry<String, Object>> entrySet;
+
+    public ColumnarRow(ColumnIndex columnIndex, Object[] values)
+    {
+        if (columnIndex.size() != values.length)
+        {
+            throw new IllegalArgumentException(String.format("Expected %d values but got %d", columnIndex.size(), values.length));
+        }
+
+        this.columnIndex = columnIndex;
+        this.values = values;
+    }
+
+    @Override
+    public int size()
+    {
+        return expandedRow == null ? values.length : expandedRow.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return expandedRow == null ? columnIndex.indexOf(key) >= 0 : expandedRow.containsKey(key);
+    }
+
+    @Override
+    public Object get(Object key)
+    {
+        if (expandedRow != null)
+        {
+            return expandedRow.get(key);
+        }
+
+        int position = columnIndex.indexOf(key);
+
+        return position < 0 ? null : values[position];
+    }
+
+    @Override
+    public Object put(String key, Object value)
+    {
+        if (expandedRow == null)
+        {
+            int position = columnIndex.indexOf(key);
+
+            if (position >= 0)
+            {
+                Object previous = values[position];
+                values[position] = value;
+
+                return previous;
+            }
+        }
+
+        return expand().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key)
+    {
+        if (expandedRow == null && columnIndex.indexOf(key) < 0)
+        {
+            return null;
+        }
+
+        return expand().remove(key);
+    }
+
+    @Override
+    public void clear()
+    {
+        expand().clear();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet()
+    {
+        if (expandedRow != null)
+        {
+            return expandedRow.entrySet();
+        }
+
+        if (entrySet == null)
+        {
+            entrySet = new ColumnEntrySet();
+        }
+
+        return entrySet;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> expand()
+    {
+        if (expandedRow == null)
+        {
+            Map<String, Object> row = new CaseInsensitiveHashMap(values.length);
+
+            for (int i = 0; i < values.length; i++)
+            {
+                row.put(columnIndex.getLabel(i), values[i]);
+            }
+
+            expandedRow = row;
+        }
+
+        return expandedRow;
+    }
+
+    private class ColumnEntrySet extends AbstractSet<Map.Entry<String, Object>>
+    {
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator()
+        {
+            if (expandedRow != null)
+            {
+                return expandedRow.entrySet().iterator();
+            }
+
+            return new ColumnEntryIterator();
+        }
+
+        @Override
+        public int size()
+        {
+            return ColumnarRow.this.size();
+        }
+    }
+
+    private class ColumnEntryIterator implements Iterator<Map.Entry<String, Object>>
+    {
+
+        private int position;
+
+        @Override
+        public boolean hasNext()
+        {
+            return position < values.length;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+
+            return new ColumnEntry(position++);
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException("Use remove on the row instead");
+        }
+    }
+
+    private class ColumnEntry implements Map.Entry<String, Object>
+    {
+
+        private final int position;
+
+        private ColumnEntry(int position)
+        {
+            this.position = position;
+        }
+
+        @Override
+        public String getKey()
+        {
+            return columnIndex.getLabel(position);
+        }
+
+        @Override
+        public Object getValue()
+        {
+            return values[position];
+        }
+
+        @Override
+        public Object setValue(Object value)
+        {
+            Object previous = values[position];
+            values[position] = value;
+
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Map.Entry))
+            {
+                return false;
+            }
+
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+
+            return getKey().equals(entry.getKey()) && (getValue() == null ? entry.getValue() == null : getValue().equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return getKey().hashCode() ^ (getValue() == null ? 0 : getValue().hashCode());
+        }
+
+        @Override
+        public String toString()
+        {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
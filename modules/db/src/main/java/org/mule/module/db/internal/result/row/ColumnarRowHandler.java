@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.row;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.util.Map;
+
+/**
+ * Maps rows to {@link ColumnarRow} instances.
+ * <p/>
+ * Column metadata is resolved when the first row is processed and shared by all the
+ * following rows, so an instance must be used to process the rows of a single result set.
+ * Use a {@link ColumnarRowHandlerFactory} to create a new instance for each result set.
+ */
+public class ColumnarRowHandler implements RowHandler
+{
+
+    private ColumnIndex columnIndex;
+
+    @Override
+    public Map<String, Object> process(ResultSet resultSet) throws SQLException
+    {
+        if (columnIndex == null)
+        {
+            columnIndex = ColumnIndex.create(resultSet.getMetaData());
+        }
+
+        Object[] values = new Object[columnIndex.size()];
+
+        for (int i = 0; i < values.length; i++)
+        {
+            Object value = resultSet.getObject(i + 1);
+
+            if (value instanceof SQLXML)
+            {
+                values[i] = ((SQLXML) value).getString();
+            }
+            else
+            {
+                values[i] = value;
+            }
+        }
+
+        return new ColumnarRow(columnIndex, values);
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.row;
+
+/**
+ * Creates the {@link RowHandler} used to process the rows of a result set
+ */
+public interface RowHandlerFactory
+{
+
+    /**
+     * Creates a row handler for a new result set
+     *
+     * @return a row handler that will process the rows of a single result set. Non null.
+     */
+    RowHandler create();
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.row;
+
+/**
+ * Returns the same stateless {@link RowHandler} for every result set
+ */
+public class SharedRowHandlerFactory implements RowHandlerFactory
+{
+
+    private final RowHandler rowHandler;
+
+    public SharedRowHandlerFactory(RowHandler rowHandler)
+    {
+        this.rowHandler = rowHandler;
+    }
+
+    @Override
+    public RowHandler create()
+    {
+        return rowHandler;
+    }
+}
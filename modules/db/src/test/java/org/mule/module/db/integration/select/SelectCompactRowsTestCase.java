@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.integration.select;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.mule.module.db.integration.TestRecordUtil.assertMessageContains;
+import static org.mule.module.db.integration.TestRecordUtil.assertRecords;
+import static org.mule.module.db.integration.TestRecordUtil.getAllPlanetRecords;
+import static org.mule.module.db.integration.model.Planet.VENUS;
+import org.mule.api.MuleMessage;
+import org.mule.api.client.LocalMuleClient;
+import org.mule.module.db.integration.AbstractDbIntegrationTestCase;
+import org.mule.module.db.integration.TestDbConfig;
+import org.mule.module.db.integration.model.AbstractTestDatabase;
+import org.mule.module.db.internal.result.row.ColumnarRow;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runners.Parameterized;
+
+public class SelectCompactRowsTestCase extends AbstractDbIntegrationTestCase
+{
+
+    public SelectCompactRowsTestCase(String dataSourceConfigResource, AbstractTestDatabase testDatabase)
+    {
+        super(dataSourceConfigResource, testDatabase);
+    }
+
+    @Parameterized.Parameters
+    public static List<Object[]> parameters()
+    {
+        return TestDbConfig.getResources();
+    }
+
+    @Override
+    protected String[] getFlowConfigurationResources()
+    {
+        return new String[] {"integration/select/select-compact-rows-config.xml"};
+    }
+
+    @Test
+    public void returnsCompactRows() throws Exception
+    {
+        LocalMuleClient client = muleContext.getClient();
+        MuleMessage response = client.send("vm://selectCompactRows", TEST_MESSAGE, null);
+
+        assertThat(((List<?>) response.getPayload()).get(0), is(instanceOf(ColumnarRow.class)));
+        assertMessageContains(response, getAllPlanetRecords());
+    }
+
+    @Test
+    public void streamsCompactRows() throws Exception
+    {
+        LocalMuleClient client = muleContext.getClient();
+        MuleMessage response = client.send("vm://selectCompactRowsStreaming", TEST_MESSAGE, null);
+
+        assertRecords(response.getInboundProperty("processedRecords"), getAllPlanetRecords());
+        assertThat(response.<String>getInboundProperty("planetName"), equalTo(VENUS.getName()));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.integration.update;
+
+import static org.hamcrest.CoreMatchers.anyOf;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mule.module.db.integration.DbTestUtil.selectData;
+import static org.mule.module.db.integration.TestRecordUtil.assertRecords;
+import static org.mule.module.db.integration.model.Planet.EARTH;
+import static org.mule.module.db.integration.model.Planet.MARS;
+import static org.mule.module.db.integration.model.Planet.VENUS;
+import org.mule.api.MuleMessage;
+import org.mule.api.client.MuleClient;
+import org.mule.module.db.integration.AbstractDbIntegrationTestCase;
+import org.mule.module.db.integration.TestDbConfig;
+import org.mule.module.db.integration.model.AbstractTestDatabase;
+import org.mule.module.db.integration.model.Field;
+import org.mule.module.db.integration.model.Record;
+
+import java.io.ByteArrayInputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runners.Parameterized;
+
+public class UpdateBulkChunkTestCase extends AbstractDbIntegrationTestCase
+{
+
+    private MuleClient client;
+
+    public UpdateBulkChunkTestCase(String dataSourceConfigResource, AbstractTestDatabase testDatabase)
+    {
+        super(dataSourceConfigResource, testDatabase);
+    }
+
+    @Parameterized.Parameters
+    public static List<Object[]> parameters()
+    {
+        return TestDbConfig.getResources();
+    }
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        super.doSetUp();
+        client = muleContext.getClient();
+    }
+
+    @Override
+    protected String[] getFlowConfigurationResources()
+    {
+        return new String[] {"integration/update/update-bulk-chunk-config.xml"};
+    }
+
+    @Test
+    public void updatesInChunksWithCollection() throws Exception
+    {
+        MuleMessage response = client.send("vm://updateBulkChunk", getPlanetNames(), null);
+        assertChunkedResult(response);
+    }
+
+    @Test
+    public void updatesInChunksWithIterator() throws Exception
+    {
+        MuleMessage response = client.send("vm://updateBulkChunk", getPlanetNames().iterator(), null);
+        assertChunkedResult(response);
+    }
+
+    @Test
+    public void updatesInChunksWithStream() throws Exception
+    {
+        String lines = VENUS.getName() + "\n" + MARS.getName() + "\n" + EARTH.getName() + "\n";
+
+        MuleMessage response = client.send("vm://updateBulkChunk", new ByteArrayInputStream(lines.getBytes()), null);
+        assertChunkedResult(response);
+    }
+
+    @Test
+    public void commitsEachChunk() throws Exception
+    {
+        MuleMessage response = client.send("vm://updateBulkChunkCommit", getPlanetNames(), null);
+        assertChunkedResult(response);
+    }
+
+    @Test
+    public void rollsBackOnlyFailingChunk() throws Exception
+    {
+        // The last ID is already used by the planets in the test database, so the second chunk fails
+        List<Integer> ids = new ArrayList<Integer>();
+        ids.add(100);
+        ids.add(101);
+        ids.add(102);
+        ids.add(2);
+
+        MuleMessage response = client.send("vm://insertBulkChunkCommit", ids, null);
+
+        assertThat(response.getExceptionPayload(), notNullValue());
+        List<Map<String, String>> result = selectData("select ID from PLANET where ID >= 100 order by ID", getDefaultDataSource());
+        assertRecords(result, new Record(new Field("ID", 100)), new Record(new Field("ID", 101)));
+    }
+
+    private void assertChunkedResult(MuleMessage response) throws SQLException
+    {
+        assertTrue(response.getPayload() instanceof Long);
+        // Drivers returning Statement.SUCCESS_NO_INFO do not report affected rows
+        assertThat((Long) response.getPayload(), anyOf(equalTo(3L), equalTo(0L)));
+
+        List<Map<String, String>> result = selectData("select * from PLANET order by ID", getDefaultDataSource());
+        assertRecords(result, new Record(new Field("NAME", "Mercury"), new Field("POSITION", 2)), new Record(new Field("NAME", "Mercury"), new Field("POSITION", 3)), new Record(new Field("NAME", "Mercury"), new Field("POSITION", 4)));
+    }
+
+    private List<String> getPlanetNames()
+    {
+        List<String> planetNames = new ArrayList<String>();
+        planetNames.add(VENUS.getName());
+        planetNames.add(MARS.getName());
+        planetNames.add(EARTH.getName());
+        return planetNames;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.domain.connection;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.Test;
+
+@SmallTest
+public class PreparedStatementCacheTestCase extends AbstractMuleTestCase
+{
+
+    private static final String SQL_TEXT = "select * from test where id = ?";
+    private static final String OTHER_SQL_TEXT = "select * from test where name = ?";
+
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final PreparedStatement otherStatement = mock(PreparedStatement.class);
+
+    @Test
+    public void reusesReleasedStatement() throws Exception
+    {
+        when(connection.prepareStatement(SQL_TEXT)).thenReturn(statement);
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 5);
+
+        cache.prepareStatement(SQL_TEXT, Statement.NO_GENERATED_KEYS).close();
+        PreparedStatement cachedStatement = cache.prepareStatement(SQL_TEXT, Statement.NO_GENERATED_KEYS);
+        cachedStatement.executeQuery();
+
+        verify(connection, times(1)).prepareStatement(SQL_TEXT);
+        verify(statement).executeQuery();
+        verify(statement, never()).close();
+    }
+
+    @Test
+    public void doesNotReuseStatementInUse() throws Exception
+    {
+        when(connection.prepareStatement(SQL_TEXT)).thenReturn(statement, otherStatement);
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 5);
+
+        PreparedStatement first = cache.prepareStatement(SQL_TEXT, Statement.NO_GENERATED_KEYS);
+        PreparedStatement second = cache.prepareStatement(SQL_TEXT, Statement.NO_GENERATED_KEYS);
+        first.close();
+        second.close();
+
+        assertThat(first, not(sameInstance(second)));
+        verify(connection, times(2)).prepareStatement(SQL_TEXT);
+        verify(otherStatement).close();
+        assertThat(cache.size(), equalTo(1));
+    }
+
+    @Test
+    public void separatesAutoGeneratedKeysStatements() throws Exception
+    {
+        when(connection.prepareStatement(SQL_TEXT)).thenReturn(statement);
+        when(connection.prepareStatement(SQL_TEXT, Statement.RETURN_GENERATED_KEYS)).thenReturn(otherStatement);
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 5);
+
+        cache.prepareStatement(SQL_TEXT, Statement.NO_GENERATED_KEYS).close();
+        cache.prepareStatement(SQL_TEXT, Statement.RETURN_GENERATED_KEYS).executeUpdate();
+
+        verify(otherStatement).executeUpdate();
+        verify(statement, never()).executeUpdate();
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedStatement() throws Exception
+    {
+        when(connection.prepareStatement(SQL_TEXT)).thenReturn(statement);
+        when(connection.prepareStatement(OTHER_SQL_TEXT)).thenReturn(otherStatement);
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 1);
+
+        cache.prepareStatement(SQL_TEXT, Statement.NO_GENERATED_KEYS).close();
+        cache.prepareStatement(OTHER_SQL_TEXT, Statement.NO_GENERATED_KEYS).close();
+
+        verify(statement).close();
+        verify(otherStatement, never()).close();
+        assertThat(cache.size(), equalTo(1));
+    }
+
+    @Test
+    public void closesIdleStatementsOnClose() throws Exception
+    {
+        when(connection.prepareStatement(SQL_TEXT)).thenReturn(statement);
+        when(connection.prepareStatement(OTHER_SQL_TEXT)).thenReturn(otherStatement);
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 5);
+
+        cache.prepareStatement(SQL_TEXT, Statement.NO_GENERATED_KEYS).close();
+        PreparedStatement inUse = cache.prepareStatement(OTHER_SQL_TEXT, Statement.NO_GENERATED_KEYS);
+        cache.close();
+
+        verify(statement).close();
+        verify(otherStatement, never()).close();
+
+        inUse.close();
+        verify(otherStatement).close();
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    public void resetsReleasedStatement() throws Exception
+    {
+        when(connection.prepareStatement(SQL_TEXT)).thenReturn(statement);
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 5);
+
+        PreparedStatement cachedStatement = cache.prepareStatement(SQL_TEXT, Statement.NO_GENERATED_KEYS);
+        cachedStatement.setMaxRows(10);
+        cachedStatement.addBatch();
+        cachedStatement.close();
+
+        verify(statement).clearParameters();
+        verify(statement).clearBatch();
+        verify(statement).setMaxRows(0);
+        verify(statement).setFetchSize(0);
+        verify(statement).setQueryTimeout(0);
+        assertThat(cache.size(), equalTo(1));
+    }
+
+    @Test
+    public void closesStatementThatFailsToReset() throws Exception
+    {
+        when(connection.prepareStatement(SQL_TEXT)).thenReturn(statement);
+        doThrow(new SQLException()).when(statement).clearBatch();
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 5);
+
+        try
+        {
+            cache.prepareStatement(SQL_TEXT, Statement.NO_GENERATED_KEYS).close();
+            fail("Expected reset of released statement to fail");
+        }
+        catch (SQLException e)
+        {
+            // expected
+        }
+
+        verify(statement).close();
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    public void keepsCachingAfterClear() throws Exception
+    {
+        when(connection.prepareStatement(SQL_TEXT)).thenReturn(statement);
+        when(connection.prepareStatement(OTHER_SQL_TEXT)).thenReturn(otherStatement);
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 5);
+
+        cache.prepareStatement(SQL_TEXT, Statement.NO_GENERATED_KEYS).close();
+        PreparedStatement inUse = cache.prepareStatement(OTHER_SQL_TEXT, Statement.NO_GENERATED_KEYS);
+        cache.clear();
+
+        verify(statement).close();
+        assertThat(cache.size(), equalTo(0));
+
+        inUse.close();
+        cache.prepareStatement(SQL_TEXT, Statement.NO_GENERATED_KEYS).close();
+
+        verify(otherStatement, never()).close();
+        assertThat(cache.size(), equalTo(2));
+    }
+
+    @Test(expected = SQLException.class)
+    public void failsUsingReleasedStatement() throws Exception
+    {
+        when(connection.prepareStatement(SQL_TEXT)).thenReturn(statement);
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 5);
+
+        PreparedStatement cachedStatement = cache.prepareStatement(SQL_TEXT, Statement.NO_GENERATED_KEYS);
+        cachedStatement.close();
+
+        assertThat(cachedStatement.isClosed(), equalTo(true));
+        cachedStatement.executeQuery();
+    }
+}
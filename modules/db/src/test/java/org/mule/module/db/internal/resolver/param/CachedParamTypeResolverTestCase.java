@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.resolver.param;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.module.db.internal.domain.connection.DbConnection;
+import org.mule.module.db.internal.domain.param.DefaultInputQueryParam;
+import org.mule.module.db.internal.domain.param.QueryParam;
+import org.mule.module.db.internal.domain.query.QueryTemplate;
+import org.mule.module.db.internal.domain.query.QueryType;
+import org.mule.module.db.internal.domain.type.DbType;
+import org.mule.module.db.internal.domain.type.JdbcTypes;
+import org.mule.module.db.internal.domain.type.UnknownDbType;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.Test;
+
+@SmallTest
+public class CachedParamTypeResolverTestCase extends AbstractMuleTestCase
+{
+
+    private static final String SQL_TEXT = "select * from test where id = ?";
+
+    private final DbConnection connection = mock(DbConnection.class);
+    private final ParamTypeResolver delegate = mock(ParamTypeResolver.class);
+    private final ConcurrentMap<QueryTemplate, Map<Integer, DbType>> cache = new ConcurrentHashMap<QueryTemplate, Map<Integer, DbType>>();
+    private final CachedParamTypeResolver paramTypeResolver = new CachedParamTypeResolver(delegate, cache);
+    private final Map<Integer, DbType> paramTypes = Collections.<Integer, DbType>singletonMap(1, JdbcTypes.INTEGER_DB_TYPE);
+
+    @Test
+    public void resolvesParamTypesOnce() throws Exception
+    {
+        QueryTemplate queryTemplate = createQueryTemplate(false);
+        when(delegate.getParameterTypes(connection, queryTemplate)).thenReturn(paramTypes);
+
+        assertThat(paramTypeResolver.getParameterTypes(connection, queryTemplate), equalTo(paramTypes));
+        assertThat(paramTypeResolver.getParameterTypes(connection, queryTemplate), equalTo(paramTypes));
+
+        verify(delegate, times(1)).getParameterTypes(connection, queryTemplate);
+    }
+
+    @Test
+    public void sharesParamTypesBetweenConnections() throws Exception
+    {
+        QueryTemplate queryTemplate = createQueryTemplate(false);
+        when(delegate.getParameterTypes(connection, queryTemplate)).thenReturn(paramTypes);
+        DbConnection otherConnection = mock(DbConnection.class);
+
+        paramTypeResolver.getParameterTypes(connection, queryTemplate);
+        Map<Integer, DbType> otherParamTypes = new CachedParamTypeResolver(delegate, cache).getParameterTypes(otherConnection, queryTemplate);
+
+        assertThat(otherParamTypes, equalTo(paramTypes));
+        verify(delegate, times(0)).getParameterTypes(otherConnection, queryTemplate);
+    }
+
+    @Test
+    public void doesNotCacheDynamicQueries() throws Exception
+    {
+        QueryTemplate queryTemplate = createQueryTemplate(true);
+        when(delegate.getParameterTypes(connection, queryTemplate)).thenReturn(paramTypes);
+
+        paramTypeResolver.getParameterTypes(connection, queryTemplate);
+        paramTypeResolver.getParameterTypes(connection, queryTemplate);
+
+        verify(delegate, times(2)).getParameterTypes(connection, queryTemplate);
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    public void doesNotCacheFailures() throws Exception
+    {
+        QueryTemplate queryTemplate = createQueryTemplate(false);
+        when(delegate.getParameterTypes(connection, queryTemplate)).thenThrow(new SQLException()).thenReturn(paramTypes);
+
+        try
+        {
+            paramTypeResolver.getParameterTypes(connection, queryTemplate);
+            fail("Expected parameter type resolution to fail");
+        }
+        catch (SQLException e)
+        {
+            // Expected
+        }
+
+        assertThat(paramTypeResolver.getParameterTypes(connection, queryTemplate), equalTo(paramTypes));
+    }
+
+    private QueryTemplate createQueryTemplate(boolean dynamic)
+    {
+        return new QueryTemplate(SQL_TEXT, QueryType.SELECT, Collections.<QueryParam>singletonList(new DefaultInputQueryParam(1, UnknownDbType.getInstance(), "7", "param1")), dynamic);
+    }
+}
@@ -10,6 +10,7 @@ package org.mule.module.db.internal.resolver.param;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mule.module.db.internal.domain.connection.DbConnection;
 import org.mule.module.db.internal.domain.param.DefaultInputQueryParam;
@@ -57,6 +58,21 @@ public class QueryParamTypeResolverTestCase extends AbstractMuleTestCase
         assertThat(parameterTypes.get(1), equalTo(JdbcTypes.INTEGER_DB_TYPE));
     }
 
+    @Test
+    public void closesMetadataStatement() throws Exception
+    {
+        ParameterMetaData parameterMetaData = new ParameterMetaDataBuilder().withParameter(1, JdbcTypes.INTEGER_DB_TYPE).build();
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(preparedStatement.getParameterMetaData()).thenReturn(parameterMetaData);
+        DbConnection connection = new DbConnectionBuilder().preparing(SQL_TEXT, preparedStatement).build();
+
+        DbTypeManager dbTypeManager = new DbTypeManagerBuilder().on(connection).managing(JdbcTypes.INTEGER_DB_TYPE).build();
+
+        new QueryParamTypeResolver(dbTypeManager).getParameterTypes(connection, createQueryTemplate());
+
+        verify(preparedStatement).close();
+    }
+
     @Test
     public void resolvesQueryParameterUnknownType() throws Exception
     {
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.db.internal.result.row;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mule.module.db.integration.TestRecordUtil;
+import org.mule.module.db.integration.model.Field;
+import org.mule.module.db.integration.model.Record;
+import org.mule.module.db.test.util.ColumnMetadata;
+import org.mule.module.db.test.util.ResultSetBuilder;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.util.SerializationUtils;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+@SmallTest
+public class ColumnarRowHandlerTestCase extends AbstractMuleTestCase
+{
+
+    public static final String COLUMN_NAME = "columnName";
+    public static final String COLUMN_LABEL = "columnLabel";
+    public static final String COLUMN_VALUE = "columnValue";
+    public static final String OTHER_COLUMN_NAME = "otherColumnName";
+    public static final String OTHER_COLUMN_LABEL = "otherColumnLabel";
+    public static final String OTHER_COLUMN_VALUE = "otherColumnValue";
+
+    private final ColumnarRowHandler rowHandler = new ColumnarRowHandler();
+
+    @Test
+    public void usesColumnLabel() throws Exception
+    {
+        ResultSet resultSet = createResultSet();
+        resultSet.next();
+
+        Map<String, Object> record = rowHandler.process(resultSet);
+
+        TestRecordUtil.assertRecord(new Record(record), new Record(new Field(COLUMN_LABEL, COLUMN_VALUE), new Field(OTHER_COLUMN_LABEL, OTHER_COLUMN_VALUE)));
+    }
+
+    @Test
+    public void resolvesColumnsOnce() throws Exception
+    {
+        ResultSet resultSet = spy(createResultSet());
+
+        resultSet.next();
+        rowHandler.process(resultSet);
+        resultSet.next();
+        Map<String, Object> record = rowHandler.process(resultSet);
+
+        verify(resultSet, times(1)).getMetaData();
+        assertThat(record.get(COLUMN_LABEL), equalTo((Object) (COLUMN_VALUE + 2)));
+    }
+
+    @Test
+    public void ignoresKeyCase() throws Exception
+    {
+        Map<String, Object> record = processFirstRow();
+
+        assertThat(record.get(COLUMN_LABEL.toUpperCase()), equalTo((Object) COLUMN_VALUE));
+        assertThat(record.containsKey(OTHER_COLUMN_LABEL.toLowerCase()), equalTo(true));
+        assertThat(record.get(COLUMN_NAME), nullValue());
+    }
+
+    @Test
+    public void equalsMapWithSameEntries() throws Exception
+    {
+        Map<String, Object> record = processFirstRow();
+
+        Map<String, Object> expected = new HashMap<String, Object>();
+        expected.put(COLUMN_LABEL, COLUMN_VALUE);
+        expected.put(OTHER_COLUMN_LABEL, OTHER_COLUMN_VALUE);
+
+        assertThat(record, equalTo(expected));
+        assertThat(record.hashCode(), equalTo(expected.hashCode()));
+    }
+
+    @Test
+    public void replacesValueInPlace() throws Exception
+    {
+        Map<String, Object> record = processFirstRow();
+
+        Object previous = record.put(COLUMN_LABEL.toUpperCase(), OTHER_COLUMN_VALUE);
+
+        assertThat(previous, equalTo((Object) COLUMN_VALUE));
+        assertThat(record.get(COLUMN_LABEL), equalTo((Object) OTHER_COLUMN_VALUE));
+        assertThat(record.size(), equalTo(2));
+    }
+
+    @Test
+    public void addsAndRemovesKeys() throws Exception
+    {
+        Map<String, Object> record = processFirstRow();
+
+        record.put("extra", COLUMN_VALUE);
+        record.remove(OTHER_COLUMN_LABEL);
+
+        assertThat(record.size(), equalTo(2));
+        assertThat(record.get("EXTRA"), equalTo((Object) COLUMN_VALUE));
+        assertThat(record.get(COLUMN_LABEL), equalTo((Object) COLUMN_VALUE));
+        assertThat(record.containsKey(OTHER_COLUMN_LABEL), equalTo(false));
+    }
+
+    @Test
+    public void serializesRow() throws Exception
+    {
+        Map<String, Object> record = processFirstRow();
+
+        Object deserialized = SerializationUtils.deserialize(SerializationUtils.serialize((ColumnarRow) record));
+
+        assertThat(deserialized, equalTo((Object) record));
+        assertThat(((Map<?, ?>) deserialized).get(COLUMN_LABEL.toUpperCase()), equalTo((Object) COLUMN_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void detectColumnLabelDuplication() throws Exception
+    {
+        List<ColumnMetadata> columns = new ArrayList<ColumnMetadata>();
+        columns.add(new ColumnMetadata(COLUMN_NAME, COLUMN_LABEL, 1));
+        columns.add(new ColumnMetadata(OTHER_COLUMN_NAME, COLUMN_LABEL.toUpperCase(), 2));
+
+        ResultSetBuilder resultSetBuilder = new ResultSetBuilder(columns);
+        resultSetBuilder.with(Collections.<String, Object>emptyMap());
+        ResultSet resultSet = resultSetBuilder.build();
+        resultSet.next();
+
+        rowHandler.process(resultSet);
+    }
+
+    private Map<String, Object> processFirstRow() throws Exception
+    {
+        ResultSet resultSet = createResultSet();
+        resultSet.next();
+
+        return rowHandler.process(resultSet);
+    }
+
+    private ResultSet createResultSet()
+    {
+        List<ColumnMetadata> columns = new ArrayList<ColumnMetadata>();
+        columns.add(new ColumnMetadata(COLUMN_NAME, COLUMN_LABEL, 1));
+        columns.add(new ColumnMetadata(OTHER_COLUMN_NAME, OTHER_COLUMN_LABEL, 2));
+
+        ResultSetBuilder resultSetBuilder = new ResultSetBuilder(columns);
+        resultSetBuilder.with(createRow(COLUMN_VALUE, OTHER_COLUMN_VALUE));
+        resultSetBuilder.with(createRow(COLUMN_VALUE + 2, OTHER_COLUMN_VALUE + 2));
+
+        return resultSetBuilder.build();
+    }
+
+    private Map<String, Object> createRow(String value, String otherValue)
+    {
+        Map<String, Object> row = new HashMap<String, Object>();
+        row.put(COLUMN_NAME, value);
+        row.put(OTHER_COLUMN_NAME, otherValue);
+
+        return row;
+    }
+}
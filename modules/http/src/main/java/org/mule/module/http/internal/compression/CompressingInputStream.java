@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses the contents of another stream as they are read, so an entity can be
+ * compressed without buffering it. Data is returned as soon as the deflater produces it,
+ * which only requires reading as much of the source as is needed to fill its window.
+ */
+public class CompressingInputStream extends InputStream
+{
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final InputStream source;
+    private final Deflater deflater;
+    private final CRC32 crc;
+    private final byte[] inputBuffer = new byte[BUFFER_SIZE];
+    private final byte[] header;
+    private byte[] trailer;
+    private int headerPosition;
+    private int trailerPosition;
+    private boolean sourceFinished;
+
+    private CompressingInputStream(InputStream source, boolean gzip)
+    {
+        this.source = source;
+        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, gzip);
+        this.crc = gzip ? new CRC32() : null;
+        this.header = gzip ? GZIP_HEADER : NO_BYTES;
+    }
+
+    /**
+     * @return a stream with the gzip format of the source content
+     */
+    public static CompressingInputStream gzip(InputStream source)
+    {
+        return new CompressingInputStream(source, true);
+    }
+
+    /**
+     * @return a stream with the zlib format of the source content, as used by the
+     *         <code>deflate</code> content coding
+     */
+    public static CompressingInputStream deflate(InputStream source)
+    {
+        return new CompressingInputStream(source, false);
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        byte[] singleByte = new byte[1];
+        int read;
+        do
+        {
+            read = read(singleByte, 0, 1);
+        }
+        while (read == 0);
+
+        return read == -1 ? -1 : singleByte[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        if (len == 0)
+        {
+            return 0;
+        }
+
+        if (headerPosition < header.length)
+        {
+            int count = Math.min(len, header.length - headerPosition);
+            System.arraycopy(header, headerPosition, b, off, count);
+            headerPosition += count;
+            return count;
+        }
+
+        while (!deflater.finished())
+        {
+            if (deflater.needsInput() && !sourceFinished)
+            {
+                int read = source.read(inputBuffer);
+                if (read < 0)
+                {
+                    sourceFinished = true;
+                    deflater.finish();
+                }
+                else if (read > 0)
+                {
+                    deflater.setInput(inputBuffer, 0, read);
+                    if (crc != null)
+                    {
+                        crc.update(inputBuffer, 0, read);
+                    }
+                }
+            }
+
+            int deflated = deflater.deflate(b, off, len);
+            if (deflated > 0)
+            {
+                return deflated;
+            }
+        }
+
+        if (trailer == null)
+        {
+            trailer = createTrailer();
+        }
+        if (trailerPosition < trailer.length)
+        {
+            int count = Math.min(len, trailer.length - trailerPosition);
+            System.arraycopy(trailer, trailerPosition, b, off, count);
+            trailerPosition += count;
+            return count;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        deflater.end();
+        source.close();
+    }
+
+    private byte[] createTrailer()
+    {
+        if (crc == null)
+        {
+            return NO_BYTES;
+        }
+
+        byte[] gzipTrailer = new byte[8];
+        writeInt(gzipTrailer, 0, crc.getValue());
+        writeInt(gzipTrailer, 4, deflater.getBytesRead());
+
+        return gzipTrailer;
+    }
+
+    private static void writeInt(byte[] buffer, int offset, long value)
+    {
+        // gzip integers are little endian
+        for (int i = 0; i < 4; i++)
+        {
+            buffer[offset + i] = (byte) (value >> (8 * i));
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.compression;
+
+import static org.mule.module.http.api.HttpHeaders.Values.DEFLATE;
+import static org.mule.module.http.api.HttpHeaders.Values.GZIP;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes and decodes HTTP entities with the <code>gzip</code> and <code>deflate</code>
+ * content codings.
+ */
+public final class ContentEncodings
+{
+
+    /**
+     * Value of the Accept-Encoding header sent by clients that can decode any supported
+     * coding.
+     */
+    public static final String ACCEPTED_ENCODINGS = GZIP + ", " + DEFLATE;
+
+    private static final String X_GZIP = "x-gzip";
+    private static final String ANY = "*";
+    private static final String QUALITY_PREFIX = "q=";
+
+    private ContentEncodings()
+    {
+    }
+
+    /**
+     * @return true if the value of a Content-Encoding header is a coding that can be
+     *         decoded
+     */
+    public static boolean isSupported(String contentEncoding)
+    {
+        return normalize(contentEncoding) != null;
+    }
+
+    /**
+     * Selects the coding to use for a response from the value of the Accept-Encoding
+     * header of the request. Codings with a higher quality value are preferred and
+     * <code>gzip</code> wins when both have the same one.
+     *
+     * @return the selected coding, or null if the client does not accept any supported
+     *         coding
+     */
+    public static String negotiate(String acceptEncoding)
+    {
+        if (acceptEncoding == null)
+        {
+            return null;
+        }
+
+        float gzip = -1;
+        float deflate = -1;
+        float any = -1;
+        for (String coding : acceptEncoding.split(","))
+        {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase();
+            float quality = getQuality(parameters);
+
+            if (GZIP.equals(name) || X_GZIP.equals(name))
+            {
+                gzip = quality;
+            }
+            else if (DEFLATE.equals(name))
+            {
+                deflate = quality;
+            }
+            else if (ANY.equals(name))
+            {
+                any = quality;
+            }
+        }
+
+        gzip = gzip < 0 ? any : gzip;
+        deflate = deflate < 0 ? any : deflate;
+        if (gzip > 0 && gzip >= deflate)
+        {
+            return GZIP;
+        }
+        if (deflate > 0)
+        {
+            return DEFLATE;
+        }
+        return null;
+    }
+
+    /**
+     * Wraps a stream so its content is compressed while it is read.
+     */
+    public static InputStream encode(String contentEncoding, InputStream content)
+    {
+        return GZIP.equals(normalize(contentEncoding)) ? CompressingInputStream.gzip(content)
+                                                       : CompressingInputStream.deflate(content);
+    }
+
+    /**
+     * Compresses a content already in memory.
+     */
+    public static byte[] encode(String contentEncoding, byte[] content) throws IOException
+    {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2);
+        OutputStream out = GZIP.equals(normalize(contentEncoding)) ? new GZIPOutputStream(compressed)
+                                                                   : new DeflaterOutputStream(compressed);
+        out.write(content);
+        out.close();
+
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Wraps a compressed stream so its content is decompressed while it is read. The
+     * <code>deflate</code> coding accepts both the zlib format mandated by the
+     * specification and the raw deflate data some implementations send instead.
+     *
+     * @throws IOException if the content does not start with a valid header for the coding
+     */
+    public static InputStream decode(String contentEncoding, InputStream content) throws IOException
+    {
+        PushbackInputStream pushbackContent = new PushbackInputStream(content, 2);
+        byte[] start = new byte[2];
+        int read = readFully(pushbackContent, start);
+        if (read == 0)
+        {
+            // Nothing to decode, i.e.: responses to HEAD requests
+            return new ByteArrayInputStream(start, 0, 0);
+        }
+        pushbackContent.unread(start, 0, read);
+
+        if (GZIP.equals(normalize(contentEncoding)))
+        {
+            return new GZIPInputStream(pushbackContent);
+        }
+
+        boolean zlib = read == 2 && (start[0] & 0x0f) == 8 && (((start[0] & 0xff) << 8) | (start[1] & 0xff)) % 31 == 0;
+        return new InflaterInputStream(pushbackContent, new Inflater(!zlib))
+        {
+            @Override
+            public void close() throws IOException
+            {
+                try
+                {
+                    super.close();
+                }
+                finally
+                {
+                    // Not released by the stream when the inflater is provided
+                    inf.end();
+                }
+            }
+        };
+    }
+
+    /**
+     * Same as {@link #decode(String, InputStream)}, but nothing is read from the content until the
+     * returned stream is read, so it can wrap content that is still being received. An invalid
+     * header is then reported by the first read.
+     */
+    public static InputStream decodeOnRead(final String contentEncoding, final InputStream content)
+    {
+        return new InputStream()
+        {
+            private InputStream decoded;
+
+            private InputStream getDecoded() throws IOException
+            {
+                if (decoded == null)
+                {
+                    decoded = decode(contentEncoding, content);
+                }
+                return decoded;
+            }
+
+            @Override
+            public int read() throws IOException
+            {
+                return getDecoded().read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException
+            {
+                return getDecoded().read(buffer, offset, length);
+            }
+
+            @Override
+            public int available() throws IOException
+            {
+                return decoded != null ? decoded.available() : 0;
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+                if (decoded != null)
+                {
+                    decoded.close();
+                }
+                else
+                {
+                    content.close();
+                }
+            }
+        };
+    }
+
+    private static String normalize(String contentEncoding)
+    {
+        if (contentEncoding == null)
+        {
+            return null;
+        }
+
+        String coding = contentEncoding.trim().toLowerCase();
+        if (GZIP.equals(coding) || X_GZIP.equals(coding))
+        {
+            return GZIP;
+        }
+        if (DEFLATE.equals(coding))
+        {
+            return DEFLATE;
+        }
+        return null;
+    }
+
+    private static float getQuality(String[] parameters)
+    {
+        for (int i = 1; i < parameters.length; i++)
+        {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith(QUALITY_PREFIX))
+            {
+                try
+                {
+                    return Float.parseFloat(parameter.substring(QUALITY_PREFIX.length()));
+                }
+                catch (NumberFormatException e)
+                {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) throws IOException
+    {
+        int total = 0;
+        while (total < buffer.length)
+        {
+            int read = in.read(buffer, total, buffer.length - total);
+            if (read == -1)
+            {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+}
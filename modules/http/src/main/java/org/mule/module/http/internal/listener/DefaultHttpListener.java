@@ -6,6 +6,7 @@
  */
 package org.mule.module.http.internal.listener;
 
+import static org.mule.module.http.api.HttpHeaders.Names.ACCEPT_ENCODING;
 import org.mule.api.MuleContext;
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleException;
@@ -46,6 +47,7 @@ public class DefaultHttpListener implements HttpListener, Initialisable, MuleCon
     private String path;
     private String allowedMethods;
     private Boolean parseRequest;
+    private boolean nonBlocking;
     private MessageProcessor messageProcessor;
     private MethodRequestMatcher methodRequestMatcher = AcceptsAllMethodsRequestMatcher.instance();
     private MuleContext muleContext;
@@ -99,6 +101,11 @@ public class DefaultHttpListener implements HttpListener, Initialisable, MuleCon
         this.parseRequest = parseRequest;
     }
 
+    public void setNonBlocking(boolean nonBlocking)
+    {
+        this.nonBlocking = nonBlocking;
+    }
+
     public HttpListenerConfig getConfig()
     {
         return config;
@@ -117,9 +124,14 @@ public class DefaultHttpListener implements HttpListener, Initialisable, MuleCon
             @Override
             public void handleRequest(HttpRequestContext requestContext, HttpResponseReadyCallback responseCallback)
             {
+                final HttpResponseCompressor responseCompressor = config.getResponseCompressor();
+                if (responseCompressor != null)
+                {
+                    responseCallback = responseCompressor.decorate(responseCallback, requestContext.getRequest().getHeaderValue(ACCEPT_ENCODING));
+                }
                 try
                 {
-                    final HttpMessageProcessorTemplate httpMessageProcessorTemplate = new HttpMessageProcessorTemplate(createEvent(requestContext, path), messageProcessor, responseCallback, responseBuilder, errorResponseBuilder);
+                    final HttpMessageProcessorTemplate httpMessageProcessorTemplate = new HttpMessageProcessorTemplate(createEvent(requestContext, path), messageProcessor, responseCallback, responseBuilder, errorResponseBuilder, nonBlocking);
                     final HttpMessageProcessContext messageProcessContext = new HttpMessageProcessContext(DefaultHttpListener.this, flowConstruct, config.getWorkManager(), muleContext.getExecutionClassLoader());
                     messageProcessingManager.processMessage(httpMessageProcessorTemplate, messageProcessContext);
                 }
@@ -160,7 +172,7 @@ public class DefaultHttpListener implements HttpListener, Initialisable, MuleCon
 
     private MuleEvent createEvent(HttpRequestContext requestContext, String listenerPath) throws HttpRequestParsingException
     {
-        return HttpRequestToMuleEvent.transform(requestContext, muleContext, flowConstruct, parseRequest, listenerPath);
+        return HttpRequestToMuleEvent.transform(requestContext, muleContext, flowConstruct, parseRequest, config.isDecompressRequests(), listenerPath);
     }
 
     @Override
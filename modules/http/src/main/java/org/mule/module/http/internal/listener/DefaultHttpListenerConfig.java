@@ -68,6 +68,12 @@ public class DefaultHttpListenerConfig implements HttpListenerConfig, Initialisa
     private boolean usePersistentConnections = true;
     private int connectionIdleTimeout = DEFAULT_CONNECTION_IDLE_TIMEOUT;
 
+    private boolean compressResponses = false;
+    private int compressionThreshold = HttpResponseCompressor.DEFAULT_THRESHOLD;
+    private String compressibleMimeTypes = HttpResponseCompressor.DEFAULT_MIME_TYPES;
+    private boolean decompressRequests = false;
+    private HttpResponseCompressor responseCompressor;
+
     public void setWorkerThreadingProfile(ThreadingProfile workerThreadingProfile)
     {
         this.workerThreadingProfile = workerThreadingProfile;
@@ -162,6 +168,10 @@ public class DefaultHttpListenerConfig implements HttpListenerConfig, Initialisa
 
         verifyConnectionsParameters();
 
+        if (compressResponses)
+        {
+            responseCompressor = new HttpResponseCompressor(compressionThreshold, compressibleMimeTypes);
+        }
 
         ServerAddress serverAddress;
 
@@ -334,4 +344,38 @@ public class DefaultHttpListenerConfig implements HttpListenerConfig, Initialisa
         this.connectionIdleTimeout = connectionIdleTimeout;
     }
 
+    public void setCompressResponses(boolean compressResponses)
+    {
+        this.compressResponses = compressResponses;
+    }
+
+    public void setCompressionThreshold(int compressionThreshold)
+    {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public void setCompressibleMimeTypes(String compressibleMimeTypes)
+    {
+        this.compressibleMimeTypes = compressibleMimeTypes;
+    }
+
+    public void setDecompressRequests(boolean decompressRequests)
+    {
+        this.decompressRequests = decompressRequests;
+    }
+
+    /**
+     * @return the compressor for the responses of the listeners, or null if responses are
+     *         not compressed
+     */
+    HttpResponseCompressor getResponseCompressor()
+    {
+        return responseCompressor;
+    }
+
+    boolean isDecompressRequests()
+    {
+        return decompressRequests;
+    }
+
 }
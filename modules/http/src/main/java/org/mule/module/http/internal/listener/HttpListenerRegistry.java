@@ -11,22 +11,20 @@ import org.mule.api.MuleRuntimeException;
 import org.mule.config.i18n.CoreMessages;
 import org.mule.module.http.internal.domain.request.HttpRequest;
 import org.mule.module.http.internal.listener.async.RequestHandler;
+import org.mule.module.http.internal.listener.matcher.AcceptsAllMethodsRequestMatcher;
 import org.mule.module.http.internal.listener.matcher.ListenerRequestMatcher;
+import org.mule.module.http.internal.listener.matcher.MethodRequestMatcher;
 import org.mule.util.Preconditions;
-import org.mule.util.StringUtils;
 
 import com.google.common.base.Joiner;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +34,11 @@ public class HttpListenerRegistry implements RequestHandlerProvider
 
     private static final String WILDCARD_CHARACTER = "*";
     private static final String SLASH = "/";
+    private static final char SLASH_CHARACTER = '/';
+    private static final int MAX_INDEXED_METHODS = 63;
+    private static final long ALL_METHODS = -1L;
+    private static final long OTHER_METHOD = 1L << MAX_INDEXED_METHODS;
+    private static final RequestHandlerMatcherPair[] NO_REQUEST_HANDLERS = new RequestHandlerMatcherPair[0];
     private Logger logger = LoggerFactory.getLogger(getClass());
 
     private final ServerAddressMap<Server> serverAddressToServerMap = new ServerAddressMap<>();
@@ -76,143 +79,176 @@ public class HttpListenerRegistry implements RequestHandlerProvider
         return NoListenerRequestHandler.getInstance();
     }
 
+    /**
+     * Request handlers of a server address, indexed in a tree of path segments.
+     * <p/>
+     * Every node of the tree has its static segments in a hash table, a single child for
+     * the segments that match any value (URI parameters or <code>*</code>) and two lists of
+     * request handlers: the ones for the path of the node and the ones for any path below
+     * it (paths ending with <code>/*</code>). Chains of static segments without handlers nor
+     * other children are collapsed into a single edge.
+     * <p/>
+     * Changes are made on a mutable definition of the tree which is then compiled into an
+     * immutable one, so requests are routed without locking and without allocating memory.
+     * A request is routed to the most specific path: static segments are tried first, then
+     * URI parameters and then wildcards, backtracking when a branch has no handler accepting
+     * the request method.
+     */
     public class ServerAddressRequestHandlerRegistry
     {
 
-        private PathMap serverRequestHandler;
-        private PathMap rootPathMap = new PathMap();
-        private PathMap catchAllPathMap = new PathMap();
-        private Set<String> paths = new HashSet<>();
-        private LoadingCache<String, Stack<PathMap>> pathMapSearchCache = CacheBuilder.newBuilder().maximumSize(1000).build(new CacheLoader<String, Stack<PathMap>>() {
-            public Stack<PathMap> load(String path) {
-                return findPossibleRequestHandlers(path);
-            }
-        });
+        private final PathNode rootPathNode = new PathNode();
+        private final List<RequestHandlerMatcherPair> serverRequestHandlers = new ArrayList<>();
+        private final List<String> methods = new ArrayList<>();
+        private final Set<String> paths = new HashSet<>();
+        private volatile CompiledRoutes routes = new CompiledRoutes(this);
 
         public synchronized RequestHandlerManager addRequestHandler(final ListenerRequestMatcher requestMatcher, final RequestHandler requestHandler)
         {
-            pathMapSearchCache.invalidateAll();
             String requestMatcherPath = normalizePathWithSpacesOrEncodedSpaces(requestMatcher.getPath());
             Preconditions.checkArgument(requestMatcherPath.startsWith(SLASH) || requestMatcherPath.equals(WILDCARD_CHARACTER), "path parameter must start with /");
-            validateCollision(requestMatcher);
-            paths.add( getMethodAndPath(requestMatcher.getMethodRequestMatcher().getMethodsList(), requestMatcherPath) );
-            PathMap currentPathMap = rootPathMap;
-            final RequestHandlerMatcherPair addedRequestHandlerMatcherPair;
-            final PathMap requestHandlerOwner;
-            if (requestMatcherPath.equals(WILDCARD_CHARACTER))
+
+            final List<RequestHandlerMatcherPair> requestHandlerOwner = getRequestHandlerOwner(requestMatcherPath);
+            validateCollision(requestHandlerOwner, requestMatcher);
+
+            final RequestHandlerMatcherPair addedRequestHandlerMatcherPair = new RequestHandlerMatcherPair(requestMatcher, requestHandler, requestHandlerOwner);
+            indexMethods(addedRequestHandlerMatcherPair);
+            requestHandlerOwner.add(addedRequestHandlerMatcherPair);
+            paths.add(getMethodAndPath(requestMatcher.getMethodRequestMatcher().getMethodsList(), requestMatcherPath));
+
+            routes = new CompiledRoutes(this);
+            return new DefaultRequestHandlerManager(this, addedRequestHandlerMatcherPair);
+        }
+
+        public synchronized void removeRequestHandler(final RequestHandlerMatcherPair requestHandlerMatcherPair)
+        {
+            if (requestHandlerMatcherPair.owner.remove(requestHandlerMatcherPair))
             {
-                serverRequestHandler = new PathMap();
-                addedRequestHandlerMatcherPair = new RequestHandlerMatcherPair(requestMatcher, requestHandler);
-                requestHandlerOwner = serverRequestHandler;
-                serverRequestHandler.addRequestHandlerMatcherPair(addedRequestHandlerMatcherPair);
+                final ListenerRequestMatcher requestMatcher = requestHandlerMatcherPair.getRequestMatcher();
+                paths.remove(getMethodAndPath(requestMatcher.getMethodRequestMatcher().getMethodsList(), normalizePathWithSpacesOrEncodedSpaces(requestMatcher.getPath())));
+                routes = new CompiledRoutes(this);
             }
-            else if (requestMatcherPath.equals("/*"))
+        }
+
+        /**
+         * @return the list of handlers of the node and kind (exact or wildcard) for the path,
+         *         creating the missing nodes.
+         */
+        private List<RequestHandlerMatcherPair> getRequestHandlerOwner(String path)
+        {
+            if (path.equals(WILDCARD_CHARACTER))
             {
-                addedRequestHandlerMatcherPair = new RequestHandlerMatcherPair(requestMatcher, requestHandler);
-                requestHandlerOwner = catchAllPathMap;
-                catchAllPathMap.addRequestHandlerMatcherPair(addedRequestHandlerMatcherPair);
+                return serverRequestHandlers;
             }
-            else if (requestMatcherPath.equals(SLASH))
+
+            final boolean wildcard = path.endsWith(WILDCARD_CHARACTER);
+            String nodePath = path;
+            if (path.endsWith(SLASH + WILDCARD_CHARACTER) || !wildcard && path.endsWith(SLASH))
             {
-                addedRequestHandlerMatcherPair = new RequestHandlerMatcherPair(requestMatcher, requestHandler);
-                requestHandlerOwner = rootPathMap;
-                rootPathMap.addRequestHandlerMatcherPair(addedRequestHandlerMatcherPair);
+                nodePath = path.substring(0, path.lastIndexOf(SLASH_CHARACTER));
             }
-            else
+
+            PathNode pathNode = rootPathNode;
+            if (!nodePath.isEmpty())
             {
-                final String[] pathParts = splitPath(requestMatcherPath);
-                int insertionLevel = getPathPartsSize(requestMatcherPath);
-                for (int i = 1; i < insertionLevel - 1; i++)
+                for (String pathPart : nodePath.substring(1).split(SLASH, -1))
                 {
-                    String currentPath = pathParts[i];
-                    PathMap pathMap = currentPathMap.getChildPathMap(currentPath);
-                    if (i != insertionLevel - 1)
-                    {
-                        if (pathMap == null)
-                        {
-                            pathMap = new PathMap();
-                            currentPathMap.addChildPathMap(currentPath, pathMap);
-                        }
-                    }
-
-                    currentPathMap = pathMap;
+                    pathNode = pathNode.getOrCreateChild(pathPart);
                 }
-                String currentPath = pathParts[insertionLevel - 1];
-                PathMap pathMap = currentPathMap.getLastChildPathMap(currentPath);
-                if (pathMap == null)
+            }
+            return wildcard ? pathNode.wildcardRequestHandlers : pathNode.requestHandlers;
+        }
+
+        private void validateCollision(List<RequestHandlerMatcherPair> requestHandlerOwner, ListenerRequestMatcher newListenerRequestMatcher)
+        {
+            for (RequestHandlerMatcherPair requestHandlerMatcherPair : requestHandlerOwner)
+            {
+                final ListenerRequestMatcher requestMatcher = requestHandlerMatcherPair.getRequestMatcher();
+                if (newListenerRequestMatcher.getMethodRequestMatcher().intersectsWith(requestMatcher.getMethodRequestMatcher()))
                 {
-                    pathMap = new PathMap();
-                    currentPathMap.addChildPathMap(currentPath, pathMap);
+                    throw new MuleRuntimeException(CoreMessages.createStaticMessage(String.format("Already exists a listener matching that path and methods. Listener matching %s new listener %s", requestMatcher, newListenerRequestMatcher)));
                 }
-                if (requestMatcherPath.endsWith(WILDCARD_CHARACTER))
+            }
+        }
+
+        /**
+         * Assigns a bit to each method accepted by the handler. Handlers accepting every
+         * method, or whose methods can't be indexed, get every bit and the latter are
+         * checked against the request once their path matches.
+         */
+        private void indexMethods(RequestHandlerMatcherPair requestHandlerMatcherPair)
+        {
+            final MethodRequestMatcher methodRequestMatcher = requestHandlerMatcherPair.getRequestMatcher().getMethodRequestMatcher();
+            if (methodRequestMatcher instanceof AcceptsAllMethodsRequestMatcher)
+            {
+                requestHandlerMatcherPair.methodMask = ALL_METHODS;
+                return;
+            }
+            if (methodRequestMatcher.getClass() == MethodRequestMatcher.class)
+            {
+                long methodMask = 0;
+                for (String method : methodRequestMatcher.getMethods())
                 {
-                    addedRequestHandlerMatcherPair = new RequestHandlerMatcherPair(requestMatcher, requestHandler);
-                    pathMap.addWildcardRequestHandler(addedRequestHandlerMatcherPair);
-                    requestHandlerOwner = pathMap;
+                    int methodIndex = indexOfMethod(method);
+                    if (methodIndex == -1 && methods.size() < MAX_INDEXED_METHODS)
+                    {
+                        methods.add(method);
+                        methodIndex = methods.size() - 1;
+                    }
+                    if (methodIndex == -1)
+                    {
+                        methodMask = ALL_METHODS;
+                        break;
+                    }
+                    methodMask |= 1L << methodIndex;
                 }
-                else
+                if (methodMask != ALL_METHODS)
                 {
-                    addedRequestHandlerMatcherPair = new RequestHandlerMatcherPair(requestMatcher, requestHandler);
-                    pathMap.addRequestHandlerMatcherPair(addedRequestHandlerMatcherPair);
-                    requestHandlerOwner = pathMap;
+                    requestHandlerMatcherPair.methodMask = methodMask;
+                    return;
                 }
             }
-            return new DefaultRequestHandlerManager(requestHandlerOwner, addedRequestHandlerMatcherPair);
+            requestHandlerMatcherPair.methodMask = ALL_METHODS;
+            requestHandlerMatcherPair.matchMethod = true;
         }
 
-        private void validateCollision(ListenerRequestMatcher newListenerRequestMatcher)
+        private int indexOfMethod(String method)
         {
-            final String newListenerRequestMatcherPath = newListenerRequestMatcher.getPath();
-            final Stack<PathMap> possibleRequestHandlers = findPossibleRequestHandlersFromCache(newListenerRequestMatcherPath);
-            for (PathMap possibleRequestHandler : possibleRequestHandlers)
+            for (int i = 0; i < methods.size(); i++)
             {
-                final List<RequestHandlerMatcherPair> requestHandlerMatcherPairs = possibleRequestHandler.getRequestHandlerMatcherPairs();
-                for (RequestHandlerMatcherPair requestHandlerMatcherPair : requestHandlerMatcherPairs)
+                if (methods.get(i).equalsIgnoreCase(method))
                 {
-                    final ListenerRequestMatcher requestMatcher = requestHandlerMatcherPair.getRequestMatcher();
-                    final String possibleCollisionRequestMatcherPath = requestMatcher.getPath();
-                    if (isSameDepth(possibleCollisionRequestMatcherPath, newListenerRequestMatcherPath))
-                    {
-                        if (newListenerRequestMatcher.getMethodRequestMatcher().intersectsWith(requestMatcher.getMethodRequestMatcher()))
-                        {
-                            String possibleCollisionLastPathPart = getLastPathPortion(possibleCollisionRequestMatcherPath);
-                            String newListenerRequestMatcherLastPathPart  = getLastPathPortion(newListenerRequestMatcherPath);
-                            if (possibleCollisionLastPathPart.equals(newListenerRequestMatcherLastPathPart) ||
-                                (isCatchAllPath(possibleCollisionLastPathPart) && isCatchAllPath(newListenerRequestMatcherLastPathPart)) ||
-                                (isCatchAllPath(possibleCollisionLastPathPart) && isUriParameter(newListenerRequestMatcherLastPathPart)) ||
-                                (isUriParameter(possibleCollisionLastPathPart) && isCatchAllPath(newListenerRequestMatcherLastPathPart) ||
-                                 (isUriParameter(possibleCollisionLastPathPart) && isUriParameter(newListenerRequestMatcherLastPathPart))))
-                            {
-                                throw new MuleRuntimeException(CoreMessages.createStaticMessage(String.format("Already exists a listener matching that path and methods. Listener matching %s new listener %s", requestMatcher, newListenerRequestMatcher)));
-                            }
-                        }
-                    }
+                    return i;
                 }
             }
+            return -1;
         }
 
         public RequestHandler findRequestHandler(final HttpRequest request)
         {
-            final String path = normalizePathWithSpacesOrEncodedSpaces(request.getPath());
-            Preconditions.checkArgument(path.startsWith(SLASH), "path parameter must start with /");
-            Stack<PathMap> foundPaths = findPossibleRequestHandlersFromCache(path);
-
-            RequestHandlerMatcherPair requestHandlerMatcherPair = null;
-            while (!foundPaths.empty())
+            String path = request.getPath();
+            if (path.indexOf('%') != -1 || path.indexOf('+') != -1)
             {
-                final PathMap pathMap = foundPaths.pop();
-                requestHandlerMatcherPair = findRequestHandlerMatcherPair(pathMap.getRequestHandlerMatcherPairs(), request);
-                if (requestHandlerMatcherPair != null)
-                {
-                    break;
-                }
+                path = normalizePathWithSpacesOrEncodedSpaces(path);
+            }
+            final CompiledRoutes routes = this.routes;
+            final RequestHandlerMatcherPair requestHandlerMatcherPair;
+            if (path.equals(WILDCARD_CHARACTER))
+            {
+                requestHandlerMatcherPair = findRequestHandlerMatcherPair(routes.serverRequestHandlers, ALL_METHODS, routes.getMethodBit(request.getMethod()), request);
             }
+            else
+            {
+                Preconditions.checkArgument(path.startsWith(SLASH), "path parameter must start with /");
+                requestHandlerMatcherPair = routes.find(path, request);
+            }
+
             if (requestHandlerMatcherPair == null)
             {
                 if (logger.isInfoEnabled())
                 {
                     logger.info("No listener found for request: " + getMethodAndPath(request.getMethod(), request.getPath()));
-                    logger.info("Available listeners are: [{}]", Joiner.on(", ").join(this.paths));
+                    logger.info("Available listeners are: [{}]", Joiner.on(", ").join(routes.paths));
                 }
                 return NoListenerRequestHandler.getInstance();
             }
@@ -227,212 +263,302 @@ public class HttpListenerRegistry implements RequestHandlerProvider
         {
             return "(" + method + ")" + path;
         }
+    }
 
-        private Stack<PathMap> findPossibleRequestHandlersFromCache(String path)
-        {
-            return findPossibleRequestHandlers(path);
-        }
+    private static boolean isUriParameter(String pathPart)
+    {
+        return (pathPart.startsWith("{") || pathPart.startsWith("/{")) && pathPart.endsWith("}");
+    }
 
-        private Stack<PathMap> findPossibleRequestHandlers(String path)
-        {
-            PathMap currentPathMap = rootPathMap;
-            final String[] pathParts = splitPath(path);
-            Stack<PathMap> foundPaths = new Stack<>();
-            foundPaths.add(catchAllPathMap);
-            if (path.equals(WILDCARD_CHARACTER))
-            {
-                foundPaths.push(serverRequestHandler);
-                return foundPaths;
-            }
-            if (path.equals(SLASH))
-            {
-                foundPaths.push(rootPathMap);
-                return foundPaths;
-            }
-            for (int i = 1; i < pathParts.length && currentPathMap != null; i++)
-            {
-                String currentPath = pathParts[i];
-                PathMap pathMap = currentPathMap.getChildPathMap(currentPath);
-                if (pathMap == null)
-                {
-                    addCatchAllPathMapIfNotNull(currentPathMap, foundPaths);
-                    pathMap = currentPathMap.getCatchAllCurrentPathMap();
-                }
-                if (i == pathParts.length - 1)
-                {
-                    if (pathMap != null)
-                    {
-                        addCatchAllPathMapIfNotNull(pathMap, foundPaths);
-                        foundPaths.push(pathMap);
-                    }
-                    else
-                    {
-                        addCatchAllPathMapIfNotNull(currentPathMap, foundPaths);
-                    }
-                }
-                currentPathMap = pathMap;
-            }
-            return foundPaths;
-        }
+    private static boolean isCatchAllPath(String path)
+    {
+        return WILDCARD_CHARACTER.equals(path);
+    }
 
-        private void addCatchAllPathMapIfNotNull(PathMap currentPathMap, Stack<PathMap> foundPaths)
+    private static RequestHandlerMatcherPair findRequestHandlerMatcherPair(RequestHandlerMatcherPair[] requestHandlerMatcherPairs, long methods, long methodBit, HttpRequest request)
+    {
+        if ((methods & methodBit) == 0)
         {
-            final PathMap catchAllPathMap = currentPathMap.getCatchAllPathMap();
-            if (catchAllPathMap != null)
-            {
-                foundPaths.push(catchAllPathMap);
-            }
+            return null;
         }
-
-        private RequestHandlerMatcherPair findRequestHandlerMatcherPair(List<RequestHandlerMatcherPair> requestHandlerMatcherPairs, HttpRequest request)
+        for (RequestHandlerMatcherPair requestHandlerMatcherPair : requestHandlerMatcherPairs)
         {
-            for (RequestHandlerMatcherPair requestHandlerMatcherPair : requestHandlerMatcherPairs)
+            if ((requestHandlerMatcherPair.methodMask & methodBit) != 0 &&
+                (!requestHandlerMatcherPair.matchMethod || requestHandlerMatcherPair.getRequestMatcher().matches(request)))
             {
-                if (requestHandlerMatcherPair.getRequestMatcher().matches(request))
-                {
-                    return requestHandlerMatcherPair;
-                }
+                return requestHandlerMatcherPair;
             }
-            return null;
         }
+        return null;
     }
 
-    private boolean isUriParameter(String pathPart)
-    {
-        return (pathPart.startsWith("{") || pathPart.startsWith("/{")) && pathPart.endsWith("}");
-    }
-
-    private String getLastPathPortion(String possibleCollisionRequestMatcherPath)
+    private static long getMethods(RequestHandlerMatcherPair[] requestHandlerMatcherPairs)
     {
-        final String[] parts = splitPath(possibleCollisionRequestMatcherPath);
-        if (parts.length == 0)
+        long methods = 0;
+        for (RequestHandlerMatcherPair requestHandlerMatcherPair : requestHandlerMatcherPairs)
         {
-            return StringUtils.EMPTY;
+            methods |= requestHandlerMatcherPair.methodMask;
         }
-        return parts[parts.length - 1];
+        return methods;
     }
 
-    private boolean isSameDepth(String possibleCollisionRequestMatcherPath, String newListenerRequestMatcherPath)
+    private static RequestHandlerMatcherPair[] toArray(List<RequestHandlerMatcherPair> requestHandlerMatcherPairs)
     {
-        return getPathPartsSize(possibleCollisionRequestMatcherPath) == getPathPartsSize(newListenerRequestMatcherPath);
+        return requestHandlerMatcherPairs.isEmpty() ? NO_REQUEST_HANDLERS : requestHandlerMatcherPairs.toArray(new RequestHandlerMatcherPair[requestHandlerMatcherPairs.size()]);
     }
 
-    private int getPathPartsSize(String path)
+    /**
+     * Mutable definition of a node of the path tree.
+     */
+    private static class PathNode
     {
-        int pathSize = splitPath(path).length - 1;
-        pathSize += (path.endsWith(SLASH) ? 1 : 0);
-        return pathSize;
-    }
 
-    private String[] splitPath(String path)
-    {
-        if (path.endsWith(SLASH) )
+        private final Map<String, PathNode> children = new LinkedHashMap<>();
+        private PathNode uriParameterChild;
+        private final List<RequestHandlerMatcherPair> requestHandlers = new ArrayList<>();
+        private final List<RequestHandlerMatcherPair> wildcardRequestHandlers = new ArrayList<>();
+
+        private PathNode getOrCreateChild(String pathPart)
+        {
+            if (isCatchAllPath(pathPart) || isUriParameter(pathPart))
+            {
+                if (uriParameterChild == null)
+                {
+                    uriParameterChild = new PathNode();
+                }
+                return uriParameterChild;
+            }
+            PathNode child = children.get(pathPart);
+            if (child == null)
+            {
+                child = new PathNode();
+                children.put(pathPart, child);
+            }
+            return child;
+        }
+
+        private boolean hasRequestHandlers()
+        {
+            return !requestHandlers.isEmpty() || !wildcardRequestHandlers.isEmpty();
+        }
+
+        /**
+         * @return the only static child if this node just links its parent with it, null otherwise.
+         */
+        private Map.Entry<String, PathNode> getLinkedChild()
         {
-            // Remove the last slash
-            path = path.substring(0, path.length()-1);
+            if (children.size() != 1 || uriParameterChild != null || hasRequestHandlers())
+            {
+                return null;
+            }
+            return children.entrySet().iterator().next();
         }
-        return path.split(SLASH, -1);
     }
 
-    public class PathMap
+    /**
+     * Immutable snapshot of the path tree of a server address, along with the methods
+     * indexed in the bitsets of its handlers.
+     */
+    private static class CompiledRoutes
     {
 
-        List<RequestHandlerMatcherPair> requestHandlerMatcherPairs = new ArrayList<>();
-
-        private Map<String, PathMap> subPaths = new HashMap<>();
-        private PathMap catchAllPathMap;
-        private PathMap catchAllCurrentPathMap;
+        private final RouteNode root;
+        private final String[] methods;
+        private final RequestHandlerMatcherPair[] serverRequestHandlers;
+        private final List<String> paths;
 
-        public PathMap getCatchAllPathMap()
+        private CompiledRoutes(ServerAddressRequestHandlerRegistry registry)
         {
-            return catchAllPathMap;
+            this.root = RouteNode.compile(registry.rootPathNode, "");
+            this.methods = registry.methods.toArray(new String[registry.methods.size()]);
+            this.serverRequestHandlers = toArray(registry.serverRequestHandlers);
+            this.paths = new ArrayList<>(registry.paths);
         }
 
-        public PathMap getCatchAllCurrentPathMap()
+        private long getMethodBit(String method)
         {
-            return catchAllCurrentPathMap;
+            for (int i = 0; i < methods.length; i++)
+            {
+                if (methods[i].equalsIgnoreCase(method))
+                {
+                    return 1L << i;
+                }
+            }
+            return OTHER_METHOD;
         }
 
-        /**
-         * @param subPath a sub part of the path
-         * @return the node with the existent mappings. null if there's no such node.
-         */
-        public PathMap getChildPathMap(final String subPath)
+        private RequestHandlerMatcherPair find(String path, HttpRequest request)
         {
-            if (isCatchAllPath(subPath) || isUriParameter(subPath))
+            if (root == null)
             {
-                return getCatchAllCurrentPathMap();
+                return null;
             }
-            PathMap pathMap = subPaths.get(subPath);
-            return pathMap;
+            int end = path.length();
+            if (path.charAt(end - 1) == SLASH_CHARACTER)
+            {
+                end--;
+            }
+            return root.find(path, 0, end, getMethodBit(request.getMethod()), request);
         }
+    }
+
+    /**
+     * Compiled node of the path tree. Its static children are kept in an open addressing
+     * table keyed by their first path segment, so they can be looked up with a region of
+     * the request path.
+     */
+    private static class RouteNode
+    {
+
+        private final String edgeTail;
+        private final String[] childKeys;
+        private final RouteNode[] childNodes;
+        private final int childMask;
+        private final RouteNode uriParameterChild;
+        private final RequestHandlerMatcherPair[] requestHandlers;
+        private final long requestHandlerMethods;
+        private final RequestHandlerMatcherPair[] wildcardRequestHandlers;
+        private final long wildcardRequestHandlerMethods;
 
         /**
-         * @param subPath a sub part of the path
-         * @return the node with the existent mappings. null if there's no such node.
+         * @param pathNode the node definition
+         * @param edgeTail the segments collapsed into the edge to this node, after the first one
+         * @return the compiled node, or null if there are no handlers under it.
          */
-        public PathMap getLastChildPathMap(final String subPath)
+        private static RouteNode compile(PathNode pathNode, String edgeTail)
         {
-            if (isCatchAllPath(subPath) || isUriParameter(subPath))
+            Map<String, RouteNode> compiledChildren = new LinkedHashMap<>();
+            for (Map.Entry<String, PathNode> child : pathNode.children.entrySet())
             {
-                return getCatchAllCurrentPathMap();
+                StringBuilder childEdgeTail = new StringBuilder();
+                PathNode childNode = child.getValue();
+                Map.Entry<String, PathNode> linkedChild;
+                while ((linkedChild = childNode.getLinkedChild()) != null)
+                {
+                    childEdgeTail.append(SLASH_CHARACTER).append(linkedChild.getKey());
+                    childNode = linkedChild.getValue();
+                }
+                RouteNode compiledChild = compile(childNode, childEdgeTail.toString());
+                if (compiledChild != null)
+                {
+                    compiledChildren.put(child.getKey(), compiledChild);
+                }
             }
-            PathMap pathMap = subPaths.get(subPath);
-            return pathMap;
-        }
+            RouteNode compiledUriParameterChild = pathNode.uriParameterChild != null ? compile(pathNode.uriParameterChild, "") : null;
 
-        public void addRequestHandlerMatcherPair(final RequestHandlerMatcherPair requestHandlerMatcherPair)
-        {
-            this.requestHandlerMatcherPairs.add(requestHandlerMatcherPair);
+            if (compiledChildren.isEmpty() && compiledUriParameterChild == null && !pathNode.hasRequestHandlers())
+            {
+                return null;
+            }
+            return new RouteNode(pathNode, edgeTail, compiledChildren, compiledUriParameterChild);
         }
 
-        public void addChildPathMap(final String path, final PathMap pathMap)
+        private RouteNode(PathNode pathNode, String edgeTail, Map<String, RouteNode> children, RouteNode uriParameterChild)
         {
-            if (path.equals(WILDCARD_CHARACTER) || path.endsWith("}"))
+            this.edgeTail = edgeTail;
+            this.uriParameterChild = uriParameterChild;
+            this.requestHandlers = toArray(pathNode.requestHandlers);
+            this.requestHandlerMethods = getMethods(requestHandlers);
+            this.wildcardRequestHandlers = toArray(pathNode.wildcardRequestHandlers);
+            this.wildcardRequestHandlerMethods = getMethods(wildcardRequestHandlers);
+
+            int capacity = 1;
+            while (capacity < children.size() * 2)
             {
-                catchAllCurrentPathMap = pathMap;
+                capacity <<= 1;
             }
-            else
+            this.childKeys = new String[capacity];
+            this.childNodes = new RouteNode[capacity];
+            this.childMask = capacity - 1;
+            for (Map.Entry<String, RouteNode> child : children.entrySet())
             {
-                subPaths.put(path, pathMap);
+                int index = spread(child.getKey().hashCode()) & childMask;
+                while (childKeys[index] != null)
+                {
+                    index = (index + 1) & childMask;
+                }
+                childKeys[index] = child.getKey();
+                childNodes[index] = child.getValue();
             }
         }
 
-        public List<RequestHandlerMatcherPair> getRequestHandlerMatcherPairs()
+        /**
+         * @param path the request path
+         * @param position index of the slash before the next segment to match, or end if
+         *                 every segment has been matched
+         * @param end index where the path ends, not counting a trailing slash
+         */
+        private RequestHandlerMatcherPair find(String path, int position, int end, long methodBit, HttpRequest request)
         {
-            return requestHandlerMatcherPairs;
-        }
+            RequestHandlerMatcherPair requestHandlerMatcherPair;
+            if (position >= end)
+            {
+                requestHandlerMatcherPair = findRequestHandlerMatcherPair(requestHandlers, requestHandlerMethods, methodBit, request);
+                if (requestHandlerMatcherPair != null)
+                {
+                    return requestHandlerMatcherPair;
+                }
+                return findRequestHandlerMatcherPair(wildcardRequestHandlers, wildcardRequestHandlerMethods, methodBit, request);
+            }
 
-        public void addWildcardRequestHandler(RequestHandlerMatcherPair requestHandlerMatcherPair)
-        {
-            if (this.catchAllPathMap == null)
+            final int segmentStart = position + 1;
+            int segmentEnd = path.indexOf(SLASH_CHARACTER, segmentStart);
+            if (segmentEnd == -1 || segmentEnd > end)
             {
-                this.catchAllPathMap = new PathMap();
+                segmentEnd = end;
             }
-            this.catchAllPathMap.addRequestHandlerMatcherPair(requestHandlerMatcherPair);
-        }
 
-        public boolean removeRequestHandlerMatcherPair(RequestHandlerMatcherPair requestHandlerMatcherPair)
-        {
-            if (this.requestHandlerMatcherPairs.remove(requestHandlerMatcherPair))
+            final RouteNode child = findChild(path, segmentStart, segmentEnd);
+            if (child != null)
             {
-                return true;
+                final int edgeEnd = segmentEnd + child.edgeTail.length();
+                if (edgeEnd <= end && path.regionMatches(segmentEnd, child.edgeTail, 0, child.edgeTail.length())
+                    && (edgeEnd == end || path.charAt(edgeEnd) == SLASH_CHARACTER))
+                {
+                    requestHandlerMatcherPair = child.find(path, edgeEnd, end, methodBit, request);
+                    if (requestHandlerMatcherPair != null)
+                    {
+                        return requestHandlerMatcherPair;
+                    }
+                }
+            }
+            if (uriParameterChild != null)
+            {
+                requestHandlerMatcherPair = uriParameterChild.find(path, segmentEnd, end, methodBit, request);
+                if (requestHandlerMatcherPair != null)
+                {
+                    return requestHandlerMatcherPair;
+                }
             }
-            if (this.catchAllPathMap != null && this.catchAllPathMap.removeRequestHandlerMatcherPair(requestHandlerMatcherPair))
+            return findRequestHandlerMatcherPair(wildcardRequestHandlers, wildcardRequestHandlerMethods, methodBit, request);
+        }
+
+        private RouteNode findChild(String path, int start, int end)
+        {
+            final int length = end - start;
+            int hash = 0;
+            for (int i = start; i < end; i++)
             {
-                return true;
+                hash = 31 * hash + path.charAt(i);
             }
-            if (this.catchAllCurrentPathMap != null && this.catchAllCurrentPathMap.removeRequestHandlerMatcherPair(requestHandlerMatcherPair))
+
+            int index = spread(hash) & childMask;
+            String key;
+            while ((key = childKeys[index]) != null)
             {
-                return true;
+                if (key.length() == length && path.regionMatches(start, key, 0, length))
+                {
+                    return childNodes[index];
+                }
+                index = (index + 1) & childMask;
             }
-            return false;
+            return null;
         }
-    }
 
-    private boolean isCatchAllPath(String path)
-    {
-        return WILDCARD_CHARACTER.equals(path);
+        private static int spread(int hash)
+        {
+            return hash ^ (hash >>> 16);
+        }
     }
 
     public class RequestHandlerMatcherPair
@@ -440,12 +566,16 @@ public class HttpListenerRegistry implements RequestHandlerProvider
 
         private ListenerRequestMatcher requestMatcher;
         private RequestHandler requestHandler;
-        private boolean running = true;
+        private volatile boolean running = true;
+        private final List<RequestHandlerMatcherPair> owner;
+        private long methodMask;
+        private boolean matchMethod;
 
-        private RequestHandlerMatcherPair(ListenerRequestMatcher requestMatcher, RequestHandler requestHandler)
+        private RequestHandlerMatcherPair(ListenerRequestMatcher requestMatcher, RequestHandler requestHandler, List<RequestHandlerMatcherPair> owner)
         {
             this.requestMatcher = requestMatcher;
             this.requestHandler = requestHandler;
+            this.owner = owner;
         }
 
         public ListenerRequestMatcher getRequestMatcher()
@@ -9,10 +9,15 @@ package org.mule.module.http.internal.listener;
 import static org.mule.module.http.api.HttpConstants.Protocols.HTTP;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import org.mule.DefaultMuleEvent;
+import org.mule.NonBlockingVoidMuleEvent;
 import org.mule.api.MessagingException;
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleException;
+import org.mule.api.MuleMessage;
+import org.mule.api.ThreadSafeAccess;
 import org.mule.api.processor.MessageProcessor;
+import org.mule.api.transport.NonBlockingReplyToHandler;
 import org.mule.config.ExceptionHelper;
 import org.mule.execution.AsyncResponseFlowProcessingPhaseTemplate;
 import org.mule.execution.ResponseCompletionCallback;
@@ -46,18 +51,38 @@ public class HttpMessageProcessorTemplate implements AsyncResponseFlowProcessing
     private HttpResponseBuilder responseBuilder;
     private HttpResponseBuilder errorResponseBuilder;
     private HttpThrottlingHeadersMapBuilder httpThrottlingHeadersMapBuilder = new HttpThrottlingHeadersMapBuilder();
+    private NonBlockingResponseReplyToHandler nonBlockingResponseReplyToHandler;
 
     public HttpMessageProcessorTemplate(MuleEvent sourceMuleEvent,
                                         MessageProcessor messageProcessor,
                                         HttpResponseReadyCallback responseReadyCallback,
                                         HttpResponseBuilder responseBuilder,
                                         HttpResponseBuilder errorResponseBuilder)
+    {
+        this(sourceMuleEvent, messageProcessor, responseReadyCallback, responseBuilder, errorResponseBuilder, false);
+    }
+
+    /**
+     * @param nonBlocking if true, the flow may complete the event asynchronously, the response being sent
+     *                    by the thread that completes it
+     */
+    public HttpMessageProcessorTemplate(MuleEvent sourceMuleEvent,
+                                        MessageProcessor messageProcessor,
+                                        HttpResponseReadyCallback responseReadyCallback,
+                                        HttpResponseBuilder responseBuilder,
+                                        HttpResponseBuilder errorResponseBuilder,
+                                        boolean nonBlocking)
     {
         this.sourceMuleEvent = sourceMuleEvent;
         this.messageProcessor = messageProcessor;
         this.responseBuilder = responseBuilder;
         this.errorResponseBuilder = errorResponseBuilder;
         this.responseReadyCallback = responseReadyCallback;
+        if (nonBlocking)
+        {
+            this.nonBlockingResponseReplyToHandler = new NonBlockingResponseReplyToHandler();
+            this.sourceMuleEvent = new DefaultMuleEvent(sourceMuleEvent, sourceMuleEvent.getFlowConstruct(), nonBlockingResponseReplyToHandler, null);
+        }
     }
 
     @Override
@@ -81,6 +106,12 @@ public class HttpMessageProcessorTemplate implements AsyncResponseFlowProcessing
     @Override
     public void sendResponseToClient(MuleEvent muleEvent, ResponseCompletionCallback responseCompletationCallback) throws MuleException
     {
+        if (muleEvent instanceof NonBlockingVoidMuleEvent)
+        {
+            // The response is sent once the flow completes the event
+            nonBlockingResponseReplyToHandler.setResponseCompletionCallback(responseCompletationCallback);
+            return;
+        }
         try
         {
             final org.mule.module.http.internal.domain.response.HttpResponseBuilder responseBuilder = new org.mule.module.http.internal.domain.response.HttpResponseBuilder();
@@ -202,4 +233,93 @@ public class HttpMessageProcessorTemplate implements AsyncResponseFlowProcessing
     {
         return httpThrottlingHeadersMapBuilder.build();
     }
+
+    /**
+     * Sends the response of an event completed asynchronously. As the flow may complete it before the
+     * processing phase is done with the event, the response is sent by whichever comes last.
+     */
+    private class NonBlockingResponseReplyToHandler implements NonBlockingReplyToHandler
+    {
+
+        private ResponseCompletionCallback responseCompletionCallback;
+        private boolean completed;
+        private MuleEvent result;
+        private MessagingException exception;
+
+        @Override
+        public void processReplyTo(MuleEvent event, MuleMessage returnMessage, Object replyTo) throws MuleException
+        {
+            complete(event, null);
+        }
+
+        @Override
+        public void processExceptionReplyTo(MessagingException exception, Object replyTo)
+        {
+            complete(null, exception);
+        }
+
+        private void complete(MuleEvent result, MessagingException exception)
+        {
+            ResponseCompletionCallback callback;
+            synchronized (this)
+            {
+                this.completed = true;
+                this.result = result;
+                this.exception = exception;
+                callback = responseCompletionCallback;
+            }
+            if (callback != null)
+            {
+                sendResult(callback);
+            }
+        }
+
+        private void setResponseCompletionCallback(ResponseCompletionCallback responseCompletionCallback)
+        {
+            boolean send;
+            synchronized (this)
+            {
+                this.responseCompletionCallback = responseCompletionCallback;
+                send = completed;
+            }
+            if (send)
+            {
+                sendResult(responseCompletionCallback);
+            }
+        }
+
+        private void sendResult(ResponseCompletionCallback responseCompletionCallback)
+        {
+            MuleEvent event = exception != null ? exception.getEvent() : result;
+            if (event instanceof ThreadSafeAccess)
+            {
+                ((ThreadSafeAccess) event).resetAccessControl();
+            }
+
+            try
+            {
+                if (exception == null)
+                {
+                    sendResponseToClient(result, responseCompletionCallback);
+                }
+                else
+                {
+                    // Same handling the flow does for exceptions thrown while processing synchronously
+                    exception.setProcessedEvent(event.getFlowConstruct().getExceptionListener().handleException(exception, event));
+                    if (exception.handled())
+                    {
+                        sendResponseToClient(exception.getEvent(), responseCompletionCallback);
+                    }
+                    else
+                    {
+                        sendFailureResponseToClient(exception, responseCompletionCallback);
+                    }
+                }
+            }
+            catch (Exception e)
+            {
+                responseCompletionCallback.responseSentWithFailure(e, event);
+            }
+        }
+    }
 }
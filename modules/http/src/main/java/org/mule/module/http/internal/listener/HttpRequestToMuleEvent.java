@@ -15,6 +15,7 @@ import org.mule.api.config.MuleProperties;
 import org.mule.api.construct.FlowConstruct;
 import org.mule.module.http.api.HttpHeaders;
 import org.mule.module.http.internal.HttpParser;
+import org.mule.module.http.internal.compression.ContentEncodings;
 import org.mule.module.http.internal.domain.HttpEntity;
 import org.mule.module.http.internal.domain.InputStreamHttpEntity;
 import org.mule.module.http.internal.domain.MultipartHttpEntity;
@@ -27,6 +28,8 @@ import org.mule.util.StringUtils;
 
 import com.google.common.net.MediaType;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.HashMap;
@@ -37,14 +40,25 @@ import javax.activation.DataHandler;
 public class HttpRequestToMuleEvent
 {
 
-    public static MuleEvent transform(final HttpRequestContext requestContext, final MuleContext muleContext, final FlowConstruct flowConstruct, Boolean parseRequest, String listenerPath) throws HttpRequestParsingException
+    /**
+     * @param decompressRequest whether a body compressed with a supported Content-Encoding is decompressed while
+     *        it is read. In that case the Content-Encoding and Content-Length headers are not mapped as they no
+     *        longer describe the payload.
+     */
+    public static MuleEvent transform(final HttpRequestContext requestContext, final MuleContext muleContext, final FlowConstruct flowConstruct, Boolean parseRequest, boolean decompressRequest, String listenerPath) throws HttpRequestParsingException
     {
         final HttpRequest request = requestContext.getRequest();
         final Collection<String> headerNames = request.getHeaderNames();
+        final String contentEncoding = request.getHeaderValue(HttpHeaders.Names.CONTENT_ENCODING);
+        final boolean decode = decompressRequest && ContentEncodings.isSupported(contentEncoding);
         Map<String, Object> inboundProperties = new HashMap<>();
         Map<String, Object> outboundProperties = new HashMap<>();
         for (String headerName : headerNames)
         {
+            if (decode && (headerName.equalsIgnoreCase(HttpHeaders.Names.CONTENT_ENCODING) || headerName.equalsIgnoreCase(HttpHeaders.Names.CONTENT_LENGTH)))
+            {
+                continue;
+            }
             final Collection<String> values = request.getHeaderValues(headerName);
             if (values.size() == 1)
             {
@@ -88,7 +102,7 @@ public class HttpRequestToMuleEvent
                         {
                             try
                             {
-                                payload = HttpParser.decodeUrlEncodedBody(IOUtils.toString(((InputStreamHttpEntity) entity).getInputStream()), encoding);
+                                payload = HttpParser.decodeUrlEncodedBody(IOUtils.toString(getInputStream((InputStreamHttpEntity) entity, decode, contentEncoding)), encoding);
                             }
                             catch (IllegalArgumentException e)
                             {
@@ -97,12 +111,12 @@ public class HttpRequestToMuleEvent
                         }
                         else if (entity instanceof InputStreamHttpEntity)
                         {
-                            payload = ((InputStreamHttpEntity) entity).getInputStream();
+                            payload = getInputStream((InputStreamHttpEntity) entity, decode, contentEncoding);
                         }
                     }
                     else if (entity instanceof InputStreamHttpEntity)
                     {
-                        payload = ((InputStreamHttpEntity) entity).getInputStream();
+                        payload = getInputStream((InputStreamHttpEntity) entity, decode, contentEncoding);
                     }
                 }
             }
@@ -112,13 +126,30 @@ public class HttpRequestToMuleEvent
             final InputStreamHttpEntity inputStreamEntity = request.getInputStreamEntity();
             if (inputStreamEntity != null)
             {
-                payload = inputStreamEntity.getInputStream();
+                payload = getInputStream(inputStreamEntity, decode, contentEncoding);
             }
         }
         final DefaultMuleMessage defaultMuleMessage = new DefaultMuleMessage(payload, inboundProperties, outboundProperties, inboundAttachments, muleContext);
         return new DefaultMuleEvent(defaultMuleMessage, MessageExchangePattern.REQUEST_RESPONSE, flowConstruct);
     }
 
+    private static InputStream getInputStream(InputStreamHttpEntity entity, boolean decode, String contentEncoding) throws HttpRequestParsingException
+    {
+        if (!decode)
+        {
+            return entity.getInputStream();
+        }
+
+        try
+        {
+            return ContentEncodings.decode(contentEncoding, entity.getInputStream());
+        }
+        catch (IOException e)
+        {
+            throw new HttpRequestParsingException(String.format("Cannot decode %s request body", contentEncoding), e);
+        }
+    }
+
     private static String resolveRemoteHostAddress(final HttpRequestContext requestContext)
     {
         return StringUtils.defaultIfEmpty(
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.listener;
+
+import static org.mule.module.http.api.HttpHeaders.Names.ACCEPT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_LENGTH;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_TYPE;
+import static org.mule.module.http.api.HttpHeaders.Names.TRANSFER_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.VARY;
+import static org.mule.module.http.api.HttpHeaders.Values.CHUNKED;
+import org.mule.api.MuleRuntimeException;
+import org.mule.module.http.internal.compression.ContentEncodings;
+import org.mule.module.http.internal.domain.ByteArrayHttpEntity;
+import org.mule.module.http.internal.domain.HttpEntity;
+import org.mule.module.http.internal.domain.InputStreamHttpEntity;
+import org.mule.module.http.internal.domain.response.HttpResponse;
+import org.mule.module.http.internal.domain.response.HttpResponseBuilder;
+import org.mule.module.http.internal.listener.async.HttpResponseReadyCallback;
+import org.mule.module.http.internal.listener.async.ResponseStatusCallback;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compresses the entity of listener responses with the coding selected from the
+ * Accept-Encoding header of the request. Only responses with a Content-Type in the
+ * configured list and at least as large as the threshold are compressed: streamed
+ * entities are compressed while they are sent and byte array entities are compressed
+ * at once, keeping their Content-Length encoding.
+ */
+public class HttpResponseCompressor
+{
+
+    public static final int DEFAULT_THRESHOLD = 1024;
+    public static final String DEFAULT_MIME_TYPES = "text/*, application/json, application/xml, application/javascript";
+
+    private static final String WILDCARD_SUBTYPE = "/*";
+
+    private final int threshold;
+    private final List<String> mimeTypes = new ArrayList<>();
+
+    /**
+     * @param threshold the minimum size in bytes of the entities to compress. Streamed
+     *            entities of unknown size are always compressed.
+     * @param mimeTypes comma separated list of the media types to compress, where
+     *            <code>type/*</code> matches any subtype
+     */
+    public HttpResponseCompressor(int threshold, String mimeTypes)
+    {
+        this.threshold = threshold;
+        for (String mimeType : mimeTypes.split(","))
+        {
+            if (!mimeType.trim().isEmpty())
+            {
+                this.mimeTypes.add(mimeType.trim().toLowerCase());
+            }
+        }
+    }
+
+    /**
+     * @return a callback that compresses the responses before handing them to the given one
+     */
+    public HttpResponseReadyCallback decorate(final HttpResponseReadyCallback responseReadyCallback, final String acceptEncoding)
+    {
+        return new HttpResponseReadyCallback()
+        {
+            @Override
+            public void responseReady(HttpResponse response, ResponseStatusCallback responseStatusCallback)
+            {
+                responseReadyCallback.responseReady(compress(response, acceptEncoding), responseStatusCallback);
+            }
+        };
+    }
+
+    public HttpResponse compress(HttpResponse response, String acceptEncoding)
+    {
+        HttpEntity entity = response.getEntity();
+        if (!isCompressible(response) || !isLargeEnough(entity))
+        {
+            return response;
+        }
+
+        String contentEncoding = ContentEncodings.negotiate(acceptEncoding);
+        HttpResponseBuilder compressedResponseBuilder = new HttpResponseBuilder()
+                .setStatusCode(response.getStatusCode())
+                .setReasonPhrase(response.getReasonPhrase());
+        boolean chunked = contentEncoding != null && (entity instanceof InputStreamHttpEntity || getHeaderValue(response, TRANSFER_ENCODING) != null);
+        String vary = null;
+
+        for (String headerName : response.getHeaderNames())
+        {
+            if (headerName.equalsIgnoreCase(VARY))
+            {
+                vary = response.getHeaderValue(headerName);
+            }
+            else if (contentEncoding == null || !(headerName.equalsIgnoreCase(CONTENT_LENGTH) || headerName.equalsIgnoreCase(TRANSFER_ENCODING)))
+            {
+                for (String value : response.getHeaderValues(headerName))
+                {
+                    compressedResponseBuilder.addHeader(headerName, value);
+                }
+            }
+        }
+        // The response depends on the Accept-Encoding header even if it is not compressed
+        compressedResponseBuilder.addHeader(VARY, vary == null ? ACCEPT_ENCODING : vary + ", " + ACCEPT_ENCODING);
+
+        if (contentEncoding == null)
+        {
+            return compressedResponseBuilder.setEntity(entity).build();
+        }
+
+        compressedResponseBuilder.addHeader(CONTENT_ENCODING, contentEncoding);
+        if (entity instanceof InputStreamHttpEntity)
+        {
+            compressedResponseBuilder.setEntity(new InputStreamHttpEntity(ContentEncodings.encode(contentEncoding, ((InputStreamHttpEntity) entity).getInputStream())));
+        }
+        else
+        {
+            byte[] compressed = compress(contentEncoding, ((ByteArrayHttpEntity) entity).getContent());
+            if (!chunked)
+            {
+                compressedResponseBuilder.addHeader(CONTENT_LENGTH, String.valueOf(compressed.length));
+            }
+            compressedResponseBuilder.setEntity(new ByteArrayHttpEntity(compressed));
+        }
+        if (chunked)
+        {
+            compressedResponseBuilder.addHeader(TRANSFER_ENCODING, CHUNKED);
+        }
+
+        return compressedResponseBuilder.build();
+    }
+
+    private boolean isCompressible(HttpResponse response)
+    {
+        int statusCode = response.getStatusCode();
+        if (statusCode < 200 || statusCode == 204 || statusCode == 206 || statusCode == 304)
+        {
+            return false;
+        }
+        if (getHeaderValue(response, CONTENT_ENCODING) != null)
+        {
+            return false;
+        }
+
+        String contentType = getHeaderValue(response, CONTENT_TYPE);
+        if (contentType == null)
+        {
+            return false;
+        }
+        String mediaType = contentType.split(";")[0].trim().toLowerCase();
+        for (String mimeType : mimeTypes)
+        {
+            if (mimeType.equals(mediaType)
+                || (mimeType.endsWith(WILDCARD_SUBTYPE) && mediaType.startsWith(mimeType.substring(0, mimeType.length() - 1))))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isLargeEnough(HttpEntity entity)
+    {
+        if (entity instanceof ByteArrayHttpEntity)
+        {
+            return ((ByteArrayHttpEntity) entity).getContent().length >= threshold;
+        }
+        if (entity instanceof InputStreamHttpEntity)
+        {
+            InputStreamHttpEntity inputStreamEntity = (InputStreamHttpEntity) entity;
+            return !inputStreamEntity.hasContentLength() || inputStreamEntity.getContentLength() >= threshold;
+        }
+        return false;
+    }
+
+    private byte[] compress(String contentEncoding, byte[] content)
+    {
+        try
+        {
+            return ContentEncodings.encode(contentEncoding, content);
+        }
+        catch (IOException e)
+        {
+            throw new MuleRuntimeException(e);
+        }
+    }
+
+    private String getHeaderValue(HttpResponse response, String headerName)
+    {
+        for (String name : response.getHeaderNames())
+        {
+            if (name.equalsIgnoreCase(headerName))
+            {
+                return response.getHeaderValue(name);
+            }
+        }
+        return null;
+    }
+}
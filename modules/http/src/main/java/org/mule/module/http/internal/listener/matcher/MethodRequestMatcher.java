@@ -10,6 +10,7 @@ import org.mule.module.http.internal.domain.request.HttpRequest;
 import org.mule.util.Preconditions;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.commons.collections.CollectionUtils;
@@ -75,6 +76,14 @@ public class MethodRequestMatcher implements RequestMatcher
                '}';
     }
 
+    /**
+     * @return the methods accepted by this matcher, in lower case.
+     */
+    public List<String> getMethods()
+    {
+        return Collections.unmodifiableList(methods);
+    }
+
     public String getMethodsList()
     {
         return methods.isEmpty() ? "*" : Arrays.toString(methods.toArray());
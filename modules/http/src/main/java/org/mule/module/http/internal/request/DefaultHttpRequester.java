@@ -6,20 +6,26 @@
  */
 package org.mule.module.http.internal.request;
 
+import org.mule.NonBlockingVoidMuleEvent;
+import org.mule.OptimizedRequestContext;
 import org.mule.api.MessagingException;
 import org.mule.api.MuleContext;
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleException;
 import org.mule.api.MuleRuntimeException;
+import org.mule.api.ThreadSafeAccess;
 import org.mule.api.context.MuleContextAware;
 import org.mule.api.lifecycle.Initialisable;
 import org.mule.api.lifecycle.InitialisationException;
-import org.mule.api.processor.MessageProcessor;
+import org.mule.api.processor.NonBlockingMessageProcessor;
+import org.mule.api.transport.NonBlockingReplyToHandler;
 import org.mule.config.i18n.CoreMessages;
 import org.mule.module.http.api.HttpAuthentication;
 import org.mule.module.http.internal.HttpParser;
 import org.mule.module.http.internal.domain.request.HttpRequestBuilder;
 import org.mule.module.http.internal.domain.response.HttpResponse;
+import org.mule.module.http.internal.request.async.ResponseReceivedCallback;
+import org.mule.transaction.TransactionCoordination;
 import org.mule.util.AttributeEvaluator;
 
 import com.google.common.collect.Lists;
@@ -27,10 +33,18 @@ import com.google.common.collect.Lists;
 import java.io.InputStream;
 import java.util.List;
 
+import javax.resource.spi.work.Work;
+import javax.resource.spi.work.WorkException;
 
-public class DefaultHttpRequester implements MessageProcessor, Initialisable, MuleContextAware
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+public class DefaultHttpRequester implements NonBlockingMessageProcessor, Initialisable, MuleContextAware
 {
 
+    private static final Logger logger = LoggerFactory.getLogger(DefaultHttpRequester.class);
+
     public static final List<String> DEFAULT_EMPTY_BODY_METHODS = Lists.newArrayList("GET", "HEAD", "OPTIONS");
     public static final String DEFAULT_PAYLOAD_EXPRESSION = "#[payload]";
     public static final String DEFAULT_FOLLOW_REDIRECTS = "true";
@@ -163,20 +177,25 @@ public class DefaultHttpRequester implements MessageProcessor, Initialisable, Mu
     @Override
     public MuleEvent process(final MuleEvent muleEvent) throws MuleException
     {
+        if (isNonBlocking(muleEvent))
+        {
+            innerProcessNonBlocking(muleEvent, true);
+            return NonBlockingVoidMuleEvent.getInstance();
+        }
         return innerProcess(muleEvent, true);
     }
 
-    private MuleEvent innerProcess(MuleEvent muleEvent, boolean checkRetry) throws MuleException
+    private boolean isNonBlocking(MuleEvent muleEvent)
     {
-        HttpRequestBuilder builder = muleEventToHttpRequest.create(muleEvent, method.resolveStringValue(muleEvent), resolveURI(muleEvent));
+        return muleEvent.getReplyToHandler() instanceof NonBlockingReplyToHandler
+               && requestConfig.getWorkManager() != null
+               && TransactionCoordination.getInstance().getTransaction() == null;
+    }
 
+    private MuleEvent innerProcess(MuleEvent muleEvent, boolean checkRetry) throws MuleException
+    {
+        HttpRequestBuilder builder = createRequestBuilder(muleEvent);
         HttpAuthentication authentication = requestConfig.getAuthentication();
-
-        if (authentication != null)
-        {
-            authentication.authenticate(muleEvent, builder);
-        }
-
         HttpClient httpClient = requestConfig.getHttpClient();
         HttpResponse response;
 
@@ -204,6 +223,146 @@ public class DefaultHttpRequester implements MessageProcessor, Initialisable, Mu
         return muleEvent;
     }
 
+    /**
+     * Sends the request without waiting for the response. The event is then completed from a thread of
+     * the work manager of the config, once the response is received, and notified to the
+     * {@link NonBlockingReplyToHandler} of the event. The thread that receives the response is a
+     * selector thread of the client, so it must not process the rest of the flow.
+     */
+    private void innerProcessNonBlocking(final MuleEvent muleEvent, final boolean checkRetry) throws MuleException
+    {
+        HttpRequestBuilder builder = createRequestBuilder(muleEvent);
+        HttpClient httpClient = requestConfig.getHttpClient();
+
+        httpClient.send(builder.build(), resolveResponseTimeout(muleEvent), followRedirects.resolveBooleanValue(muleEvent),
+                        requestConfig.getAuthentication(), new ResponseReceivedCallback()
+        {
+            @Override
+            public void responseReceived(final HttpResponse response)
+            {
+                scheduleContinuation(muleEvent, new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        completeNonBlocking(muleEvent, response, checkRetry);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(final Exception exception)
+            {
+                scheduleContinuation(muleEvent, new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        resumeEvent(muleEvent);
+                        notifyFailure(muleEvent, new MessagingException(CoreMessages.createStaticMessage("Error sending HTTP request"), muleEvent, exception));
+                    }
+                });
+            }
+        });
+    }
+
+    private void scheduleContinuation(MuleEvent muleEvent, final Runnable continuation)
+    {
+        try
+        {
+            requestConfig.getWorkManager().scheduleWork(new Work()
+            {
+                @Override
+                public void release()
+                {
+                    // Nothing to release
+                }
+
+                @Override
+                public void run()
+                {
+                    continuation.run();
+                }
+            });
+        }
+        catch (WorkException e)
+        {
+            resumeEvent(muleEvent);
+            notifyFailure(muleEvent, new MessagingException(muleEvent, e, this));
+        }
+    }
+
+    private void completeNonBlocking(MuleEvent muleEvent, HttpResponse response, boolean checkRetry)
+    {
+        resumeEvent(muleEvent);
+        try
+        {
+            httpResponseToMuleEvent.convert(muleEvent, response);
+
+            HttpAuthentication authentication = requestConfig.getAuthentication();
+            if (checkRetry && authentication != null && authentication.shouldRetry(muleEvent))
+            {
+                consumePayload(muleEvent);
+                innerProcessNonBlocking(muleEvent, false);
+                return;
+            }
+            responseValidator.validate(muleEvent);
+        }
+        catch (MessagingException e)
+        {
+            notifyFailure(muleEvent, e);
+            return;
+        }
+        catch (Exception e)
+        {
+            notifyFailure(muleEvent, new MessagingException(muleEvent, e, this));
+            return;
+        }
+        notifyResponse(muleEvent);
+    }
+
+    /**
+     * The event is processed by the thread that received the response from now on.
+     */
+    private void resumeEvent(MuleEvent muleEvent)
+    {
+        OptimizedRequestContext.unsafeSetEvent(muleEvent);
+        if (muleEvent instanceof ThreadSafeAccess)
+        {
+            ((ThreadSafeAccess) muleEvent).resetAccessControl();
+        }
+    }
+
+    private void notifyResponse(MuleEvent muleEvent)
+    {
+        try
+        {
+            muleEvent.getReplyToHandler().processReplyTo(muleEvent, muleEvent.getMessage(), muleEvent.getReplyToDestination());
+        }
+        catch (MuleException e)
+        {
+            logger.error("Error processing the response of a non-blocking HTTP request", e);
+        }
+    }
+
+    private void notifyFailure(MuleEvent muleEvent, MessagingException exception)
+    {
+        ((NonBlockingReplyToHandler) muleEvent.getReplyToHandler()).processExceptionReplyTo(exception, muleEvent.getReplyToDestination());
+    }
+
+    private HttpRequestBuilder createRequestBuilder(MuleEvent muleEvent) throws MuleException
+    {
+        HttpRequestBuilder builder = muleEventToHttpRequest.create(muleEvent, method.resolveStringValue(muleEvent), resolveURI(muleEvent));
+
+        HttpAuthentication authentication = requestConfig.getAuthentication();
+
+        if (authentication != null)
+        {
+            authentication.authenticate(muleEvent, builder);
+        }
+        return builder;
+    }
+
     private int resolveResponseTimeout(MuleEvent muleEvent)
     {
         if (responseTimeout.getRawValue() == null)
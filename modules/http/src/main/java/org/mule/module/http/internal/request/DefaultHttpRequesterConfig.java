@@ -12,11 +12,14 @@ import static org.mule.module.http.api.HttpConstants.Protocols.HTTPS;
 
 import org.mule.api.MuleContext;
 import org.mule.api.MuleException;
+import org.mule.api.config.ThreadingProfile;
 import org.mule.api.context.MuleContextAware;
+import org.mule.api.context.WorkManager;
 import org.mule.api.lifecycle.Initialisable;
 import org.mule.api.lifecycle.InitialisationException;
 import org.mule.api.lifecycle.Startable;
 import org.mule.api.lifecycle.Stoppable;
+import org.mule.config.MutableThreadingProfile;
 import org.mule.config.i18n.CoreMessages;
 import org.mule.module.http.api.HttpAuthentication;
 import org.mule.module.http.api.HttpConstants;
@@ -35,6 +38,7 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
 {
     private static final int UNLIMITED_CONNECTIONS = -1;
     private static final int DEFAULT_CONNECTION_IDLE_TIMEOUT = 30 * 1000;
+    private static final int DEFAULT_RESPONSE_BUFFER_SIZE = 64 * 1024;
     private static final String THREAD_NAME_PREFIX_PATTERN = "%shttp.requester.%s";
 
     private HttpConstants.Protocols protocol = HTTP;
@@ -59,6 +63,11 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
     private int maxConnections = UNLIMITED_CONNECTIONS;
     private boolean usePersistentConnections = true;
     private int connectionIdleTimeout = DEFAULT_CONNECTION_IDLE_TIMEOUT;
+    private boolean decompressResponses = false;
+    private boolean streamResponse = false;
+    private int responseBufferSize = DEFAULT_RESPONSE_BUFFER_SIZE;
+    private ThreadingProfile workerThreadingProfile;
+    private WorkManager workManager;
 
     private MuleContext muleContext;
 
@@ -83,6 +92,11 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
             tlsContext = new TlsContextFactoryBuilder(muleContext).buildDefault();
         }
 
+        if (workerThreadingProfile == null)
+        {
+            workerThreadingProfile = new MutableThreadingProfile(ThreadingProfile.DEFAULT_THREADING_PROFILE);
+        }
+
         String threadNamePrefix = format(THREAD_NAME_PREFIX_PATTERN, ThreadNameHelper.getPrefix(muleContext), name);
 
         GrizzlyHttpClientConfiguration configuration = new GrizzlyHttpClientConfiguration.Builder()
@@ -93,6 +107,9 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
                 .setUsePersistentConnections(usePersistentConnections)
                 .setConnectionIdleTimeout(connectionIdleTimeout)
                 .setThreadNamePrefix(threadNamePrefix)
+                .setDecompressResponses(decompressResponses)
+                .setStreamResponse(streamResponse)
+                .setResponseBufferSize(responseBufferSize)
                 .build();
 
         httpClient = new GrizzlyHttpClient(configuration);
@@ -107,6 +124,11 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
             throw new InitialisationException(CoreMessages.createStaticMessage("The maxConnections parameter only allows positive values or -1 for unlimited concurrent connections."), this);
         }
 
+        if (responseBufferSize <= 0)
+        {
+            throw new InitialisationException(CoreMessages.createStaticMessage("The responseBufferSize parameter only allows positive values."), this);
+        }
+
         if (!usePersistentConnections)
         {
             connectionIdleTimeout = 0;
@@ -121,6 +143,11 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
         {
             ((Stoppable) this.authentication).stop();
         }
+        if (workManager != null)
+        {
+            workManager.dispose();
+            workManager = null;
+        }
     }
 
     public String getScheme()
@@ -140,6 +167,19 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
         return httpClient;
     }
 
+    /**
+     * @return the work manager that processes the flow after the response of a non-blocking request is received
+     */
+    WorkManager getWorkManager()
+    {
+        return workManager;
+    }
+
+    public void setWorkerThreadingProfile(ThreadingProfile workerThreadingProfile)
+    {
+        this.workerThreadingProfile = workerThreadingProfile;
+    }
+
     @Override
     public String getBasePath()
     {
@@ -296,6 +336,19 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
         {
             ((Startable) this.authentication).start();
         }
+        workManager = createWorkManager();
+        workManager.start();
+    }
+
+    private WorkManager createWorkManager()
+    {
+        String threadNamePrefix = format(THREAD_NAME_PREFIX_PATTERN, ThreadNameHelper.getPrefix(muleContext), name);
+        WorkManager workManager = workerThreadingProfile.createWorkManager(format("%s.%s", threadNamePrefix, "worker"), muleContext.getConfiguration().getShutdownTimeout());
+        if (workManager instanceof MuleContextAware)
+        {
+            ((MuleContextAware) workManager).setMuleContext(muleContext);
+        }
+        return workManager;
     }
 
     public void setMaxConnections(int maxConnections)
@@ -313,6 +366,26 @@ public class DefaultHttpRequesterConfig implements HttpRequesterConfig, Initiali
         this.connectionIdleTimeout = connectionIdleTimeout;
     }
 
+    public void setDecompressResponses(boolean decompressResponses)
+    {
+        this.decompressResponses = decompressResponses;
+    }
+
+    public boolean isStreamResponse()
+    {
+        return streamResponse;
+    }
+
+    public void setStreamResponse(boolean streamResponse)
+    {
+        this.streamResponse = streamResponse;
+    }
+
+    public void setResponseBufferSize(int responseBufferSize)
+    {
+        this.responseBufferSize = responseBufferSize;
+    }
+
     @Override
     public void setMuleContext(MuleContext muleContext)
     {
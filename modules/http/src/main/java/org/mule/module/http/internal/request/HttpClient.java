@@ -11,6 +11,7 @@ import org.mule.api.lifecycle.Stoppable;
 import org.mule.module.http.api.HttpAuthentication;
 import org.mule.module.http.internal.domain.request.HttpRequest;
 import org.mule.module.http.internal.domain.response.HttpResponse;
+import org.mule.module.http.internal.request.async.ResponseReceivedCallback;
 
 import java.io.IOException;
 import java.util.concurrent.TimeoutException;
@@ -23,4 +24,10 @@ public interface HttpClient extends Initialisable, Stoppable
 
     public HttpResponse send(HttpRequest request, int responseTimeout, boolean followRedirects, HttpAuthentication authentication) throws IOException, TimeoutException;
 
+    /**
+     * Sends an HTTP request without waiting for its response. The response, or the failure to get it, is
+     * notified to the callback from the thread that received it.
+     */
+    public void send(HttpRequest request, int responseTimeout, boolean followRedirects, HttpAuthentication authentication, ResponseReceivedCallback callback);
+
 }
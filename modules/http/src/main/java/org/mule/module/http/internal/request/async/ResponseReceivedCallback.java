@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.request.async;
+
+import org.mule.module.http.internal.domain.response.HttpResponse;
+
+public interface ResponseReceivedCallback
+{
+
+    /**
+     * notifies that the response of the request was received.
+     *
+     * @param response the received response
+     */
+    void responseReceived(HttpResponse response);
+
+    /**
+     * method to process a failure while sending the request or receiving its response
+     *
+     * @param exception exception thrown while sending the request or receiving the response
+     */
+    void onFailure(Exception exception);
+
+}
@@ -6,9 +6,14 @@
  */
 package org.mule.module.http.internal.request.grizzly;
 
+import static org.mule.module.http.api.HttpHeaders.Names.ACCEPT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_LENGTH;
+
 import org.mule.api.lifecycle.InitialisationException;
 import org.mule.config.i18n.CoreMessages;
 import org.mule.module.http.api.HttpAuthentication;
+import org.mule.module.http.internal.compression.ContentEncodings;
 import org.mule.module.http.internal.domain.ByteArrayHttpEntity;
 import org.mule.module.http.internal.domain.InputStreamHttpEntity;
 import org.mule.module.http.internal.domain.MultipartHttpEntity;
@@ -21,16 +26,20 @@ import org.mule.module.http.internal.request.HttpAuthenticationType;
 import org.mule.module.http.internal.request.HttpClient;
 import org.mule.module.http.internal.request.NtlmProxyConfig;
 import org.mule.module.http.internal.request.ProxyConfig;
+import org.mule.module.http.internal.request.async.ResponseReceivedCallback;
 import org.mule.transport.ssl.api.TlsContextFactory;
 import org.mule.transport.tcp.TcpClientSocketProperties;
 import org.mule.util.StringUtils;
 
+import com.ning.http.client.AsyncCompletionHandler;
 import com.ning.http.client.AsyncHttpClient;
 import com.ning.http.client.AsyncHttpClientConfig;
+import com.ning.http.client.FluentCaseInsensitiveStringsMap;
 import com.ning.http.client.ListenableFuture;
 import com.ning.http.client.PerRequestConfig;
 import com.ning.http.client.ProxyServer;
 import com.ning.http.client.Realm;
+import com.ning.http.client.Request;
 import com.ning.http.client.RequestBuilder;
 import com.ning.http.client.Response;
 import com.ning.http.client.generators.InputStreamBodyGenerator;
@@ -38,6 +47,7 @@ import com.ning.http.client.providers.grizzly.GrizzlyAsyncHttpProvider;
 import com.ning.http.client.providers.grizzly.GrizzlyAsyncHttpProviderConfig;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.concurrent.ExecutionException;
@@ -65,6 +75,9 @@ public class GrizzlyHttpClient implements HttpClient
     private boolean usePersistentConnections;
     private int connectionIdleTimeout;
     private String threadNamePrefix;
+    private boolean decompressResponses;
+    private boolean streamResponse;
+    private int responseBufferSize;
 
     private AsyncHttpClient asyncHttpClient;
     private SSLContext sslContext;
@@ -78,6 +91,9 @@ public class GrizzlyHttpClient implements HttpClient
         this.usePersistentConnections = config.isUsePersistentConnections();
         this.connectionIdleTimeout = config.getConnectionIdleTimeout();
         this.threadNamePrefix = config.getThreadNamePrefix();
+        this.decompressResponses = config.isDecompressResponses();
+        this.streamResponse = config.isStreamResponse();
+        this.responseBufferSize = config.getResponseBufferSize();
     }
 
     @Override
@@ -150,7 +166,14 @@ public class GrizzlyHttpClient implements HttpClient
     {
         GrizzlyAsyncHttpProviderConfig providerConfig = new GrizzlyAsyncHttpProviderConfig();
         CompositeTransportCustomizer compositeTransportCustomizer = new CompositeTransportCustomizer();
-        compositeTransportCustomizer.addTransportCustomizer(new SameThreadIOStrategyTransportCustomizer(threadNamePrefix));
+        if (streamResponse)
+        {
+            compositeTransportCustomizer.addTransportCustomizer(new WorkerThreadIOStrategyTransportCustomizer(threadNamePrefix));
+        }
+        else
+        {
+            compositeTransportCustomizer.addTransportCustomizer(new SameThreadIOStrategyTransportCustomizer(threadNamePrefix));
+        }
 
         if (clientSocketProperties != null)
         {
@@ -186,20 +209,135 @@ public class GrizzlyHttpClient implements HttpClient
     @Override
     public HttpResponse send(HttpRequest request, int responseTimeout, boolean followRedirects, HttpAuthentication authentication) throws IOException, TimeoutException
     {
+        Request grizzlyRequest = createGrizzlyRequest(request, responseTimeout, followRedirects, authentication);
+
+        if (streamResponse)
+        {
+            StreamingResponseHandler responseHandler = new StreamingResponseHandler(responseBufferSize, responseTimeout);
+            asyncHttpClient.executeRequest(grizzlyRequest, responseHandler);
+            responseHandler.awaitHeaders(responseTimeout);
+
+            return createResponse(responseHandler.getStatus().getStatusCode(), responseHandler.getStatus().getStatusText(),
+                                  responseHandler.getHeaders().getHeaders(), responseHandler.getBody());
+        }
+
+        ListenableFuture<Response> future = asyncHttpClient.executeRequest(grizzlyRequest);
+        Response response = null;
+
+        try
+        {
+            response = future.get(responseTimeout, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            throw new IOException(e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IOException(e);
+        }
+
+        return createResponse(response);
+    }
+
+    @Override
+    public void send(HttpRequest request, int responseTimeout, boolean followRedirects, HttpAuthentication authentication, final ResponseReceivedCallback callback)
+    {
+        try
+        {
+            if (streamResponse)
+            {
+                sendStreaming(request, responseTimeout, followRedirects, authentication, callback);
+                return;
+            }
+
+            // The response timeout is enforced by the provider through the request configuration
+            asyncHttpClient.executeRequest(createGrizzlyRequest(request, responseTimeout, followRedirects, authentication), new AsyncCompletionHandler<Response>()
+            {
+                @Override
+                public Response onCompleted(Response response) throws Exception
+                {
+                    HttpResponse httpResponse;
+                    try
+                    {
+                        httpResponse = createResponse(response);
+                    }
+                    catch (IOException e)
+                    {
+                        callback.onFailure(e);
+                        return response;
+                    }
+                    callback.responseReceived(httpResponse);
+                    return response;
+                }
+
+                @Override
+                public void onThrowable(Throwable t)
+                {
+                    callback.onFailure(t instanceof Exception ? (Exception) t : new IOException(t));
+                }
+            });
+        }
+        catch (IOException e)
+        {
+            callback.onFailure(e);
+        }
+    }
+
+    /**
+     * Notifies the response to the callback once its headers are received. The body is then read from the
+     * response entity while it is being received.
+     */
+    private void sendStreaming(HttpRequest request, int responseTimeout, boolean followRedirects, HttpAuthentication authentication, final ResponseReceivedCallback callback) throws IOException
+    {
+        asyncHttpClient.executeRequest(createGrizzlyRequest(request, responseTimeout, followRedirects, authentication), new StreamingResponseHandler(responseBufferSize, responseTimeout)
+        {
+            @Override
+            protected void responseAvailable()
+            {
+                HttpResponse httpResponse;
+                try
+                {
+                    httpResponse = createResponse(getStatus().getStatusCode(), getStatus().getStatusText(), getHeaders().getHeaders(), getBody());
+                }
+                catch (IOException e)
+                {
+                    getBody().close();
+                    callback.onFailure(e);
+                    return;
+                }
+                callback.responseReceived(httpResponse);
+            }
+
+            @Override
+            protected void responseFailed(Throwable cause)
+            {
+                callback.onFailure(cause instanceof Exception ? (Exception) cause : new IOException(cause));
+            }
+        });
+    }
 
+    private Request createGrizzlyRequest(HttpRequest request, int responseTimeout, boolean followRedirects, HttpAuthentication authentication)
+    {
         RequestBuilder builder = new RequestBuilder();
 
         builder.setMethod(request.getMethod());
         builder.setUrl(encodePath(request.getUri()));
         builder.setFollowRedirects(followRedirects);
 
+        boolean acceptEncodingSet = false;
         for (String headerName : request.getHeaderNames())
         {
+            acceptEncodingSet |= headerName.equalsIgnoreCase(ACCEPT_ENCODING);
             for (String headerValue : request.getHeaderValues(headerName))
             {
                 builder.addHeader(headerName, headerValue);
             }
         }
+        if (decompressResponses && !acceptEncodingSet)
+        {
+            builder.addHeader(ACCEPT_ENCODING, ContentEncodings.ACCEPTED_ENCODINGS);
+        }
 
         DefaultHttpRequest defaultHttpRequest = (DefaultHttpRequest) request;
 
@@ -258,32 +396,40 @@ public class GrizzlyHttpClient implements HttpClient
         // if the maxConnections attribute is configured in the requester.
         builder.setPerRequestConfig(new PerRequestConfig(null, responseTimeout));
 
-        ListenableFuture<Response> future = asyncHttpClient.executeRequest(builder.build());
-        Response response = null;
+        return builder.build();
+    }
 
-        try
-        {
-            response = future.get(responseTimeout, TimeUnit.MILLISECONDS);
-        }
-        catch (InterruptedException e)
-        {
-            throw new IOException(e);
-        }
-        catch (ExecutionException e)
-        {
-            throw new IOException(e);
-        }
+    private HttpResponse createResponse(Response response) throws IOException
+    {
+        return createResponse(response.getStatusCode(), response.getStatusText(),
+                              response.hasResponseHeaders() ? response.getHeaders() : null, response.getResponseBodyAsStream());
+    }
 
+    private HttpResponse createResponse(int statusCode, String reasonPhrase, FluentCaseInsensitiveStringsMap headers, InputStream responseBody) throws IOException
+    {
         HttpResponseBuilder responseBuilder = new HttpResponseBuilder();
-        responseBuilder.setStatusCode(response.getStatusCode());
-        responseBuilder.setReasonPhrase(response.getStatusText());
-        responseBuilder.setEntity(new InputStreamHttpEntity(response.getResponseBodyAsStream()));
+        responseBuilder.setStatusCode(statusCode);
+        responseBuilder.setReasonPhrase(reasonPhrase);
+        String contentEncoding = headers != null ? headers.getFirstValue(CONTENT_ENCODING) : null;
+        boolean decode = decompressResponses && ContentEncodings.isSupported(contentEncoding);
+        if (decode)
+        {
+            // Streamed bodies are still being received, so they can't be read here
+            responseBody = responseBody instanceof ResponseBodyInputStream ? ContentEncodings.decodeOnRead(contentEncoding, responseBody)
+                                                                           : ContentEncodings.decode(contentEncoding, responseBody);
+        }
+        responseBuilder.setEntity(new InputStreamHttpEntity(responseBody));
 
-        if (response.hasResponseHeaders())
+        if (headers != null)
         {
-            for (String header : response.getHeaders().keySet())
+            for (String header : headers.keySet())
             {
-                for (String headerValue : response.getHeaders(header))
+                if (decode && (header.equalsIgnoreCase(CONTENT_ENCODING) || header.equalsIgnoreCase(CONTENT_LENGTH)))
+                {
+                    // The entity is decompressed so these headers no longer describe it
+                    continue;
+                }
+                for (String headerValue : headers.get(header))
                 {
                     responseBuilder.addHeader(header, headerValue);
                 }
@@ -291,7 +437,6 @@ public class GrizzlyHttpClient implements HttpClient
         }
 
         return responseBuilder.build();
-
     }
 
     /**
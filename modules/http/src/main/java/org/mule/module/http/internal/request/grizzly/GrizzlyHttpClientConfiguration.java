@@ -20,9 +20,13 @@ public class GrizzlyHttpClientConfiguration
     private final boolean usePersistentConnections;
     private final int connectionIdleTimeout;
     private final String threadNamePrefix;
+    private final boolean decompressResponses;
+    private final boolean streamResponse;
+    private final int responseBufferSize;
 
     private GrizzlyHttpClientConfiguration(TlsContextFactory tlsContextFactory, ProxyConfig proxyConfig, TcpClientSocketProperties clientSocketProperties,
-                                           int maxConnections, boolean usePersistentConnections, int connectionIdleTimeout, String threadNamePrefix)
+                                           int maxConnections, boolean usePersistentConnections, int connectionIdleTimeout, String threadNamePrefix,
+                                           boolean decompressResponses, boolean streamResponse, int responseBufferSize)
     {
         this.tlsContextFactory = tlsContextFactory;
         this.proxyConfig = proxyConfig;
@@ -31,6 +35,9 @@ public class GrizzlyHttpClientConfiguration
         this.usePersistentConnections = usePersistentConnections;
         this.connectionIdleTimeout = connectionIdleTimeout;
         this.threadNamePrefix = threadNamePrefix;
+        this.decompressResponses = decompressResponses;
+        this.streamResponse = streamResponse;
+        this.responseBufferSize = responseBufferSize;
     }
 
     public TlsContextFactory getTlsContextFactory()
@@ -68,6 +75,21 @@ public class GrizzlyHttpClientConfiguration
         return threadNamePrefix;
     }
 
+    public boolean isDecompressResponses()
+    {
+        return decompressResponses;
+    }
+
+    public boolean isStreamResponse()
+    {
+        return streamResponse;
+    }
+
+    public int getResponseBufferSize()
+    {
+        return responseBufferSize;
+    }
+
     public static class Builder
     {
         private TlsContextFactory tlsContextFactory;
@@ -77,6 +99,9 @@ public class GrizzlyHttpClientConfiguration
         private boolean usePersistentConnections;
         private int connectionIdleTimeout;
         private String threadNamePrefix;
+        private boolean decompressResponses;
+        private boolean streamResponse;
+        private int responseBufferSize;
 
         public Builder setTlsContextFactory(TlsContextFactory tlsContextFactory)
         {
@@ -120,10 +145,29 @@ public class GrizzlyHttpClientConfiguration
             return this;
         }
 
+        public Builder setDecompressResponses(boolean decompressResponses)
+        {
+            this.decompressResponses = decompressResponses;
+            return this;
+        }
+
+        public Builder setStreamResponse(boolean streamResponse)
+        {
+            this.streamResponse = streamResponse;
+            return this;
+        }
+
+        public Builder setResponseBufferSize(int responseBufferSize)
+        {
+            this.responseBufferSize = responseBufferSize;
+            return this;
+        }
+
         public GrizzlyHttpClientConfiguration build()
         {
             return new GrizzlyHttpClientConfiguration(tlsContextFactory, proxyConfig, clientSocketProperties, maxConnections,
-                                                      usePersistentConnections, connectionIdleTimeout, threadNamePrefix);
+                                                      usePersistentConnections, connectionIdleTimeout, threadNamePrefix,
+                                                      decompressResponses, streamResponse, responseBufferSize);
         }
     }
 }
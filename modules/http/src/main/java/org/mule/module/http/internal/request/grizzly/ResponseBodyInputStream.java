@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.request.grizzly;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Input stream over the body parts of a response, which are added by the thread receiving
+ * them while the stream is read by another one.
+ * <p/>
+ * At most <code>maxBufferedBytes</code> are kept (or a single part, if bigger): once reached,
+ * adding a part waits until the reader consumes enough data, so the remaining of the body is
+ * not read from the connection meanwhile. If the reader doesn't make room within
+ * <code>readTimeout</code>, which happens when the stream is abandoned without being closed,
+ * the stream fails and the part is rejected. Closing the stream discards the buffered parts and
+ * makes the receiving side abort the response, as does rejecting a part.
+ */
+public class ResponseBodyInputStream extends InputStream
+{
+
+    private final int maxBufferedBytes;
+    private final long readTimeout;
+    private final Queue<byte[]> parts = new ArrayDeque<>();
+    private int bufferedBytes;
+    private byte[] currentPart;
+    private int position;
+    private boolean completed;
+    private boolean closed;
+    private Throwable failure;
+
+    public ResponseBodyInputStream(int maxBufferedBytes, long readTimeout)
+    {
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Adds a body part, waiting for buffer space if needed.
+     *
+     * @return false if the stream has been closed or failed, or if there was no space for the
+     *         part within the read timeout, so the part was discarded
+     */
+    public synchronized boolean offer(byte[] part) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + readTimeout;
+        while (!closed && failure == null && bufferedBytes > 0 && bufferedBytes + part.length > maxBufferedBytes)
+        {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0)
+            {
+                failure = new TimeoutException("Timeout exceeded waiting for the response body to be read");
+                notifyAll();
+                return false;
+            }
+            wait(remaining);
+        }
+        if (closed || failure != null)
+        {
+            return false;
+        }
+        parts.add(part);
+        bufferedBytes += part.length;
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Signals that every part of the body has been added.
+     */
+    public synchronized void complete()
+    {
+        completed = true;
+        notifyAll();
+    }
+
+    /**
+     * Signals that the body could not be completely received. Parts already buffered can
+     * still be read, then reading fails with the given cause.
+     */
+    public synchronized void fail(Throwable cause)
+    {
+        if (!completed)
+        {
+            failure = cause;
+            notifyAll();
+        }
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        byte[] buffer = new byte[1];
+        int read = read(buffer, 0, 1);
+        return read == -1 ? -1 : buffer[0] & 0xff;
+    }
+
+    @Override
+    public synchronized int read(byte[] buffer, int offset, int length) throws IOException
+    {
+        if (length == 0)
+        {
+            return 0;
+        }
+
+        while (currentPart == null)
+        {
+            if (closed)
+            {
+                throw new IOException("Stream closed");
+            }
+            currentPart = parts.poll();
+            position = 0;
+            if (currentPart != null)
+            {
+                break;
+            }
+            if (failure != null)
+            {
+                throw new IOException("Error receiving response body", failure);
+            }
+            if (completed)
+            {
+                return -1;
+            }
+
+            try
+            {
+                wait();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the response body");
+            }
+        }
+
+        int read = Math.min(length, currentPart.length - position);
+        System.arraycopy(currentPart, position, buffer, offset, read);
+        position += read;
+        if (position == currentPart.length)
+        {
+            bufferedBytes -= currentPart.length;
+            currentPart = null;
+            notifyAll();
+        }
+        return read;
+    }
+
+    @Override
+    public synchronized int available() throws IOException
+    {
+        if (currentPart != null)
+        {
+            return currentPart.length - position;
+        }
+        byte[] nextPart = parts.peek();
+        return nextPart != null ? nextPart.length : 0;
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        closed = true;
+        parts.clear();
+        currentPart = null;
+        bufferedBytes = 0;
+        notifyAll();
+    }
+
+    public synchronized boolean isClosed()
+    {
+        return closed;
+    }
+}
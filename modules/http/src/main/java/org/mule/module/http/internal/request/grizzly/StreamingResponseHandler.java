@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.request.grizzly;
+
+import com.ning.http.client.AsyncHandler;
+import com.ning.http.client.HttpResponseBodyPart;
+import com.ning.http.client.HttpResponseHeaders;
+import com.ning.http.client.HttpResponseStatus;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link AsyncHandler} that makes a response available as soon as its headers are received,
+ * feeding its body parts to a {@link ResponseBodyInputStream} as they arrive instead of
+ * buffering the whole body.
+ * <p/>
+ * The response can be waited for with {@link #awaitHeaders(int)}. Subclasses that must not block
+ * get notified through {@link #responseAvailable()} or {@link #responseFailed(Throwable)} instead.
+ */
+public class StreamingResponseHandler implements AsyncHandler<Void>
+{
+
+    private final CountDownLatch headersReceived = new CountDownLatch(1);
+    private final AtomicBoolean responseNotified = new AtomicBoolean(false);
+    private final ResponseBodyInputStream body;
+    private volatile HttpResponseStatus status;
+    private volatile HttpResponseHeaders headers;
+    private volatile Throwable failure;
+
+    /**
+     * @param maxBufferedBytes the bytes of the body kept until they are read
+     * @param readTimeout milliseconds to wait for the body to be read when the buffer is full, after which the
+     *        response is aborted
+     */
+    public StreamingResponseHandler(int maxBufferedBytes, long readTimeout)
+    {
+        this.body = new ResponseBodyInputStream(maxBufferedBytes, readTimeout);
+    }
+
+    @Override
+    public STATE onStatusReceived(HttpResponseStatus responseStatus) throws Exception
+    {
+        this.status = responseStatus;
+        return STATE.CONTINUE;
+    }
+
+    @Override
+    public STATE onHeadersReceived(HttpResponseHeaders responseHeaders) throws Exception
+    {
+        // Trailing headers of chunked responses are ignored
+        if (this.headers == null)
+        {
+            this.headers = responseHeaders;
+            headersReceived.countDown();
+            if (responseNotified.compareAndSet(false, true))
+            {
+                responseAvailable();
+            }
+        }
+        return STATE.CONTINUE;
+    }
+
+    @Override
+    public STATE onBodyPartReceived(HttpResponseBodyPart bodyPart) throws Exception
+    {
+        byte[] bytes = bodyPart.getBodyPartBytes();
+        if (bytes.length > 0 && !body.offer(bytes))
+        {
+            // The body was closed or not read in time, so the connection can't be reused
+            bodyPart.markUnderlyingConnectionAsClosed();
+            return STATE.ABORT;
+        }
+        return STATE.CONTINUE;
+    }
+
+    @Override
+    public Void onCompleted() throws Exception
+    {
+        body.complete();
+        if (headers == null)
+        {
+            failure = new IllegalStateException("Response completed without headers");
+        }
+        headersReceived.countDown();
+        notifyFailure();
+        return null;
+    }
+
+    @Override
+    public void onThrowable(Throwable t)
+    {
+        this.failure = t;
+        body.fail(t);
+        headersReceived.countDown();
+        notifyFailure();
+    }
+
+    private void notifyFailure()
+    {
+        if (headers == null && responseNotified.compareAndSet(false, true))
+        {
+            responseFailed(failure);
+        }
+    }
+
+    /**
+     * Invoked by the thread receiving the response once its headers are available, so it must not
+     * read the body. Does nothing by default.
+     */
+    protected void responseAvailable()
+    {
+    }
+
+    /**
+     * Invoked by the thread receiving the response when it fails before its headers are received.
+     * Does nothing by default.
+     */
+    protected void responseFailed(Throwable cause)
+    {
+    }
+
+    /**
+     * Waits until the response headers are received. The body can then be read from
+     * {@link #getBody()} while it is being received.
+     *
+     * @throws TimeoutException if the headers are not received in time, the body is closed then
+     * @throws IOException if the request failed
+     */
+    public void awaitHeaders(int timeout) throws IOException, TimeoutException
+    {
+        try
+        {
+            if (!headersReceived.await(timeout, TimeUnit.MILLISECONDS))
+            {
+                body.close();
+                throw new TimeoutException("Timeout exceeded waiting for the response headers");
+            }
+        }
+        catch (InterruptedException e)
+        {
+            body.close();
+            throw new IOException(e);
+        }
+
+        if (headers == null)
+        {
+            throw new IOException(failure);
+        }
+    }
+
+    public HttpResponseStatus getStatus()
+    {
+        return status;
+    }
+
+    public HttpResponseHeaders getHeaders()
+    {
+        return headers;
+    }
+
+    public ResponseBodyInputStream getBody()
+    {
+        return body;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.functional.listener;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.module.http.api.HttpHeaders.Names.ACCEPT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_TYPE;
+import static org.mule.module.http.api.HttpHeaders.Names.VARY;
+import static org.mule.module.http.api.HttpHeaders.Values.DEFLATE;
+import static org.mule.module.http.api.HttpHeaders.Values.GZIP;
+import org.mule.api.MuleEvent;
+import org.mule.tck.junit4.FunctionalTestCase;
+import org.mule.tck.junit4.rule.DynamicPort;
+import org.mule.util.IOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.lang.RandomStringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class HttpListenerCompressionTestCase extends FunctionalTestCase
+{
+
+    public static final String TEST_BODY = RandomStringUtils.randomAlphabetic(100 * 1024);
+
+    @Rule
+    public DynamicPort listenPort = new DynamicPort("port");
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "http-listener-compression-config.xml";
+    }
+
+    @Test
+    public void compressesStringWithGzip() throws Exception
+    {
+        HttpURLConnection connection = get("string", GZIP);
+
+        assertThat(connection.getHeaderField(CONTENT_ENCODING), is(GZIP));
+        assertThat(connection.getHeaderField(VARY), is(ACCEPT_ENCODING));
+        assertThat(IOUtils.toString(new GZIPInputStream(connection.getInputStream())), is(TEST_BODY));
+    }
+
+    @Test
+    public void compressesInputStreamWithDeflate() throws Exception
+    {
+        HttpURLConnection connection = get("inputStream", DEFLATE);
+
+        assertThat(connection.getHeaderField(CONTENT_ENCODING), is(DEFLATE));
+        assertThat(IOUtils.toString(new InflaterInputStream(connection.getInputStream())), is(TEST_BODY));
+    }
+
+    @Test
+    public void doesNotCompressWithoutAcceptEncoding() throws Exception
+    {
+        HttpURLConnection connection = get("string", null);
+
+        assertThat(connection.getHeaderField(CONTENT_ENCODING), nullValue());
+        assertThat(IOUtils.toString(connection.getInputStream()), is(TEST_BODY));
+    }
+
+    @Test
+    public void doesNotCompressBelowThreshold() throws Exception
+    {
+        HttpURLConnection connection = get("small", GZIP);
+
+        assertThat(connection.getHeaderField(CONTENT_ENCODING), nullValue());
+        assertThat(IOUtils.toString(connection.getInputStream()), is("small"));
+    }
+
+    @Test
+    public void doesNotCompressExcludedMimeType() throws Exception
+    {
+        HttpURLConnection connection = get("image", GZIP);
+
+        assertThat(connection.getHeaderField(CONTENT_ENCODING), nullValue());
+        assertThat(IOUtils.toString(connection.getInputStream()), is(TEST_BODY));
+    }
+
+    @Test
+    public void decompressesGzipRequest() throws Exception
+    {
+        HttpURLConnection connection = post(GZIP);
+
+        assertThat(IOUtils.toString(connection.getInputStream()), is(TEST_BODY));
+        assertThat(connection.getHeaderField("X-Content-Encoding-Removed"), is("true"));
+    }
+
+    @Test
+    public void decompressesDeflateRequest() throws Exception
+    {
+        HttpURLConnection connection = post(DEFLATE);
+
+        assertThat(IOUtils.toString(connection.getInputStream()), is(TEST_BODY));
+    }
+
+    @Test
+    public void requesterDecompressesResponse() throws Exception
+    {
+        MuleEvent event = runFlow("requestFlow");
+
+        assertThat(event.getMessage().getPayloadAsString(), is(TEST_BODY));
+        assertThat(event.getMessage().getInboundProperty(CONTENT_ENCODING), nullValue());
+    }
+
+    private HttpURLConnection get(String path, String acceptEncoding) throws IOException
+    {
+        HttpURLConnection connection = (HttpURLConnection) new URL(getUrl(path)).openConnection();
+        if (acceptEncoding != null)
+        {
+            connection.setRequestProperty(ACCEPT_ENCODING, acceptEncoding);
+        }
+        assertThat(connection.getResponseCode(), is(200));
+        return connection;
+    }
+
+    private HttpURLConnection post(String contentEncoding) throws IOException
+    {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        OutputStream compressor = GZIP.equals(contentEncoding) ? new GZIPOutputStream(body) : new DeflaterOutputStream(body);
+        compressor.write(TEST_BODY.getBytes());
+        compressor.close();
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(getUrl("echo")).openConnection();
+        connection.setDoOutput(true);
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty(CONTENT_TYPE, "text/plain");
+        connection.setRequestProperty(CONTENT_ENCODING, contentEncoding);
+        OutputStream out = connection.getOutputStream();
+        out.write(body.toByteArray());
+        out.close();
+        assertThat(connection.getResponseCode(), is(200));
+        return connection;
+    }
+
+    private String getUrl(String path)
+    {
+        return String.format("http://localhost:%s/%s", listenPort.getNumber(), path);
+    }
+}
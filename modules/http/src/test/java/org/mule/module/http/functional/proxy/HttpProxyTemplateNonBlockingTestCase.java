@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.functional.proxy;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.http.client.fluent.Request;
+import org.junit.Test;
+
+/**
+ * Runs the proxy scenarios with a non-blocking listener that has a single worker thread.
+ */
+public class HttpProxyTemplateNonBlockingTestCase extends HttpProxyTemplateTestCase
+{
+
+    private static final int CONCURRENT_REQUESTS = 4;
+
+    private CountDownLatch requestsReceived;
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "http-proxy-template-non-blocking-config.xml";
+    }
+
+    @Test
+    public void processesMoreRequestsThanListenerThreads() throws Exception
+    {
+        requestsReceived = new CountDownLatch(CONCURRENT_REQUESTS);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try
+        {
+            List<Future<Integer>> statusCodes = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++)
+            {
+                statusCodes.add(executor.submit(new Callable<Integer>()
+                {
+                    @Override
+                    public Integer call() throws Exception
+                    {
+                        return Request.Get(getProxyUrl("test")).connectTimeout(RECEIVE_TIMEOUT).socketTimeout(RECEIVE_TIMEOUT)
+                                .execute().returnResponse().getStatusLine().getStatusCode();
+                    }
+                }));
+            }
+
+            for (Future<Integer> statusCode : statusCodes)
+            {
+                assertThat(statusCode.get(RECEIVE_TIMEOUT, MILLISECONDS), is(HttpServletResponse.SC_OK));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    protected void handleRequest(org.eclipse.jetty.server.Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException
+    {
+        if (requestsReceived != null)
+        {
+            // Requests are only answered once all of them are received, which requires the listener
+            // thread to be released while each one waits for its response
+            requestsReceived.countDown();
+            try
+            {
+                if (!requestsReceived.await(RECEIVE_TIMEOUT, MILLISECONDS))
+                {
+                    response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    return;
+                }
+            }
+            catch (InterruptedException e)
+            {
+                throw new IOException(e);
+            }
+        }
+        super.handleRequest(baseRequest, request, response);
+    }
+}
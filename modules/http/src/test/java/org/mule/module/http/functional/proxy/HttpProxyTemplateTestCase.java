@@ -266,7 +266,7 @@ public class HttpProxyTemplateTestCase extends AbstractHttpRequestTestCase
         }
     }
 
-    private String getProxyUrl(String path)
+    protected String getProxyUrl(String path)
     {
         return String.format("http://localhost:%s/%s", proxyPort.getNumber(), path);
     }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.functional.requester;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.mule.api.context.notification.MessageProcessorNotificationListener;
+import org.mule.context.notification.MessageProcessorNotification;
+import org.mule.module.http.internal.request.DefaultHttpRequester;
+import org.mule.tck.junit4.rule.DynamicPort;
+import org.mule.util.concurrent.Latch;
+
+import org.apache.http.client.fluent.Request;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Runs non-blocking requests from flows with processors that act on the result of the request.
+ */
+public class HttpRequestNonBlockingTestCase extends AbstractHttpRequestTestCase
+{
+
+    @Rule
+    public DynamicPort listenPort = new DynamicPort("listenPort");
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "http-request-non-blocking-config.xml";
+    }
+
+    @Test
+    public void processesResponseBlockWithResultOfRequest() throws Exception
+    {
+        assertThat(sendRequest("response"), is(DEFAULT_RESPONSE + " processed"));
+    }
+
+    @Test
+    public void firesMessageProcessorNotificationsAroundRequest() throws Exception
+    {
+        final Latch requestCompleted = new Latch();
+        muleContext.registerListener(new MessageProcessorNotificationListener<MessageProcessorNotification>()
+        {
+            @Override
+            public void onNotification(MessageProcessorNotification notification)
+            {
+                if (notification.getProcessor() instanceof DefaultHttpRequester
+                    && notification.getAction() == MessageProcessorNotification.MESSAGE_PROCESSOR_POST_INVOKE)
+                {
+                    requestCompleted.release();
+                }
+            }
+        });
+
+        assertThat(sendRequest("notifications"), is(DEFAULT_RESPONSE));
+        assertThat(requestCompleted.await(RECEIVE_TIMEOUT, MILLISECONDS), is(true));
+    }
+
+    @Test
+    public void continuesFlowInRequesterWorkerThread() throws Exception
+    {
+        assertThat(sendRequest("thread"), containsString("http.requester.requestConfig.worker"));
+    }
+
+    private String sendRequest(String path) throws Exception
+    {
+        return Request.Get(String.format("http://localhost:%s/%s", listenPort.getNumber(), path))
+                .connectTimeout(RECEIVE_TIMEOUT).socketTimeout(RECEIVE_TIMEOUT)
+                .execute().returnContent().asString();
+    }
+}
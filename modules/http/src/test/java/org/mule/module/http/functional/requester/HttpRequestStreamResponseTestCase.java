@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.functional.requester;
+
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import org.mule.api.MuleEvent;
+import org.mule.tck.junit4.rule.DynamicPort;
+import org.mule.util.IOUtils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.Request;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class HttpRequestStreamResponseTestCase extends AbstractHttpRequestTestCase
+{
+
+    private static final String FIRST_PART = "first part";
+    private static final String SECOND_PART = "second part";
+    private static final int LARGE_RESPONSE_SIZE = 10 * 1024 * 1024;
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Rule
+    public DynamicPort listenPort = new DynamicPort("listenPort");
+
+    private final CountDownLatch firstPartRead = new CountDownLatch(1);
+    private boolean largeResponse;
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "http-request-stream-response-config.xml";
+    }
+
+    @Test
+    public void returnsResponseBeforeBodyIsReceived() throws Exception
+    {
+        MuleEvent event = runFlow("streamResponse");
+        assertThat(event.getMessage().getPayload(), instanceOf(InputStream.class));
+
+        InputStream payload = (InputStream) event.getMessage().getPayload();
+        byte[] firstPart = new byte[FIRST_PART.length()];
+        new DataInputStream(payload).readFully(firstPart);
+        assertThat(new String(firstPart), equalTo(FIRST_PART));
+
+        firstPartRead.countDown();
+        assertThat(IOUtils.toString(payload), equalTo(SECOND_PART));
+    }
+
+    @Test
+    public void streamsLargeResponse() throws Exception
+    {
+        largeResponse = true;
+        MuleEvent event = runFlow("streamResponse");
+
+        InputStream payload = (InputStream) event.getMessage().getPayload();
+        byte[] buffer = new byte[CHUNK_SIZE];
+        long received = 0;
+        int read;
+        while ((read = payload.read(buffer)) != -1)
+        {
+            received += read;
+        }
+        assertThat(received, equalTo((long) LARGE_RESPONSE_SIZE));
+    }
+
+    @Test
+    public void streamsResponseInNonBlockingFlow() throws Exception
+    {
+        firstPartRead.countDown();
+        String response = org.apache.http.client.fluent.Request.Get(String.format("http://localhost:%s/nonBlocking", listenPort.getNumber()))
+                .connectTimeout(RECEIVE_TIMEOUT).socketTimeout(RECEIVE_TIMEOUT)
+                .execute().returnContent().asString();
+
+        assertThat(response, equalTo(FIRST_PART + SECOND_PART));
+    }
+
+    @Override
+    protected void handleRequest(Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException
+    {
+        response.setContentType("text/plain");
+        response.setStatus(SC_OK);
+        OutputStream out = response.getOutputStream();
+
+        if (largeResponse)
+        {
+            byte[] chunk = new byte[CHUNK_SIZE];
+            Arrays.fill(chunk, (byte) 'a');
+            for (int i = 0; i < LARGE_RESPONSE_SIZE / CHUNK_SIZE; i++)
+            {
+                out.write(chunk);
+            }
+            return;
+        }
+
+        out.write(FIRST_PART.getBytes());
+        out.flush();
+        try
+        {
+            // The rest of the body is only sent once the first part was read by the flow
+            assertTrue(firstPartRead.await(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS));
+        }
+        catch (InterruptedException e)
+        {
+            throw new IOException(e);
+        }
+        out.write(SECOND_PART.getBytes());
+    }
+}
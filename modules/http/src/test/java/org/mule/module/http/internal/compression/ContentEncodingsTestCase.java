@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.compression;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.module.http.api.HttpHeaders.Values.DEFLATE;
+import static org.mule.module.http.api.HttpHeaders.Values.GZIP;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.util.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.lang.RandomStringUtils;
+import org.junit.Test;
+
+@SmallTest
+public class ContentEncodingsTestCase extends AbstractMuleTestCase
+{
+
+    private static final byte[] CONTENT = RandomStringUtils.random(100 * 1024, "abcd").getBytes();
+
+    @Test
+    public void gzipStreamIsReadableByJdk() throws Exception
+    {
+        byte[] compressed = IOUtils.toByteArray(ContentEncodings.encode(GZIP, new ByteArrayInputStream(CONTENT)));
+
+        assertThat(IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed))), equalTo(CONTENT));
+    }
+
+    @Test
+    public void deflateStreamIsReadableByJdk() throws Exception
+    {
+        byte[] compressed = IOUtils.toByteArray(ContentEncodings.encode(DEFLATE, new ByteArrayInputStream(CONTENT)));
+
+        assertThat(IOUtils.toByteArray(new InflaterInputStream(new ByteArrayInputStream(compressed))), equalTo(CONTENT));
+    }
+
+    @Test
+    public void compressesEmptyStream() throws Exception
+    {
+        InputStream compressed = ContentEncodings.encode(GZIP, new ByteArrayInputStream(new byte[0]));
+
+        assertThat(IOUtils.toByteArray(new GZIPInputStream(compressed)).length, equalTo(0));
+    }
+
+    @Test
+    public void decodesEncodedContent() throws Exception
+    {
+        for (String contentEncoding : new String[] {GZIP, DEFLATE, "x-gzip"})
+        {
+            InputStream decoded = ContentEncodings.decode(contentEncoding, new ByteArrayInputStream(ContentEncodings.encode(contentEncoding, CONTENT)));
+            assertThat(IOUtils.toByteArray(decoded), equalTo(CONTENT));
+        }
+    }
+
+    @Test
+    public void decodesRawDeflate() throws Exception
+    {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        DeflaterOutputStream out = new DeflaterOutputStream(compressed, new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+        out.write(CONTENT);
+        out.close();
+
+        InputStream decoded = ContentEncodings.decode(DEFLATE, new ByteArrayInputStream(compressed.toByteArray()));
+
+        assertThat(IOUtils.toByteArray(decoded), equalTo(CONTENT));
+    }
+
+    @Test
+    public void decodesEmptyContent() throws Exception
+    {
+        assertThat(IOUtils.toByteArray(ContentEncodings.decode(GZIP, new ByteArrayInputStream(new byte[0]))).length, equalTo(0));
+    }
+
+    @Test
+    public void decodesContentOnRead() throws Exception
+    {
+        byte[] encoded = ContentEncodings.encode(GZIP, CONTENT);
+        InputStream content = new ByteArrayInputStream(encoded);
+        InputStream decoded = ContentEncodings.decodeOnRead(GZIP, content);
+
+        assertThat(content.available(), equalTo(encoded.length));
+        assertThat(IOUtils.toByteArray(decoded), equalTo(CONTENT));
+    }
+
+    @Test
+    public void supportedEncodings() throws Exception
+    {
+        assertThat(ContentEncodings.isSupported(GZIP), equalTo(true));
+        assertThat(ContentEncodings.isSupported(" Deflate "), equalTo(true));
+        assertThat(ContentEncodings.isSupported("br"), equalTo(false));
+        assertThat(ContentEncodings.isSupported(null), equalTo(false));
+    }
+
+    @Test
+    public void negotiatesEncoding() throws Exception
+    {
+        assertThat(ContentEncodings.negotiate(GZIP), equalTo(GZIP));
+        assertThat(ContentEncodings.negotiate(DEFLATE), equalTo(DEFLATE));
+        assertThat(ContentEncodings.negotiate("deflate, gzip"), equalTo(GZIP));
+        assertThat(ContentEncodings.negotiate("gzip;q=0.5, deflate"), equalTo(DEFLATE));
+        assertThat(ContentEncodings.negotiate("*"), equalTo(GZIP));
+        assertThat(ContentEncodings.negotiate("gzip;q=0, *"), equalTo(DEFLATE));
+    }
+
+    @Test
+    public void negotiatesNoEncoding() throws Exception
+    {
+        assertThat(ContentEncodings.negotiate(null), nullValue());
+        assertThat(ContentEncodings.negotiate("identity"), nullValue());
+        assertThat(ContentEncodings.negotiate("gzip;q=0"), nullValue());
+    }
+}
@@ -283,6 +283,54 @@ public class HttpListenerRegistryTestCase extends AbstractMuleTestCase
         assertThat(requestHandler, is(instanceOf(NoListenerRequestHandler.class)));
     }
 
+    @Test
+    public void routeToCatchAllWhenMoreSpecificPathDoesNotMatch()
+    {
+        httpListenerRegistry = new HttpListenerRegistry();
+        final RequestHandler catchAllRequestHandler = mock(RequestHandler.class);
+        final RequestHandler specificRequestHandler = mock(RequestHandler.class);
+        httpListenerRegistry.addRequestHandler(testServer, catchAllRequestHandler, new ListenerRequestMatcher(AcceptsAllMethodsRequestMatcher.instance(), SECOND_LEVEL_CATCH_ALL));
+        httpListenerRegistry.addRequestHandler(testServer, specificRequestHandler, new ListenerRequestMatcher(AcceptsAllMethodsRequestMatcher.instance(), SECOND_LEVEL_PATH + "/third-level"));
+
+        routePath(SECOND_LEVEL_PATH + "/third-level", GET_METHOD, specificRequestHandler);
+        routePath(SECOND_LEVEL_PATH + "/another-level", GET_METHOD, catchAllRequestHandler);
+        routePath(SECOND_LEVEL_PATH, GET_METHOD, catchAllRequestHandler);
+        routePath(FIRST_LEVEL_PATH_LOWER_CASE, GET_METHOD, catchAllRequestHandler);
+    }
+
+    @Test
+    public void routeToLessSpecificPathWhenMethodDoesNotMatch()
+    {
+        httpListenerRegistry = new HttpListenerRegistry();
+        final RequestHandler catchAllRequestHandler = mock(RequestHandler.class);
+        final RequestHandler getRequestHandler = mock(RequestHandler.class);
+        httpListenerRegistry.addRequestHandler(testServer, catchAllRequestHandler, new ListenerRequestMatcher(AcceptsAllMethodsRequestMatcher.instance(), FIRST_LEVEL_CATCH_ALL));
+        httpListenerRegistry.addRequestHandler(testServer, getRequestHandler, new ListenerRequestMatcher(new MethodRequestMatcher(GET_METHOD), SECOND_LEVEL_URI_PARAM));
+
+        routePath(SECOND_LEVEL_URI_PARAM.replace(URI_PARAM, "1"), GET_METHOD, getRequestHandler);
+        routePath(SECOND_LEVEL_URI_PARAM.replace(URI_PARAM, "1"), "get", getRequestHandler);
+        routePath(SECOND_LEVEL_URI_PARAM.replace(URI_PARAM, "1"), POST_METHOD, catchAllRequestHandler);
+        routePath(SECOND_LEVEL_URI_PARAM.replace(URI_PARAM, "1"), "PROPFIND", catchAllRequestHandler);
+    }
+
+    @Test
+    public void stopAndDisposeRequestHandler()
+    {
+        httpListenerRegistry = new HttpListenerRegistry();
+        final RequestHandler requestHandler = mock(RequestHandler.class);
+        final RequestHandlerManager requestHandlerManager = httpListenerRegistry.addRequestHandler(testServer, requestHandler, new ListenerRequestMatcher(AcceptsAllMethodsRequestMatcher.instance(), SECOND_LEVEL_PATH));
+
+        requestHandlerManager.stop();
+        assertThat(httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, createMockRequestWithPath(SECOND_LEVEL_PATH)), is(instanceOf(ServiceTemporarilyUnavailableListenerRequestHandler.class)));
+        requestHandlerManager.start();
+        assertThat(httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, createMockRequestWithPath(SECOND_LEVEL_PATH)), is(requestHandler));
+        requestHandlerManager.dispose();
+        assertThat(httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, createMockRequestWithPath(SECOND_LEVEL_PATH)), is(instanceOf(NoListenerRequestHandler.class)));
+
+        httpListenerRegistry.addRequestHandler(testServer, requestHandler, new ListenerRequestMatcher(AcceptsAllMethodsRequestMatcher.instance(), SECOND_LEVEL_PATH));
+        assertThat(httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, createMockRequestWithPath(SECOND_LEVEL_PATH)), is(requestHandler));
+    }
+
     private void routePath(String requestPath, String listenerPath)
     {
         assertThat(httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, createMockRequestWithPath(requestPath)), is(requestHandlerPerPath.get(listenerPath)));
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.listener;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.module.http.api.HttpHeaders.Names.ACCEPT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_LENGTH;
+import static org.mule.module.http.api.HttpHeaders.Names.CONTENT_TYPE;
+import static org.mule.module.http.api.HttpHeaders.Names.TRANSFER_ENCODING;
+import static org.mule.module.http.api.HttpHeaders.Names.VARY;
+import static org.mule.module.http.api.HttpHeaders.Values.CHUNKED;
+import static org.mule.module.http.api.HttpHeaders.Values.GZIP;
+import org.mule.module.http.internal.domain.ByteArrayHttpEntity;
+import org.mule.module.http.internal.domain.HttpEntity;
+import org.mule.module.http.internal.domain.InputStreamHttpEntity;
+import org.mule.module.http.internal.domain.response.HttpResponse;
+import org.mule.module.http.internal.domain.response.HttpResponseBuilder;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.util.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang.RandomStringUtils;
+import org.junit.Test;
+
+@SmallTest
+public class HttpResponseCompressorTestCase extends AbstractMuleTestCase
+{
+
+    private static final int THRESHOLD = 1024;
+    private static final byte[] LARGE_CONTENT = RandomStringUtils.randomAlphabetic(THRESHOLD * 4).getBytes();
+    private static final String TEXT_PLAIN = "text/plain; charset=UTF-8";
+
+    private final HttpResponseCompressor compressor = new HttpResponseCompressor(THRESHOLD, HttpResponseCompressor.DEFAULT_MIME_TYPES);
+
+    @Test
+    public void compressesByteArrayEntity() throws Exception
+    {
+        HttpResponse response = createResponse(TEXT_PLAIN, new ByteArrayHttpEntity(LARGE_CONTENT))
+                .addHeader(CONTENT_LENGTH, String.valueOf(LARGE_CONTENT.length))
+                .build();
+
+        HttpResponse compressed = compressor.compress(response, "gzip, deflate");
+
+        assertThat(compressed.getHeaderValue(CONTENT_ENCODING), is(GZIP));
+        assertThat(compressed.getHeaderValue(VARY), is(ACCEPT_ENCODING));
+        assertThat(compressed.getHeaderValue(CONTENT_TYPE), is(TEXT_PLAIN));
+        byte[] content = ((ByteArrayHttpEntity) compressed.getEntity()).getContent();
+        assertThat(compressed.getHeaderValue(CONTENT_LENGTH), is(String.valueOf(content.length)));
+        assertThat(IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(content))), equalTo(LARGE_CONTENT));
+    }
+
+    @Test
+    public void compressesStreamWhileSending() throws Exception
+    {
+        HttpResponse response = createResponse(TEXT_PLAIN, new InputStreamHttpEntity(new ByteArrayInputStream(LARGE_CONTENT)))
+                .addHeader(TRANSFER_ENCODING, CHUNKED)
+                .build();
+
+        HttpResponse compressed = compressor.compress(response, GZIP);
+
+        assertThat(compressed.getHeaderValue(CONTENT_ENCODING), is(GZIP));
+        assertThat(compressed.getHeaderValue(TRANSFER_ENCODING), is(CHUNKED));
+        assertThat(compressed.getEntity(), instanceOf(InputStreamHttpEntity.class));
+        GZIPInputStream content = new GZIPInputStream(((InputStreamHttpEntity) compressed.getEntity()).getInputStream());
+        assertThat(IOUtils.toByteArray(content), equalTo(LARGE_CONTENT));
+    }
+
+    @Test
+    public void keepsUncompressedWhenNotAccepted() throws Exception
+    {
+        HttpEntity entity = new ByteArrayHttpEntity(LARGE_CONTENT);
+        HttpResponse response = createResponse(TEXT_PLAIN, entity).build();
+
+        HttpResponse compressed = compressor.compress(response, "identity");
+
+        assertThat(compressed.getHeaderValue(CONTENT_ENCODING), nullValue());
+        assertThat(compressed.getHeaderValue(VARY), is(ACCEPT_ENCODING));
+        assertThat(compressed.getEntity(), sameInstance(entity));
+    }
+
+    @Test
+    public void keepsSmallEntity() throws Exception
+    {
+        HttpResponse response = createResponse(TEXT_PLAIN, new ByteArrayHttpEntity(new byte[THRESHOLD - 1])).build();
+
+        assertThat(compressor.compress(response, GZIP), sameInstance(response));
+    }
+
+    @Test
+    public void keepsNotCompressibleMimeType() throws Exception
+    {
+        HttpResponse response = createResponse("image/png", new ByteArrayHttpEntity(LARGE_CONTENT)).build();
+
+        assertThat(compressor.compress(response, GZIP), sameInstance(response));
+    }
+
+    @Test
+    public void keepsAlreadyEncodedEntity() throws Exception
+    {
+        HttpResponse response = createResponse(TEXT_PLAIN, new ByteArrayHttpEntity(LARGE_CONTENT))
+                .addHeader(CONTENT_ENCODING, GZIP)
+                .build();
+
+        assertThat(compressor.compress(response, GZIP), sameInstance(response));
+    }
+
+    @Test
+    public void matchesMimeTypeList() throws Exception
+    {
+        HttpResponseCompressor customCompressor = new HttpResponseCompressor(0, "application/json, text/*");
+
+        assertThat(customCompressor.compress(createResponse("application/json", new ByteArrayHttpEntity(LARGE_CONTENT)).build(), GZIP)
+                           .getHeaderValue(CONTENT_ENCODING), is(GZIP));
+        assertThat(customCompressor.compress(createResponse("text/html", new ByteArrayHttpEntity(LARGE_CONTENT)).build(), GZIP)
+                           .getHeaderValue(CONTENT_ENCODING), is(GZIP));
+        assertThat(customCompressor.compress(createResponse("application/xml", new ByteArrayHttpEntity(LARGE_CONTENT)).build(), GZIP)
+                           .getHeaderValue(CONTENT_ENCODING), nullValue());
+    }
+
+    private HttpResponseBuilder createResponse(String contentType, HttpEntity entity)
+    {
+        return new HttpResponseBuilder().setStatusCode(200).addHeader(CONTENT_TYPE, contentType).setEntity(entity);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.http.internal.request.grizzly;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.util.IOUtils;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SmallTest
+public class ResponseBodyInputStreamTestCase extends AbstractMuleTestCase
+{
+
+    private static final int MAX_BUFFERED_BYTES = 8;
+    private static final long WAIT_TIMEOUT = 200;
+    private static final long RECEIVE_TIMEOUT = 5000;
+    private static final long READ_TIMEOUT = 2000;
+
+    private final ResponseBodyInputStream stream = new ResponseBodyInputStream(MAX_BUFFERED_BYTES, READ_TIMEOUT);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void shutdownExecutor()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void readsPartsInOrder() throws Exception
+    {
+        stream.offer("abc".getBytes());
+        stream.offer("defg".getBytes());
+        stream.complete();
+
+        assertThat(IOUtils.toString(stream), equalTo("abcdefg"));
+    }
+
+    @Test
+    public void offerWaitsUntilPartsAreRead() throws Exception
+    {
+        stream.offer("12345".getBytes());
+        Future<Boolean> offer = offerAsync("67890");
+        assertBlocked(offer);
+
+        byte[] buffer = new byte[5];
+        assertThat(stream.read(buffer), equalTo(5));
+        assertThat(offer.get(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS), equalTo(true));
+        assertThat(new String(buffer), equalTo("12345"));
+    }
+
+    @Test
+    public void acceptsPartBiggerThanBufferWhenEmpty() throws Exception
+    {
+        assertThat(stream.offer("0123456789".getBytes()), equalTo(true));
+        stream.complete();
+
+        assertThat(IOUtils.toString(stream), equalTo("0123456789"));
+    }
+
+    @Test
+    public void readWaitsForParts() throws Exception
+    {
+        Future<String> read = executor.submit(new Callable<String>()
+        {
+            @Override
+            public String call() throws Exception
+            {
+                return IOUtils.toString(stream);
+            }
+        });
+        assertBlocked(read);
+
+        stream.offer("abc".getBytes());
+        stream.complete();
+        assertThat(read.get(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS), equalTo("abc"));
+    }
+
+    @Test
+    public void failsAfterBufferedPartsAreRead() throws Exception
+    {
+        Exception cause = new Exception();
+        stream.offer("abc".getBytes());
+        stream.fail(cause);
+
+        assertThat(stream.read(), equalTo((int) 'a'));
+        assertThat(stream.read(new byte[2]), equalTo(2));
+        try
+        {
+            stream.read();
+            fail("Expected the failure to be propagated");
+        }
+        catch (IOException e)
+        {
+            assertThat(e.getCause(), sameInstance((Throwable) cause));
+        }
+    }
+
+    @Test
+    public void closeReleasesWaitingOffer() throws Exception
+    {
+        stream.offer("12345".getBytes());
+        Future<Boolean> offer = offerAsync("67890");
+        assertBlocked(offer);
+
+        stream.close();
+        assertThat(offer.get(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS), equalTo(false));
+        assertThat(stream.offer("more".getBytes()), equalTo(false));
+    }
+
+    @Test
+    public void offerFailsStreamWhenPartsAreNotReadInTime() throws Exception
+    {
+        ResponseBodyInputStream abandonedStream = new ResponseBodyInputStream(MAX_BUFFERED_BYTES, WAIT_TIMEOUT);
+        abandonedStream.offer("12345".getBytes());
+
+        assertThat(abandonedStream.offer("67890".getBytes()), equalTo(false));
+        assertThat(abandonedStream.read(new byte[5]), equalTo(5));
+        try
+        {
+            abandonedStream.read();
+            fail("Expected the stream to fail");
+        }
+        catch (IOException e)
+        {
+            assertThat(e.getCause(), instanceOf(TimeoutException.class));
+        }
+    }
+
+    private Future<Boolean> offerAsync(final String part)
+    {
+        return executor.submit(new Callable<Boolean>()
+        {
+            @Override
+            public Boolean call() throws Exception
+            {
+                return stream.offer(part.getBytes());
+            }
+        });
+    }
+
+    private void assertBlocked(Future<?> future) throws Exception
+    {
+        try
+        {
+            future.get(WAIT_TIMEOUT, TimeUnit.MILLISECONDS);
+            fail("Expected the operation to wait");
+        }
+        catch (TimeoutException e)
+        {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.launcher;
+
+import org.mule.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Index of the packages with classes in the jars of a class path, used by a class loader to
+ * avoid searching every jar for classes it doesn't have.
+ * <p/>
+ * Directories of the class path are not indexed, as their content may change, so they are
+ * checked for a package folder on every lookup instead. Classes not found in a package that only
+ * the jars have are remembered, up to a limit, so repeated lookups of them are answered without
+ * searching the jars again.
+ */
+public class ClassPathPackageIndex
+{
+
+    private static final String CLASS_FILE_SUFFIX = ".class";
+    private static final int MAX_MISSING_CLASSES = 10000;
+
+    private final Set<String> jarPackages;
+    private final List<File> directories;
+    private final Set<String> missingClasses = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private ClassPathPackageIndex(Set<String> jarPackages, List<File> directories)
+    {
+        this.jarPackages = jarPackages;
+        this.directories = directories;
+    }
+
+    /**
+     * Indexes the packages of the given class path, following the same rules as
+     * {@link java.net.URLClassLoader}: URLs ending with '/' are directories and any other URL is
+     * a jar.
+     *
+     * @return the index, or null if the class path has entries that can't be indexed, like
+     *         remote URLs or jars referencing other jars in their manifest
+     */
+    public static ClassPathPackageIndex create(URL[] urls)
+    {
+        Set<String> jarPackages = new HashSet<String>();
+        List<File> directories = new ArrayList<File>();
+
+        for (URL url : urls)
+        {
+            File file = FileUtils.toFile(url);
+            if (file == null)
+            {
+                return null;
+            }
+
+            if (url.getFile().endsWith("/"))
+            {
+                directories.add(file);
+            }
+            else if (file.exists() && !addJarPackages(file, jarPackages))
+            {
+                return null;
+            }
+        }
+
+        return new ClassPathPackageIndex(jarPackages, directories);
+    }
+
+    private static boolean addJarPackages(File file, Set<String> packages)
+    {
+        JarFile jarFile = null;
+        try
+        {
+            jarFile = new JarFile(file);
+
+            Manifest manifest = jarFile.getManifest();
+            if (manifest != null && manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) != null)
+            {
+                return false;
+            }
+
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements())
+            {
+                String entryName = entries.nextElement().getName();
+                if (entryName.endsWith(CLASS_FILE_SUFFIX))
+                {
+                    int packageEnd = entryName.lastIndexOf('/');
+                    packages.add(packageEnd < 0 ? "" : entryName.substring(0, packageEnd).replace('/', '.'));
+                }
+            }
+
+            return true;
+        }
+        catch (IOException e)
+        {
+            return false;
+        }
+        finally
+        {
+            if (jarFile != null)
+            {
+                try
+                {
+                    jarFile.close();
+                }
+                catch (IOException e)
+                {
+                    // Ignoring
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false if the class is not in the class path, true if it may be
+     */
+    public boolean mayContain(String className)
+    {
+        if (missingClasses.contains(className))
+        {
+            return false;
+        }
+
+        String packageName = getPackageName(className);
+
+        return jarPackages.contains(packageName) || isDirectoryPackage(packageName);
+    }
+
+    /**
+     * Records a class that was searched in the class path without being found.
+     */
+    public void classNotFound(String className)
+    {
+        if (isDirectoryPackage(getPackageName(className)))
+        {
+            return;
+        }
+
+        if (missingClasses.size() >= MAX_MISSING_CLASSES)
+        {
+            missingClasses.clear();
+        }
+        missingClasses.add(className);
+    }
+
+    private boolean isDirectoryPackage(String packageName)
+    {
+        String packagePath = packageName.replace('.', File.separatorChar);
+        for (File directory : directories)
+        {
+            if (new File(directory, packagePath).isDirectory())
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private String getPackageName(String className)
+    {
+        int packageEnd = className.lastIndexOf('.');
+
+        return packageEnd < 0 ? "" : className.substring(0, packageEnd);
+    }
+}
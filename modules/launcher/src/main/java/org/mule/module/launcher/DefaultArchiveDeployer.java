@@ -23,6 +23,7 @@ import java.net.URL;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -49,7 +50,7 @@ public class DefaultArchiveDeployer<T extends Artifact> implements ArchiveDeploy
     private final ArtifactDeployer<T> deployer;
     private final ArtifactArchiveInstaller artifactArchiveInstaller;
     private final ReentrantLock deploymentLock;
-    private final Map<String, ZombieFile> artifactZombieMap = new HashMap<String, ZombieFile>();
+    private final Map<String, ZombieFile> artifactZombieMap = new ConcurrentHashMap<String, ZombieFile>();
     private final File artifactDir;
     private final ObservableList<T> artifacts;
     private ArtifactFactory<T> artifactFactory;
@@ -91,7 +92,11 @@ public class DefaultArchiveDeployer<T extends Artifact> implements ArchiveDeploy
     {
         String artifactName = artifactDir;
         @SuppressWarnings("rawtypes")
-        Collection<String> deployedAppNames = CollectionUtils.collect(artifacts, new BeanToPropertyValueTransformer(ARTIFACT_NAME_PROPERTY));
+        Collection<String> deployedAppNames;
+        synchronized (artifacts)
+        {
+            deployedAppNames = CollectionUtils.collect(artifacts, new BeanToPropertyValueTransformer(ARTIFACT_NAME_PROPERTY));
+        }
 
         if (deployedAppNames.contains(artifactName) && (!artifactZombieMap.containsKey(artifactName)))
         {
@@ -116,7 +121,7 @@ public class DefaultArchiveDeployer<T extends Artifact> implements ArchiveDeploy
             return;
         }
 
-        T artifact = (T) CollectionUtils.find(artifacts, new BeanPropertyValueEqualsPredicate(ARTIFACT_NAME_PROPERTY, artifactId));
+        T artifact = findArtifact(artifactId);
         undeploy(artifact);
     }
 
@@ -197,7 +202,7 @@ public class DefaultArchiveDeployer<T extends Artifact> implements ArchiveDeploy
         logRequestToUndeployArtifact(artifact);
         try
         {
-            if (!deploymentLock.tryLock(0, TimeUnit.SECONDS))
+            if (!tryLockDeployment())
             {
                 return;
             }
@@ -247,7 +252,7 @@ public class DefaultArchiveDeployer<T extends Artifact> implements ArchiveDeploy
         }
 
         // check if this artifact is running first, undeployArtifact it then
-        T artifact = (T) CollectionUtils.find(artifacts, new BeanPropertyValueEqualsPredicate(ARTIFACT_NAME_PROPERTY, artifactName));
+        T artifact = findArtifact(artifactName);
         if (artifact != null)
         {
             undeployArtifact(artifactName);
@@ -303,7 +308,7 @@ public class DefaultArchiveDeployer<T extends Artifact> implements ArchiveDeploy
     {
         try
         {
-            if (!deploymentLock.tryLock(0, TimeUnit.SECONDS))
+            if (!tryLockDeployment())
             {
                 return;
             }
@@ -372,7 +377,6 @@ public class DefaultArchiveDeployer<T extends Artifact> implements ArchiveDeploy
 
     private void addZombieFile(String artifactName, File marker)
     {
-        // no sync required as deploy operations are single-threaded
         if (marker == null)
         {
             return;
@@ -395,15 +399,31 @@ public class DefaultArchiveDeployer<T extends Artifact> implements ArchiveDeploy
 
     private T findArtifact(String artifactName)
     {
-        return (T) CollectionUtils.find(artifacts, new BeanPropertyValueEqualsPredicate(ARTIFACT_NAME_PROPERTY, artifactName));
+        synchronized (artifacts)
+        {
+            return (T) CollectionUtils.find(artifacts, new BeanPropertyValueEqualsPredicate(ARTIFACT_NAME_PROPERTY, artifactName));
+        }
     }
 
     private void trackArtifact(T artifact)
     {
-        T previousArtifact = findArtifact(artifact.getArtifactName());
-        artifacts.remove(previousArtifact);
+        // artifacts may be deployed in parallel, see ParallelArtifactDeployer
+        synchronized (artifacts)
+        {
+            T previousArtifact = findArtifact(artifact.getArtifactName());
+            artifacts.remove(previousArtifact);
 
-        artifacts.add(artifact);
+            artifacts.add(artifact);
+        }
+    }
+
+    /**
+     * Acquires the deployment lock, unless the current thread is deploying in parallel on behalf of
+     * the thread holding it.
+     */
+    private boolean tryLockDeployment() throws InterruptedException
+    {
+        return ParallelArtifactDeployer.isDeployingOnBehalfOf(deploymentLock) || deploymentLock.tryLock(0, TimeUnit.SECONDS);
     }
 
     private void undeploy(T artifact)
@@ -413,7 +433,10 @@ public class DefaultArchiveDeployer<T extends Artifact> implements ArchiveDeploy
         {
             deploymentListener.onUndeploymentStart(artifact.getArtifactName());
 
-            artifacts.remove(artifact);
+            synchronized (artifacts)
+            {
+                artifacts.remove(artifact);
+            }
             guardedUndeploy(artifact);
 
             deploymentListener.onUndeploymentSuccess(artifact.getArtifactName());
@@ -437,7 +460,7 @@ public class DefaultArchiveDeployer<T extends Artifact> implements ArchiveDeploy
     {
         try
         {
-            if (!deploymentLock.tryLock(0, TimeUnit.SECONDS))
+            if (!tryLockDeployment())
             {
                 throw new IOException(ANOTHER_DEPLOYMENT_OPERATION_IS_IN_PROGRESS);
             }
@@ -467,7 +490,7 @@ public class DefaultArchiveDeployer<T extends Artifact> implements ArchiveDeploy
     {
         try
         {
-            if (!deploymentLock.tryLock(0, TimeUnit.SECONDS))
+            if (!tryLockDeployment())
             {
                 return;
             }
@@ -29,6 +29,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -54,12 +55,19 @@ import org.apache.commons.logging.LogFactory;
  * It will periodically scan the artifact directories in order to process new deployments,
  * remove artifacts that were previously deployed but the anchor file was removed and redeploy
  * those applications which configuration has changed.
+ * <p/>
+ * Artifacts are deployed one after the other, unless the {@link #PARALLEL_DEPLOYMENT_PROPERTY}
+ * system property sets a number of threads to deploy applications with. Domains are always
+ * deployed first, on their own, and undeployments and redeployments are done before any new
+ * deployment starts. Applications listed with the 'app' startup option are still deployed one
+ * after the other, in the given order.
  */
 public class DeploymentDirectoryWatcher implements Runnable
 {
 
     public static final String ARTIFACT_ANCHOR_SUFFIX = "-anchor.txt";
     public static final String CHANGE_CHECK_INTERVAL_PROPERTY = "mule.launcher.changeCheckInterval";
+    public static final String PARALLEL_DEPLOYMENT_PROPERTY = "mule.launcher.parallelDeployment";
     public static final IOFileFilter ZIP_ARTIFACT_FILTER = new AndFileFilter(new SuffixFileFilter(ZIP_FILE_SUFFIX), FileFileFilter.FILE);
     protected static final int DEFAULT_CHANGES_CHECK_INTERVAL_MS = 5000;
 
@@ -74,6 +82,7 @@ public class DeploymentDirectoryWatcher implements Runnable
     private final ObservableList<Domain> domains;
     private final File appsDir;
     private final File domainsDir;
+    private final ParallelArtifactDeployer parallelArtifactDeployer;
     private ScheduledExecutorService artifactDirMonitorTimer;
 
     protected volatile boolean dirty;
@@ -117,6 +126,9 @@ public class DeploymentDirectoryWatcher implements Runnable
         });
         this.applicationTimestampListener = new ArtifactTimestampListener(applications);
         this.domainTimestampListener = new ArtifactTimestampListener(domains);
+
+        int parallelDeploymentThreads = getParallelDeploymentThreads();
+        this.parallelArtifactDeployer = parallelDeploymentThreads > 0 ? new ParallelArtifactDeployer(deploymentLock, parallelDeploymentThreads) : null;
     }
 
     /**
@@ -147,8 +159,15 @@ public class DeploymentDirectoryWatcher implements Runnable
                 String[] explodedApps = appsDir.list(DirectoryFileFilter.DIRECTORY);
                 String[] packagedApps = appsDir.list(ZIP_ARTIFACT_FILTER);
 
-                deployPackedApps(packagedApps);
-                deployExplodedApps(explodedApps);
+                if (parallelArtifactDeployer != null)
+                {
+                    deployAppsInParallel(packagedApps, explodedApps);
+                }
+                else
+                {
+                    deployPackedApps(packagedApps);
+                    deployExplodedApps(explodedApps);
+                }
             }
             else
             {
@@ -207,6 +226,11 @@ public class DeploymentDirectoryWatcher implements Runnable
     {
         stopAppDirMonitorTimer();
 
+        if (parallelArtifactDeployer != null)
+        {
+            parallelArtifactDeployer.dispose();
+        }
+
         deploymentLock.lock();
         try
         {
@@ -237,6 +261,19 @@ public class DeploymentDirectoryWatcher implements Runnable
         }
     }
 
+    private static int getParallelDeploymentThreads()
+    {
+        try
+        {
+            String value = System.getProperty(PARALLEL_DEPLOYMENT_PROPERTY);
+            return value == null ? 0 : Integer.parseInt(value);
+        }
+        catch (NumberFormatException e)
+        {
+            return 0;
+        }
+    }
+
     private static int getChangesCheckIntervalMs()
     {
         try
@@ -296,6 +333,50 @@ public class DeploymentDirectoryWatcher implements Runnable
         }
     }
 
+    /**
+     * Deploys every application on its own thread, deploying its zip first if there is one and
+     * then its folder, in the same way as when deploying them one after the other.
+     */
+    private void deployAppsInParallel(String[] zips, String[] apps)
+    {
+        Map<String, Runnable> deployments = new LinkedHashMap<String, Runnable>();
+        for (String zip : zips)
+        {
+            String app = StringUtils.removeEnd(zip, ZIP_FILE_SUFFIX);
+            deployments.put(app, createAppDeployment(app, true));
+        }
+        for (String app : apps)
+        {
+            if (!deployments.containsKey(app))
+            {
+                deployments.put(app, createAppDeployment(app, false));
+            }
+        }
+
+        parallelArtifactDeployer.deploy(deployments.values());
+    }
+
+    private Runnable createAppDeployment(final String app, final boolean packed)
+    {
+        return new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (packed)
+                {
+                    deployPackedApps(new String[] {app + ZIP_FILE_SUFFIX});
+                }
+
+                // deploying the zip explodes it, and the folder is skipped if already deployed
+                if (new File(appsDir, app).isDirectory())
+                {
+                    deployExplodedApps(new String[] {app});
+                }
+            }
+        };
+    }
+
     // Cycle is:
     //   undeployArtifact removed apps
     //   undeployArtifact removed domains
@@ -352,15 +433,22 @@ public class DeploymentDirectoryWatcher implements Runnable
 
             final String[] appZips = appsDir.list(ZIP_ARTIFACT_FILTER);
 
-            deployPackedApps(appZips);
-
-            // re-scan exploded apps and update our state, as deploying Mule app archives might have added some
-            if (appZips.length > 0 || dirty)
+            if (parallelArtifactDeployer != null)
             {
-                apps = appsDir.list(DirectoryFileFilter.DIRECTORY);
+                deployAppsInParallel(appZips, apps);
             }
+            else
+            {
+                deployPackedApps(appZips);
+
+                // re-scan exploded apps and update our state, as deploying Mule app archives might have added some
+                if (appZips.length > 0 || dirty)
+                {
+                    apps = appsDir.list(DirectoryFileFilter.DIRECTORY);
+                }
 
-            deployExplodedApps(apps);
+                deployExplodedApps(apps);
+            }
         }
         catch (Exception e)
         {
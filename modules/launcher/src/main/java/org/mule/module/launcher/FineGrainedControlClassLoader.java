@@ -15,10 +15,19 @@ import java.util.Set;
 
 /**
  * TODO document overrides, blocked, systemPackages and syntax for specifying those.
+ * <p/>
+ * Classes with different names are loaded in parallel. Lookups of classes in its own
+ * class path are first checked against a {@link ClassPathPackageIndex}, so those not there are
+ * rejected without searching every jar.
  */
 public class FineGrainedControlClassLoader extends GoodCitizenClassLoader
 {
 
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     protected String appName;
 
     // Finished with '.' so that we can use startsWith to verify
@@ -33,6 +42,10 @@ public class FineGrainedControlClassLoader extends GoodCitizenClassLoader
     protected Set<String> overrides = new HashSet<String>();
     protected Set<String> blocked = new HashSet<String>();
 
+    private final Object packageIndexLock = new Object();
+    private volatile boolean packageIndexBuilt;
+    private ClassPathPackageIndex packageIndex;
+
     public FineGrainedControlClassLoader(URL[] urls, ClassLoader parent)
     {
         this(urls, parent, Collections.<String>emptySet());
@@ -71,61 +84,64 @@ public class FineGrainedControlClassLoader extends GoodCitizenClassLoader
     }
 
     @Override
-    protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
     {
-        Class<?> result = findLoadedClass(name);
-
-        if (result != null)
+        synchronized (getClassLoadingLock(name))
         {
-            return result;
-        }
-        boolean overrideMatch = isOverridden(name);
+            Class<?> result = findLoadedClass(name);
 
+            if (result != null)
+            {
+                return result;
+            }
+            boolean overrideMatch = isOverridden(name);
 
-        if (overrideMatch)
-        {
-            boolean blockedMatch = isBlocked(name);
 
-            if (blockedMatch)
+            if (overrideMatch)
             {
-                // load this class from the child ONLY, don't attempt parent, let CNFE exception propagate
-                result = findClass(name);
+                boolean blockedMatch = isBlocked(name);
+
+                if (blockedMatch)
+                {
+                    // load this class from the child ONLY, don't attempt parent, let CNFE exception propagate
+                    result = findClass(name);
+                }
+                else
+                {
+                    // load this class from the child
+                    try
+                    {
+                        result = findClass(name);
+                    }
+                    catch (ClassNotFoundException e)
+                    {
+                        // let it fail with CNFE
+                        result = findParentClass(name);
+                    }
+                }
+
+
             }
             else
             {
-                // load this class from the child
+                // no overrides, regular parent-first lookup
                 try
                 {
-                    result = findClass(name);
+                    result = findParentClass(name);
                 }
                 catch (ClassNotFoundException e)
                 {
-                    // let it fail with CNFE
-                    result = findParentClass(name);
+                    result = findClass(name);
                 }
             }
 
-
-        }
-        else
-        {
-            // no overrides, regular parent-first lookup
-            try
-            {
-                result = findParentClass(name);
-            }
-            catch (ClassNotFoundException e)
+            if (resolve)
             {
-                result = findClass(name);
+                resolveClass(result);
             }
-        }
 
-        if (resolve)
-        {
-            resolveClass(result);
+            return result;
         }
-
-        return result;
     }
 
     public boolean isOverridden(String name)
@@ -172,7 +188,56 @@ public class FineGrainedControlClassLoader extends GoodCitizenClassLoader
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException
     {
-        return super.findClass(name);
+        ClassPathPackageIndex index = getPackageIndex();
+        if (index != null && !index.mayContain(name))
+        {
+            throw new ClassNotFoundException(name);
+        }
+
+        try
+        {
+            return super.findClass(name);
+        }
+        catch (ClassNotFoundException e)
+        {
+            if (index != null)
+            {
+                index.classNotFound(name);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    protected void addURL(URL url)
+    {
+        super.addURL(url);
+
+        synchronized (packageIndexLock)
+        {
+            packageIndexBuilt = false;
+        }
+    }
+
+    /**
+     * @return the index of the class path of this class loader, built on first use after the
+     *         class path changes, or null if the class path can't be indexed
+     */
+    protected ClassPathPackageIndex getPackageIndex()
+    {
+        if (!packageIndexBuilt)
+        {
+            synchronized (packageIndexLock)
+            {
+                if (!packageIndexBuilt)
+                {
+                    packageIndex = ClassPathPackageIndex.create(getURLs());
+                    packageIndexBuilt = true;
+                }
+            }
+        }
+
+        return packageIndex;
     }
 
 }
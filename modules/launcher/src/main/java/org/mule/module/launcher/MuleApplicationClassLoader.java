@@ -24,6 +24,11 @@ import java.util.Set;
 public class MuleApplicationClassLoader extends AbstractArtifactClassLoader implements ApplicationClassLoader
 {
 
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     /**
      * Library directory in Mule application.
      */
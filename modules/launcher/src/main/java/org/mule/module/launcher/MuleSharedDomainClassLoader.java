@@ -23,6 +23,11 @@ import java.util.Collection;
 public class MuleSharedDomainClassLoader extends AbstractArtifactClassLoader implements ArtifactClassLoader
 {
 
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     public static final String DOMAIN_LIBRARY_FOLDER = "lib";
     public static final String OLD_DOMAIN_LIBRARY_FOLDER = DOMAIN_LIBRARY_FOLDER + File.separator + "shared";
 
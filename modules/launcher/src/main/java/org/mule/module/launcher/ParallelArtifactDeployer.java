@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.launcher;
+
+import org.mule.util.concurrent.NamedThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Runs artifact deployments concurrently on a bounded pool of threads, on behalf of the thread
+ * holding the deployment lock, which waits for all of them to finish before releasing it.
+ * <p/>
+ * Deployers only deploy while holding the deployment lock, so they must check
+ * {@link #isDeployingOnBehalfOf(ReentrantLock)} before trying to acquire it. Each deployment
+ * must handle a single artifact, so the operations on an artifact are still done in order, and
+ * a deployment failing doesn't affect the other ones.
+ * <p/>
+ * The threads of the pool are released once idle for a while, so they don't linger between the
+ * startup of the container and later deployments.
+ */
+public class ParallelArtifactDeployer
+{
+
+    private static final Log logger = LogFactory.getLog(ParallelArtifactDeployer.class);
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 60;
+    private static final ThreadLocal<ReentrantLock> lockOwnerDeployment = new ThreadLocal<ReentrantLock>();
+
+    private final ReentrantLock deploymentLock;
+    private final int maxThreads;
+    private ThreadPoolExecutor executor;
+
+    public ParallelArtifactDeployer(ReentrantLock deploymentLock, int maxThreads)
+    {
+        this.deploymentLock = deploymentLock;
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * @return true if the current thread is running a deployment on behalf of the thread
+     *         holding the given lock
+     */
+    public static boolean isDeployingOnBehalfOf(ReentrantLock deploymentLock)
+    {
+        return lockOwnerDeployment.get() == deploymentLock;
+    }
+
+    /**
+     * Runs the given deployments, returning once all of them have finished. Must be called
+     * holding the deployment lock.
+     */
+    public void deploy(Collection<Runnable> deployments)
+    {
+        if (!deploymentLock.isHeldByCurrentThread())
+        {
+            throw new IllegalStateException("Parallel deployments must be started holding the deployment lock");
+        }
+        if (deployments.isEmpty())
+        {
+            return;
+        }
+
+        ThreadPoolExecutor deploymentExecutor = getExecutor();
+        List<Future<?>> results = new ArrayList<Future<?>>(deployments.size());
+        for (final Runnable deployment : deployments)
+        {
+            results.add(deploymentExecutor.submit(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    lockOwnerDeployment.set(deploymentLock);
+                    try
+                    {
+                        deployment.run();
+                    }
+                    finally
+                    {
+                        lockOwnerDeployment.remove();
+                    }
+                }
+            }));
+        }
+
+        boolean interrupted = false;
+        for (Future<?> result : results)
+        {
+            interrupted |= awaitDeployment(result);
+        }
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the threads of the pool. Deployments can still be run afterwards, on a new pool.
+     */
+    public synchronized void dispose()
+    {
+        if (executor != null)
+        {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor()
+    {
+        if (executor == null)
+        {
+            executor = new ThreadPoolExecutor(maxThreads, maxThreads, THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                                              new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory("Mule.app.deployer"));
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    /**
+     * Waits for a deployment even if interrupted, as the deployment lock can't be released
+     * while it is running.
+     *
+     * @return true if the thread was interrupted while waiting
+     */
+    private boolean awaitDeployment(Future<?> result)
+    {
+        boolean interrupted = false;
+        while (true)
+        {
+            try
+            {
+                result.get();
+                return interrupted;
+            }
+            catch (InterruptedException e)
+            {
+                interrupted = true;
+            }
+            catch (ExecutionException e)
+            {
+                logger.error("Unexpected error deploying artifact", e.getCause());
+                return interrupted;
+            }
+        }
+    }
+}
@@ -22,6 +22,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -29,14 +31,25 @@ import org.apache.commons.logging.LogFactory;
 /**
  * Defines a classloader that delegates classes and resources resolution to
  * a list of classloaders.
+ * <p/>
+ * Delegates are not locked while loading classes, as they do their own locking. The protected
+ * methods of each delegate are looked up by reflection once and then reused.
  */
 public class CompositeApplicationClassLoader extends ClassLoader implements ApplicationClassLoader
 {
 
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     protected static final Log logger = LogFactory.getLog(CompositeApplicationClassLoader.class);
 
     private final List<ClassLoader> classLoaders;
     private final String appName;
+    private final ConcurrentMap<ClassLoader, Method> loadClassMethods = new ConcurrentHashMap<ClassLoader, Method>();
+    private final ConcurrentMap<ClassLoader, Method> findLibraryMethods = new ConcurrentHashMap<ClassLoader, Method>();
+    private final ConcurrentMap<ClassLoader, Method> findResourceMethods = new ConcurrentHashMap<ClassLoader, Method>();
 
     public CompositeApplicationClassLoader(String appName, List<ClassLoader> classLoaders)
     {
@@ -75,7 +88,7 @@ public class CompositeApplicationClassLoader extends ClassLoader implements Appl
     }
 
     @Override
-    protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
     {
         for (ClassLoader classLoader : classLoaders)
         {
@@ -102,7 +115,7 @@ public class CompositeApplicationClassLoader extends ClassLoader implements Appl
     {
         try
         {
-            Method loadClassMethod = findDeclaredMethod(classLoader, "loadClass", String.class, boolean.class);
+            Method loadClassMethod = getDeclaredMethod(loadClassMethods, classLoader, "loadClass", String.class, boolean.class);
 
             return (Class<?>) loadClassMethod.invoke(classLoader, name, resolve);
         }
@@ -184,7 +197,7 @@ public class CompositeApplicationClassLoader extends ClassLoader implements Appl
     {
         try
         {
-            Method findLibraryMethod = findDeclaredMethod(classLoader, "findLibrary", String.class);
+            Method findLibraryMethod = getDeclaredMethod(findLibraryMethods, classLoader, "findLibrary", String.class);
 
             return (String) findLibraryMethod.invoke(classLoader, libname);
         }
@@ -300,7 +313,7 @@ public class CompositeApplicationClassLoader extends ClassLoader implements Appl
     {
         try
         {
-            Method findResourceMethod = findDeclaredMethod(classLoader, "findResource", String.class);
+            Method findResourceMethod = getDeclaredMethod(findResourceMethods, classLoader, "findResource", String.class);
 
             return (URL) findResourceMethod.invoke(classLoader, name);
         }
@@ -315,6 +328,18 @@ public class CompositeApplicationClassLoader extends ClassLoader implements Appl
         return null;
     }
 
+    private Method getDeclaredMethod(ConcurrentMap<ClassLoader, Method> methods, ClassLoader classLoader, String methodName, Class<?>... params) throws NoSuchMethodException
+    {
+        Method method = methods.get(classLoader);
+        if (method == null)
+        {
+            method = findDeclaredMethod(classLoader, methodName, params);
+            methods.put(classLoader, method);
+        }
+
+        return method;
+    }
+
     private Method findDeclaredMethod(ClassLoader classLoader, String methodName, Class<?>... params) throws NoSuchMethodException
     {
         Class clazz = classLoader.getClass();
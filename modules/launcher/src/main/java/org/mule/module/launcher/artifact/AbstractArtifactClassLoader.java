@@ -24,6 +24,12 @@ import org.apache.commons.logging.LogFactory;
  */
 public abstract class AbstractArtifactClassLoader extends FineGrainedControlClassLoader implements ArtifactClassLoader
 {
+
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     protected Log logger = LogFactory.getLog(getClass());
 
     protected List<ShutdownListener> shutdownListeners = new ArrayList<ShutdownListener>();
@@ -16,6 +16,11 @@ import java.util.Set;
 public class MulePluginsClassLoader extends FineGrainedControlClassLoader
 {
 
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     public MulePluginsClassLoader(ClassLoader parent, PluginDescriptor... plugins)
     {
         this(parent, Arrays.asList(plugins));
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.launcher;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.util.ClassUtils;
+
+import java.io.File;
+import java.net.URL;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class ClassPathPackageIndexTestCase extends AbstractMuleTestCase
+{
+
+    private static final String JAR_CLASS = "mypackage.MyClass";
+
+    @Rule
+    public TemporaryFolder classesFolder = new TemporaryFolder();
+
+    @Test
+    public void indexesPackagesOfJarClasses() throws Exception
+    {
+        ClassPathPackageIndex index = ClassPathPackageIndex.create(new URL[] {jar()});
+
+        assertThat(index.mayContain(JAR_CLASS), is(true));
+        assertThat(index.mayContain("mypackage.OtherClass"), is(true));
+        assertThat(index.mayContain("otherpackage.MyClass"), is(false));
+        assertThat(index.mayContain("mypackage.subpackage.MyClass"), is(false));
+    }
+
+    @Test
+    public void remembersClassesNotFoundInJarPackages() throws Exception
+    {
+        ClassPathPackageIndex index = ClassPathPackageIndex.create(new URL[] {jar()});
+
+        index.classNotFound("mypackage.OtherClass");
+
+        assertThat(index.mayContain("mypackage.OtherClass"), is(false));
+        assertThat(index.mayContain(JAR_CLASS), is(true));
+    }
+
+    @Test
+    public void checksDirectoryPackagesOnEveryLookup() throws Exception
+    {
+        ClassPathPackageIndex index = ClassPathPackageIndex.create(new URL[] {classesFolder.getRoot().toURI().toURL()});
+        assertThat(index.mayContain("otherpackage.MyClass"), is(false));
+
+        new File(classesFolder.getRoot(), "otherpackage").mkdir();
+        index.classNotFound("otherpackage.MyClass");
+
+        assertThat(index.mayContain("otherpackage.MyClass"), is(true));
+    }
+
+    @Test
+    public void doesNotIndexRemoteClassPath() throws Exception
+    {
+        ClassPathPackageIndex index = ClassPathPackageIndex.create(new URL[] {jar(), new URL("http://localhost/lib/library.jar")});
+
+        assertThat(index, is(nullValue()));
+    }
+
+    private URL jar()
+    {
+        return ClassUtils.getResource("classloader-test-bye.jar", this.getClass());
+    }
+}
@@ -9,6 +9,7 @@ package org.mule.module.launcher;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
@@ -150,6 +151,26 @@ public class FineGrainedControlClassLoaderTestCase extends AbstractMuleTestCase
         assertEquals("Bye", callHi(ext));
     }
 
+    @Test
+    public void findsClassOfUrlAddedAfterLookup() throws Exception
+    {
+        URLClassLoader parent = new URLClassLoader(new URL[0], Thread.currentThread().getContextClassLoader());
+
+        FineGrainedControlClassLoader ext = new FineGrainedControlClassLoader(new URL[0], parent);
+        try
+        {
+            callHi(ext);
+            fail("Class should not be found before its jar is added");
+        }
+        catch (ClassNotFoundException e)
+        {
+            // expected
+        }
+
+        ext.addURL(bye());
+        assertEquals("Bye", callHi(ext));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void illegalOverride()
     {
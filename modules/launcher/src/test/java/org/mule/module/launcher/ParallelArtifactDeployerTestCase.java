@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.launcher;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class ParallelArtifactDeployerTestCase extends AbstractMuleTestCase
+{
+
+    private static final long DEPLOYMENT_TIMEOUT = 5000;
+
+    private final ReentrantLock deploymentLock = new ReentrantLock();
+    private final ParallelArtifactDeployer deployer = new ParallelArtifactDeployer(deploymentLock, 2);
+
+    @Before
+    public void setUp()
+    {
+        deploymentLock.lock();
+    }
+
+    @After
+    public void tearDown()
+    {
+        deploymentLock.unlock();
+        deployer.dispose();
+    }
+
+    @Test
+    public void runsDeploymentsConcurrently() throws Exception
+    {
+        final CountDownLatch running = new CountDownLatch(2);
+        final AtomicBoolean concurrent = new AtomicBoolean(true);
+        Runnable deployment = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                running.countDown();
+                try
+                {
+                    if (!running.await(DEPLOYMENT_TIMEOUT, TimeUnit.MILLISECONDS))
+                    {
+                        concurrent.set(false);
+                    }
+                }
+                catch (InterruptedException e)
+                {
+                    concurrent.set(false);
+                }
+            }
+        };
+
+        deployer.deploy(Arrays.asList(deployment, deployment));
+
+        assertThat(concurrent.get(), is(true));
+    }
+
+    @Test
+    public void deploysOnBehalfOfLockOwner() throws Exception
+    {
+        final AtomicBoolean onBehalfOfLockOwner = new AtomicBoolean();
+        final AtomicBoolean onBehalfOfOtherLockOwner = new AtomicBoolean();
+
+        deployer.deploy(Arrays.<Runnable>asList(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                onBehalfOfLockOwner.set(ParallelArtifactDeployer.isDeployingOnBehalfOf(deploymentLock));
+                onBehalfOfOtherLockOwner.set(ParallelArtifactDeployer.isDeployingOnBehalfOf(new ReentrantLock()));
+            }
+        }));
+
+        assertThat(onBehalfOfLockOwner.get(), is(true));
+        assertThat(onBehalfOfOtherLockOwner.get(), is(false));
+        assertThat(ParallelArtifactDeployer.isDeployingOnBehalfOf(deploymentLock), is(false));
+    }
+
+    @Test
+    public void failedDeploymentDoesNotAffectOthers() throws Exception
+    {
+        final AtomicBoolean deployed = new AtomicBoolean();
+        Runnable failedDeployment = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                throw new IllegalStateException("Deployment failed");
+            }
+        };
+        Runnable deployment = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                deployed.set(true);
+            }
+        };
+
+        deployer.deploy(Arrays.asList(failedDeployment, deployment));
+
+        assertThat(deployed.get(), is(true));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failsToDeployWithoutHoldingLock() throws Exception
+    {
+        deploymentLock.unlock();
+        try
+        {
+            deployer.deploy(Arrays.<Runnable>asList(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                }
+            }));
+        }
+        finally
+        {
+            deploymentLock.lock();
+        }
+    }
+}
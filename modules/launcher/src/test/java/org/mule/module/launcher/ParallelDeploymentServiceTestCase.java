@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.launcher;
+
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import org.junit.Rule;
+
+/**
+ * Runs the deployment service scenarios deploying applications in parallel.
+ */
+public class ParallelDeploymentServiceTestCase extends DeploymentServiceTestCase
+{
+
+    @Rule
+    public SystemProperty parallelDeployment = new SystemProperty(DeploymentDirectoryWatcher.PARALLEL_DEPLOYMENT_PROPERTY, "4");
+}
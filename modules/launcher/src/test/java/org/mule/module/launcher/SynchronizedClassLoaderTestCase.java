@@ -8,6 +8,7 @@
 package org.mule.module.launcher;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.MediumTest;
 
@@ -21,6 +22,8 @@ import org.junit.Test;
 public class SynchronizedClassLoaderTestCase extends AbstractMuleTestCase
 {
 
+    private static final long PARALLEL_LOAD_TIMEOUT = 5000;
+
     private final CountDownLatch onExclusionZone = new CountDownLatch(2);
     private final CountDownLatch onTestComplete = new CountDownLatch(1);
 
@@ -36,13 +39,25 @@ public class SynchronizedClassLoaderTestCase extends AbstractMuleTestCase
         doLoadClassSynchronizationTest(new MuleApplicationClassLoader("test", new TestClassLoader(), null));
     }
 
+    @Test
+    public void loadsDifferentClassesInParallelInFineGrainedControlClassLoader() throws Exception
+    {
+        doParallelLoadClassTest(new FineGrainedControlClassLoader(new URL[] {}, new TestClassLoader()));
+    }
+
+    @Test
+    public void loadsDifferentClassesInParallelInMuleApplicationClassLoader() throws Exception
+    {
+        doParallelLoadClassTest(new MuleApplicationClassLoader("test", new TestClassLoader(), null));
+    }
+
     private void doLoadClassSynchronizationTest(ClassLoader classLoader) throws InterruptedException
     {
 
-        LoadClass loadClass1 = new LoadClass(classLoader);
+        LoadClass loadClass1 = new LoadClass(classLoader, "org.mule.Foo");
         Thread thread1 = new Thread(loadClass1);
 
-        LoadClass loadClass2 = new LoadClass(classLoader);
+        LoadClass loadClass2 = new LoadClass(classLoader, "org.mule.Foo");
         Thread thread2 = new Thread(loadClass2);
 
         try
@@ -60,22 +75,42 @@ public class SynchronizedClassLoaderTestCase extends AbstractMuleTestCase
         }
     }
 
+    private void doParallelLoadClassTest(ClassLoader classLoader) throws InterruptedException
+    {
+        Thread thread1 = new Thread(new LoadClass(classLoader, "org.mule.Foo"));
+        Thread thread2 = new Thread(new LoadClass(classLoader, "org.mule.Bar"));
+
+        try
+        {
+            thread1.start();
+            thread2.start();
+
+            assertTrue("Classes are not loaded in parallel", onExclusionZone.await(PARALLEL_LOAD_TIMEOUT, TimeUnit.MILLISECONDS));
+        }
+        finally
+        {
+            onTestComplete.countDown();
+        }
+    }
+
     private static class LoadClass implements Runnable
     {
 
         private final ClassLoader classLoader;
+        private final String className;
         private boolean error;
 
-        public LoadClass(ClassLoader classLoader)
+        public LoadClass(ClassLoader classLoader, String className)
         {
             this.classLoader = classLoader;
+            this.className = className;
         }
 
         public void run()
         {
             try
             {
-                classLoader.loadClass("org.mule.Foo");
+                classLoader.loadClass(className);
             }
             catch (Exception e)
             {
@@ -13,6 +13,9 @@ import org.mule.module.management.support.AutoDiscoveryJmxSupportFactory;
 import org.mule.module.management.support.JmxSupport;
 import org.mule.module.management.support.JmxSupportFactory;
 
+import java.util.Map;
+import java.util.Set;
+
 import javax.management.MBeanRegistration;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
@@ -121,6 +124,42 @@ public class FlowConstructService implements FlowConstructServiceMBean, MBeanReg
         return statistics.getTotalProcessingTime();
     }
 
+    public long getProcessingTime50thPercentile()
+    {
+        return statistics.getProcessingTimePercentile(50);
+    }
+
+    public long getProcessingTime99thPercentile()
+    {
+        return statistics.getProcessingTimePercentile(99);
+    }
+
+    public long getProcessingTime999thPercentile()
+    {
+        return statistics.getProcessingTimePercentile(99.9);
+    }
+
+    public String[] getMessageProcessorPaths()
+    {
+        Set<String> processorPaths = statistics.getMessageProcessorPaths();
+        return processorPaths.toArray(new String[processorPaths.size()]);
+    }
+
+    public long getMessageProcessorTimePercentile(String processorPath, double percentile)
+    {
+        return statistics.getMessageProcessorTimePercentile(processorPath, percentile);
+    }
+
+    public Map<String, Long> snapshotAndResetProcessingTimes()
+    {
+        return ProcessingTimeSnapshots.snapshotAndResetProcessingTimes(statistics);
+    }
+
+    public Map<String, Map<String, Long>> snapshotAndResetMessageProcessorTimes()
+    {
+        return ProcessingTimeSnapshots.snapshotAndResetMessageProcessorTimes(statistics);
+    }
+
     public long getExecutionErrors()
     {
         return statistics.getExecutionErrors();
@@ -10,6 +10,9 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.mule.management.stats.FlowConstructStatistics;
 
+import java.util.Map;
+import java.util.Set;
+
 import javax.management.MBeanRegistration;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
@@ -61,6 +64,42 @@ public class FlowConstructStats implements FlowConstructStatsMBean, MBeanRegistr
         return statistics.getTotalProcessingTime();
     }
 
+    public long getProcessingTime50thPercentile()
+    {
+        return statistics.getProcessingTimePercentile(50);
+    }
+
+    public long getProcessingTime99thPercentile()
+    {
+        return statistics.getProcessingTimePercentile(99);
+    }
+
+    public long getProcessingTime999thPercentile()
+    {
+        return statistics.getProcessingTimePercentile(99.9);
+    }
+
+    public String[] getMessageProcessorPaths()
+    {
+        Set<String> processorPaths = statistics.getMessageProcessorPaths();
+        return processorPaths.toArray(new String[processorPaths.size()]);
+    }
+
+    public long getMessageProcessorTimePercentile(String processorPath, double percentile)
+    {
+        return statistics.getMessageProcessorTimePercentile(processorPath, percentile);
+    }
+
+    public Map<String, Long> snapshotAndResetProcessingTimes()
+    {
+        return ProcessingTimeSnapshots.snapshotAndResetProcessingTimes(statistics);
+    }
+
+    public Map<String, Map<String, Long>> snapshotAndResetMessageProcessorTimes()
+    {
+        return ProcessingTimeSnapshots.snapshotAndResetMessageProcessorTimes(statistics);
+    }
+
     public void clearStatistics()
     {
         statistics.clear();
@@ -6,6 +6,7 @@
  */
 package org.mule.module.management.mbean;
 
+import java.util.Map;
 
 /**
  * <code>FlowConstructStatsMBean</code> defines the management interface for a mule
@@ -31,6 +32,52 @@ public interface FlowConstructStatsMBean
 
     long getTotalProcessingTime();
 
+    /**
+     * @return the processing time of the median event, or 0 if processing time histograms
+     *         are not enabled
+     */
+    long getProcessingTime50thPercentile();
+
+    /**
+     * @return the processing time below which 99% of the events fall, or 0 if processing
+     *         time histograms are not enabled
+     */
+    long getProcessingTime99thPercentile();
+
+    /**
+     * @return the processing time below which 99.9% of the events fall, or 0 if processing
+     *         time histograms are not enabled
+     */
+    long getProcessingTime999thPercentile();
+
+    /**
+     * @return the paths of the message processors whose processing time was recorded, empty if
+     *         processing time histograms are not enabled
+     */
+    String[] getMessageProcessorPaths();
+
+    /**
+     * @param percentile between 0 and 100, for example 99.9
+     * @return the processing time in microseconds below which the given percentage of the
+     *         executions of the message processor fall, or 0 if nothing was recorded for it
+     */
+    long getMessageProcessorTimePercentile(String processorPath, double percentile);
+
+    /**
+     * Takes the processing times of the flow recorded since the last reset and starts recording
+     * a new interval, without resetting the rest of the statistics.
+     *
+     * @return count, min, max, mean and percentiles of the processing times of the interval,
+     *         empty if processing time histograms are not enabled
+     */
+    Map<String, Long> snapshotAndResetProcessingTimes();
+
+    /**
+     * Same as {@link #snapshotAndResetProcessingTimes()} for every message processor, keyed by
+     * processor path, with the times in microseconds.
+     */
+    Map<String, Map<String, Long>> snapshotAndResetMessageProcessorTimes();
+
     long getFatalErrors();
 
     long getExecutionErrors();
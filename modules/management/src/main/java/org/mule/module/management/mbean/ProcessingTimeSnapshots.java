@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.management.mbean;
+
+import org.mule.management.stats.FlowConstructStatistics;
+import org.mule.management.stats.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Converts the processing time snapshots of the flow statistics to plain maps that any JMX
+ * client can display.
+ */
+final class ProcessingTimeSnapshots
+{
+
+    private ProcessingTimeSnapshots()
+    {
+    }
+
+    static Map<String, Long> snapshotAndResetProcessingTimes(FlowConstructStatistics statistics)
+    {
+        LatencyHistogram.Snapshot snapshot = statistics.snapshotAndResetProcessingTimes();
+        return snapshot == null ? Collections.<String, Long>emptyMap() : toMap(snapshot);
+    }
+
+    static Map<String, Map<String, Long>> snapshotAndResetMessageProcessorTimes(FlowConstructStatistics statistics)
+    {
+        Map<String, Map<String, Long>> processorTimes = new LinkedHashMap<String, Map<String, Long>>();
+        for (Map.Entry<String, LatencyHistogram.Snapshot> entry : statistics.snapshotAndResetMessageProcessorTimes().entrySet())
+        {
+            processorTimes.put(entry.getKey(), toMap(entry.getValue()));
+        }
+        return processorTimes;
+    }
+
+    private static Map<String, Long> toMap(LatencyHistogram.Snapshot snapshot)
+    {
+        Map<String, Long> values = new LinkedHashMap<String, Long>();
+        values.put("Count", snapshot.getCount());
+        values.put("Min", snapshot.getMin());
+        values.put("Max", snapshot.getMax());
+        values.put("Mean", snapshot.getMean());
+        values.put("50thPercentile", snapshot.getPercentile(50));
+        values.put("99thPercentile", snapshot.getPercentile(99));
+        values.put("999thPercentile", snapshot.getPercentile(99.9));
+        return values;
+    }
+}
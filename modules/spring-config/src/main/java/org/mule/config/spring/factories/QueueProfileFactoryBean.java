@@ -19,6 +19,7 @@ import org.springframework.beans.factory.config.AbstractFactoryBean;
 public class QueueProfileFactoryBean extends AbstractFactoryBean<QueueProfile> implements MuleContextAware
 {
     private int maxOutstandingMessages;
+    private Boolean mappedFileStore;
     private MuleContext muleContext;
     private QueueStore<Serializable> queueStore;
 
@@ -37,7 +38,12 @@ public class QueueProfileFactoryBean extends AbstractFactoryBean<QueueProfile> i
             objectStore = muleContext.getRegistry().lookupObject(MuleProperties.QUEUE_STORE_DEFAULT_IN_MEMORY_NAME);
         }
 
-        return new QueueProfile(getMaxOutstandingMessages(), objectStore);
+        QueueProfile queueProfile = new QueueProfile(getMaxOutstandingMessages(), objectStore);
+        if (mappedFileStore != null)
+        {
+            queueProfile.setMappedFileStore(mappedFileStore);
+        }
+        return queueProfile;
     }
 
     @Override
@@ -56,6 +62,16 @@ public class QueueProfileFactoryBean extends AbstractFactoryBean<QueueProfile> i
         this.maxOutstandingMessages = maxOutstandingMessages;
     }
 
+    public Boolean getMappedFileStore()
+    {
+        return mappedFileStore;
+    }
+
+    public void setMappedFileStore(Boolean mappedFileStore)
+    {
+        this.mappedFileStore = mappedFileStore;
+    }
+
     public void setQueueStore(QueueStore<Serializable> queueStore)
     {
         this.queueStore = queueStore;
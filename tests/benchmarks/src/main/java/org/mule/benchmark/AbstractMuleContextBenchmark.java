@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.DefaultMuleEvent;
+import org.mule.DefaultMuleMessage;
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleContext;
+import org.mule.construct.Flow;
+import org.mule.context.DefaultMuleContextFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base class for the benchmarks that need a started {@link MuleContext}. The context is created
+ * once per trial, so its creation is never measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public abstract class AbstractMuleContextBenchmark
+{
+
+    protected static final String PAYLOAD = "Tom,Fennelly,Male,4,Ireland";
+
+    protected MuleContext muleContext;
+    protected Flow flow;
+
+    @Setup(Level.Trial)
+    public void setUpMuleContext() throws Exception
+    {
+        muleContext = new DefaultMuleContextFactory().createMuleContext();
+        muleContext.start();
+        flow = new Flow("benchmark", muleContext);
+        doSetUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void disposeMuleContext() throws Exception
+    {
+        try
+        {
+            doTearDown();
+        }
+        finally
+        {
+            muleContext.dispose();
+        }
+    }
+
+    protected void doSetUp() throws Exception
+    {
+        // template method
+    }
+
+    protected void doTearDown() throws Exception
+    {
+        // template method
+    }
+
+    protected DefaultMuleEvent createEvent(MessageExchangePattern exchangePattern)
+    {
+        return new DefaultMuleEvent(new DefaultMuleMessage(PAYLOAD, muleContext), exchangePattern, flow);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleEvent;
+import org.mule.el.mvel.MVELExpressionLanguage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Evaluation of cached MEL expressions through {@link MVELExpressionLanguage}.
+ */
+public class ExpressionLanguageBenchmark extends AbstractMuleContextBenchmark
+{
+
+    private static final String SCRIPT = "StringBuilder sb = new StringBuilder(); fields = payload.split(',\');"
+                                         + "if (fields.length > 4) {"
+                                         + "    sb.append('<Contact>');"
+                                         + "    sb.append('<FirstName>').append(fields[0]).append('</FirstName>');"
+                                         + "    sb.append('<LastName>').append(fields[1]).append('</LastName>');"
+                                         + "    sb.append('</Contact>');"
+                                         + "}"
+                                         + "sb.toString();";
+
+    private MVELExpressionLanguage expressionLanguage;
+    private MuleEvent event;
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        expressionLanguage = (MVELExpressionLanguage) muleContext.getExpressionLanguage();
+        event = createEvent(MessageExchangePattern.REQUEST_RESPONSE);
+        event.getMessage().setOutboundProperty("key", "value");
+        event.setFlowVariable("count", 10);
+    }
+
+    @Benchmark
+    public Object payload()
+    {
+        return expressionLanguage.evaluate("payload", event);
+    }
+
+    @Benchmark
+    public Object outboundProperty()
+    {
+        return expressionLanguage.evaluate("message.outboundProperties['key']", event);
+    }
+
+    @Benchmark
+    public Object flowVariableArithmetic()
+    {
+        return expressionLanguage.evaluate("flowVars.count * 2 + 1", event);
+    }
+
+    @Benchmark
+    public Object script()
+    {
+        return expressionLanguage.evaluate(SCRIPT, event);
+    }
+}
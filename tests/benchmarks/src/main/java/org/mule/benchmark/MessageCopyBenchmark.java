@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.DefaultMuleEvent;
+import org.mule.DefaultMuleMessage;
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleMessage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Copies of {@link DefaultMuleMessage} and {@link DefaultMuleEvent}, done every time an event
+ * crosses a thread boundary or a router.
+ */
+public class MessageCopyBenchmark extends AbstractMuleContextBenchmark
+{
+
+    @Param({"0", "20", "100"})
+    public int properties;
+
+    private DefaultMuleMessage message;
+    private DefaultMuleEvent event;
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        event = createEvent(MessageExchangePattern.REQUEST_RESPONSE);
+        message = (DefaultMuleMessage) event.getMessage();
+        for (int i = 0; i < properties; i++)
+        {
+            message.setOutboundProperty("outboundProperty" + i, "value");
+            event.setFlowVariable("flowVariable" + i, "value");
+        }
+    }
+
+    @Benchmark
+    public MuleMessage copyMessage()
+    {
+        return new DefaultMuleMessage(message);
+    }
+
+    @Benchmark
+    public MuleEvent copyEvent()
+    {
+        return DefaultMuleEvent.copy(event);
+    }
+
+    @Benchmark
+    public Object threadCopyEvent()
+    {
+        return event.newThreadCopy();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleException;
+import org.mule.api.processor.MessageProcessor;
+import org.mule.construct.Flow;
+import org.mule.processor.chain.DefaultMessageProcessorChain;
+import org.mule.processor.strategy.QueuedAsynchronousProcessingStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Execution of a chain of message processors, both synchronously through a
+ * {@link DefaultMessageProcessorChain} and through a flow with a queued asynchronous (SEDA)
+ * processing strategy, where every operation includes handing the event to another thread.
+ */
+public class MessageProcessorChainBenchmark extends AbstractMuleContextBenchmark
+{
+
+    @Param({"1", "10"})
+    public int processors;
+
+    private MessageProcessor chain;
+    private Flow sedaFlow;
+    private final Semaphore processed = new Semaphore(0);
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        chain = DefaultMessageProcessorChain.from(createProcessors());
+
+        sedaFlow = new Flow("sedaBenchmark", muleContext);
+        sedaFlow.setProcessingStrategy(new QueuedAsynchronousProcessingStrategy());
+        List<MessageProcessor> sedaProcessors = createProcessors();
+        sedaProcessors.add(new MessageProcessor()
+        {
+            @Override
+            public MuleEvent process(MuleEvent event) throws MuleException
+            {
+                processed.release();
+                return event;
+            }
+        });
+        sedaFlow.setMessageProcessors(sedaProcessors);
+        muleContext.getRegistry().registerFlowConstruct(sedaFlow);
+    }
+
+    private List<MessageProcessor> createProcessors()
+    {
+        List<MessageProcessor> chainProcessors = new ArrayList<MessageProcessor>();
+        for (int i = 0; i < processors; i++)
+        {
+            chainProcessors.add(new MessageProcessor()
+            {
+                @Override
+                public MuleEvent process(MuleEvent event) throws MuleException
+                {
+                    event.getMessage().setOutboundProperty("processed", Boolean.TRUE);
+                    return event;
+                }
+            });
+        }
+        return chainProcessors;
+    }
+
+    @Benchmark
+    public MuleEvent synchronousChain() throws MuleException
+    {
+        return chain.process(createEvent(MessageExchangePattern.REQUEST_RESPONSE));
+    }
+
+    @Benchmark
+    public void sedaFlow() throws Exception
+    {
+        sedaFlow.process(createEvent(MessageExchangePattern.ONE_WAY));
+        processed.acquire();
+    }
+}
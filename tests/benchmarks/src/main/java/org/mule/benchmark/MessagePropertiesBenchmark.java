@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.MessagePropertiesContext;
+import org.mule.api.transport.PropertyScope;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Property lookups in a {@link MessagePropertiesContext}, which are case insensitive and go
+ * through every scope when no scope is given.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MessagePropertiesBenchmark
+{
+
+    @Param({"5", "50"})
+    public int properties;
+
+    private MessagePropertiesContext propertiesContext;
+
+    @Setup
+    public void setUp()
+    {
+        propertiesContext = new MessagePropertiesContext();
+        for (int i = 0; i < properties; i++)
+        {
+            propertiesContext.setProperty("outboundProperty" + i, "value", PropertyScope.OUTBOUND);
+            propertiesContext.setProperty("invocationProperty" + i, "value", PropertyScope.INVOCATION);
+        }
+    }
+
+    @Benchmark
+    public Object scopedLookup()
+    {
+        return propertiesContext.getProperty("outboundProperty0", PropertyScope.OUTBOUND);
+    }
+
+    @Benchmark
+    public Object caseInsensitiveLookup()
+    {
+        return propertiesContext.getProperty("OUTBOUNDPROPERTY0", PropertyScope.OUTBOUND);
+    }
+
+    @Benchmark
+    public Object missingLookup()
+    {
+        return propertiesContext.getProperty("missingProperty", PropertyScope.OUTBOUND);
+    }
+
+    @Benchmark
+    public Object unscopedLookup()
+    {
+        return propertiesContext.getProperty("invocationProperty0");
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.api.store.ObjectStore;
+import org.mule.api.store.ObjectStoreException;
+
+import java.io.Serializable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Operations on the object stores handed out by the object store manager, used by idempotent
+ * filters, aggregators and the until successful router among others.
+ */
+public class ObjectStoreBenchmark extends AbstractMuleContextBenchmark
+{
+
+    private static final int KEYS = 1000;
+
+    @Param({"false", "true"})
+    public boolean persistent;
+
+    private ObjectStore<Serializable> objectStore;
+    private int nextKey = 0;
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        objectStore = muleContext.getObjectStoreManager().getObjectStore("benchmark", persistent);
+        for (int i = 0; i < KEYS; i++)
+        {
+            objectStore.store(key(i), PAYLOAD);
+        }
+    }
+
+    @Override
+    protected void doTearDown() throws Exception
+    {
+        objectStore.clear();
+    }
+
+    private String key(int i)
+    {
+        return "key" + i;
+    }
+
+    @Benchmark
+    public Serializable retrieve() throws ObjectStoreException
+    {
+        nextKey = (nextKey + 1) % KEYS;
+        return objectStore.retrieve(key(nextKey));
+    }
+
+    @Benchmark
+    public boolean contains() throws ObjectStoreException
+    {
+        nextKey = (nextKey + 1) % KEYS;
+        return objectStore.contains(key(nextKey));
+    }
+
+    @Benchmark
+    public Serializable storeAndRemove() throws ObjectStoreException
+    {
+        String key = "transient" + nextKey++;
+        objectStore.store(key, PAYLOAD);
+        return objectStore.remove(key);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.util.queue.DefaultQueueConfiguration;
+import org.mule.util.queue.Queue;
+import org.mule.util.queue.QueueManager;
+import org.mule.util.queue.TransactionalQueueManager;
+
+import java.io.Serializable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Put and take of a message through the {@link TransactionalQueueManager} queues, as done
+ * by the VM transport and the SEDA processing strategies.
+ */
+public class QueueBenchmark extends AbstractMuleContextBenchmark
+{
+
+    @Param({"false", "true"})
+    public boolean persistent;
+
+    private Queue queue;
+    private final Serializable message = PAYLOAD;
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        QueueManager queueManager = muleContext.getQueueManager();
+        String queueName = persistent ? "persistentBenchmarkQueue" : "transientBenchmarkQueue";
+        queueManager.setQueueConfiguration(queueName, new DefaultQueueConfiguration(0, persistent));
+        queue = queueManager.getQueueSession().getQueue(queueName);
+    }
+
+    @Override
+    protected void doTearDown() throws Exception
+    {
+        queue.clear();
+    }
+
+    @Benchmark
+    public Serializable putAndTake() throws Exception
+    {
+        queue.put(message);
+        return queue.take();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.util.FileUtils;
+import org.mule.util.journal.TransactionJournal;
+import org.mule.util.journal.queue.LocalTxQueueTransactionJournal;
+import org.mule.util.queue.DefaultQueueConfiguration;
+import org.mule.util.queue.DefaultQueueStore;
+import org.mule.util.queue.QueueStore;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Commit throughput of a queue transaction journal writing every entry as soon as it is
+ * logged against group commit with the different
+ * {@link org.mule.util.journal.JournalDurability} levels, with 1, 8 and 64 concurrent
+ * transactions. Every operation is one transaction with a single add operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransactionJournalBenchmark extends AbstractMuleContextBenchmark
+{
+
+    private static final String DIRECT_WRITE = "DIRECT";
+
+    @Param({DIRECT_WRITE, "FLUSH", "FSYNC"})
+    public String durability;
+
+    private final AtomicInteger txIdGenerator = new AtomicInteger();
+    private File journalDirectory;
+    private QueueStore queue;
+    private LocalTxQueueTransactionJournal journal;
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        journalDirectory = File.createTempFile("transaction-journal-benchmark", "");
+        journalDirectory.delete();
+        queue = new DefaultQueueStore("benchmarkQueue", muleContext, new DefaultQueueConfiguration());
+
+        if (!DIRECT_WRITE.equals(durability))
+        {
+            System.setProperty(TransactionJournal.DURABILITY_PROPERTY_KEY, durability);
+        }
+        try
+        {
+            journal = new LocalTxQueueTransactionJournal(journalDirectory.getAbsolutePath(), muleContext);
+        }
+        finally
+        {
+            System.clearProperty(TransactionJournal.DURABILITY_PROPERTY_KEY);
+        }
+    }
+
+    @Override
+    protected void doTearDown() throws Exception
+    {
+        journal.close();
+        FileUtils.deleteTree(journalDirectory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int commit1Thread()
+    {
+        return commitTransaction();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int commit8Threads()
+    {
+        return commitTransaction();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public int commit64Threads()
+    {
+        return commitTransaction();
+    }
+
+    private int commitTransaction()
+    {
+        int txId = txIdGenerator.incrementAndGet();
+        journal.logAdd(txId, queue, PAYLOAD);
+        journal.logCommit(txId);
+        return txId;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.api.registry.MuleRegistry;
+import org.mule.api.transformer.DataType;
+import org.mule.api.transformer.TransformerException;
+import org.mule.registry.MuleRegistryHelper;
+import org.mule.transformer.types.DataTypeFactory;
+
+import java.io.InputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Transformer resolution through {@link MuleRegistryHelper}, done by every implicit
+ * transformation like {@code message.getPayload(DataType)}.
+ */
+public class TransformerResolutionBenchmark extends AbstractMuleContextBenchmark
+{
+
+    private static final DataType<String> STRING = DataTypeFactory.create(String.class);
+    private static final DataType<byte[]> BYTE_ARRAY = DataTypeFactory.create(byte[].class);
+    private static final DataType<InputStream> INPUT_STREAM = DataTypeFactory.create(InputStream.class);
+
+    private MuleRegistry registry;
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        registry = muleContext.getRegistry();
+    }
+
+    @Benchmark
+    public Object stringToByteArray() throws TransformerException
+    {
+        return registry.lookupTransformer(STRING, BYTE_ARRAY);
+    }
+
+    @Benchmark
+    public Object inputStreamToString() throws TransformerException
+    {
+        return registry.lookupTransformer(INPUT_STREAM, STRING);
+    }
+
+    @Benchmark
+    public Object allStringToByteArray()
+    {
+        return registry.lookupTransformers(STRING, BYTE_ARRAY);
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.module.launcher.FineGrainedControlClassLoader;
+import org.mule.util.FileUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Startup of an application with many jars: every operation creates a class loader for the
+ * jars and loads all of their classes, as well as looking up classes that are not there the way
+ * frameworks do when probing for optional classes, like bean info classes.
+ * <p/>
+ * Classes are loaded by a number of threads, each one loading the classes of a different jar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ApplicationClassLoaderBenchmark
+{
+
+    private static final int CLASSES_PER_JAR = 20;
+    private static final String[] MISSING_CLASS_SUFFIXES = {"BeanInfo", "Customizer", "Editor"};
+
+    @Param({"10", "100", "500"})
+    public int jars;
+
+    @Param({"1", "4"})
+    public int loadingThreads;
+
+    private File libDirectory;
+    private URL[] classPath;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        libDirectory = File.createTempFile("application-class-loader-benchmark", "");
+        libDirectory.delete();
+        libDirectory.mkdirs();
+
+        classPath = new URL[jars];
+        for (int i = 0; i < jars; i++)
+        {
+            File jar = new File(libDirectory, "library-" + i + ".jar");
+            createJar(jar, getPackageName(i));
+            classPath[i] = jar.toURI().toURL();
+        }
+
+        executor = Executors.newFixedThreadPool(loadingThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        try
+        {
+            executor.shutdownNow();
+        }
+        finally
+        {
+            FileUtils.deleteTree(libDirectory);
+        }
+    }
+
+    @Benchmark
+    public int startApplication() throws Exception
+    {
+        final FineGrainedControlClassLoader classLoader = new FineGrainedControlClassLoader(classPath, getClass().getClassLoader());
+        try
+        {
+            List<Future<Integer>> loadedClasses = new ArrayList<Future<Integer>>(jars);
+            for (int i = 0; i < jars; i++)
+            {
+                final String packageName = getPackageName(i);
+                loadedClasses.add(executor.submit(new Callable<Integer>()
+                {
+                    @Override
+                    public Integer call() throws Exception
+                    {
+                        return loadClasses(classLoader, packageName);
+                    }
+                }));
+            }
+
+            int total = 0;
+            for (Future<Integer> loaded : loadedClasses)
+            {
+                total += loaded.get();
+            }
+            return total;
+        }
+        finally
+        {
+            classLoader.dispose();
+        }
+    }
+
+    private int loadClasses(ClassLoader classLoader, String packageName) throws ClassNotFoundException
+    {
+        int loaded = 0;
+        for (int i = 0; i < CLASSES_PER_JAR; i++)
+        {
+            String className = getClassName(packageName, i);
+            classLoader.loadClass(className);
+            loaded++;
+
+            for (String suffix : MISSING_CLASS_SUFFIXES)
+            {
+                try
+                {
+                    classLoader.loadClass(className + suffix);
+                }
+                catch (ClassNotFoundException e)
+                {
+                    // Expected, as frameworks do when probing for optional classes
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private void createJar(File jar, String packageName) throws IOException
+    {
+        JarOutputStream jarStream = new JarOutputStream(new FileOutputStream(jar));
+        try
+        {
+            for (int i = 0; i < CLASSES_PER_JAR; i++)
+            {
+                String internalName = getClassName(packageName, i).replace('.', '/');
+                jarStream.putNextEntry(new JarEntry(internalName + ".class"));
+                jarStream.write(createClass(internalName));
+                jarStream.closeEntry();
+            }
+        }
+        finally
+        {
+            jarStream.close();
+        }
+    }
+
+    /**
+     * Creates the bytecode of an empty public class, which is enough to be loaded.
+     */
+    private byte[] createClass(String internalName) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(50);
+
+        // Constant pool with this and super class names
+        out.writeShort(5);
+        out.writeByte(1);
+        out.writeUTF(internalName);
+        out.writeByte(7);
+        out.writeShort(1);
+        out.writeByte(1);
+        out.writeUTF("java/lang/Object");
+        out.writeByte(7);
+        out.writeShort(3);
+
+        // Public class, this and super class, no interfaces, fields, methods or attributes
+        out.writeShort(0x0021);
+        out.writeShort(2);
+        out.writeShort(4);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(0);
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private String getPackageName(int jar)
+    {
+        return "org.benchmark.library" + jar;
+    }
+
+    private String getClassName(String packageName, int index)
+    {
+        return packageName + ".Class" + index;
+    }
+}
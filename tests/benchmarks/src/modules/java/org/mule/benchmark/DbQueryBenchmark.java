@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.DefaultMuleEvent;
+import org.mule.DefaultMuleMessage;
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleEvent;
+import org.mule.module.db.internal.config.domain.database.DerbyConfigFactoryBean;
+import org.mule.module.db.internal.domain.connection.DbConnection;
+import org.mule.module.db.internal.domain.connection.DbPoolingProfile;
+import org.mule.module.db.internal.domain.database.DbConfig;
+import org.mule.module.db.internal.domain.executor.QueryExecutor;
+import org.mule.module.db.internal.domain.executor.SelectExecutor;
+import org.mule.module.db.internal.domain.executor.UpdateExecutor;
+import org.mule.module.db.internal.domain.query.Query;
+import org.mule.module.db.internal.domain.statement.QueryStatementFactory;
+import org.mule.module.db.internal.domain.transaction.TransactionalAction;
+import org.mule.module.db.internal.domain.type.DbType;
+import org.mule.module.db.internal.parser.SimpleQueryTemplateParser;
+import org.mule.module.db.internal.resolver.param.DynamicParamValueResolver;
+import org.mule.module.db.internal.resolver.query.ParametrizedQueryResolver;
+import org.mule.module.db.internal.resolver.query.QueryResolver;
+import org.mule.module.db.internal.result.resultset.ListResultSetHandler;
+import org.mule.module.db.internal.result.row.InsensitiveMapRowHandler;
+
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Throughput of parameterized queries against an embedded in memory Derby database, whose
+ * parameter types are resolved from the database metadata, with and without the parameter
+ * type cache and the per connection statement cache of the database configuration.
+ * <p/>
+ * Connections are pooled without statement caching in the pool, so every prepared statement
+ * reaches the database.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class DbQueryBenchmark extends AbstractMuleContextBenchmark
+{
+
+    private static final int ROWS = 100;
+
+    @Param({"true", "false"})
+    public boolean cacheQueryParameterTypes;
+
+    @Param({"0", "10"})
+    public int statementCacheSize;
+
+    private DerbyConfigFactoryBean dbConfigFactoryBean;
+    private DbConfig dbConfig;
+    private QueryResolver selectResolver;
+    private QueryResolver updateResolver;
+    private QueryExecutor selectExecutor;
+    private QueryExecutor updateExecutor;
+    private MuleEvent event;
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        DbPoolingProfile poolingProfile = new DbPoolingProfile();
+        poolingProfile.setMaxPoolSize(8);
+        poolingProfile.setPreparedStatementCacheSize(0);
+
+        dbConfigFactoryBean = new DerbyConfigFactoryBean();
+        dbConfigFactoryBean.setName("benchmarkDbConfig");
+        dbConfigFactoryBean.setUrl("jdbc:derby:memory:benchmarkDb;create=true");
+        dbConfigFactoryBean.setCustomDataTypes(Collections.<DbType>emptyList());
+        dbConfigFactoryBean.setPoolingProfile(poolingProfile);
+        dbConfigFactoryBean.setCacheQueryParameterTypes(cacheQueryParameterTypes);
+        dbConfigFactoryBean.setStatementCacheSize(statementCacheSize);
+        dbConfigFactoryBean.setMuleContext(muleContext);
+        dbConfigFactoryBean.afterPropertiesSet();
+        dbConfigFactoryBean.initialise();
+        dbConfig = dbConfigFactoryBean.getObject();
+
+        executeDdl("CREATE TABLE PLANET(ID INTEGER NOT NULL PRIMARY KEY, NAME VARCHAR(128), POSITION INTEGER)");
+        for (int i = 0; i < ROWS; i++)
+        {
+            executeDdl("INSERT INTO PLANET VALUES(" + i + ", 'Planet " + i + "', " + i + ")");
+        }
+
+        SimpleQueryTemplateParser parser = new SimpleQueryTemplateParser();
+        DynamicParamValueResolver paramValueResolver = new DynamicParamValueResolver(muleContext.getExpressionManager());
+        selectResolver = new ParametrizedQueryResolver(new Query(parser.parse("SELECT * FROM PLANET WHERE POSITION = #[payload]")), paramValueResolver);
+        updateResolver = new ParametrizedQueryResolver(new Query(parser.parse("UPDATE PLANET SET NAME = NAME WHERE POSITION = #[payload]")), paramValueResolver);
+        selectExecutor = new SelectExecutor(new QueryStatementFactory(), new ListResultSetHandler(new InsensitiveMapRowHandler()));
+        updateExecutor = new UpdateExecutor(new QueryStatementFactory());
+
+        event = new DefaultMuleEvent(new DefaultMuleMessage(ROWS / 2, muleContext), MessageExchangePattern.REQUEST_RESPONSE, flow);
+    }
+
+    @Override
+    protected void doTearDown() throws Exception
+    {
+        try
+        {
+            executeDdl("DROP TABLE PLANET");
+        }
+        finally
+        {
+            dbConfigFactoryBean.dispose();
+        }
+    }
+
+    @Benchmark
+    public Object select() throws Exception
+    {
+        return execute(selectResolver, selectExecutor);
+    }
+
+    @Benchmark
+    public Object update() throws Exception
+    {
+        return execute(updateResolver, updateExecutor);
+    }
+
+    private Object execute(QueryResolver queryResolver, QueryExecutor queryExecutor) throws Exception
+    {
+        DbConnection connection = dbConfig.getConnectionFactory().createConnection(TransactionalAction.NOT_SUPPORTED);
+        try
+        {
+            return queryExecutor.execute(connection, queryResolver.resolve(connection, event));
+        }
+        finally
+        {
+            connection.release();
+        }
+    }
+
+    private void executeDdl(String sql) throws Exception
+    {
+        DbConnection connection = dbConfig.getConnectionFactory().createConnection(TransactionalAction.NOT_SUPPORTED);
+        try
+        {
+            Statement statement = connection.createStatement();
+            try
+            {
+                statement.execute(sql);
+            }
+            finally
+            {
+                statement.close();
+            }
+        }
+        finally
+        {
+            connection.release();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.module.db.internal.config.domain.database.DerbyConfigFactoryBean;
+import org.mule.module.db.internal.domain.connection.DbConnection;
+import org.mule.module.db.internal.domain.database.DbConfig;
+import org.mule.module.db.internal.domain.executor.SelectExecutor;
+import org.mule.module.db.internal.domain.query.Query;
+import org.mule.module.db.internal.domain.statement.QueryStatementFactory;
+import org.mule.module.db.internal.domain.transaction.TransactionalAction;
+import org.mule.module.db.internal.domain.type.DbType;
+import org.mule.module.db.internal.parser.SimpleQueryTemplateParser;
+import org.mule.module.db.internal.result.resultset.IteratorResultSetHandler;
+import org.mule.module.db.internal.result.resultset.ListResultSetHandler;
+import org.mule.module.db.internal.result.row.ColumnarRowHandlerFactory;
+import org.mule.module.db.internal.result.row.InsensitiveMapRowHandler;
+import org.mule.module.db.internal.result.row.RowHandlerFactory;
+import org.mule.module.db.internal.result.row.SharedRowHandlerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Throughput of reading every row of a result set from an embedded in memory Derby database, as a
+ * list and as an iterator, using case insensitive map rows or compact columnar rows.
+ * <p/>
+ * Run with the GC profiler (<code>-prof gc</code>) to compare the memory allocated per
+ * operation by each row format.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DbResultSetHandlerBenchmark extends AbstractMuleContextBenchmark
+{
+
+    private static final String MAP_ROWS = "map";
+    private static final String COLUMNAR_ROWS = "columnar";
+
+    @Param({MAP_ROWS, COLUMNAR_ROWS})
+    public String rowFormat;
+
+    @Param({"1000"})
+    public int rows;
+
+    private DerbyConfigFactoryBean dbConfigFactoryBean;
+    private DbConfig dbConfig;
+    private Query query;
+    private SelectExecutor listExecutor;
+    private SelectExecutor iteratorExecutor;
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        dbConfigFactoryBean = new DerbyConfigFactoryBean();
+        dbConfigFactoryBean.setName("benchmarkDbConfig");
+        dbConfigFactoryBean.setUrl("jdbc:derby:memory:resultSetBenchmarkDb;create=true");
+        dbConfigFactoryBean.setCustomDataTypes(Collections.<DbType>emptyList());
+        dbConfigFactoryBean.setMuleContext(muleContext);
+        dbConfigFactoryBean.afterPropertiesSet();
+        dbConfigFactoryBean.initialise();
+        dbConfig = dbConfigFactoryBean.getObject();
+
+        executeDdl("CREATE TABLE PLANET(ID INTEGER NOT NULL PRIMARY KEY, NAME VARCHAR(128), POSITION INTEGER, DESCRIPTION VARCHAR(256))");
+        insertRows();
+
+        RowHandlerFactory rowHandlerFactory;
+        if (COLUMNAR_ROWS.equals(rowFormat))
+        {
+            rowHandlerFactory = new ColumnarRowHandlerFactory();
+        }
+        else
+        {
+            rowHandlerFactory = new SharedRowHandlerFactory(new InsensitiveMapRowHandler());
+        }
+
+        query = new Query(new SimpleQueryTemplateParser().parse("SELECT * FROM PLANET"));
+        listExecutor = new SelectExecutor(new QueryStatementFactory(), new ListResultSetHandler(rowHandlerFactory));
+        iteratorExecutor = new SelectExecutor(new QueryStatementFactory(), new IteratorResultSetHandler(rowHandlerFactory));
+    }
+
+    @Override
+    protected void doTearDown() throws Exception
+    {
+        try
+        {
+            executeDdl("DROP TABLE PLANET");
+        }
+        finally
+        {
+            dbConfigFactoryBean.dispose();
+        }
+    }
+
+    @Benchmark
+    public int list() throws Exception
+    {
+        DbConnection connection = dbConfig.getConnectionFactory().createConnection(TransactionalAction.NOT_SUPPORTED);
+        try
+        {
+            List<Map<String, Object>> result = (List<Map<String, Object>>) listExecutor.execute(connection, query);
+
+            return readRows(result.iterator());
+        }
+        finally
+        {
+            connection.release();
+        }
+    }
+
+    @Benchmark
+    public int iterator() throws Exception
+    {
+        DbConnection connection = dbConfig.getConnectionFactory().createConnection(TransactionalAction.NOT_SUPPORTED);
+        Iterator<Map<String, Object>> result;
+        try
+        {
+            result = (Iterator<Map<String, Object>>) iteratorExecutor.execute(connection, query);
+        }
+        catch (Exception e)
+        {
+            connection.release();
+            throw e;
+        }
+
+        // The connection is released once the iterator is consumed
+        return readRows(result);
+    }
+
+    private int readRows(Iterator<Map<String, Object>> result)
+    {
+        int length = 0;
+
+        while (result.hasNext())
+        {
+            length += ((String) result.next().get("name")).length();
+        }
+
+        return length;
+    }
+
+    private void insertRows() throws Exception
+    {
+        DbConnection connection = dbConfig.getConnectionFactory().createConnection(TransactionalAction.NOT_SUPPORTED);
+        try
+        {
+            PreparedStatement statement = connection.prepareStatement("INSERT INTO PLANET VALUES(?, ?, ?, ?)");
+            try
+            {
+                for (int i = 0; i < rows; i++)
+                {
+                    statement.setInt(1, i);
+                    statement.setString(2, "Planet " + i);
+                    statement.setInt(3, i);
+                    statement.setString(4, "Description of planet " + i);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            finally
+            {
+                statement.close();
+            }
+        }
+        finally
+        {
+            connection.release();
+        }
+    }
+
+    private void executeDdl(String sql) throws Exception
+    {
+        DbConnection connection = dbConfig.getConnectionFactory().createConnection(TransactionalAction.NOT_SUPPORTED);
+        try
+        {
+            Statement statement = connection.createStatement();
+            try
+            {
+                statement.execute(sql);
+            }
+            finally
+            {
+                statement.close();
+            }
+        }
+        finally
+        {
+            connection.release();
+        }
+    }
+}
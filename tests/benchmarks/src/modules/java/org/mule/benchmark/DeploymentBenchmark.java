@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import static org.mule.module.launcher.DeploymentDirectoryWatcher.PARALLEL_DEPLOYMENT_PROPERTY;
+import org.mule.api.config.MuleProperties;
+import org.mule.module.launcher.MuleDeploymentService;
+import org.mule.module.launcher.MulePluginClassLoaderManager;
+import org.mule.util.FileUtils;
+import org.mule.util.IOUtils;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Startup of a container with a number of exploded applications, deploying them one after the
+ * other or in parallel. Every operation starts a new deployment service, which returns once all
+ * the applications are deployed, and stops it afterwards outside of the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DeploymentBenchmark
+{
+
+    private static final String APP_CONFIG_FILE = "deployment-benchmark-app-config.xml";
+
+    @Param({"10", "30"})
+    public int apps;
+
+    @Param({"0", "4"})
+    public int parallelDeployment;
+
+    private File muleHome;
+    private MuleDeploymentService deploymentService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        muleHome = File.createTempFile("deployment-benchmark", "");
+        muleHome.delete();
+        new File(muleHome, "domains").mkdirs();
+        new File(muleHome, "lib/shared/default").mkdirs();
+
+        String appConfig = IOUtils.getResourceAsString(APP_CONFIG_FILE, getClass());
+        for (int i = 0; i < apps; i++)
+        {
+            File appDir = new File(muleHome, "apps/app-" + i);
+            appDir.mkdirs();
+            FileUtils.writeStringToFile(new File(appDir, "mule-config.xml"), appConfig);
+        }
+
+        System.setProperty(MuleProperties.MULE_HOME_DIRECTORY_PROPERTY, muleHome.getCanonicalPath());
+        System.setProperty(PARALLEL_DEPLOYMENT_PROPERTY, String.valueOf(parallelDeployment));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        System.clearProperty(PARALLEL_DEPLOYMENT_PROPERTY);
+        System.clearProperty(MuleProperties.MULE_HOME_DIRECTORY_PROPERTY);
+        FileUtils.deleteTree(muleHome);
+    }
+
+    @Setup(Level.Invocation)
+    public void createDeploymentService()
+    {
+        deploymentService = new MuleDeploymentService(new MulePluginClassLoaderManager());
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopDeploymentService()
+    {
+        deploymentService.stop();
+    }
+
+    @Benchmark
+    public int startContainer()
+    {
+        deploymentService.start();
+        return deploymentService.getApplications().size();
+    }
+}
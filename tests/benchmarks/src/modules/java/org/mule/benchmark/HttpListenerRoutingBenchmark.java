@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.module.http.internal.domain.request.HttpRequest;
+import org.mule.module.http.internal.domain.request.HttpRequestBuilder;
+import org.mule.module.http.internal.domain.request.HttpRequestContext;
+import org.mule.module.http.internal.listener.HttpListenerRegistry;
+import org.mule.module.http.internal.listener.RequestHandlerManager;
+import org.mule.module.http.internal.listener.Server;
+import org.mule.module.http.internal.listener.ServerAddress;
+import org.mule.module.http.internal.listener.async.HttpResponseReadyCallback;
+import org.mule.module.http.internal.listener.async.RequestHandler;
+import org.mule.module.http.internal.listener.matcher.AcceptsAllMethodsRequestMatcher;
+import org.mule.module.http.internal.listener.matcher.ListenerRequestMatcher;
+import org.mule.module.http.internal.listener.matcher.MethodRequestMatcher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Routing of requests by the {@link HttpListenerRegistry} of a server with 1000 listeners,
+ * laid out like the ones of a generated REST API: 250 resources with a GET and POST listener
+ * for the collection and a GET and PUT listener for the items, identified by a URI parameter.
+ * A catch all listener gets the requests with methods not accepted by the listener of their path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class HttpListenerRoutingBenchmark
+{
+
+    private static final String IP = "127.0.0.1";
+    private static final int PORT = 8081;
+    private static final int RESOURCES = 250;
+
+    private HttpListenerRegistry registry;
+    private HttpRequest collectionRequest;
+    private HttpRequest itemRequest;
+    private HttpRequest fallbackRequest;
+
+    @Setup
+    public void setUp()
+    {
+        Server server = new BenchmarkServer(new ServerAddress(IP, PORT));
+        RequestHandler requestHandler = new RequestHandler()
+        {
+            @Override
+            public void handleRequest(HttpRequestContext requestContext, HttpResponseReadyCallback responseCallback)
+            {
+            }
+        };
+
+        registry = new HttpListenerRegistry();
+        for (int i = 0; i < RESOURCES; i++)
+        {
+            String collectionPath = "/api/resource" + i;
+            String itemPath = collectionPath + "/{id}";
+            registry.addRequestHandler(server, requestHandler, new ListenerRequestMatcher(new MethodRequestMatcher("GET"), collectionPath));
+            registry.addRequestHandler(server, requestHandler, new ListenerRequestMatcher(new MethodRequestMatcher("POST"), collectionPath));
+            registry.addRequestHandler(server, requestHandler, new ListenerRequestMatcher(new MethodRequestMatcher("GET"), itemPath));
+            registry.addRequestHandler(server, requestHandler, new ListenerRequestMatcher(new MethodRequestMatcher("PUT"), itemPath));
+        }
+        registry.addRequestHandler(server, requestHandler, new ListenerRequestMatcher(AcceptsAllMethodsRequestMatcher.instance(), "/*"));
+
+        collectionRequest = createRequest("POST", "/api/resource125");
+        itemRequest = createRequest("PUT", "/api/resource125/42");
+        fallbackRequest = createRequest("DELETE", "/api/resource125/42");
+    }
+
+    @Benchmark
+    public RequestHandler staticPath()
+    {
+        return registry.getRequestHandler(IP, PORT, collectionRequest);
+    }
+
+    @Benchmark
+    public RequestHandler uriParameterPath()
+    {
+        return registry.getRequestHandler(IP, PORT, itemRequest);
+    }
+
+    @Benchmark
+    public RequestHandler catchAllFallback()
+    {
+        return registry.getRequestHandler(IP, PORT, fallbackRequest);
+    }
+
+    private HttpRequest createRequest(String method, String uri)
+    {
+        return new HttpRequestBuilder().setMethod(method).setUri(uri).build();
+    }
+
+    private static class BenchmarkServer implements Server
+    {
+
+        private final ServerAddress serverAddress;
+
+        private BenchmarkServer(ServerAddress serverAddress)
+        {
+            this.serverAddress = serverAddress;
+        }
+
+        @Override
+        public void start()
+        {
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+
+        @Override
+        public ServerAddress getServerAddress()
+        {
+            return serverAddress;
+        }
+
+        @Override
+        public boolean isStopping()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isStopped()
+        {
+            return false;
+        }
+
+        @Override
+        public RequestHandlerManager addRequestHandler(ListenerRequestMatcher listenerRequestMatcher, RequestHandler requestHandler)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.api.MuleContext;
+import org.mule.context.DefaultMuleContextFactory;
+
+import com.ning.http.client.AsyncHttpClient;
+import com.ning.http.client.AsyncHttpClientConfig;
+import com.ning.http.client.ListenableFuture;
+import com.ning.http.client.Response;
+import com.ning.http.client.providers.grizzly.GrizzlyAsyncHttpProvider;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Requests through an HTTP listener to HTTP requester proxy flow, whose listener has a fixed
+ * number of worker threads, to a backend that takes some time to answer.
+ * <p/>
+ * Every operation sends a number of concurrent requests and waits for all of their responses.
+ * When blocking, the proxy can only have as many requests in flight as listener threads, so the
+ * time of an operation grows with the ratio between the concurrent requests and those threads.
+ * When non-blocking, the listener threads are released while the requests wait for the backend,
+ * so the time of an operation stays close to the latency of the backend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class HttpProxyBenchmark
+{
+
+    private static final String CONFIG_FILE = "http-proxy-benchmark-config.xml";
+    private static final int BACKEND_LATENCY = 20;
+
+    @Param({"false", "true"})
+    public boolean nonBlocking;
+
+    @Param({"16"})
+    public int listenerThreads;
+
+    @Param({"16", "256", "1024"})
+    public int concurrentRequests;
+
+    private MuleContext muleContext;
+    private AsyncHttpClient client;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        int proxyPort = findFreePort();
+        Properties properties = new Properties();
+        properties.setProperty("proxyPort", String.valueOf(proxyPort));
+        properties.setProperty("backendPort", String.valueOf(findFreePort()));
+        properties.setProperty("listenerThreads", String.valueOf(listenerThreads));
+        properties.setProperty("nonBlocking", String.valueOf(nonBlocking));
+        properties.setProperty("backendLatency", String.valueOf(BACKEND_LATENCY));
+
+        muleContext = new DefaultMuleContextFactory().createMuleContext(CONFIG_FILE, properties);
+        muleContext.start();
+
+        AsyncHttpClientConfig config = new AsyncHttpClientConfig.Builder()
+                .setMaximumConnectionsPerHost(-1)
+                .setMaximumConnectionsTotal(-1)
+                .setRequestTimeoutInMs(60000)
+                .build();
+        client = new AsyncHttpClient(new GrizzlyAsyncHttpProvider(config), config);
+        url = String.format("http://localhost:%d/", proxyPort);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        try
+        {
+            client.close();
+        }
+        finally
+        {
+            muleContext.dispose();
+        }
+    }
+
+    @Benchmark
+    public int concurrentProxyRequests() throws Exception
+    {
+        List<ListenableFuture<Response>> responses = new ArrayList<ListenableFuture<Response>>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++)
+        {
+            responses.add(client.prepareGet(url).execute());
+        }
+
+        int successfulResponses = 0;
+        for (ListenableFuture<Response> response : responses)
+        {
+            if (response.get().getStatusCode() == 200)
+            {
+                successfulResponses++;
+            }
+        }
+        return successfulResponses;
+    }
+
+    private int findFreePort() throws Exception
+    {
+        ServerSocket socket = new ServerSocket(0);
+        try
+        {
+            return socket.getLocalPort();
+        }
+        finally
+        {
+            socket.close();
+        }
+    }
+}
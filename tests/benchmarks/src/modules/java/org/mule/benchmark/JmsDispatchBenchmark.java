@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleEvent;
+import org.mule.api.endpoint.EndpointBuilder;
+import org.mule.api.endpoint.OutboundEndpoint;
+import org.mule.endpoint.EndpointURIEndpointBuilder;
+import org.mule.transport.jms.JmsConnector;
+import org.mule.transport.jms.JmsConstants;
+import org.mule.util.FileUtils;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.Connection;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * One-way dispatches of persistent messages through a JMS outbound endpoint to a queue of an
+ * embedded ActiveMQ broker that stores its messages in disk. Compares dispatching every message
+ * on its own with grouping the dispatches in batches committed as a single transaction, which
+ * saves the broker a synchronous write for each message.
+ * <p/>
+ * The queue is drained by a separate consumer, so the broker doesn't accumulate the messages
+ * sent while the benchmark runs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JmsDispatchBenchmark extends AbstractMuleContextBenchmark
+{
+
+    private static final String BROKER_NAME = "jmsDispatchBenchmark";
+    private static final String QUEUE_NAME = "benchmark.queue";
+
+    @Param({"0", "10", "100"})
+    public int dispatchBatchSize;
+
+    private File dataDirectory;
+    private BrokerService broker;
+    private Connection consumerConnection;
+    private JmsConnector connector;
+    private OutboundEndpoint endpoint;
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        dataDirectory = File.createTempFile("jms-dispatch-benchmark", "");
+        dataDirectory.delete();
+
+        broker = new BrokerService();
+        broker.setBrokerName(BROKER_NAME);
+        broker.setDataDirectoryFile(dataDirectory);
+        broker.setPersistent(true);
+        broker.setUseJmx(false);
+        broker.start();
+        broker.waitUntilStarted();
+
+        ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory("vm://" + BROKER_NAME + "?create=false");
+
+        consumerConnection = connectionFactory.createConnection();
+        Session consumerSession = consumerConnection.createSession(false, Session.DUPS_OK_ACKNOWLEDGE);
+        MessageConsumer consumer = consumerSession.createConsumer(consumerSession.createQueue(QUEUE_NAME));
+        consumer.setMessageListener(new MessageListener()
+        {
+            @Override
+            public void onMessage(Message message)
+            {
+                // Just drains the queue
+            }
+        });
+        consumerConnection.start();
+
+        connector = new JmsConnector(muleContext);
+        connector.setName("jmsBenchmarkConnector");
+        connector.setConnectionFactory(connectionFactory);
+        connector.setSpecification(JmsConstants.JMS_SPECIFICATION_11);
+        connector.setPersistentDelivery(true);
+        connector.setDispatchBatchSize(dispatchBatchSize);
+        muleContext.getRegistry().registerConnector(connector);
+
+        EndpointBuilder endpointBuilder = new EndpointURIEndpointBuilder("jms://" + QUEUE_NAME, muleContext);
+        endpointBuilder.setConnector(connector);
+        endpointBuilder.setExchangePattern(MessageExchangePattern.ONE_WAY);
+        endpoint = muleContext.getEndpointFactory().getOutboundEndpoint(endpointBuilder);
+    }
+
+    @Override
+    protected void doTearDown() throws Exception
+    {
+        try
+        {
+            // Commits the pending batches before the broker goes away
+            connector.stop();
+            consumerConnection.close();
+            broker.stop();
+            broker.waitUntilStopped();
+        }
+        finally
+        {
+            FileUtils.deleteTree(dataDirectory);
+        }
+    }
+
+    @Benchmark
+    public MuleEvent dispatch() throws Exception
+    {
+        return endpoint.process(createEvent(MessageExchangePattern.ONE_WAY));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleException;
+import org.mule.api.config.ThreadingProfile;
+import org.mule.api.endpoint.EndpointBuilder;
+import org.mule.api.processor.MessageProcessor;
+import org.mule.config.ChainedThreadingProfile;
+import org.mule.construct.Flow;
+import org.mule.endpoint.EndpointURIEndpointBuilder;
+import org.mule.transport.tcp.TcpConnector;
+import org.mule.transport.tcp.protocols.LengthProtocol;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Request-response round trips over many concurrent, mostly idle, persistent connections
+ * to a local TCP inbound endpoint. Compares the default socket receiver, which holds a
+ * thread per open connection, with the channel receiver, which reads every connection from
+ * a single selector thread.
+ * <p/>
+ * Every operation sends a length encoded message over the next connection and waits for the
+ * echoed response. The receiver threads in use while the benchmark runs can be inspected
+ * with any thread dump tool. Opening 10k connections requires a limit of open files of at
+ * least twice that number (<code>ulimit -n</code>).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TcpReceiverBenchmark extends AbstractMuleContextBenchmark
+{
+
+    @Param({"false", "true"})
+    public boolean channelReceiver;
+
+    @Param({"10000"})
+    public int connections;
+
+    private Socket[] clients;
+    private DataOutputStream[] outputs;
+    private DataInputStream[] inputs;
+    private byte[] data;
+    private int next;
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        int port = findFreePort();
+
+        TcpConnector connector = new TcpConnector(muleContext);
+        connector.setName("tcpBenchmarkConnector");
+        connector.setTcpProtocol(new LengthProtocol());
+        connector.setReceiveBacklog(connections);
+        connector.setChannelReceiver(channelReceiver);
+        if (!channelReceiver)
+        {
+            // The socket receiver needs a thread for each open connection
+            ChainedThreadingProfile threadingProfile = new ChainedThreadingProfile(muleContext.getDefaultMessageReceiverThreadingProfile());
+            threadingProfile.setMaxThreadsActive(connections + 16);
+            threadingProfile.setPoolExhaustedAction(ThreadingProfile.WHEN_EXHAUSTED_WAIT);
+            connector.setReceiverThreadingProfile(threadingProfile);
+        }
+        muleContext.getRegistry().registerConnector(connector);
+
+        EndpointBuilder endpointBuilder = new EndpointURIEndpointBuilder("tcp://localhost:" + port, muleContext);
+        endpointBuilder.setConnector(connector);
+        endpointBuilder.setExchangePattern(MessageExchangePattern.REQUEST_RESPONSE);
+
+        Flow tcpFlow = new Flow("tcpBenchmark", muleContext);
+        tcpFlow.setMessageSource(muleContext.getEndpointFactory().getInboundEndpoint(endpointBuilder));
+        tcpFlow.setMessageProcessors(Collections.<MessageProcessor>singletonList(new MessageProcessor()
+        {
+            @Override
+            public MuleEvent process(MuleEvent event) throws MuleException
+            {
+                return event;
+            }
+        }));
+        muleContext.getRegistry().registerFlowConstruct(tcpFlow);
+
+        data = PAYLOAD.getBytes();
+        clients = new Socket[connections];
+        outputs = new DataOutputStream[connections];
+        inputs = new DataInputStream[connections];
+        for (int i = 0; i < connections; i++)
+        {
+            clients[i] = new Socket("localhost", port);
+            clients[i].setTcpNoDelay(true);
+            outputs[i] = new DataOutputStream(clients[i].getOutputStream());
+            inputs[i] = new DataInputStream(clients[i].getInputStream());
+        }
+    }
+
+    @Override
+    protected void doTearDown() throws Exception
+    {
+        for (Socket client : clients)
+        {
+            if (client != null)
+            {
+                client.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] roundTrip() throws Exception
+    {
+        int connection = next;
+        next = (next + 1) % connections;
+
+        outputs[connection].writeInt(data.length);
+        outputs[connection].write(data);
+        outputs[connection].flush();
+
+        byte[] response = new byte[inputs[connection].readInt()];
+        inputs[connection].readFully(response);
+
+        return response;
+    }
+
+    private int findFreePort() throws Exception
+    {
+        ServerSocket socket = new ServerSocket(0);
+        try
+        {
+            return socket.getLocalPort();
+        }
+        finally
+        {
+            socket.close();
+        }
+    }
+}
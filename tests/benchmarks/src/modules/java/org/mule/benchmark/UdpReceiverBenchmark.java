@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.benchmark;
+
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleException;
+import org.mule.api.endpoint.EndpointBuilder;
+import org.mule.api.processor.MessageProcessor;
+import org.mule.construct.Flow;
+import org.mule.endpoint.EndpointURIEndpointBuilder;
+import org.mule.transport.udp.UdpConnector;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Blasts bursts of packets at a local one way UDP inbound endpoint and measures how many
+ * bursts per second reach the flow, with the default socket receiver and with the channel
+ * receiver.
+ * <p/>
+ * Packets dropped by the operating system are not retried, an operation that loses
+ * packets waits up to {@link #RECEIVE_TIMEOUT} for them, lowering the score of the
+ * receiver that could not keep up.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UdpReceiverBenchmark extends AbstractMuleContextBenchmark
+{
+
+    private static final int BURST = 100;
+    private static final long RECEIVE_TIMEOUT = 1000;
+
+    @Param({"false", "true"})
+    public boolean channelReceiver;
+
+    private final Semaphore receivedPackets = new Semaphore(0);
+    private DatagramSocket client;
+    private DatagramPacket packet;
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        int port = findFreePort();
+
+        UdpConnector connector = new UdpConnector(muleContext);
+        connector.setName("udpBenchmarkConnector");
+        connector.setChannelReceiver(channelReceiver);
+        muleContext.getRegistry().registerConnector(connector);
+
+        EndpointBuilder endpointBuilder = new EndpointURIEndpointBuilder("udp://localhost:" + port, muleContext);
+        endpointBuilder.setConnector(connector);
+        endpointBuilder.setExchangePattern(MessageExchangePattern.ONE_WAY);
+
+        Flow udpFlow = new Flow("udpBenchmark", muleContext);
+        udpFlow.setMessageSource(muleContext.getEndpointFactory().getInboundEndpoint(endpointBuilder));
+        udpFlow.setMessageProcessors(Collections.<MessageProcessor>singletonList(new MessageProcessor()
+        {
+            @Override
+            public MuleEvent process(MuleEvent event) throws MuleException
+            {
+                receivedPackets.release();
+                return event;
+            }
+        }));
+        muleContext.getRegistry().registerFlowConstruct(udpFlow);
+
+        byte[] data = PAYLOAD.getBytes();
+        packet = new DatagramPacket(data, data.length, new InetSocketAddress("localhost", port));
+        client = new DatagramSocket();
+    }
+
+    @Override
+    protected void doTearDown() throws Exception
+    {
+        client.close();
+    }
+
+    @Benchmark
+    public int burst() throws Exception
+    {
+        for (int i = 0; i < BURST; i++)
+        {
+            client.send(packet);
+        }
+
+        if (receivedPackets.tryAcquire(BURST, RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS))
+        {
+            return BURST;
+        }
+
+        // Some packets were lost, discard the ones that arrived so they don't count for the next burst
+        return receivedPackets.drainPermits();
+    }
+
+    private int findFreePort() throws Exception
+    {
+        DatagramSocket socket = new DatagramSocket(0);
+        try
+        {
+            return socket.getLocalPort();
+        }
+        finally
+        {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.context.notification;
+
+import org.mule.DefaultMuleEvent;
+import org.mule.DefaultMuleMessage;
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleException;
+import org.mule.api.config.MuleProperties;
+import org.mule.api.context.notification.MessageProcessorNotificationListener;
+import org.mule.api.processor.MessageProcessor;
+import org.mule.construct.Flow;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Measures the throughput of a flow with ten message processors when message processor
+ * notifications are disabled, queued in the default unbounded queue and queued in the
+ * ring buffer with each overflow policy.
+ */
+public class NotificationPerformanceTestCase extends AbstractMuleContextTestCase
+{
+
+    private static final int PROCESSORS = 10;
+    private static final int EVENTS = 1000;
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    private final AtomicLong notifications = new AtomicLong();
+    private Flow flow;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Override
+    protected void doSetUpBeforeMuleContextCreation() throws Exception
+    {
+        String methodName = name.getMethodName();
+        if (methodName.startsWith("ringBuffer"))
+        {
+            System.setProperty(MuleProperties.MULE_NOTIFICATION_RING_BUFFER_SIZE_PROPERTY, "8192");
+            System.setProperty(MuleProperties.MULE_NOTIFICATION_OVERFLOW_POLICY_PROPERTY,
+                               methodName.endsWith("Drop") ? NotificationOverflowPolicy.DROP.name() : NotificationOverflowPolicy.BLOCK.name());
+        }
+    }
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        if (!name.getMethodName().equals("notificationsDisabled"))
+        {
+            ServerNotificationManager notificationManager = muleContext.getNotificationManager();
+            notificationManager.addInterfaceToType(MessageProcessorNotificationListener.class, MessageProcessorNotification.class);
+            notificationManager.addListener(new MessageProcessorNotificationListener<MessageProcessorNotification>()
+            {
+                @Override
+                public void onNotification(MessageProcessorNotification notification)
+                {
+                    notifications.incrementAndGet();
+                }
+            });
+        }
+
+        flow = new Flow("notificationsFlow", muleContext);
+        List<MessageProcessor> processors = new ArrayList<MessageProcessor>();
+        for (int i = 0; i < PROCESSORS; i++)
+        {
+            processors.add(new MessageProcessor()
+            {
+                @Override
+                public MuleEvent process(MuleEvent event) throws MuleException
+                {
+                    return event;
+                }
+            });
+        }
+        flow.setMessageProcessors(processors);
+        flow.initialise();
+        flow.start();
+    }
+
+    @Override
+    protected void doTearDown() throws Exception
+    {
+        flow.stop();
+        flow.dispose();
+        System.clearProperty(MuleProperties.MULE_NOTIFICATION_RING_BUFFER_SIZE_PROPERTY);
+        System.clearProperty(MuleProperties.MULE_NOTIFICATION_OVERFLOW_POLICY_PROPERTY);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void notificationsDisabled() throws Exception
+    {
+        processEvents();
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void queueNotifications() throws Exception
+    {
+        processEvents();
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void ringBufferNotificationsBlock() throws Exception
+    {
+        processEvents();
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void ringBufferNotificationsDrop() throws Exception
+    {
+        processEvents();
+    }
+
+    private void processEvents() throws Exception
+    {
+        for (int i = 0; i < EVENTS; i++)
+        {
+            flow.process(new DefaultMuleEvent(new DefaultMuleMessage(TEST_MESSAGE, muleContext),
+                                              MessageExchangePattern.REQUEST_RESPONSE, flow));
+        }
+    }
+}
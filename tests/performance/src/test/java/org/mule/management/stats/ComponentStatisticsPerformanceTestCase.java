@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.management.stats;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Compares the cost of recording execution times from many threads with the synchronized
+ * {@link ComponentStatistics} and the lock free {@link HistogramComponentStatistics}.
+ * <p/>
+ * Statistics are shared by all the invocations since ContiPerf runs the test setup
+ * on every invocation.
+ */
+public class ComponentStatisticsPerformanceTestCase extends AbstractMuleTestCase
+{
+
+    private static final ComponentStatistics synchronizedStatistics = new ComponentStatistics();
+    private static final ComponentStatistics histogramStatistics = new HistogramComponentStatistics();
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 8, warmUp = 5000)
+    public void synchronizedStatistics()
+    {
+        record(synchronizedStatistics);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 8, warmUp = 5000)
+    public void histogramStatistics()
+    {
+        record(histogramStatistics);
+    }
+
+    private void record(ComponentStatistics statistics)
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            statistics.addExecutionTime(i % 50);
+            statistics.addExecutionBranchTime(true, i % 50, i % 50);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.routing.correlation;
+
+import static org.junit.Assert.assertEquals;
+import org.mule.DefaultMuleEvent;
+import org.mule.DefaultMuleMessage;
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleMessage;
+import org.mule.construct.Flow;
+import org.mule.routing.MuleMessageInfoMapping;
+import org.mule.tck.MuleTestUtils;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Correlates 10000 groups in flight at the same time from several threads. Events are
+ * interleaved so every group receives its first event before any group is completed.
+ */
+public class EventCorrelatorPerformanceTestCase extends AbstractMuleContextTestCase
+{
+
+    private static final int GROUPS = 10000;
+    private static final int GROUP_SIZE = 4;
+    private static final int THREADS = 8;
+    private static final String STORE_PREFIX = "correlatorPerformance";
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    private Flow flow;
+    private EventCorrelator correlator;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        flow = MuleTestUtils.getTestFlow(muleContext);
+        correlator = new EventCorrelator(new CollectionCorrelatorCallback(muleContext, false, STORE_PREFIX), null,
+                                         new MuleMessageInfoMapping(), muleContext, flow, false, STORE_PREFIX);
+        correlator.setTimeout(60000);
+        correlator.start();
+    }
+
+    @Override
+    protected void doTearDown() throws Exception
+    {
+        correlator.stop();
+        correlator.dispose();
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void correlateConcurrentGroups() throws Exception
+    {
+        final AtomicInteger nextEvent = new AtomicInteger();
+        final AtomicInteger aggregated = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++)
+        {
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    int event;
+                    while ((event = nextEvent.getAndIncrement()) < GROUPS * GROUP_SIZE)
+                    {
+                        try
+                        {
+                            if (correlator.process(createEvent(event % GROUPS)) != null)
+                            {
+                                aggregated.incrementAndGet();
+                            }
+                        }
+                        catch (Exception e)
+                        {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertEquals(0, failures.get());
+        assertEquals(GROUPS, aggregated.get());
+    }
+
+    private DefaultMuleEvent createEvent(int group)
+    {
+        MuleMessage message = new DefaultMuleMessage(TEST_MESSAGE, muleContext);
+        message.setCorrelationId("group-" + group);
+        message.setCorrelationGroupSize(GROUP_SIZE);
+        return new DefaultMuleEvent(message, MessageExchangePattern.ONE_WAY, flow);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.serialization;
+
+import org.mule.DefaultMuleMessage;
+import org.mule.api.MuleMessage;
+import org.mule.api.serialization.ObjectSerializer;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.util.IOUtils;
+
+import java.io.IOException;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Compares the throughput of {@link JavaObjectSerializer} and {@link CompactObjectSerializer}
+ * round-tripping messages the way persistent queues and object stores do.
+ */
+public class ObjectSerializerPerformanceTestCase extends AbstractMuleContextTestCase
+{
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    private JavaObjectSerializer javaSerializer;
+    private CompactObjectSerializer compactSerializer;
+    private MuleMessage message;
+    private MuleMessage messageWith50Properties;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Before
+    public void before() throws IOException
+    {
+        javaSerializer = new JavaObjectSerializer();
+        javaSerializer.setMuleContext(muleContext);
+        compactSerializer = new CompactObjectSerializer();
+        compactSerializer.setMuleContext(muleContext);
+
+        String payload = IOUtils.getResourceAsString("test-data.json", getClass());
+        message = new DefaultMuleMessage(payload, muleContext);
+        messageWith50Properties = new DefaultMuleMessage(payload, muleContext);
+        for (int i = 1; i <= 50; i++)
+        {
+            messageWith50Properties.setOutboundProperty("OuTbOuNdPrOpErTyKeY" + i, "val");
+            messageWith50Properties.setInvocationProperty("InVoCaTiOnPrOpErTyKeY" + i, "val");
+        }
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void javaSerializer()
+    {
+        roundtrip(javaSerializer, message);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void compactSerializer()
+    {
+        roundtrip(compactSerializer, message);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void javaSerializerWith50Properties()
+    {
+        roundtrip(javaSerializer, messageWith50Properties);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void compactSerializerWith50Properties()
+    {
+        roundtrip(compactSerializer, messageWith50Properties);
+    }
+
+    private void roundtrip(ObjectSerializer serializer, MuleMessage message)
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            serializer.deserialize(serializer.serialize(message));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.session;
+
+import org.mule.DefaultMuleMessage;
+import org.mule.api.MuleSession;
+import org.mule.api.config.MuleProperties;
+import org.mule.api.transport.SessionHandler;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Compares the cost of propagating a session through a hop with {@link SerializeAndEncodeSessionHandler}
+ * and {@link BinaryEncodedSessionHandler}: the session is stored into an outbound message and retrieved
+ * from the inbound message on the other side.
+ */
+public class SessionHandlerPerformanceTestCase extends AbstractMuleContextTestCase
+{
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    private MuleSession emptySession;
+    private MuleSession sessionWith10Properties;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Before
+    public void before()
+    {
+        emptySession = new DefaultMuleSession();
+        sessionWith10Properties = new DefaultMuleSession();
+        for (int i = 1; i <= 10; i++)
+        {
+            sessionWith10Properties.setProperty("SeSsIoNpRoPeRtYkEy" + i, "val" + i);
+        }
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void serializeAndEncodeEmptySession() throws Exception
+    {
+        propagate(new SerializeAndEncodeSessionHandler(), emptySession);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void binaryEncodedEmptySession() throws Exception
+    {
+        propagate(new BinaryEncodedSessionHandler(), emptySession);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void serializeAndEncodeSessionWith10Properties() throws Exception
+    {
+        propagate(new SerializeAndEncodeSessionHandler(), sessionWith10Properties);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void binaryEncodedSessionWith10Properties() throws Exception
+    {
+        propagate(new BinaryEncodedSessionHandler(), sessionWith10Properties);
+    }
+
+    private void propagate(SessionHandler handler, MuleSession session) throws Exception
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            DefaultMuleMessage message = new DefaultMuleMessage(TEST_MESSAGE, muleContext);
+            handler.storeSessionInfoToMessage(session, message);
+            message.setInboundProperty(MuleProperties.MULE_SESSION_PROPERTY,
+                                       message.removeProperty(MuleProperties.MULE_SESSION_PROPERTY));
+            handler.retrieveSessionInfoFromMessage(message);
+        }
+    }
+}
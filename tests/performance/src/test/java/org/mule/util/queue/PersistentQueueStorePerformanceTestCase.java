@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.queue;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.api.MuleContext;
+import org.mule.serialization.JavaObjectSerializer;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.util.IOUtils;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compares the throughput of {@link DualRandomAccessFileQueueStoreDelegate} and
+ * {@link MappedFileQueueStoreDelegate}. Every invocation writes and then consumes
+ * {@link #MESSAGES_PER_INVOCATION} messages so the reported throughput multiplied by that
+ * value gives the number of messages per second.
+ * <p/>
+ * Queue stores are shared by all the invocations since ContiPerf runs the test setup
+ * on every invocation.
+ */
+public class PersistentQueueStorePerformanceTestCase extends AbstractMuleTestCase
+{
+
+    private static final int MESSAGES_PER_INVOCATION = 1000;
+
+    @ClassRule
+    public static TemporaryFolder workingDirectory = new TemporaryFolder();
+
+    private static String payload;
+    private static QueueStoreDelegate dualFileQueueStore;
+    private static QueueStoreDelegate mappedFileQueueStore;
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @BeforeClass
+    public static void createQueueStores() throws IOException
+    {
+        payload = IOUtils.getResourceAsString("test-data.json", PersistentQueueStorePerformanceTestCase.class);
+        MuleContext muleContext = mock(MuleContext.class);
+        when(muleContext.getExecutionClassLoader()).thenReturn(PersistentQueueStorePerformanceTestCase.class.getClassLoader());
+        JavaObjectSerializer objectSerializer = new JavaObjectSerializer();
+        objectSerializer.setMuleContext(muleContext);
+        when(muleContext.getObjectSerializer()).thenReturn(objectSerializer);
+        dualFileQueueStore = new DualRandomAccessFileQueueStoreDelegate("dual", workingDirectory.getRoot().getAbsolutePath(), muleContext, 0);
+        mappedFileQueueStore = new MappedFileQueueStoreDelegate("mapped", workingDirectory.getRoot().getAbsolutePath(), muleContext, 0);
+    }
+
+    @AfterClass
+    public static void disposeQueueStores()
+    {
+        dualFileQueueStore.dispose();
+        mappedFileQueueStore.dispose();
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void dualRandomAccessFileStore() throws Exception
+    {
+        putAndTake(dualFileQueueStore);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void mappedFileStore() throws Exception
+    {
+        putAndTake(mappedFileQueueStore);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void dualRandomAccessFileStoreConcurrent() throws Exception
+    {
+        putAndTake(dualFileQueueStore);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void mappedFileStoreConcurrent() throws Exception
+    {
+        putAndTake(mappedFileQueueStore);
+    }
+
+    private void putAndTake(QueueStoreDelegate queueStore) throws InterruptedException
+    {
+        for (int i = 0; i < MESSAGES_PER_INVOCATION; i++)
+        {
+            queueStore.putNow(payload);
+        }
+        for (int i = 0; i < MESSAGES_PER_INVOCATION; i++)
+        {
+            Serializable value = queueStore.poll(0);
+            if (value == null)
+            {
+                throw new IllegalStateException("Expected a message in the queue");
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.util.store;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.api.MuleContext;
+import org.mule.api.store.ObjectStoreException;
+import org.mule.serialization.JavaObjectSerializer;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.util.IOUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compares the throughput of {@link PersistentObjectStorePartition} and
+ * {@link LogStructuredObjectStorePartition}. Every invocation stores, retrieves and removes
+ * {@link #ENTRIES_PER_INVOCATION} entries, the way an idempotent filter or an until successful
+ * router uses the default persistent object store.
+ * <p/>
+ * Partitions are shared by all the invocations since ContiPerf runs the test setup
+ * on every invocation.
+ */
+public class PersistentObjectStorePartitionPerformanceTestCase extends AbstractMuleTestCase
+{
+
+    private static final int ENTRIES_PER_INVOCATION = 100;
+
+    @ClassRule
+    public static TemporaryFolder workingDirectory = new TemporaryFolder();
+
+    private static final AtomicLong keyGenerator = new AtomicLong();
+    private static String payload;
+    private static PersistentObjectStorePartition<Serializable> filePerEntryPartition;
+    private static PersistentObjectStorePartition<Serializable> logStructuredPartition;
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @BeforeClass
+    public static void createPartitions() throws IOException, ObjectStoreException
+    {
+        payload = IOUtils.getResourceAsString("test-data.json", PersistentObjectStorePartitionPerformanceTestCase.class);
+        MuleContext muleContext = mock(MuleContext.class);
+        when(muleContext.getExecutionClassLoader()).thenReturn(PersistentObjectStorePartitionPerformanceTestCase.class.getClassLoader());
+        JavaObjectSerializer objectSerializer = new JavaObjectSerializer();
+        objectSerializer.setMuleContext(muleContext);
+        when(muleContext.getObjectSerializer()).thenReturn(objectSerializer);
+        filePerEntryPartition = new PersistentObjectStorePartition<Serializable>(muleContext, "files", new File(workingDirectory.getRoot(), "files"));
+        filePerEntryPartition.open();
+        logStructuredPartition = new LogStructuredObjectStorePartition<Serializable>(muleContext, "log", new File(workingDirectory.getRoot(), "log"));
+        logStructuredPartition.open();
+    }
+
+    @AfterClass
+    public static void closePartitions() throws ObjectStoreException
+    {
+        filePerEntryPartition.close();
+        logStructuredPartition.close();
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void filePerEntryPartition() throws Exception
+    {
+        storeRetrieveAndRemove(filePerEntryPartition);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void logStructuredPartition() throws Exception
+    {
+        storeRetrieveAndRemove(logStructuredPartition);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void filePerEntryPartitionConcurrent() throws Exception
+    {
+        storeRetrieveAndRemove(filePerEntryPartition);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void logStructuredPartitionConcurrent() throws Exception
+    {
+        storeRetrieveAndRemove(logStructuredPartition);
+    }
+
+    private void storeRetrieveAndRemove(PersistentObjectStorePartition<Serializable> partition) throws ObjectStoreException
+    {
+        String[] keys = new String[ENTRIES_PER_INVOCATION];
+        for (int i = 0; i < ENTRIES_PER_INVOCATION; i++)
+        {
+            keys[i] = "key-" + keyGenerator.incrementAndGet();
+            partition.store(keys[i], payload);
+        }
+        for (String key : keys)
+        {
+            partition.retrieve(key);
+            partition.remove(key);
+        }
+    }
+}
@@ -100,6 +100,29 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
 
     private boolean cacheJmsSessions = true;
 
+    /**
+     * Number of one-way dispatches, not part of a transaction, that are grouped in a transacted
+     * session before committing it. Batching is disabled unless bigger than one.
+     */
+    private int dispatchBatchSize = 0;
+
+    /**
+     * Milliseconds after which an incomplete batch of dispatches is committed.
+     */
+    private long dispatchBatchTimeout = 100;
+
+    /**
+     * Number of messages that each consumer of a transacted endpoint processes in a single transaction.
+     * Batching is disabled unless bigger than one.
+     */
+    private int consumerBatchSize = 0;
+
+    /**
+     * Milliseconds after the first message of a batch is received after which the batch is processed even if
+     * incomplete.
+     */
+    private long consumerBatchTimeout = 100;
+
     /**
      * Whether to create a consumer on connect.
      */
@@ -167,6 +190,14 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
      */
     private boolean returnOriginalMessageAsReply = false;
 
+    /**
+     * Whether synchronous outbound endpoints wait for their replies on a temporary queue shared by
+     * every request of this connector instead of on a temporary destination per request.
+     */
+    private boolean sharedReplyToQueue = false;
+
+    private SharedReplyToQueue replyToQueue;
+
     /**
      * In-container embedded mode disables some features for strict Java EE compliance.
      */
@@ -564,6 +595,7 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
     {
         try
         {
+            closeReplyToQueue();
             if (connection != null)
             {
                 disconnecting = true;
@@ -587,6 +619,32 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
         return flowConstruct.getName() + "~" + endpoint.getEndpointURI().getAddress();
     }
 
+    /**
+     * Returns the reply to queue shared by the requests of this connector, creating it if needed.
+     *
+     * @param endpoint the endpoint requesting the queue
+     * @see #sharedReplyToQueue
+     */
+    public synchronized SharedReplyToQueue getReplyToQueue(ImmutableEndpoint endpoint) throws JMSException
+    {
+        if (replyToQueue == null)
+        {
+            SharedReplyToQueue newReplyToQueue = new SharedReplyToQueue(this);
+            newReplyToQueue.start(endpoint);
+            replyToQueue = newReplyToQueue;
+        }
+        return replyToQueue;
+    }
+
+    private synchronized void closeReplyToQueue()
+    {
+        if (replyToQueue != null)
+        {
+            replyToQueue.close();
+            replyToQueue = null;
+        }
+    }
+
     public Session getSessionFromTransaction()
     {
         Transaction tx = TransactionCoordination.getInstance().getTransaction();
@@ -1204,6 +1262,71 @@ public class JmsConnector extends AbstractConnector implements ExceptionListener
         this.cacheJmsSessions = cacheJmsSessions;
     }
 
+    /**
+     * @see #sharedReplyToQueue
+     */
+    public boolean isSharedReplyToQueue()
+    {
+        return sharedReplyToQueue;
+    }
+
+    public void setSharedReplyToQueue(boolean sharedReplyToQueue)
+    {
+        this.sharedReplyToQueue = sharedReplyToQueue;
+    }
+
+    /**
+     * @see #dispatchBatchSize
+     */
+    public int getDispatchBatchSize()
+    {
+        return dispatchBatchSize;
+    }
+
+    public void setDispatchBatchSize(int dispatchBatchSize)
+    {
+        this.dispatchBatchSize = dispatchBatchSize;
+    }
+
+    /**
+     * @see #dispatchBatchTimeout
+     */
+    public long getDispatchBatchTimeout()
+    {
+        return dispatchBatchTimeout;
+    }
+
+    public void setDispatchBatchTimeout(long dispatchBatchTimeout)
+    {
+        this.dispatchBatchTimeout = dispatchBatchTimeout;
+    }
+
+    /**
+     * @see #consumerBatchSize
+     */
+    public int getConsumerBatchSize()
+    {
+        return consumerBatchSize;
+    }
+
+    public void setConsumerBatchSize(int consumerBatchSize)
+    {
+        this.consumerBatchSize = consumerBatchSize;
+    }
+
+    /**
+     * @see #consumerBatchTimeout
+     */
+    public long getConsumerBatchTimeout()
+    {
+        return consumerBatchTimeout;
+    }
+
+    public void setConsumerBatchTimeout(long consumerBatchTimeout)
+    {
+        this.consumerBatchTimeout = consumerBatchTimeout;
+    }
+
     public ConnectionFactory getConnectionFactory()
     {
         return connectionFactory;
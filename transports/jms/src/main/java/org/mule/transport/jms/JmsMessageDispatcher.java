@@ -51,6 +51,7 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
     private JmsConnector connector;
     private boolean disableTemporaryDestinations = false;
     private boolean returnOriginalMessageAsReply = false;
+    private TransactedDispatchBatch dispatchBatch;
 
     public JmsMessageDispatcher(OutboundEndpoint endpoint)
     {
@@ -86,7 +87,7 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
     @Override
     protected void doDisconnect() throws Exception
     {
-        // template method
+        closeDispatchBatch();
     }
 
     protected boolean isDisableTemporaryDestinations()
@@ -103,6 +104,9 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
         boolean transacted = false;
         boolean cached = false;
         boolean useReplyToDestination;
+        TransactedDispatchBatch batch = null;
+        SharedReplyToQueue replyToQueue = null;
+        SharedReplyToQueue.PendingReply pendingReply = null;
 
         final Transaction muleTx = TransactionCoordination.getInstance().getTransaction();
 
@@ -115,7 +119,19 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
 
         try
         {
-            session = connector.getTransactionalResource(endpoint);
+            boolean topic = connector.getTopicResolver().isTopic(endpoint, true);
+
+            if (isBatched(event, doSend, muleTx))
+            {
+                // The session and producers of the batch outlive this dispatch
+                batch = lockDispatchBatch(topic);
+                session = batch.getSession();
+                cached = true;
+            }
+            else
+            {
+                session = connector.getTransactionalResource(endpoint);
+            }
 
             transacted = (muleTx != null && muleTx.hasResource(connector.getConnection()) || endpoint.getTransactionConfig().isTransacted());
 
@@ -123,10 +139,15 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
             // in the same transaction using a replyTo destination
             useReplyToDestination = returnResponse(event, doSend) && !transacted;
 
-            boolean topic = connector.getTopicResolver().isTopic(endpoint, true);
-
             Destination dest = connector.getJmsSupport().createDestination(session, endpoint);
-            producer = connector.getJmsSupport().createProducer(session, dest, topic);
+            if (batch != null)
+            {
+                producer = batch.getProducer(dest, topic);
+            }
+            else
+            {
+                producer = connector.getJmsSupport().createProducer(session, dest, topic);
+            }
 
             Object message = event.getMessage().getPayload();
             if (!(message instanceof Message))
@@ -140,7 +161,15 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
 
             MuleMessage eventMsg = event.getMessage();
 
-            replyTo = getReplyToDestination(msg, session, event, useReplyToDestination, topic);
+            boolean useSharedReplyToQueue = useReplyToDestination && isUseSharedReplyToQueue(msg, event);
+            replyTo = getReplyToDestination(msg, session, event, useReplyToDestination && !useSharedReplyToQueue, topic);
+
+            if (replyTo == null && useSharedReplyToQueue)
+            {
+                replyToQueue = connector.getReplyToQueue(endpoint);
+                pendingReply = replyToQueue.register(msg);
+                replyTo = replyToQueue.getQueue();
+            }
 
             // Set the replyTo property
             if (replyTo != null)
@@ -184,7 +213,33 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
             }
             connector.getJmsSupport().send(producer, msg, persistent, priority, ttl, topic, endpoint);
 
-            if (useReplyToDestination && replyTo != null)
+            if (batch != null)
+            {
+                batch.messageSent();
+            }
+
+            if (pendingReply != null)
+            {
+                int timeout = event.getTimeout();
+
+                if (logger.isDebugEnabled())
+                {
+                    logger.debug("Waiting for return event for: " + timeout + " ms on shared reply to queue with correlation id "
+                                 + pendingReply.getCorrelationId());
+                }
+
+                Message result = pendingReply.await(timeout);
+                if (result == null)
+                {
+                    logger.debug("No message was returned via shared reply to queue");
+                    return createNullMuleMessage();
+                }
+                else
+                {
+                    return createMessageWithJmsMessagePayload(result);
+                }
+            }
+            else if (useReplyToDestination && replyTo != null)
             {
                 consumer = createReplyToConsumer(msg, event, session, replyTo, topic);
 
@@ -249,11 +304,20 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
         }
         finally
         {
-            connector.closeQuietly(producer);
+            if (!cached)
+            {
+                connector.closeQuietly(producer);
+            }
             connector.closeQuietly(consumer);
 
+            if (pendingReply != null)
+            {
+                replyToQueue.release(pendingReply);
+            }
+
             // TODO AP check if TopicResolver is to be utilized for temp destinations as well
-            if (replyTo != null && (replyTo instanceof TemporaryQueue || replyTo instanceof TemporaryTopic))
+            // The shared reply to queue is kept by the connector
+            if (replyTo != null && pendingReply == null && (replyTo instanceof TemporaryQueue || replyTo instanceof TemporaryTopic))
             {
                 if (replyTo instanceof TemporaryQueue)
                 {
@@ -273,6 +337,69 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
             {
                 connector.closeQuietly(session);
             }
+
+            if (batch != null)
+            {
+                batch.unlock();
+            }
+        }
+    }
+
+    /**
+     * Requests waiting for a reply use the shared reply to queue of the connector, if enabled,
+     * instead of a temporary destination of their own.
+     */
+    private boolean isUseSharedReplyToQueue(Message msg, MuleEvent event) throws JMSException
+    {
+        return connector.isSharedReplyToQueue() && !disableTemporaryDestinations && isHandleReplyTo(msg, event);
+    }
+
+    /**
+     * One-way dispatches that are not part of a transaction are sent through the dispatch batch
+     * when the connector has a dispatch batch size bigger than one.
+     */
+    private boolean isBatched(MuleEvent event, boolean doSend, Transaction muleTx)
+    {
+        return connector.getDispatchBatchSize() > 1 && muleTx == null
+               && !endpoint.getTransactionConfig().isTransacted() && !returnResponse(event, doSend);
+    }
+
+    /**
+     * The batch may be closed after it is looked up and before it is locked, i.e.: when its commit fails,
+     * so a new one is looked up until the locked batch is still open.
+     */
+    private TransactedDispatchBatch lockDispatchBatch(boolean topic) throws JMSException
+    {
+        while (true)
+        {
+            TransactedDispatchBatch batch = getDispatchBatch(topic);
+            batch.lock();
+            if (!batch.isClosed())
+            {
+                return batch;
+            }
+            batch.unlock();
+        }
+    }
+
+    private synchronized TransactedDispatchBatch getDispatchBatch(boolean topic) throws JMSException
+    {
+        if (dispatchBatch == null || dispatchBatch.isClosed())
+        {
+            Session session = connector.getJmsSupport().createSession(connector.getConnection(), topic, true,
+                                                                      connector.getAcknowledgementMode(), connector.isNoLocal());
+            dispatchBatch = new TransactedDispatchBatch(connector, session, connector.getDispatchBatchSize(),
+                                                        connector.getDispatchBatchTimeout(), connector.getScheduler());
+        }
+        return dispatchBatch;
+    }
+
+    private synchronized void closeDispatchBatch()
+    {
+        if (dispatchBatch != null)
+        {
+            dispatchBatch.close();
+            dispatchBatch = null;
         }
     }
 
@@ -312,7 +439,7 @@ public class JmsMessageDispatcher extends AbstractMessageDispatcher
     @Override
     protected void doDispose()
     {
-        // template method
+        closeDispatchBatch();
     }
 
     /**
@@ -32,6 +32,8 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.jms.Destination;
 import javax.jms.JMSException;
@@ -39,6 +41,7 @@ import javax.jms.Message;
 import javax.jms.MessageConsumer;
 import javax.jms.MessageListener;
 import javax.jms.Session;
+import javax.resource.spi.work.Work;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -47,6 +50,13 @@ import org.apache.commons.logging.LogFactory;
  * In Mule an endpoint corresponds to a single receiver. It's up to the receiver to do multithreaded consumption and
  * resource allocation, if needed. This class honors the <code>numberOfConcurrentTransactedReceivers</code> strictly
  * and will create exactly this number of consumers.
+ * <p/>
+ * If the connector has a <code>consumerBatchSize</code> bigger than one and the endpoint has a JMS local or
+ * client acknowledge transaction, each consumer receives up to that number of messages, or as many as received
+ * within <code>consumerBatchTimeout</code>, and processes them in a single transaction, so they are committed or
+ * acknowledged at once. If the transaction is rolled back every message of the batch is redelivered, and
+ * redelivered messages are processed one at a time so a failing message doesn't make the rest of its batch fail
+ * again.
  */
 public class MultiConsumerJmsMessageReceiver extends AbstractMessageReceiver
 {
@@ -58,6 +68,13 @@ public class MultiConsumerJmsMessageReceiver extends AbstractMessageReceiver
 
     final boolean isTopic;
 
+    /**
+     * Maximum time to wait for the first message of a batch before checking if the consumer is still started.
+     */
+    private static final long BATCH_IDLE_RECEIVE_TIMEOUT = 1000;
+
+    private final boolean batchConsumption;
+
     private final ReconnectWorkManager reconnectWorkManager;
     private boolean reconnecting = false;
     private boolean started = false;
@@ -88,6 +105,13 @@ public class MultiConsumerJmsMessageReceiver extends AbstractMessageReceiver
             logger.debug("Creating " + receiversCount + " sub-receivers for " + endpoint.getEndpointURI());
         }
 
+        batchConsumption = jmsConnector.getConsumerBatchSize() > 1 && isBatchTransaction(endpoint);
+        if (jmsConnector.getConsumerBatchSize() > 1 && !batchConsumption && logger.isInfoEnabled())
+        {
+            logger.info("Endpoint " + getEndpoint().getEndpointURI() + " has no JMS local or client acknowledge transaction, "
+                        + "its messages will not be consumed in batches.");
+        }
+
         consumers = new CopyOnWriteArrayList<SubReceiver>();
         reconnectWorkManager = new ReconnectWorkManager(getEndpoint().getMuleContext());
     }
@@ -236,6 +260,16 @@ public class MultiConsumerJmsMessageReceiver extends AbstractMessageReceiver
         return !this.isTopic;
     }
 
+    /**
+     * Batches are only useful when the messages are committed or acknowledged by the transaction of the endpoint.
+     */
+    private boolean isBatchTransaction(InboundEndpoint endpoint)
+    {
+        Object transactionFactory = endpoint.getTransactionConfig().getFactory();
+        return endpoint.getTransactionConfig().isTransacted()
+               && (transactionFactory instanceof JmsTransactionFactory || transactionFactory instanceof JmsClientAcknowledgeTransactionFactory);
+    }
+
     protected class SubReceiver implements MessageListener
     {
         private final Log subLogger = LogFactory.getLog(getClass());
@@ -247,6 +281,9 @@ public class MultiConsumerJmsMessageReceiver extends AbstractMessageReceiver
         protected volatile boolean started;
         protected volatile boolean isProcessingMessage;
 
+        private final AtomicBoolean consumingBatches = new AtomicBoolean(false);
+        private final AtomicInteger batchConsumerStarts = new AtomicInteger();
+
         protected void doConnect() throws MuleException
         {
             subLogger.debug("SUB doConnect()");
@@ -305,6 +342,13 @@ public class MultiConsumerJmsMessageReceiver extends AbstractMessageReceiver
                 doConnect();
             }
 
+            if (batchConsumption)
+            {
+                started = true;
+                startBatchConsumer();
+                return;
+            }
+
             try
             {
                 MessageListener currentMessageListener = consumer.getMessageListener();
@@ -329,6 +373,13 @@ public class MultiConsumerJmsMessageReceiver extends AbstractMessageReceiver
         {
             subLogger.debug("SUB doStop()");
 
+            if (batchConsumption)
+            {
+                // The batch consumer loop finishes once it notices
+                started = false;
+                return;
+            }
+
             if (consumer != null)
             {
                 try
@@ -440,32 +491,192 @@ public class MultiConsumerJmsMessageReceiver extends AbstractMessageReceiver
             }
             catch (Exception e)
             {
-                // Use this rollback method in case a transaction has not been configured on the endpoint.
-                RollbackSourceCallback rollbackMethod = new RollbackSourceCallback()
+                handleProcessingException(e);
+            }
+            finally
+            {
+                isProcessingMessage = false;
+            }
+        }
+
+        private void startBatchConsumer() throws MuleException
+        {
+            batchConsumerStarts.incrementAndGet();
+            if (!consumingBatches.compareAndSet(false, true))
+            {
+                // The previous consumer loop hasn't finished yet, it keeps going once it sees this start
+                return;
+            }
+
+            try
+            {
+                getWorkManager().scheduleWork(new Work()
                 {
                     @Override
-                    public void rollback()
+                    public void run()
+                    {
+                        int consumedStart;
+                        do
+                        {
+                            consumedStart = batchConsumerStarts.get();
+                            try
+                            {
+                                consumeBatches();
+                            }
+                            finally
+                            {
+                                consumingBatches.set(false);
+                            }
+                        }
+                        while (isRestarted(consumedStart) && consumingBatches.compareAndSet(false, true));
+                    }
+
+                    @Override
+                    public void release()
                     {
-                        recoverSession();
+                        // nothing to release
                     }
-                };
+                });
+            }
+            catch (Exception e)
+            {
+                consumingBatches.set(false);
+                started = false;
+                throw new LifecycleException(e, this);
+            }
+        }
 
-                if (e instanceof MessagingException)
+        /**
+         * A start that happens while the loop is finishing relies on it to keep consuming. Such start is always
+         * seen here, as it is counted before it fails to take over the loop.
+         */
+        private boolean isRestarted(int consumedStart)
+        {
+            return started && batchConsumerStarts.get() != consumedStart;
+        }
+
+        private void consumeBatches()
+        {
+            List<Object> batch = new ArrayList<Object>(jmsConnector.getConsumerBatchSize());
+            while (started)
+            {
+                try
                 {
-                    MessagingException messagingException = (MessagingException) e;
-                    if (!messagingException.getEvent().isTransacted() && messagingException.causedRollback())
+                    receiveBatch(batch);
+                }
+                catch (JMSException e)
+                {
+                    if (started)
                     {
-                        rollbackMethod.rollback();
+                        // Consumers are recreated once the connection is recovered
+                        jmsConnector.onException(e);
                     }
+                    return;
                 }
-                else
+
+                if (!batch.isEmpty())
                 {
-                    getEndpoint().getMuleContext().getExceptionListener().handleException(e, rollbackMethod);
+                    processBatch(batch);
                 }
             }
+        }
+
+        /**
+         * Receives the messages of the next batch, which is complete when it has the configured number of messages,
+         * when the batch timeout expires or when a redelivered message is received. A redelivered message that is
+         * received first is processed in a batch of its own. One that comes after other messages completes their
+         * batch: every received message is committed or acknowledged by the session, so none can be left for a
+         * later batch.
+         */
+        private void receiveBatch(List<Object> batch) throws JMSException
+        {
+            int batchSize = jmsConnector.getConsumerBatchSize();
+            long deadline = 0;
+            while (started && batch.size() < batchSize)
+            {
+                long timeout = BATCH_IDLE_RECEIVE_TIMEOUT;
+                if (!batch.isEmpty())
+                {
+                    timeout = deadline - System.currentTimeMillis();
+                    if (timeout <= 0)
+                    {
+                        return;
+                    }
+                }
+
+                MessageConsumer currentConsumer = consumer;
+                Message message = currentConsumer == null ? null : currentConsumer.receive(timeout);
+                if (message == null)
+                {
+                    if (!batch.isEmpty())
+                    {
+                        return;
+                    }
+                    continue;
+                }
+
+                if (message.getJMSRedelivered())
+                {
+                    batch.add(message);
+                    return;
+                }
+
+                if (batch.isEmpty())
+                {
+                    deadline = System.currentTimeMillis() + jmsConnector.getConsumerBatchTimeout();
+                }
+                batch.add(message);
+            }
+        }
+
+        private void processBatch(List<Object> batch)
+        {
+            if (subLogger.isDebugEnabled())
+            {
+                subLogger.debug("Processing batch of " + batch.size() + " messages");
+            }
+
+            try
+            {
+                isProcessingMessage = true;
+                // The batch is processed in a single transaction, which is committed or acknowledged once
+                JmsWorker worker = new JmsWorker(batch, MultiConsumerJmsMessageReceiver.this, this);
+                worker.processMessages();
+            }
+            catch (Exception e)
+            {
+                handleProcessingException(e);
+            }
             finally
             {
                 isProcessingMessage = false;
+                batch.clear();
+            }
+        }
+
+        private void handleProcessingException(Exception e)
+        {
+            // Use this rollback method in case a transaction has not been configured on the endpoint.
+            RollbackSourceCallback rollbackMethod = new RollbackSourceCallback()
+            {
+                @Override
+                public void rollback()
+                {
+                    recoverSession();
+                }
+            };
+
+            if (e instanceof MessagingException)
+            {
+                MessagingException messagingException = (MessagingException) e;
+                if (!messagingException.getEvent().isTransacted() && messagingException.causedRollback())
+                {
+                    rollbackMethod.rollback();
+                }
+            }
+            else
+            {
+                getEndpoint().getMuleContext().getExceptionListener().handleException(e, rollbackMethod);
             }
         }
     }
@@ -481,6 +692,12 @@ public class MultiConsumerJmsMessageReceiver extends AbstractMessageReceiver
             messages.add(message);
         }
 
+        public JmsWorker(List<Object> messages, AbstractMessageReceiver receiver, SubReceiver subReceiver)
+        {
+            super(messages, receiver);
+            this.subReceiver = subReceiver;
+        }
+
         @Override
         protected Object preProcessMessage(Object message) throws Exception
         {
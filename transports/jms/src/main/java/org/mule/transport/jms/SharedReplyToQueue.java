@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+import org.mule.api.endpoint.ImmutableEndpoint;
+import org.mule.util.UUID;
+import org.mule.util.concurrent.Latch;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+import javax.jms.TemporaryQueue;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Temporary queue shared by every request-response dispatch of a {@link JmsConnector}, so
+ * requests don't need to create a temporary destination and a consumer each.
+ * <p/>
+ * Requests are registered under a correlation id generated for each of them before being
+ * sent, as the correlation id they already carry may be shared by other requests, for instance
+ * when propagated along a flow. Replies are received by a single listener on the queue, which
+ * hands each one to the request waiting for it, with the correlation id of the request restored.
+ * Replies that arrive once their request is no longer waiting, because it timed out, are
+ * discarded.
+ */
+public class SharedReplyToQueue implements MessageListener
+{
+
+    private static final Log logger = LogFactory.getLog(SharedReplyToQueue.class);
+
+    private final JmsConnector connector;
+    private final ConcurrentMap<String, PendingReply> pendingReplies = new ConcurrentHashMap<String, PendingReply>();
+    private Session session;
+    private Destination queue;
+    private MessageConsumer consumer;
+
+    public SharedReplyToQueue(JmsConnector connector)
+    {
+        this.connector = connector;
+    }
+
+    /**
+     * Creates the queue and starts listening for replies on it.
+     *
+     * @param endpoint the endpoint the queue is first used by
+     */
+    public void start(ImmutableEndpoint endpoint) throws JMSException
+    {
+        JmsSupport jmsSupport = connector.getJmsSupport();
+        session = jmsSupport.createSession(connector.getConnection(), false, false, Session.AUTO_ACKNOWLEDGE, false);
+        try
+        {
+            queue = jmsSupport.createTemporaryDestination(session, false);
+            consumer = jmsSupport.createConsumer(session, queue, null, false, null, false, endpoint);
+            consumer.setMessageListener(this);
+        }
+        catch (JMSException e)
+        {
+            close();
+            throw e;
+        }
+
+        if (logger.isDebugEnabled())
+        {
+            logger.debug("Listening for replies on shared reply to queue " + queue);
+        }
+    }
+
+    public Destination getQueue()
+    {
+        return queue;
+    }
+
+    /**
+     * Registers a request that is about to be sent, setting its reply to destination to this
+     * queue and replacing its correlation id with a unique one. The original correlation id is
+     * set back on the reply once received.
+     *
+     * @return the reply to wait for
+     */
+    public PendingReply register(Message request) throws JMSException
+    {
+        PendingReply pendingReply = new PendingReply(UUID.getUUID(), request.getJMSCorrelationID());
+        request.setJMSCorrelationID(pendingReply.getCorrelationId());
+        request.setJMSReplyTo(queue);
+        pendingReplies.put(pendingReply.getCorrelationId(), pendingReply);
+        return pendingReply;
+    }
+
+    /**
+     * Stops waiting for the given reply, which is discarded if received from now on.
+     */
+    public void release(PendingReply pendingReply)
+    {
+        pendingReplies.remove(pendingReply.getCorrelationId(), pendingReply);
+    }
+
+    @Override
+    public void onMessage(Message reply)
+    {
+        try
+        {
+            String correlationId = reply.getJMSCorrelationID();
+            PendingReply pendingReply = correlationId == null ? null : pendingReplies.remove(correlationId);
+            if (pendingReply != null)
+            {
+                pendingReply.complete(reply);
+            }
+            else if (logger.isDebugEnabled())
+            {
+                logger.debug("Discarding reply with correlation id " + correlationId + " as no request is waiting for it");
+            }
+        }
+        catch (JMSException e)
+        {
+            logger.warn("Failed to read correlation id of reply received on shared reply to queue: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the queue, releasing every request still waiting for a reply.
+     */
+    public void close()
+    {
+        connector.closeQuietly(consumer);
+        if (queue instanceof TemporaryQueue)
+        {
+            connector.closeQuietly((TemporaryQueue) queue);
+        }
+        connector.closeQuietly(session);
+
+        for (PendingReply pendingReply : pendingReplies.values())
+        {
+            pendingReply.complete(null);
+        }
+        pendingReplies.clear();
+    }
+
+    /**
+     * Reply to a request sent with the shared queue as its reply to destination.
+     */
+    public static class PendingReply
+    {
+
+        private final String correlationId;
+        private final String requestCorrelationId;
+        private final Latch received = new Latch();
+        private volatile Message reply;
+
+        PendingReply(String correlationId, String requestCorrelationId)
+        {
+            this.correlationId = correlationId;
+            this.requestCorrelationId = requestCorrelationId;
+        }
+
+        /**
+         * @return the correlation id the request was registered and sent with
+         */
+        public String getCorrelationId()
+        {
+            return correlationId;
+        }
+
+        /**
+         * @return the correlation id the request had before being registered, if any
+         */
+        public String getRequestCorrelationId()
+        {
+            return requestCorrelationId;
+        }
+
+        void complete(Message reply)
+        {
+            if (reply != null && requestCorrelationId != null)
+            {
+                try
+                {
+                    reply.setJMSCorrelationID(requestCorrelationId);
+                }
+                catch (JMSException e)
+                {
+                    logger.warn("Failed to restore correlation id " + requestCorrelationId + " on reply: " + e.getMessage());
+                }
+            }
+            this.reply = reply;
+            received.countDown();
+        }
+
+        /**
+         * @param timeout milliseconds to wait for the reply, 0 to wait until it's received, as done by
+         *        {@link javax.jms.MessageConsumer#receive(long)}
+         * @return the reply, or null if it was not received in time
+         */
+        public Message await(long timeout) throws InterruptedException
+        {
+            if (timeout == 0)
+            {
+                received.await();
+            }
+            else
+            {
+                received.await(timeout, TimeUnit.MILLISECONDS);
+            }
+            return reply;
+        }
+    }
+}
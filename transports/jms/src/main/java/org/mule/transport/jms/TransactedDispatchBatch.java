@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Groups the messages sent by a {@link JmsMessageDispatcher} in a transacted session, which is
+ * committed every <code>batchSize</code> messages or once <code>batchTimeout</code> milliseconds
+ * have passed since the first message of the batch was sent, whatever happens first.
+ * <p/>
+ * Producers are created once per destination and kept until the batch is closed. Sessions are
+ * not thread safe, so the session and producers of the batch must only be used while holding
+ * its {@link #lock()}, which the timed commit acquires as well. If a commit fails the batch is
+ * closed and the messages sent since the previous commit are lost.
+ */
+public class TransactedDispatchBatch
+{
+
+    private static final Log logger = LogFactory.getLog(TransactedDispatchBatch.class);
+
+    private final JmsConnector connector;
+    private final Session session;
+    private final int batchSize;
+    private final long batchTimeout;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Destination, MessageProducer> producers = new HashMap<Destination, MessageProducer>();
+    private int pendingMessages;
+    private ScheduledFuture<?> scheduledCommit;
+    private volatile boolean closed;
+
+    /**
+     * @param session a transacted session, owned by the batch from now on
+     * @param batchTimeout milliseconds after which a batch is committed even if not complete,
+     *            no timed commits are done if not positive
+     */
+    public TransactedDispatchBatch(JmsConnector connector, Session session, int batchSize, long batchTimeout,
+                                   ScheduledExecutorService scheduler)
+    {
+        this.connector = connector;
+        this.session = session;
+        this.batchSize = batchSize;
+        this.batchTimeout = batchTimeout;
+        this.scheduler = scheduler;
+    }
+
+    public void lock()
+    {
+        lock.lock();
+    }
+
+    public void unlock()
+    {
+        lock.unlock();
+    }
+
+    public Session getSession()
+    {
+        return session;
+    }
+
+    /**
+     * @return the producer of this batch for the given destination, which is created on first use
+     */
+    public MessageProducer getProducer(Destination destination, boolean topic) throws JMSException
+    {
+        MessageProducer producer = producers.get(destination);
+        if (producer == null)
+        {
+            producer = connector.getJmsSupport().createProducer(session, destination, topic);
+            producers.put(destination, producer);
+        }
+        return producer;
+    }
+
+    /**
+     * Accounts for a message sent through the session of this batch, committing the batch if it
+     * is complete.
+     */
+    public void messageSent() throws JMSException
+    {
+        pendingMessages++;
+        if (pendingMessages >= batchSize)
+        {
+            commit();
+        }
+        else if (pendingMessages == 1 && batchTimeout > 0)
+        {
+            scheduleCommit();
+        }
+    }
+
+    /**
+     * Commits the messages sent since the previous commit, if any.
+     */
+    public void commit() throws JMSException
+    {
+        if (scheduledCommit != null)
+        {
+            scheduledCommit.cancel(false);
+            scheduledCommit = null;
+        }
+        if (pendingMessages == 0)
+        {
+            return;
+        }
+
+        int committedMessages = pendingMessages;
+        pendingMessages = 0;
+        try
+        {
+            session.commit();
+        }
+        catch (JMSException e)
+        {
+            // The state of the session is unknown, so it can't be used for the next batch
+            close();
+            throw e;
+        }
+        if (logger.isDebugEnabled())
+        {
+            logger.debug("Committed batch of " + committedMessages + " messages on session " + session);
+        }
+    }
+
+    /**
+     * Commits the pending messages and closes the producers and the session of this batch.
+     */
+    public void close()
+    {
+        lock();
+        try
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            try
+            {
+                commit();
+            }
+            catch (JMSException e)
+            {
+                logger.error("Failed to commit batch of dispatched messages on close", e);
+            }
+            for (MessageProducer producer : producers.values())
+            {
+                connector.closeQuietly(producer);
+            }
+            producers.clear();
+            connector.closeQuietly(session);
+        }
+        finally
+        {
+            unlock();
+        }
+    }
+
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    private void scheduleCommit()
+    {
+        try
+        {
+            scheduledCommit = scheduler.schedule(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    lock();
+                    try
+                    {
+                        if (!closed)
+                        {
+                            commit();
+                        }
+                    }
+                    catch (JMSException e)
+                    {
+                        logger.error("Failed to commit batch of dispatched messages", e);
+                    }
+                    finally
+                    {
+                        unlock();
+                    }
+                }
+            }, batchTimeout, TimeUnit.MILLISECONDS);
+        }
+        catch (RejectedExecutionException e)
+        {
+            // The connector is being stopped, the batch will be committed when closed
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Could not schedule commit of batch on session " + session, e);
+            }
+        }
+    }
+}
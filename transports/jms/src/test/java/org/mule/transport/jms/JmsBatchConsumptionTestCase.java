@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import org.mule.api.MuleEventContext;
+import org.mule.api.client.MuleClient;
+import org.mule.api.lifecycle.Callable;
+import org.mule.construct.Flow;
+import org.mule.tck.junit4.FunctionalTestCase;
+import org.mule.tck.probe.JUnitProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.transaction.TransactionCoordination;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.Connection;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JmsBatchConsumptionTestCase extends FunctionalTestCase
+{
+
+    private static final int MESSAGES = 20;
+    private static final String FAILING_PAYLOAD = "fail";
+    private static final long PROBE_TIMEOUT = 20000;
+    private static final String BROKER_URL = "vm://localhost?create=false";
+    private static final String REDELIVERED_QUEUE = "redeliveredIn";
+    private static final String FAILING_PROPERTY = "failing";
+
+    private static Set<String> processedPayloads;
+    private static Set<Object> transactions;
+    private static CountDownLatch discarded;
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "jms-batch-consumption-config.xml";
+    }
+
+    @Before
+    public void setUpRecords()
+    {
+        processedPayloads = Collections.synchronizedSet(new HashSet<String>());
+        transactions = Collections.synchronizedSet(new HashSet<Object>());
+        discarded = new CountDownLatch(1);
+    }
+
+    @Test
+    public void processesMessagesOfBatchInSingleTransaction() throws Exception
+    {
+        dispatchMessages(-1);
+
+        assertProcessed(MESSAGES, -1);
+        assertThat(transactions.size(), lessThan(MESSAGES));
+    }
+
+    @Test
+    public void processesRestOfBatchWhenMessageFails() throws Exception
+    {
+        dispatchMessages(MESSAGES / 2);
+
+        assertTrue(discarded.await(PROBE_TIMEOUT, TimeUnit.MILLISECONDS));
+        assertProcessed(MESSAGES, MESSAGES / 2);
+    }
+
+    @Test
+    public void rollsBackRedeliveredMessageReceivedAfterOtherMessages() throws Exception
+    {
+        int messages = MESSAGES / 4;
+        Connection connection = new ActiveMQConnectionFactory(BROKER_URL).createConnection();
+        try
+        {
+            connection.start();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageProducer producer = session.createProducer(session.createQueue(REDELIVERED_QUEUE));
+            for (int i = 0; i < messages; i++)
+            {
+                producer.send(session.createTextMessage(String.valueOf(i)));
+            }
+            TextMessage failingMessage = session.createTextMessage(FAILING_PAYLOAD);
+            failingMessage.setBooleanProperty(FAILING_PROPERTY, true);
+            producer.send(failingMessage);
+
+            // Rolls back the failing message, so it's redelivered after the others
+            Session transactedSession = connection.createSession(true, Session.SESSION_TRANSACTED);
+            MessageConsumer consumer = transactedSession.createConsumer(transactedSession.createQueue(REDELIVERED_QUEUE),
+                                                                        FAILING_PROPERTY + " = TRUE");
+            assertThat(consumer.receive(RECEIVE_TIMEOUT), notNullValue());
+            transactedSession.rollback();
+            consumer.close();
+        }
+        finally
+        {
+            connection.close();
+        }
+
+        ((Flow) getFlowConstruct("redeliveredBatchConsumer")).start();
+
+        assertTrue(discarded.await(PROBE_TIMEOUT, TimeUnit.MILLISECONDS));
+        assertProcessed(messages, -1);
+    }
+
+    private void dispatchMessages(int failingMessage) throws Exception
+    {
+        MuleClient client = muleContext.getClient();
+        for (int i = 0; i < MESSAGES; i++)
+        {
+            client.dispatch("jms://batchIn", i == failingMessage ? FAILING_PAYLOAD : String.valueOf(i), null);
+        }
+    }
+
+    private void assertProcessed(final int messages, final int failingMessage)
+    {
+        new PollingProber(PROBE_TIMEOUT, 100).check(new JUnitProbe()
+        {
+            @Override
+            protected boolean test() throws Exception
+            {
+                for (int i = 0; i < messages; i++)
+                {
+                    if (i != failingMessage && !processedPayloads.contains(String.valueOf(i)))
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public String describeFailure()
+            {
+                return "Not every message was processed, only " + processedPayloads;
+            }
+        });
+    }
+
+    public static class RecordingComponent implements Callable
+    {
+
+        @Override
+        public Object onCall(MuleEventContext eventContext) throws Exception
+        {
+            transactions.add(TransactionCoordination.getInstance().getTransaction());
+            String payload = eventContext.getMessage().getPayloadAsString();
+            if (FAILING_PAYLOAD.equals(payload))
+            {
+                throw new IllegalStateException("Failing message");
+            }
+            processedPayloads.add(payload);
+            return payload;
+        }
+    }
+
+    public static class DiscardingComponent implements Callable
+    {
+
+        @Override
+        public Object onCall(MuleEventContext eventContext) throws Exception
+        {
+            discarded.countDown();
+            return eventContext.getMessage().getPayload();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import org.mule.api.MuleMessage;
+import org.mule.api.client.MuleClient;
+import org.mule.tck.junit4.FunctionalTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class JmsSharedReplyToQueueTestCase extends FunctionalTestCase
+{
+
+    private static final int CONCURRENT_REQUESTS = 10;
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "jms-shared-reply-to-queue-config.xml";
+    }
+
+    @Test
+    public void concurrentRequestsReceiveTheirOwnReplies() throws Exception
+    {
+        final MuleClient client = muleContext.getClient();
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try
+        {
+            List<Future<MuleMessage>> replies = new ArrayList<Future<MuleMessage>>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++)
+            {
+                final String payload = "request " + i;
+                replies.add(executor.submit(new Callable<MuleMessage>()
+                {
+                    @Override
+                    public MuleMessage call() throws Exception
+                    {
+                        return client.send("jms://in", payload, null, RECEIVE_TIMEOUT);
+                    }
+                }));
+            }
+
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++)
+            {
+                MuleMessage reply = replies.get(i).get(RECEIVE_TIMEOUT, MILLISECONDS);
+                assertThat(reply, is(notNullValue()));
+                assertThat(reply.getPayloadAsString(), equalTo("request " + i + " received"));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void reusesReplyToQueue() throws Exception
+    {
+        MuleClient client = muleContext.getClient();
+        JmsConnector connector = muleContext.getRegistry().lookupObject("sharedReplyToConnector");
+
+        assertThat(client.send("jms://in", "first", null, RECEIVE_TIMEOUT).getPayloadAsString(), equalTo("first received"));
+        SharedReplyToQueue replyToQueue = connector.getReplyToQueue(null);
+        assertThat(client.send("jms://in", "second", null, RECEIVE_TIMEOUT).getPayloadAsString(), equalTo("second received"));
+
+        assertThat(connector.getReplyToQueue(null), is(sameInstance(replyToQueue)));
+    }
+}
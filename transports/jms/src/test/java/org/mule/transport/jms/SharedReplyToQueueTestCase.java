@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+import javax.jms.TemporaryQueue;
+
+import org.apache.activemq.command.ActiveMQTextMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class SharedReplyToQueueTestCase extends AbstractMuleTestCase
+{
+
+    private static final String CORRELATION_ID = "correlationId";
+    private static final long TIMEOUT = 100;
+    private static final long LONG_TIMEOUT = 10000;
+
+    private JmsConnector connector = mock(JmsConnector.class);
+    private JmsSupport jmsSupport = mock(JmsSupport.class);
+    private Session session = mock(Session.class);
+    private TemporaryQueue queue = mock(TemporaryQueue.class);
+    private MessageConsumer consumer = mock(MessageConsumer.class);
+    private SharedReplyToQueue replyToQueue;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        Connection connection = mock(Connection.class);
+        when(connector.getConnection()).thenReturn(connection);
+        when(connector.getJmsSupport()).thenReturn(jmsSupport);
+        when(jmsSupport.createSession(connection, false, false, Session.AUTO_ACKNOWLEDGE, false)).thenReturn(session);
+        when(jmsSupport.createTemporaryDestination(session, false)).thenReturn(queue);
+        when(jmsSupport.createConsumer(session, queue, null, false, null, false, null)).thenReturn(consumer);
+
+        replyToQueue = new SharedReplyToQueue(connector);
+        replyToQueue.start(null);
+    }
+
+    @Test
+    public void listensOnQueue() throws Exception
+    {
+        verify(consumer).setMessageListener(replyToQueue);
+        assertThat(replyToQueue.getQueue(), is(sameInstance((Destination) queue)));
+    }
+
+    @Test
+    public void completesRequestWithItsReply() throws Exception
+    {
+        Message request = new ActiveMQTextMessage();
+        request.setJMSCorrelationID(CORRELATION_ID);
+
+        SharedReplyToQueue.PendingReply pendingReply = replyToQueue.register(request);
+        Message reply = createReply(request.getJMSCorrelationID());
+        replyToQueue.onMessage(createReply(CORRELATION_ID));
+        replyToQueue.onMessage(reply);
+
+        assertThat(request.getJMSReplyTo(), is(sameInstance((Destination) queue)));
+        assertThat(pendingReply.await(TIMEOUT), is(sameInstance(reply)));
+        assertThat(reply.getJMSCorrelationID(), is(CORRELATION_ID));
+    }
+
+    @Test
+    public void waitsForReplyWithoutTimeout() throws Exception
+    {
+        Message request = new ActiveMQTextMessage();
+        request.setJMSCorrelationID(CORRELATION_ID);
+        final SharedReplyToQueue.PendingReply pendingReply = replyToQueue.register(request);
+        final AtomicReference<Message> received = new AtomicReference<Message>();
+        Thread waitingRequest = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    received.set(pendingReply.await(0));
+                }
+                catch (InterruptedException e)
+                {
+                    // finishes the thread
+                }
+            }
+        };
+        waitingRequest.start();
+
+        waitingRequest.join(TIMEOUT);
+        assertThat(waitingRequest.isAlive(), is(true));
+
+        Message reply = createReply(pendingReply.getCorrelationId());
+        replyToQueue.onMessage(reply);
+        waitingRequest.join(LONG_TIMEOUT);
+        assertThat(received.get(), is(sameInstance(reply)));
+    }
+
+    @Test
+    public void assignsCorrelationIdToRequestWithoutOne() throws Exception
+    {
+        Message request = new ActiveMQTextMessage();
+
+        SharedReplyToQueue.PendingReply pendingReply = replyToQueue.register(request);
+
+        assertThat(request.getJMSCorrelationID(), is(notNullValue()));
+        assertThat(pendingReply.getCorrelationId(), is(request.getJMSCorrelationID()));
+        assertThat(pendingReply.getRequestCorrelationId(), is(nullValue()));
+    }
+
+    @Test
+    public void registersRequestsWithSameCorrelationIdSeparately() throws Exception
+    {
+        Message request = new ActiveMQTextMessage();
+        request.setJMSCorrelationID(CORRELATION_ID);
+        Message otherRequest = new ActiveMQTextMessage();
+        otherRequest.setJMSCorrelationID(CORRELATION_ID);
+
+        SharedReplyToQueue.PendingReply pendingReply = replyToQueue.register(request);
+        SharedReplyToQueue.PendingReply otherPendingReply = replyToQueue.register(otherRequest);
+
+        assertThat(pendingReply.getCorrelationId(), is(not(otherPendingReply.getCorrelationId())));
+        assertThat(otherRequest.getJMSCorrelationID(), is(otherPendingReply.getCorrelationId()));
+        assertThat(otherRequest.getJMSReplyTo(), is(sameInstance((Destination) queue)));
+
+        Message otherReply = createReply(otherPendingReply.getCorrelationId());
+        replyToQueue.onMessage(otherReply);
+
+        assertThat(pendingReply.await(TIMEOUT), is(nullValue()));
+        assertThat(otherPendingReply.await(TIMEOUT), is(sameInstance(otherReply)));
+        assertThat(otherReply.getJMSCorrelationID(), is(CORRELATION_ID));
+    }
+
+    @Test
+    public void discardsReplyOfReleasedRequest() throws Exception
+    {
+        Message request = new ActiveMQTextMessage();
+        request.setJMSCorrelationID(CORRELATION_ID);
+
+        SharedReplyToQueue.PendingReply pendingReply = replyToQueue.register(request);
+        String releasedCorrelationId = request.getJMSCorrelationID();
+        assertThat(pendingReply.await(TIMEOUT), is(nullValue()));
+        replyToQueue.release(pendingReply);
+
+        Message nextRequest = new ActiveMQTextMessage();
+        nextRequest.setJMSCorrelationID(CORRELATION_ID);
+        SharedReplyToQueue.PendingReply nextPendingReply = replyToQueue.register(nextRequest);
+        replyToQueue.onMessage(createReply(releasedCorrelationId));
+
+        assertThat(pendingReply.await(TIMEOUT), is(nullValue()));
+        assertThat(nextPendingReply.await(TIMEOUT), is(nullValue()));
+    }
+
+    @Test
+    public void closeReleasesWaitingRequests() throws Exception
+    {
+        final SharedReplyToQueue.PendingReply pendingReply = replyToQueue.register(new ActiveMQTextMessage());
+        Thread waitingRequest = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    pendingReply.await(LONG_TIMEOUT);
+                }
+                catch (InterruptedException e)
+                {
+                    // finishes the thread
+                }
+            }
+        };
+        waitingRequest.start();
+
+        replyToQueue.close();
+
+        waitingRequest.join(LONG_TIMEOUT / 2);
+        assertThat(waitingRequest.isAlive(), is(false));
+        verify(connector).closeQuietly(consumer);
+        verify(connector).closeQuietly(queue);
+        verify(connector).closeQuietly(session);
+    }
+
+    private Message createReply(String correlationId) throws Exception
+    {
+        Message reply = new ActiveMQTextMessage();
+        reply.setJMSCorrelationID(correlationId);
+        return reply;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.jms;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class TransactedDispatchBatchTestCase extends AbstractMuleTestCase
+{
+
+    private static final int BATCH_SIZE = 3;
+    private static final long BATCH_TIMEOUT = 50;
+    private static final long VERIFY_TIMEOUT = 5000;
+
+    private JmsConnector connector = mock(JmsConnector.class);
+    private JmsSupport jmsSupport = mock(JmsSupport.class);
+    private Session session = mock(Session.class);
+    private Destination destination = mock(Destination.class);
+    private MessageProducer producer = mock(MessageProducer.class);
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        when(connector.getJmsSupport()).thenReturn(jmsSupport);
+        when(jmsSupport.createProducer(session, destination, false)).thenReturn(producer);
+    }
+
+    @After
+    public void tearDown()
+    {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void commitsCompleteBatches() throws Exception
+    {
+        TransactedDispatchBatch batch = new TransactedDispatchBatch(connector, session, BATCH_SIZE, 0, scheduler);
+
+        batch.messageSent();
+        batch.messageSent();
+        verify(session, never()).commit();
+
+        batch.messageSent();
+        verify(session).commit();
+
+        batch.messageSent();
+        verify(session).commit();
+    }
+
+    @Test
+    public void commitsIncompleteBatchAfterTimeout() throws Exception
+    {
+        TransactedDispatchBatch batch = new TransactedDispatchBatch(connector, session, BATCH_SIZE, BATCH_TIMEOUT, scheduler);
+
+        batch.messageSent();
+
+        verify(session, timeout(VERIFY_TIMEOUT)).commit();
+    }
+
+    @Test
+    public void reusesProducerOfDestination() throws Exception
+    {
+        Destination otherDestination = mock(Destination.class);
+        when(jmsSupport.createProducer(session, otherDestination, false)).thenReturn(mock(MessageProducer.class));
+        TransactedDispatchBatch batch = new TransactedDispatchBatch(connector, session, BATCH_SIZE, 0, scheduler);
+
+        assertThat(batch.getProducer(destination, false), is(sameInstance(producer)));
+        assertThat(batch.getProducer(destination, false), is(sameInstance(producer)));
+        assertThat(batch.getProducer(otherDestination, false), is(not(sameInstance(producer))));
+
+        verify(jmsSupport, times(1)).createProducer(session, destination, false);
+    }
+
+    @Test
+    public void closeCommitsPendingMessages() throws Exception
+    {
+        TransactedDispatchBatch batch = new TransactedDispatchBatch(connector, session, BATCH_SIZE, 0, scheduler);
+        batch.getProducer(destination, false);
+        batch.messageSent();
+
+        batch.close();
+
+        verify(session).commit();
+        verify(connector).closeQuietly(producer);
+        verify(connector).closeQuietly(session);
+        assertThat(batch.isClosed(), is(true));
+    }
+
+    @Test
+    public void failedCommitClosesBatch() throws Exception
+    {
+        doThrow(new JMSException("commit failed")).when(session).commit();
+        TransactedDispatchBatch batch = new TransactedDispatchBatch(connector, session, 1, 0, scheduler);
+
+        try
+        {
+            batch.messageSent();
+            fail("Commit failure should be thrown");
+        }
+        catch (JMSException e)
+        {
+            // expected
+        }
+
+        assertThat(batch.isClosed(), is(true));
+        verify(connector).closeQuietly(session);
+    }
+}
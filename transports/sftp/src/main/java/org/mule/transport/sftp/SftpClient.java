@@ -59,6 +59,9 @@ public class SftpClient
 
     private Session session;
 
+    // Set when the session is shared with other clients, see connect(SharedSession)
+    private SftpSessionManager.SharedSession sharedSession;
+
     private final String host;
 
     private int port = 22;
@@ -208,6 +211,34 @@ public class SftpClient
         }
     }
 
+    /**
+     * Opens the SFTP channel of this client on a session shared with other clients. The
+     * session is not disconnected by {@link #disconnect()}, the channel slot is released
+     * instead.
+     */
+    void connect(SftpSessionManager.SharedSession sharedSession) throws IOException
+    {
+        this.sharedSession = sharedSession;
+        session = sharedSession.getSession();
+
+        try
+        {
+            Channel channel = session.openChannel(CHANNEL_SFTP);
+            channel.connect();
+
+            channelSftp = (ChannelSftp) channel;
+            setHome(channelSftp.pwd());
+        }
+        catch (JSchException e)
+        {
+            logAndThrowLoginError(session.getUserName(), e);
+        }
+        catch (SftpException e)
+        {
+            logAndThrowLoginError(session.getUserName(), e);
+        }
+    }
+
     private void logAndThrowLoginError(String user, Exception e) throws IOException
     {
         logger.error("Error during login to " + user + "@" + host, e);
@@ -277,7 +308,12 @@ public class SftpClient
         {
             channelSftp.disconnect();
         }
-        if ((session != null) && session.isConnected())
+        if (sharedSession != null)
+        {
+            sharedSession.release();
+            sharedSession = null;
+        }
+        else if ((session != null) && session.isConnected())
         {
             session.disconnect();
         }
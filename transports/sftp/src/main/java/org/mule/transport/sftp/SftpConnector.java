@@ -70,6 +70,12 @@ public class SftpConnector extends AbstractConnector
 
     public static final int DEFAULT_POLLING_FREQUENCY = 1000;
 
+    /**
+     * Same as the default MaxSessions of OpenSSH servers
+     */
+    public static final int DEFAULT_MAX_CHANNELS_PER_SESSION = 10;
+    public static final long DEFAULT_SESSION_IDLE_TIMEOUT = 60000;
+
     /**
      * logger used by this class
      */
@@ -111,6 +117,24 @@ public class SftpConnector extends AbstractConnector
      */
     private int maxConnectionPoolSize;
 
+    /**
+     * max number of SSH sessions shared by the clients of each host and credentials. 0
+     * for no session multiplexing, otherwise the specified value
+     */
+    private int maxSessionsPerHost;
+
+    /**
+     * max number of SFTP channels opened on each shared session
+     */
+    private int maxChannelsPerSession = DEFAULT_MAX_CHANNELS_PER_SESSION;
+
+    /**
+     * milliseconds a shared session can remain unused before it is disconnected
+     */
+    private long sessionIdleTimeout = DEFAULT_SESSION_IDLE_TIMEOUT;
+
+    private SftpSessionManager sessionManager;
+
     /**
      * Value that can be set via the System property
      * 'mule.sftp.transport.maxConnectionPoolSize'. If it's set the value is used
@@ -180,7 +204,13 @@ public class SftpConnector extends AbstractConnector
 
         try
         {
-            if (useConnectionPool())
+            if (useSessionMultiplexing())
+            {
+                SftpSessionKey key = SftpSessionKey.forEndpoint(endpoint, preferredAuthenticationMethods);
+                client = new SftpClient(key.getHost());
+                client.connect(getSessionManager().acquire(key));
+            }
+            else if (useConnectionPool())
             {
                 ObjectPool pool = getClientPool(endpoint);
                 client = (SftpClient) pool.borrowObject();
@@ -225,9 +255,37 @@ public class SftpConnector extends AbstractConnector
         return getMaxConnectionPoolSize() != 0;
     }
 
+    /**
+     * @return True if the clients share SSH sessions, otherwise false. Takes precedence
+     *         over the connection pool.
+     */
+    public boolean useSessionMultiplexing()
+    {
+        return maxSessionsPerHost > 0;
+    }
+
+    protected synchronized SftpSessionManager getSessionManager()
+    {
+        if (sessionManager == null)
+        {
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Creating session manager with " + maxSessionsPerHost + " sessions per host and "
+                             + maxChannelsPerSession + " channels per session");
+            }
+            sessionManager = new SftpSessionManager(getName(), maxSessionsPerHost, maxChannelsPerSession,
+                                                    sessionIdleTimeout);
+        }
+        return sessionManager;
+    }
+
     public void releaseClient(ImmutableEndpoint endpoint, SftpClient client) throws Exception
     {
-        if (useConnectionPool())
+        if (useSessionMultiplexing())
+        {
+            client.disconnect();
+        }
+        else if (useConnectionPool())
         {
             if (getDispatcherFactory().isCreateDispatcherPerRequest())
             {
@@ -254,7 +312,14 @@ public class SftpConnector extends AbstractConnector
 
     public void destroyClient(ImmutableEndpoint endpoint, SftpClient client) throws Exception
     {
-        if (useConnectionPool())
+        if (useSessionMultiplexing())
+        {
+            if (client != null)
+            {
+                client.disconnect();
+            }
+        }
+        else if (useConnectionPool())
         {
             if ((client != null) && (client.isConnected()))
             {
@@ -365,6 +430,16 @@ public class SftpConnector extends AbstractConnector
         finally
         {
             pools.clear();
+            closeSessionManager();
+        }
+    }
+
+    private synchronized void closeSessionManager()
+    {
+        if (sessionManager != null)
+        {
+            sessionManager.close();
+            sessionManager = null;
         }
     }
 
@@ -567,6 +642,45 @@ public class SftpConnector extends AbstractConnector
         return maxConnectionPoolSize;
     }
 
+    /**
+     * @see SftpConnector#maxSessionsPerHost
+     */
+    public void setMaxSessionsPerHost(int maxSessionsPerHost)
+    {
+        this.maxSessionsPerHost = maxSessionsPerHost;
+    }
+
+    public int getMaxSessionsPerHost()
+    {
+        return maxSessionsPerHost;
+    }
+
+    /**
+     * @see SftpConnector#maxChannelsPerSession
+     */
+    public void setMaxChannelsPerSession(int maxChannelsPerSession)
+    {
+        this.maxChannelsPerSession = maxChannelsPerSession;
+    }
+
+    public int getMaxChannelsPerSession()
+    {
+        return maxChannelsPerSession;
+    }
+
+    /**
+     * @see SftpConnector#sessionIdleTimeout
+     */
+    public void setSessionIdleTimeout(long sessionIdleTimeout)
+    {
+        this.sessionIdleTimeout = sessionIdleTimeout;
+    }
+
+    public long getSessionIdleTimeout()
+    {
+        return sessionIdleTimeout;
+    }
+
     public Boolean isKeepFileOnError()
     {
         return keepFileOnError;
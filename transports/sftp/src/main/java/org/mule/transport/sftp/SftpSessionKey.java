@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.sftp;
+
+import org.mule.api.endpoint.EndpointURI;
+import org.mule.api.endpoint.ImmutableEndpoint;
+
+import java.util.Arrays;
+
+/**
+ * Identifies the SSH sessions that can be shared between SFTP clients: the ones opened
+ * to the same host and port with the same credentials and authentication settings.
+ */
+public final class SftpSessionKey
+{
+
+    public static final int DEFAULT_PORT = 22;
+
+    private final String host;
+    private final int port;
+    private final String user;
+    private final String password;
+    private final String identityFile;
+    private final String passphrase;
+    private final String preferredAuthenticationMethods;
+    private final int connectionTimeoutMillis;
+
+    public SftpSessionKey(String host, int port, String user, String password, String identityFile,
+                          String passphrase, String preferredAuthenticationMethods, int connectionTimeoutMillis)
+    {
+        this.host = host;
+        this.port = port;
+        this.user = user;
+        this.password = password;
+        this.identityFile = identityFile;
+        this.passphrase = passphrase;
+        this.preferredAuthenticationMethods = preferredAuthenticationMethods;
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+    }
+
+    /**
+     * Creates the key for the sessions used by an endpoint, resolving the identity file
+     * and passphrase the same way {@link SftpConnectionFactory} does.
+     */
+    public static SftpSessionKey forEndpoint(ImmutableEndpoint endpoint, String preferredAuthenticationMethods)
+    {
+        EndpointURI endpointURI = endpoint.getEndpointURI();
+        SftpUtil sftpUtil = new SftpUtil(endpoint);
+        String identityFile = sftpUtil.getIdentityFile();
+        int port = endpointURI.getPort() == -1 ? DEFAULT_PORT : endpointURI.getPort();
+
+        return new SftpSessionKey(endpointURI.getHost(), port, endpointURI.getUser(),
+                                  identityFile == null ? endpointURI.getPassword() : null,
+                                  identityFile, identityFile == null ? null : sftpUtil.getPassphrase(),
+                                  preferredAuthenticationMethods, endpoint.getResponseTimeout());
+    }
+
+    public String getHost()
+    {
+        return host;
+    }
+
+    public int getPort()
+    {
+        return port;
+    }
+
+    public String getUser()
+    {
+        return user;
+    }
+
+    public String getPassword()
+    {
+        return password;
+    }
+
+    public String getIdentityFile()
+    {
+        return identityFile;
+    }
+
+    public String getPassphrase()
+    {
+        return passphrase;
+    }
+
+    public String getPreferredAuthenticationMethods()
+    {
+        return preferredAuthenticationMethods;
+    }
+
+    /**
+     * @return the timeout used to connect new sessions. It is not part of the identity of
+     *         the key.
+     */
+    public int getConnectionTimeoutMillis()
+    {
+        return connectionTimeoutMillis;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof SftpSessionKey))
+        {
+            return false;
+        }
+
+        SftpSessionKey that = (SftpSessionKey) o;
+
+        return port == that.port && equal(host, that.host) && equal(user, that.user)
+               && equal(password, that.password) && equal(identityFile, that.identityFile)
+               && equal(passphrase, that.passphrase)
+               && equal(preferredAuthenticationMethods, that.preferredAuthenticationMethods);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Arrays.hashCode(new Object[] {host, port, user, password, identityFile, passphrase,
+            preferredAuthenticationMethods});
+    }
+
+    @Override
+    public String toString()
+    {
+        // Never log the credentials
+        return user + "@" + host + ":" + port;
+    }
+
+    private static boolean equal(Object a, Object b)
+    {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.sftp;
+
+import org.mule.util.StringUtils;
+import org.mule.util.concurrent.NamedThreadFactory;
+
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Keeps a few authenticated SSH sessions per {@link SftpSessionKey} and shares them
+ * between SFTP clients, each one of them using its own SFTP channel on the session.
+ * <p/>
+ * Opening a channel on an existing session is much cheaper than a new TCP connection,
+ * key exchange and authentication. A new session is only opened when every session of
+ * the key already has <code>maxChannelsPerSession</code> channels open. When the key
+ * also has <code>maxSessionsPerHost</code> sessions, clients wait for a channel to be
+ * released.
+ * <p/>
+ * Idle sessions are checked periodically: the ones unused for longer than
+ * <code>sessionIdleTimeout</code> are disconnected, the rest are sent a keep alive
+ * message and discarded if it fails.
+ */
+public class SftpSessionManager
+{
+
+    private static final long MIN_EVICTION_INTERVAL = 1000;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final int maxSessionsPerHost;
+    private final int maxChannelsPerSession;
+    private final long sessionIdleTimeout;
+    private final ConcurrentMap<SftpSessionKey, SessionGroup> groups = new ConcurrentHashMap<SftpSessionKey, SessionGroup>();
+    private final ScheduledExecutorService evictor;
+
+    public SftpSessionManager(String name, int maxSessionsPerHost, int maxChannelsPerSession, long sessionIdleTimeout)
+    {
+        if (maxSessionsPerHost <= 0 || maxChannelsPerSession <= 0)
+        {
+            throw new IllegalArgumentException("maxSessionsPerHost and maxChannelsPerSession must be greater than zero");
+        }
+
+        this.maxSessionsPerHost = maxSessionsPerHost;
+        this.maxChannelsPerSession = maxChannelsPerSession;
+        this.sessionIdleTimeout = sessionIdleTimeout;
+
+        long evictionInterval = Math.max(sessionIdleTimeout / 2, MIN_EVICTION_INTERVAL);
+        evictor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(name + ".sessionEvictor"));
+        evictor.scheduleWithFixedDelay(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                evictIdleSessions();
+            }
+        }, evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reserves a channel slot on a session for the given key, connecting a new session if
+     * needed. The slot must be given back with {@link SharedSession#release()}.
+     *
+     * @throws IOException if the session can't be connected or no slot is released
+     *             before the connection timeout of the key
+     */
+    public SharedSession acquire(SftpSessionKey key) throws IOException
+    {
+        SessionGroup group = getGroup(key);
+        long timeout = key.getConnectionTimeoutMillis();
+        long deadline = System.currentTimeMillis() + timeout;
+
+        synchronized (group)
+        {
+            while (true)
+            {
+                if (group.closed)
+                {
+                    throw new IOException("Sessions to " + key + " have been closed");
+                }
+
+                SharedSession session = group.findAvailable();
+                if (session != null)
+                {
+                    session.channels++;
+                    return session;
+                }
+
+                if (group.sessions.size() + group.connecting < maxSessionsPerHost)
+                {
+                    group.connecting++;
+                    break;
+                }
+
+                long remaining = deadline - System.currentTimeMillis();
+                if (timeout > 0 && remaining <= 0)
+                {
+                    throw new IOException("Timed out waiting for a free SFTP channel to " + key);
+                }
+
+                try
+                {
+                    group.wait(timeout > 0 ? remaining : 0);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted waiting for a free SFTP channel to " + key);
+                }
+            }
+        }
+
+        // Connect outside the lock so clients can keep using the other sessions meanwhile
+        Session session = null;
+        try
+        {
+            session = connect(key);
+        }
+        finally
+        {
+            synchronized (group)
+            {
+                group.connecting--;
+                group.notifyAll();
+            }
+        }
+
+        synchronized (group)
+        {
+            if (group.closed)
+            {
+                session.disconnect();
+                throw new IOException("Sessions to " + key + " have been closed");
+            }
+
+            SharedSession sharedSession = new SharedSession(group, session);
+            sharedSession.channels = 1;
+            group.sessions.add(sharedSession);
+
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Opened session " + group.sessions.size() + " of " + maxSessionsPerHost + " to " + key);
+            }
+
+            return sharedSession;
+        }
+    }
+
+    /**
+     * @return the number of sessions currently open for the key
+     */
+    public int getSessionCount(SftpSessionKey key)
+    {
+        SessionGroup group = groups.get(key);
+        if (group == null)
+        {
+            return 0;
+        }
+
+        synchronized (group)
+        {
+            return group.sessions.size();
+        }
+    }
+
+    /**
+     * Disconnects every session. Clients still using them get an error on their next
+     * operation and clients waiting for a channel are woken up.
+     */
+    public void close()
+    {
+        evictor.shutdownNow();
+
+        for (SessionGroup group : groups.values())
+        {
+            synchronized (group)
+            {
+                group.closed = true;
+                for (SharedSession session : group.sessions)
+                {
+                    session.session.disconnect();
+                }
+                group.sessions.clear();
+                group.notifyAll();
+            }
+        }
+        groups.clear();
+    }
+
+    protected Session connect(SftpSessionKey key) throws IOException
+    {
+        JSch jsch = new JSch();
+
+        try
+        {
+            if (key.getIdentityFile() != null)
+            {
+                File identityFile = new File(key.getIdentityFile());
+                if (!identityFile.exists())
+                {
+                    throw new IOException("IdentityFile '" + key.getIdentityFile() + "' not found");
+                }
+
+                if (StringUtils.isEmpty(key.getPassphrase()))
+                {
+                    jsch.addIdentity(identityFile.getAbsolutePath());
+                }
+                else
+                {
+                    jsch.addIdentity(identityFile.getAbsolutePath(), key.getPassphrase());
+                }
+            }
+
+            Properties hash = new Properties();
+            hash.put(SftpClient.STRICT_HOST_KEY_CHECKING, "no");
+            if (!StringUtils.isEmpty(key.getPreferredAuthenticationMethods()))
+            {
+                hash.put(SftpClient.PREFERRED_AUTHENTICATION_METHODS, key.getPreferredAuthenticationMethods());
+            }
+
+            Session session = jsch.getSession(key.getUser(), key.getHost());
+            session.setConfig(hash);
+            session.setPort(key.getPort());
+            if (key.getIdentityFile() == null)
+            {
+                session.setPassword(key.getPassword());
+            }
+            session.setTimeout(key.getConnectionTimeoutMillis());
+            session.connect();
+
+            return session;
+        }
+        catch (JSchException e)
+        {
+            logger.error("Error during login to " + key, e);
+            throw new IOException("Error during login to " + key + ": " + e.getMessage());
+        }
+    }
+
+    protected void evictIdleSessions()
+    {
+        long now = System.currentTimeMillis();
+
+        for (SessionGroup group : groups.values())
+        {
+            synchronized (group)
+            {
+                for (Iterator<SharedSession> it = group.sessions.iterator(); it.hasNext(); )
+                {
+                    SharedSession session = it.next();
+                    if (session.channels > 0)
+                    {
+                        continue;
+                    }
+
+                    if (!session.session.isConnected())
+                    {
+                        it.remove();
+                    }
+                    else if (now - session.lastUsed >= sessionIdleTimeout)
+                    {
+                        if (logger.isDebugEnabled())
+                        {
+                            logger.debug("Disconnecting idle session to " + group.key);
+                        }
+                        it.remove();
+                        session.session.disconnect();
+                    }
+                    else if (!isHealthy(session))
+                    {
+                        logger.warn("Discarding broken session to " + group.key);
+                        it.remove();
+                        session.session.disconnect();
+                    }
+                }
+                group.notifyAll();
+            }
+        }
+    }
+
+    private boolean isHealthy(SharedSession session)
+    {
+        try
+        {
+            session.session.sendKeepAliveMsg();
+            return true;
+        }
+        catch (Exception e)
+        {
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Keep alive failed: " + e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private SessionGroup getGroup(SftpSessionKey key)
+    {
+        SessionGroup group = groups.get(key);
+        if (group == null)
+        {
+            SessionGroup newGroup = new SessionGroup(key);
+            group = groups.putIfAbsent(key, newGroup);
+            if (group == null)
+            {
+                group = newGroup;
+            }
+        }
+        return group;
+    }
+
+    private class SessionGroup
+    {
+
+        private final SftpSessionKey key;
+        private final List<SharedSession> sessions = new ArrayList<SharedSession>();
+        private int connecting;
+        private boolean closed;
+
+        private SessionGroup(SftpSessionKey key)
+        {
+            this.key = key;
+        }
+
+        /**
+         * Finds the first connected session with a free channel slot, so channels are
+         * packed in as few sessions as possible and the rest can become idle.
+         */
+        private SharedSession findAvailable()
+        {
+            for (Iterator<SharedSession> it = sessions.iterator(); it.hasNext(); )
+            {
+                SharedSession session = it.next();
+                if (!session.session.isConnected())
+                {
+                    if (session.channels == 0)
+                    {
+                        it.remove();
+                    }
+                }
+                else if (session.channels < maxChannelsPerSession)
+                {
+                    return session;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A session shared by several SFTP clients.
+     */
+    public class SharedSession
+    {
+
+        private final SessionGroup group;
+        private final Session session;
+        private int channels;
+        private long lastUsed = System.currentTimeMillis();
+
+        private SharedSession(SessionGroup group, Session session)
+        {
+            this.group = group;
+            this.session = session;
+        }
+
+        public Session getSession()
+        {
+            return session;
+        }
+
+        /**
+         * Gives back the channel slot reserved by {@link SftpSessionManager#acquire}. The
+         * session is disconnected if it was broken and no channel is using it.
+         */
+        public void release()
+        {
+            synchronized (group)
+            {
+                channels--;
+                lastUsed = System.currentTimeMillis();
+
+                if (channels == 0 && !session.isConnected())
+                {
+                    group.sessions.remove(this);
+                }
+                group.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.sftp;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.mule.api.MuleMessage;
+import org.mule.api.client.MuleClient;
+import org.mule.tck.util.sftp.SftpServer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class SftpSessionMultiplexingTestCase extends AbstractSftpFunctionalTestCase
+{
+
+    private static final int FILES = 20;
+    private static final int UPLOAD_THREADS = 8;
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "mule-sftp-session-multiplexing-config.xml";
+    }
+
+    @Test
+    public void configuresMultiplexing() throws Exception
+    {
+        SftpConnector connector = getConnector();
+
+        assertThat(connector.useSessionMultiplexing(), equalTo(true));
+        assertThat(connector.getMaxSessionsPerHost(), equalTo(1));
+        assertThat(connector.getMaxChannelsPerSession(), equalTo(4));
+        assertThat(connector.getSessionIdleTimeout(), equalTo(30000L));
+    }
+
+    @Test
+    public void uploadsConcurrentlyOverSharedSession() throws Exception
+    {
+        final MuleClient client = muleContext.getClient();
+        ExecutorService executor = Executors.newFixedThreadPool(UPLOAD_THREADS);
+        List<Future<MuleMessage>> results = new ArrayList<Future<MuleMessage>>();
+
+        try
+        {
+            for (int i = 0; i < FILES; i++)
+            {
+                final String name = "file" + i;
+                results.add(executor.submit(new Callable<MuleMessage>()
+                {
+                    @Override
+                    public MuleMessage call() throws Exception
+                    {
+                        return client.send("vm://upload", name, null);
+                    }
+                }));
+            }
+
+            for (Future<MuleMessage> result : results)
+            {
+                assertThat(result.get().getExceptionPayload(), nullValue());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertThat(sftpClient.listFiles().length, equalTo(FILES));
+        assertThat(getConnector().getSessionManager().getSessionCount(createKey()), equalTo(1));
+    }
+
+    @Test
+    public void sharesSessionUntilChannelsAreExhausted() throws Exception
+    {
+        SftpSessionManager sessionManager = new SftpSessionManager("test", 2, 2, 30000);
+        SftpSessionKey key = createKey();
+
+        try
+        {
+            SftpClient first = connectClient(sessionManager, key);
+            SftpClient second = connectClient(sessionManager, key);
+            SftpClient third = connectClient(sessionManager, key);
+
+            assertThat(sessionManager.getSessionCount(key), equalTo(2));
+            assertThat(Arrays.asList(second.listFiles()), equalTo(Arrays.asList(first.listFiles())));
+
+            first.disconnect();
+            second.disconnect();
+            third.disconnect();
+
+            SftpClient reused = connectClient(sessionManager, key);
+            assertThat(reused.isConnected(), equalTo(true));
+            assertThat(sessionManager.getSessionCount(key), equalTo(2));
+            reused.disconnect();
+        }
+        finally
+        {
+            sessionManager.close();
+        }
+    }
+
+    @Test
+    public void waitsForReleasedChannel() throws Exception
+    {
+        SftpSessionManager sessionManager = new SftpSessionManager("test", 1, 1, 30000);
+        SftpSessionKey key = createKey(500);
+
+        try
+        {
+            SftpSessionManager.SharedSession session = sessionManager.acquire(key);
+            try
+            {
+                sessionManager.acquire(key);
+                fail("Expected no channel to be available");
+            }
+            catch (IOException e)
+            {
+                // Expected
+            }
+
+            session.release();
+            assertThat(sessionManager.acquire(key), sameInstance(session));
+        }
+        finally
+        {
+            sessionManager.close();
+        }
+    }
+
+    @Test
+    public void evictsIdleSessions() throws Exception
+    {
+        SftpSessionManager sessionManager = new SftpSessionManager("test", 1, 1, 0);
+        SftpSessionKey key = createKey();
+
+        try
+        {
+            SftpSessionManager.SharedSession session = sessionManager.acquire(key);
+            session.release();
+
+            sessionManager.evictIdleSessions();
+
+            assertThat(sessionManager.getSessionCount(key), equalTo(0));
+            assertThat(session.getSession().isConnected(), equalTo(false));
+            assertThat(sessionManager.acquire(key), not(sameInstance(session)));
+        }
+        finally
+        {
+            sessionManager.close();
+        }
+    }
+
+    private SftpConnector getConnector()
+    {
+        return (SftpConnector) muleContext.getRegistry().lookupConnector("sftpMultiplexingConnector");
+    }
+
+    private SftpClient connectClient(SftpSessionManager sessionManager, SftpSessionKey key) throws IOException
+    {
+        SftpClient client = new SftpClient(key.getHost());
+        client.connect(sessionManager.acquire(key));
+        client.changeWorkingDirectory("/~/" + TESTDIR);
+
+        return client;
+    }
+
+    private SftpSessionKey createKey()
+    {
+        return createKey(0);
+    }
+
+    private SftpSessionKey createKey(int connectionTimeoutMillis)
+    {
+        return new SftpSessionKey("localhost", sftpPort.getNumber(), SftpServer.USERNAME, SftpServer.PASSWORD,
+                                  null, null, null, connectionTimeoutMillis);
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import java.io.IOException;
+
+/**
+ * A {@link TcpProtocol} whose messages can be framed incrementally, as required by the
+ * {@link TcpChannelMessageReceiver}.
+ */
+public interface IncrementalTcpProtocol extends TcpProtocol
+{
+
+    /**
+     * @return a new decoder for the data of a single connection
+     */
+    TcpFrameDecoder createFrameDecoder();
+
+    /**
+     * Reads the message contained in a frame returned by a decoder of this protocol.
+     *
+     * @param frame the bytes of the frame
+     * @return the message, or null if the frame does not contain one
+     * @throws IOException if the frame is not a valid message of the protocol
+     */
+    Object readFrame(byte[] frame) throws IOException;
+
+}
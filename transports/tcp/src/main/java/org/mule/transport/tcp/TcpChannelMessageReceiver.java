@@ -0,0 +1,711 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import org.mule.api.MuleException;
+import org.mule.api.MuleMessage;
+import org.mule.api.config.MuleProperties;
+import org.mule.api.construct.FlowConstruct;
+import org.mule.api.endpoint.InboundEndpoint;
+import org.mule.api.lifecycle.CreateException;
+import org.mule.api.transaction.Transaction;
+import org.mule.api.transaction.TransactionException;
+import org.mule.api.transport.Connector;
+import org.mule.config.i18n.CoreMessages;
+import org.mule.transport.AbstractMessageReceiver;
+import org.mule.transport.AbstractReceiverWorker;
+import org.mule.transport.ConnectException;
+import org.mule.transport.tcp.i18n.TcpMessages;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.resource.spi.work.Work;
+import javax.resource.spi.work.WorkException;
+import javax.resource.spi.work.WorkManager;
+
+/**
+ * <code>TcpChannelMessageReceiver</code> acts like a TCP server that reads all its
+ * connections from a single thread using a non blocking {@link Selector}, so the number
+ * of threads does not grow with the number of connections.
+ * <p/>
+ * The data received on each connection is framed by the {@link TcpFrameDecoder} of the
+ * connector protocol, which must be an {@link IncrementalTcpProtocol}. Only complete
+ * frames are handed to the work manager, where they are read by the protocol and routed.
+ * The messages of a connection are processed in order, one at a time, and their responses
+ * are written back without blocking the worker.
+ * <p/>
+ * Connections are closed once the client closes its side and every response has been
+ * written, or when they are idle for longer than the keep alive timeout of the connector
+ * (or its server socket timeout if that is not set).
+ */
+public class TcpChannelMessageReceiver extends AbstractMessageReceiver implements Work
+{
+
+    /**
+     * Initial size of the buffer of each connection. Buffers grow as needed to hold a
+     * whole frame
+     */
+    public static final int READ_BUFFER_SIZE = 8192;
+
+    /**
+     * Maximum number of reads from a connection each time it is selected, so a busy
+     * connection can't starve the rest
+     */
+    protected static final int MAX_READS_PER_SELECT = 16;
+
+    /**
+     * Time to wait for events before checking if the receiver has been disconnected
+     * and if there are idle connections
+     */
+    protected static final long SELECT_TIMEOUT = 1000;
+
+    protected ServerSocketChannel serverChannel;
+    protected Selector selector;
+    protected final IncrementalTcpProtocol protocol;
+    protected final AtomicBoolean disposing = new AtomicBoolean(false);
+
+    private final long idleTimeout;
+    private final Queue<TcpChannelConnection> pendingWrites = new ConcurrentLinkedQueue<TcpChannelConnection>();
+    private long lastIdleCheck;
+
+    public TcpChannelMessageReceiver(Connector connector, FlowConstruct flowConstruct, InboundEndpoint endpoint)
+            throws CreateException
+    {
+        super(connector, flowConstruct, endpoint);
+
+        TcpConnector tcpConnector = (TcpConnector) connector;
+        TcpProtocol tcpProtocol = tcpConnector.getTcpProtocol();
+        if (!(tcpProtocol instanceof IncrementalTcpProtocol))
+        {
+            throw new CreateException(TcpMessages.protocolNotIncremental(tcpProtocol), this);
+        }
+        protocol = (IncrementalTcpProtocol) tcpProtocol;
+
+        if (tcpConnector.getKeepAliveTimeout() > 0)
+        {
+            idleTimeout = tcpConnector.getKeepAliveTimeout();
+        }
+        else
+        {
+            idleTimeout = Math.max(tcpConnector.getServerSoTimeout(), 0);
+        }
+    }
+
+    @Override
+    protected void doConnect() throws ConnectException
+    {
+        disposing.set(false);
+
+        URI uri = endpoint.getEndpointURI().getUri();
+
+        try
+        {
+            serverChannel = ((TcpConnector) connector).getServerSocketChannel(uri);
+            selector = Selector.open();
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        catch (Exception e)
+        {
+            closeServerChannel();
+            closeSelector();
+            throw new ConnectException(TcpMessages.failedToBindToUri(uri), e, this);
+        }
+
+        try
+        {
+            getWorkManager().scheduleWork(this, WorkManager.INDEFINITE, null, connector);
+        }
+        catch (WorkException e)
+        {
+            throw new ConnectException(CoreMessages.failedToScheduleWork(), e, this);
+        }
+    }
+
+    @Override
+    protected void doDisconnect()
+    {
+        // this will cause the selector thread to close the connections and quit
+        disposing.set(true);
+        closeServerChannel();
+        if (selector != null)
+        {
+            selector.wakeup();
+        }
+    }
+
+    @Override
+    protected void doStart() throws MuleException
+    {
+        // nothing to do
+    }
+
+    @Override
+    protected void doStop() throws MuleException
+    {
+        // nothing to do
+    }
+
+    @Override
+    protected void doDispose()
+    {
+        doDisconnect();
+        logger.info("Closed Tcp port");
+    }
+
+    /**
+     * Obtain the server socket channel
+     * @return the server socket channel for this server
+     */
+    public ServerSocketChannel getServerChannel()
+    {
+        return serverChannel;
+    }
+
+    public void run()
+    {
+        try
+        {
+            while (!disposing.get())
+            {
+                try
+                {
+                    if (!connector.isStarted())
+                    {
+                        Thread.sleep(SELECT_TIMEOUT);
+                        continue;
+                    }
+
+                    selector.select(SELECT_TIMEOUT);
+                    registerPendingWrites();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext())
+                    {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handleKey(key);
+                    }
+
+                    closeIdleConnections();
+                }
+                catch (ClosedSelectorException e)
+                {
+                    return;
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                catch (Exception e)
+                {
+                    if (!connector.isDisposed() && !disposing.get())
+                    {
+                        getEndpoint().getMuleContext().getExceptionListener().handleException(e);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            closeAll();
+        }
+    }
+
+    public void release()
+    {
+        // template method
+    }
+
+    protected void handleKey(SelectionKey key) throws IOException
+    {
+        if (!key.isValid())
+        {
+            return;
+        }
+
+        if (key.isAcceptable())
+        {
+            acceptConnections();
+            return;
+        }
+
+        TcpChannelConnection connection = (TcpChannelConnection) key.attachment();
+        try
+        {
+            if (key.isReadable())
+            {
+                connection.read();
+            }
+            if (key.isValid() && key.isWritable())
+            {
+                connection.flush();
+            }
+        }
+        catch (IOException e)
+        {
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Closing connection from " + connection.remoteAddress + ": " + e.getMessage());
+            }
+            connection.close();
+        }
+    }
+
+    protected void acceptConnections() throws IOException
+    {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null)
+        {
+            try
+            {
+                channel.configureBlocking(false);
+                ((TcpConnector) connector).configureSocket(TcpConnector.SERVER, channel.socket());
+
+                TcpChannelConnection connection = createConnection(channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            }
+            catch (IOException e)
+            {
+                logger.warn("Failed to accept connection: " + e.getMessage());
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    protected TcpChannelConnection createConnection(SocketChannel channel)
+    {
+        return new TcpChannelConnection(channel);
+    }
+
+    private void registerPendingWrites()
+    {
+        TcpChannelConnection connection;
+        while ((connection = pendingWrites.poll()) != null)
+        {
+            SelectionKey key = connection.key;
+            if (key.isValid())
+            {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    private void closeIdleConnections()
+    {
+        long now = System.currentTimeMillis();
+        if (idleTimeout <= 0 || now - lastIdleCheck < SELECT_TIMEOUT)
+        {
+            return;
+        }
+        lastIdleCheck = now;
+
+        for (SelectionKey key : selector.keys())
+        {
+            if (key.attachment() instanceof TcpChannelConnection)
+            {
+                TcpChannelConnection connection = (TcpChannelConnection) key.attachment();
+                if (connection.isIdle(now - idleTimeout))
+                {
+                    if (logger.isDebugEnabled())
+                    {
+                        logger.debug("Closing idle connection from " + connection.remoteAddress);
+                    }
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private void closeAll()
+    {
+        closeServerChannel();
+
+        if (selector != null)
+        {
+            try
+            {
+                for (SelectionKey key : selector.keys())
+                {
+                    if (key.attachment() instanceof TcpChannelConnection)
+                    {
+                        ((TcpChannelConnection) key.attachment()).close();
+                    }
+                }
+            }
+            catch (ClosedSelectorException e)
+            {
+                // already closed
+            }
+            closeSelector();
+        }
+    }
+
+    private void closeServerChannel()
+    {
+        if (serverChannel != null && serverChannel.isOpen())
+        {
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Closing: " + serverChannel);
+            }
+            closeQuietly(serverChannel);
+        }
+    }
+
+    private void closeSelector()
+    {
+        try
+        {
+            if (selector != null)
+            {
+                selector.close();
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn("Selector close failed: " + e.getMessage());
+        }
+    }
+
+    private void closeQuietly(Channel channel)
+    {
+        try
+        {
+            channel.close();
+        }
+        catch (IOException e)
+        {
+            logger.warn("Socket close failed with: " + e);
+        }
+    }
+
+    /**
+     * The state of an accepted connection. Reads, and the writes that can't complete
+     * right away, happen in the selector thread. Frames are processed by a single
+     * {@link TcpChannelWorker} at a time.
+     */
+    protected class TcpChannelConnection
+    {
+
+        protected final SocketChannel channel;
+        protected final SocketAddress remoteAddress;
+        protected final TcpFrameDecoder decoder;
+        protected SelectionKey key;
+
+        private ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final Queue<ByteBuffer> writes = new ArrayDeque<ByteBuffer>();
+        private final LinkedList<byte[]> frames = new LinkedList<byte[]>();
+        private boolean processing;
+        private volatile boolean inputClosed;
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        public TcpChannelConnection(SocketChannel channel)
+        {
+            this.channel = channel;
+            this.remoteAddress = channel.socket().getRemoteSocketAddress();
+            this.decoder = protocol.createFrameDecoder();
+        }
+
+        protected void read() throws IOException
+        {
+            lastActivity = System.currentTimeMillis();
+
+            List<byte[]> received = new ArrayList<byte[]>();
+            boolean drained = false;
+            boolean eof = false;
+
+            for (int i = 0; i < MAX_READS_PER_SELECT && !drained && !eof; i++)
+            {
+                if (!readBuffer.hasRemaining())
+                {
+                    ByteBuffer larger = ByteBuffer.allocate(readBuffer.capacity() * 2);
+                    readBuffer.flip();
+                    larger.put(readBuffer);
+                    readBuffer = larger;
+                }
+
+                int len = channel.read(readBuffer);
+                eof = len < 0;
+                drained = len == 0 || readBuffer.hasRemaining();
+
+                try
+                {
+                    decodeFrames(received, drained, eof);
+                }
+                catch (IOException e)
+                {
+                    // The data don't match the protocol, nothing else can be read
+                    getEndpoint().getMuleContext().getExceptionListener().handleException(e);
+                    close();
+                    return;
+                }
+            }
+
+            if (!received.isEmpty())
+            {
+                process(received);
+            }
+
+            if (eof)
+            {
+                // Keep the connection open until the responses are written
+                inputClosed = true;
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                closeIfDone();
+            }
+        }
+
+        private void decodeFrames(List<byte[]> received, boolean drained, boolean eof) throws IOException
+        {
+            readBuffer.flip();
+            try
+            {
+                byte[] frame;
+                while ((frame = decoder.decode(readBuffer, drained)) != null)
+                {
+                    received.add(frame);
+                }
+                if (eof && (frame = decoder.decodeLast(readBuffer)) != null)
+                {
+                    received.add(frame);
+                }
+            }
+            finally
+            {
+                readBuffer.compact();
+            }
+        }
+
+        private void process(List<byte[]> received)
+        {
+            boolean schedule;
+            synchronized (this)
+            {
+                frames.addAll(received);
+                schedule = !processing;
+                processing = true;
+            }
+
+            if (schedule)
+            {
+                try
+                {
+                    getWorkManager().scheduleWork(createWork(this), WorkManager.INDEFINITE, null, connector);
+                }
+                catch (WorkException e)
+                {
+                    getEndpoint().getMuleContext().getExceptionListener().handleException(e);
+                    close();
+                }
+            }
+        }
+
+        /**
+         * Moves the frames received so far to the list, or marks the connection as not
+         * being processed if there are none.
+         *
+         * @return false if there were no frames
+         */
+        protected synchronized boolean nextFrames(List<Object> messages)
+        {
+            if (frames.isEmpty())
+            {
+                processing = false;
+                return false;
+            }
+
+            messages.addAll(frames);
+            frames.clear();
+            return true;
+        }
+
+        /**
+         * Writes the data if the channel accepts all of it right away, otherwise queues it
+         * to be written by the selector thread.
+         */
+        protected void write(byte[] data) throws IOException
+        {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            synchronized (writes)
+            {
+                if (writes.isEmpty())
+                {
+                    channel.write(buffer);
+                    if (!buffer.hasRemaining())
+                    {
+                        return;
+                    }
+                }
+                writes.add(buffer);
+            }
+
+            pendingWrites.add(this);
+            selector.wakeup();
+        }
+
+        protected void flush() throws IOException
+        {
+            synchronized (writes)
+            {
+                ByteBuffer buffer;
+                while ((buffer = writes.peek()) != null)
+                {
+                    channel.write(buffer);
+                    if (buffer.hasRemaining())
+                    {
+                        return;
+                    }
+                    writes.poll();
+                }
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            }
+            closeIfDone();
+        }
+
+        protected synchronized void closeIfDone()
+        {
+            if (inputClosed && !processing && frames.isEmpty())
+            {
+                synchronized (writes)
+                {
+                    if (writes.isEmpty())
+                    {
+                        close();
+                    }
+                }
+            }
+        }
+
+        protected synchronized boolean isIdle(long lastActivityLimit)
+        {
+            if (processing || lastActivity > lastActivityLimit)
+            {
+                return false;
+            }
+
+            synchronized (writes)
+            {
+                return writes.isEmpty();
+            }
+        }
+
+        protected void close()
+        {
+            if (key != null)
+            {
+                key.cancel();
+            }
+            if (channel.isOpen())
+            {
+                if (logger.isDebugEnabled())
+                {
+                    logger.debug("Closing connection from: " + remoteAddress);
+                }
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    protected Work createWork(TcpChannelConnection connection)
+    {
+        return new TcpChannelWorker(connection);
+    }
+
+    /**
+     * Processes the frames of a connection until there are no more left, writing back
+     * the responses if the exchange pattern has them.
+     */
+    protected class TcpChannelWorker extends AbstractReceiverWorker
+    {
+
+        protected final TcpChannelConnection connection;
+
+        public TcpChannelWorker(TcpChannelConnection connection)
+        {
+            super(new ArrayList<Object>(), TcpChannelMessageReceiver.this);
+            this.connection = connection;
+        }
+
+        @Override
+        protected void doRun()
+        {
+            while (connection.nextFrames(messages))
+            {
+                if (disposing.get())
+                {
+                    messages.clear();
+                }
+                else
+                {
+                    super.doRun();
+                }
+            }
+        }
+
+        @Override
+        public void release()
+        {
+            connection.closeIfDone();
+        }
+
+        @Override
+        protected void bindTransaction(Transaction tx) throws TransactionException
+        {
+            //nothing to do
+        }
+
+        @Override
+        protected Object preProcessMessage(Object message) throws Exception
+        {
+            return protocol.readFrame((byte[]) message);
+        }
+
+        @Override
+        protected void preRouteMuleMessage(MuleMessage message) throws Exception
+        {
+            super.preRouteMuleMessage(message);
+
+            if (connection.remoteAddress != null)
+            {
+                message.setOutboundProperty(MuleProperties.MULE_REMOTE_CLIENT_ADDRESS, connection.remoteAddress.toString());
+            }
+        }
+
+        @Override
+        protected void handleResults(List messages) throws Exception
+        {
+            if (endpoint.getExchangePattern().hasResponse())
+            {
+                for (Object message : messages)
+                {
+                    ByteArrayOutputStream response = new ByteArrayOutputStream();
+                    protocol.write(response, message);
+                    connection.write(response.toByteArray());
+                }
+            }
+        }
+    }
+}
@@ -10,11 +10,14 @@ import org.mule.api.MessagingException;
 import org.mule.api.MuleContext;
 import org.mule.api.MuleException;
 import org.mule.api.MuleMessage;
+import org.mule.api.construct.FlowConstruct;
 import org.mule.api.config.MuleProperties;
 import org.mule.api.endpoint.ImmutableEndpoint;
+import org.mule.api.endpoint.InboundEndpoint;
 import org.mule.api.lifecycle.InitialisationException;
 import org.mule.api.transport.Connector;
 import org.mule.api.transport.MessageDispatcherFactory;
+import org.mule.api.transport.MessageReceiver;
 import org.mule.config.i18n.CoreMessages;
 import org.mule.model.streaming.CallbackOutputStream;
 import org.mule.transport.AbstractConnector;
@@ -31,6 +34,7 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.URI;
+import java.nio.channels.ServerSocketChannel;
 
 import org.apache.commons.pool.impl.GenericKeyedObjectPool;
 
@@ -91,6 +95,12 @@ public class TcpConnector extends AbstractConnector
      */
     private boolean keepAlive = false;
 
+    /**
+     * If set, inbound endpoints read all their connections from a single thread using a
+     * {@link TcpChannelMessageReceiver} instead of using a thread per connection.
+     */
+    private boolean channelReceiver = false;
+
     //TODO MULE-2300 remove once fixed
     private TcpSocketKey lastSocketKey;
 
@@ -290,6 +300,17 @@ public class TcpConnector extends AbstractConnector
         return TCP;
     }
 
+    @Override
+    protected MessageReceiver createReceiver(FlowConstruct flowConstruct, InboundEndpoint endpoint) throws Exception
+    {
+        if (channelReceiver)
+        {
+            return new TcpChannelMessageReceiver(this, flowConstruct, endpoint);
+        }
+
+        return super.createReceiver(flowConstruct, endpoint);
+    }
+
     // getters and setters ---------------------------------------------------------
 
     public boolean isKeepSendSocketOpen()
@@ -488,6 +509,15 @@ public class TcpConnector extends AbstractConnector
         return getServerSocketFactory().createServerSocket(uri, getReceiveBacklog(), isReuseAddress());
     }
 
+    protected ServerSocketChannel getServerSocketChannel(URI uri) throws IOException
+    {
+        if (!(getServerSocketFactory() instanceof TcpServerSocketFactory))
+        {
+            throw new IOException("The channel receiver can only be used with a " + TcpServerSocketFactory.class.getName());
+        }
+        return ((TcpServerSocketFactory) getServerSocketFactory()).createServerSocketChannel(uri, getReceiveBacklog(), isReuseAddress());
+    }
+
     private static int valueOrDefault(int value, int threshhold, int deflt)
     {
         if (value < threshhold)
@@ -572,6 +602,16 @@ public class TcpConnector extends AbstractConnector
         return socketsPool.getMaxWait();
     }
 
+    public boolean isChannelReceiver()
+    {
+        return channelReceiver;
+    }
+
+    public void setChannelReceiver(boolean channelReceiver)
+    {
+        this.channelReceiver = channelReceiver;
+    }
+
     public Boolean isFailOnUnresolvedHost() 
     {
         return failOnUnresolvedHost;
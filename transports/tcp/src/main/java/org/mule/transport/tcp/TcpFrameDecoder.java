@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Finds the boundaries of the messages of a {@link TcpProtocol} in data that arrives in
+ * chunks, so it can be read without blocking a thread per connection.
+ * <p/>
+ * A decoder is created for each connection and may keep state between calls. It does
+ * not interpret the messages: every frame it returns contains the bytes of one message,
+ * as the {@link TcpProtocol#read(java.io.InputStream)} method of its protocol would read
+ * them, and is later passed to {@link IncrementalTcpProtocol#readFrame(byte[])} to obtain
+ * the message.
+ */
+public interface TcpFrameDecoder
+{
+
+    /**
+     * Removes the next complete frame from the buffer.
+     *
+     * @param buffer the data received and not consumed yet, ready to be read. The position
+     *            is advanced past the bytes of the returned frame
+     * @param drained true if no more data is currently available on the connection
+     * @return the bytes of the frame, or null if the buffer does not contain a complete
+     *         frame yet. Frames are never empty
+     * @throws IOException if the data does not match the protocol
+     */
+    byte[] decode(ByteBuffer buffer, boolean drained) throws IOException;
+
+    /**
+     * Removes the last frame from the buffer once the peer has closed the connection.
+     *
+     * @param buffer the data received and not consumed by {@link #decode(ByteBuffer, boolean)}
+     * @return the bytes of the frame, or null if there is nothing else to read
+     * @throws IOException if the remaining data is not a valid message of the protocol
+     */
+    byte[] decodeLast(ByteBuffer buffer) throws IOException;
+
+}
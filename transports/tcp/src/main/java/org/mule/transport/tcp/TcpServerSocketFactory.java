@@ -15,6 +15,7 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.URI;
+import java.nio.channels.ServerSocketChannel;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,6 +40,41 @@ public class TcpServerSocketFactory implements SimpleServerSocketFactory
         }
     }
 
+    /**
+     * Opens a non blocking server socket channel bound to the same address as the server
+     * socket returned by {@link #createServerSocket(URI, int, Boolean)}.
+     */
+    public ServerSocketChannel createServerSocketChannel(URI uri, int backlog, Boolean reuse) throws IOException
+    {
+        String host = StringUtils.defaultIfEmpty(uri.getHost(), "localhost");
+        InetAddress inetAddress = InetAddress.getByName(host);
+        InetSocketAddress address;
+
+        if ((inetAddress.equals(NetworkUtils.getLocalHost()) || host.trim().equals("localhost")) && TcpPropertyHelper.isBindingLocalhostToAllLocalInterfaces())
+        {
+            logger.warn(TcpMessages.localhostBoundToAllLocalInterfaces());
+            address = new InetSocketAddress(uri.getPort());
+        }
+        else
+        {
+            address = new InetSocketAddress(inetAddress, uri.getPort());
+        }
+
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try
+        {
+            configure(channel.socket(), reuse, address, backlog);
+            channel.configureBlocking(false);
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+
+        return channel;
+    }
+
     public ServerSocket createServerSocket(InetAddress address, int port, int backlog, Boolean reuse) throws IOException
     {
         return configure(new ServerSocket(), reuse, new InetSocketAddress(address, port), backlog);
@@ -8,8 +8,10 @@ package org.mule.transport.tcp.i18n;
 
 import org.mule.config.i18n.Message;
 import org.mule.config.i18n.MessageFactory;
+import org.mule.transport.tcp.IncrementalTcpProtocol;
 import org.mule.transport.tcp.TcpConnector;
 import org.mule.transport.tcp.TcpPropertyHelper;
+import org.mule.transport.tcp.TcpProtocol;
 
 import java.net.URI;
 
@@ -48,6 +50,11 @@ public class TcpMessages extends MessageFactory
     {
         return factory.createMessage(BUNDLE_PATH, 6, TcpPropertyHelper.MULE_TCP_BIND_LOCALHOST_TO_ALL_LOCAL_INTERFACES_PROPERTY);
     }
+
+    public static Message protocolNotIncremental(TcpProtocol protocol)
+    {
+        return factory.createMessage(BUNDLE_PATH, 7, protocol.getClass().getName(), IncrementalTcpProtocol.class.getName());
+    }
 }
 
 
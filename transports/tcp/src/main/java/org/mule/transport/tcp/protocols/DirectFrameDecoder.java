@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp.protocols;
+
+import org.mule.transport.tcp.TcpFrameDecoder;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Frames the messages of a {@link DirectProtocol}: all the data received until
+ * {@link DirectProtocol#isRepeat(int, int)} stops the transfer once no more data is
+ * available, or until the connection is closed.
+ */
+public class DirectFrameDecoder implements TcpFrameDecoder
+{
+
+    private final DirectProtocol protocol;
+
+    public DirectFrameDecoder(DirectProtocol protocol)
+    {
+        this.protocol = protocol;
+    }
+
+    public byte[] decode(ByteBuffer buffer, boolean drained)
+    {
+        if (drained && buffer.hasRemaining() && !protocol.isRepeat(buffer.remaining(), 0))
+        {
+            return remaining(buffer);
+        }
+
+        return null;
+    }
+
+    public byte[] decodeLast(ByteBuffer buffer)
+    {
+        return buffer.hasRemaining() ? remaining(buffer) : null;
+    }
+
+    static byte[] remaining(ByteBuffer buffer)
+    {
+        byte[] frame = new byte[buffer.remaining()];
+        buffer.get(frame);
+
+        return frame;
+    }
+}
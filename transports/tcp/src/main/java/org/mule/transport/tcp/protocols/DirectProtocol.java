@@ -6,6 +6,10 @@
  */
 package org.mule.transport.tcp.protocols;
 
+import org.mule.transport.tcp.IncrementalTcpProtocol;
+import org.mule.transport.tcp.TcpFrameDecoder;
+
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.MessageFormat;
@@ -24,7 +28,7 @@ import org.apache.commons.logging.LogFactory;
  *
  * <p>Writing simply writes the data to the socket.</p>
  */
-public class DirectProtocol extends AbstractByteProtocol
+public class DirectProtocol extends AbstractByteProtocol implements IncrementalTcpProtocol
 {
 
     protected static final int UNLIMITED = -1;
@@ -85,6 +89,16 @@ public class DirectProtocol extends AbstractByteProtocol
         return nullEmptyArray(baos.toByteArray());
     }
 
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        return new DirectFrameDecoder(this);
+    }
+
+    public Object readFrame(byte[] frame) throws IOException
+    {
+        return read(new ByteArrayInputStream(frame));
+    }
+
     protected int remaining(int limit, int remain, int len)
     {
         if (UNLIMITED == limit)
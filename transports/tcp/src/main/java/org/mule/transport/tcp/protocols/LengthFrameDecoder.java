@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp.protocols;
+
+import org.mule.transport.tcp.TcpFrameDecoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Frames messages made of one or more consecutive blocks, each one of them preceded by an
+ * integer with its length, as written by {@link LengthProtocol}.
+ */
+public class LengthFrameDecoder implements TcpFrameDecoder
+{
+
+    private static final int SIZE_INT = 4;
+
+    private final int[] maxLengths;
+
+    /**
+     * @param maxLengths the maximum length of each block of a frame, or
+     *            {@link LengthProtocol#NO_MAX_LENGTH}
+     */
+    public LengthFrameDecoder(int... maxLengths)
+    {
+        this.maxLengths = maxLengths;
+    }
+
+    public byte[] decode(ByteBuffer buffer, boolean drained) throws IOException
+    {
+        int start = buffer.position();
+        int offset = start;
+
+        for (int maxLength : maxLengths)
+        {
+            if (buffer.limit() - offset < SIZE_INT)
+            {
+                return null;
+            }
+
+            int length = buffer.getInt(offset);
+            if (length < 0 || (maxLength > 0 && length > maxLength))
+            {
+                throw new IOException("Length " + length + " exceeds limit: " + maxLength);
+            }
+
+            offset += SIZE_INT;
+            if (buffer.limit() - offset < length)
+            {
+                return null;
+            }
+            offset += length;
+        }
+
+        byte[] frame = new byte[offset - start];
+        buffer.get(frame);
+
+        return frame;
+    }
+
+    public byte[] decodeLast(ByteBuffer buffer) throws IOException
+    {
+        byte[] frame = decode(buffer, true);
+
+        if (frame == null && buffer.hasRemaining())
+        {
+            throw new IOException("Connection closed after reading " + buffer.remaining()
+                                  + " bytes of an incomplete message");
+        }
+
+        return frame;
+    }
+}
@@ -6,6 +6,8 @@
  */
 package org.mule.transport.tcp.protocols;
 
+import org.mule.transport.tcp.TcpFrameDecoder;
+
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -98,6 +100,12 @@ public class LengthProtocol extends DirectProtocol
         }
     }
 
+    @Override
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        return new LengthFrameDecoder(getMaxMessageLength());
+    }
+
     /**
      * Read all four bytes for initial integer (limit is set in read)
      *
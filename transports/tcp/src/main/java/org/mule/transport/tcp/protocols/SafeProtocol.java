@@ -7,8 +7,11 @@
 package org.mule.transport.tcp.protocols;
 
 import org.mule.ResponseOutputStream;
+import org.mule.transport.tcp.IncrementalTcpProtocol;
+import org.mule.transport.tcp.TcpFrameDecoder;
 import org.mule.transport.tcp.TcpProtocol;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -21,12 +24,13 @@ import java.net.Socket;
  * You should probably change to LengthProtocol.
  * Remember - both sender and receiver must use the same protocol.
  */
-public class SafeProtocol implements TcpProtocol
+public class SafeProtocol implements IncrementalTcpProtocol
 {
 
     public static final String COOKIE = "You are using SafeProtocol";
     private TcpProtocol delegate = new LengthProtocol();
     private TcpProtocol cookieProtocol = new LengthProtocol(COOKIE.length());
+    private int maxMessageLength = LengthProtocol.NO_MAX_LENGTH;
 
     public Object read(InputStream is) throws IOException
     {
@@ -46,6 +50,17 @@ public class SafeProtocol implements TcpProtocol
         }
     }
 
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        // The cookie and the data are framed together
+        return new LengthFrameDecoder(COOKIE.length(), maxMessageLength);
+    }
+
+    public Object readFrame(byte[] frame) throws IOException
+    {
+        return read(new ByteArrayInputStream(frame));
+    }
+
     public void write(OutputStream os, Object data) throws IOException
     {
         assureSibling(os);
@@ -111,6 +126,7 @@ public class SafeProtocol implements TcpProtocol
 
     public void setMaxMessageLength(int maxMessageLength)
     {
+        this.maxMessageLength = maxMessageLength;
         delegate = new LengthProtocol(maxMessageLength);
     }
 
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp.protocols;
+
+import org.mule.transport.tcp.TcpFrameDecoder;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Frames the documents of a {@link XmlMessageProtocol}: a document ends where the XML
+ * declaration of the next one starts or, depending on
+ * {@link XmlMessageProtocol#isRepeat(int, int, int)}, when no more data is available.
+ */
+public class XmlFrameDecoder implements TcpFrameDecoder
+{
+
+    private static final byte[] XML_PATTERN = XmlMessageProtocol.XML_PATTERN.getBytes();
+
+    private final XmlMessageProtocol protocol;
+
+    // Offset from the start of the pending data where the next search begins, so data
+    // already searched is not searched again as more arrives
+    private int searchOffset = 1;
+
+    public XmlFrameDecoder(XmlMessageProtocol protocol)
+    {
+        this.protocol = protocol;
+    }
+
+    public byte[] decode(ByteBuffer buffer, boolean drained)
+    {
+        int start = buffer.position();
+        int patternIndex = indexOfPattern(buffer, start + searchOffset);
+
+        if (patternIndex >= 0)
+        {
+            searchOffset = 1;
+            byte[] frame = new byte[patternIndex - start];
+            buffer.get(frame);
+
+            return frame;
+        }
+
+        searchOffset = Math.max(1, buffer.remaining() - XML_PATTERN.length + 1);
+
+        if (drained && buffer.hasRemaining() && !protocol.isRepeat(-1, buffer.remaining(), 0))
+        {
+            searchOffset = 1;
+            return DirectFrameDecoder.remaining(buffer);
+        }
+
+        return null;
+    }
+
+    public byte[] decodeLast(ByteBuffer buffer)
+    {
+        searchOffset = 1;
+
+        return buffer.hasRemaining() ? DirectFrameDecoder.remaining(buffer) : null;
+    }
+
+    private int indexOfPattern(ByteBuffer buffer, int from)
+    {
+        int last = buffer.limit() - XML_PATTERN.length;
+
+        for (int i = from; i <= last; i++)
+        {
+            int j = 0;
+            while (j < XML_PATTERN.length && buffer.get(i + j) == XML_PATTERN[j])
+            {
+                j++;
+            }
+            if (j == XML_PATTERN.length)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
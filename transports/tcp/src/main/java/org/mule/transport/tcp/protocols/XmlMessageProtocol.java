@@ -6,6 +6,9 @@
  */
 package org.mule.transport.tcp.protocols;
 
+import org.mule.transport.tcp.IncrementalTcpProtocol;
+import org.mule.transport.tcp.TcpFrameDecoder;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
@@ -45,10 +48,10 @@ import java.util.concurrent.ConcurrentMap;
  * be read later.
  * </p>
  */
-public class XmlMessageProtocol extends AbstractByteProtocol
+public class XmlMessageProtocol extends AbstractByteProtocol implements IncrementalTcpProtocol
 {
     
-    private static final String XML_PATTERN = "<?xml";
+    static final String XML_PATTERN = "<?xml";
 
     private static final int READ_BUFFER_SIZE = 4096;
     private static final int PUSHBACK_BUFFER_SIZE = READ_BUFFER_SIZE * 2;
@@ -127,6 +130,17 @@ public class XmlMessageProtocol extends AbstractByteProtocol
         }
     }
 
+    public TcpFrameDecoder createFrameDecoder()
+    {
+        return new XmlFrameDecoder(this);
+    }
+
+    public Object readFrame(byte[] frame) throws IOException
+    {
+        // A frame contains exactly one document
+        return nullEmptyArray(frame);
+    }
+
     /**
      * Show we continue reading?  This class, following previous implementations, only
      * reads while input is saturated.
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import org.mule.api.MuleMessage;
+import org.mule.api.client.MuleClient;
+import org.mule.api.transport.MessageReceiver;
+import org.mule.tck.junit4.FunctionalTestCase;
+import org.mule.tck.junit4.rule.DynamicPort;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.Socket;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class TcpChannelMessageReceiverTestCase extends FunctionalTestCase
+{
+
+    private static final String TEST_MESSAGE = "Test TCP Request";
+    private static final int CONNECTIONS = 50;
+    private static final int MESSAGES = 5;
+
+    @ClassRule
+    public static DynamicPort dynamicPort = new DynamicPort("port1");
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "tcp-channel-receiver-test-flow.xml";
+    }
+
+    @Test
+    public void usesChannelReceiver() throws Exception
+    {
+        TcpConnector connector = (TcpConnector) muleContext.getRegistry().lookupConnector("tcpConnector");
+
+        assertThat(connector.isChannelReceiver(), equalTo(true));
+        for (MessageReceiver receiver : connector.getReceivers().values())
+        {
+            assertThat(receiver, instanceOf(TcpChannelMessageReceiver.class));
+        }
+    }
+
+    @Test
+    public void send() throws Exception
+    {
+        MuleClient client = muleContext.getClient();
+        MuleMessage result = client.send("clientEndpoint", TEST_MESSAGE, null);
+
+        assertThat(result.getPayloadAsString(), equalTo(TEST_MESSAGE + " Received"));
+    }
+
+    @Test
+    public void sendsSeveralMessagesOverManyConnections() throws Exception
+    {
+        Socket[] sockets = new Socket[CONNECTIONS];
+
+        try
+        {
+            for (int i = 0; i < CONNECTIONS; i++)
+            {
+                sockets[i] = new Socket("localhost", dynamicPort.getNumber());
+            }
+
+            for (int message = 0; message < MESSAGES; message++)
+            {
+                for (int i = 0; i < CONNECTIONS; i++)
+                {
+                    write(sockets[i], TEST_MESSAGE + " " + i + "." + message);
+                }
+                for (int i = 0; i < CONNECTIONS; i++)
+                {
+                    assertThat(read(sockets[i]), equalTo(TEST_MESSAGE + " " + i + "." + message + " Received"));
+                }
+            }
+        }
+        finally
+        {
+            for (Socket socket : sockets)
+            {
+                if (socket != null)
+                {
+                    socket.close();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sendsPipelinedMessagesInOrder() throws Exception
+    {
+        Socket socket = new Socket("localhost", dynamicPort.getNumber());
+
+        try
+        {
+            for (int message = 0; message < MESSAGES; message++)
+            {
+                write(socket, TEST_MESSAGE + " " + message);
+            }
+            for (int message = 0; message < MESSAGES; message++)
+            {
+                assertThat(read(socket), equalTo(TEST_MESSAGE + " " + message + " Received"));
+            }
+        }
+        finally
+        {
+            socket.close();
+        }
+    }
+
+    private void write(Socket socket, String message) throws Exception
+    {
+        byte[] data = message.getBytes();
+        DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+        out.writeInt(data.length);
+        out.write(data);
+        out.flush();
+    }
+
+    private String read(Socket socket) throws Exception
+    {
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+
+        return new String(data);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.tcp.protocols;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.transport.tcp.IncrementalTcpProtocol;
+import org.mule.transport.tcp.TcpFrameDecoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+@SmallTest
+public class TcpFrameDecoderTestCase extends AbstractMuleTestCase
+{
+
+    private static final String FIRST = "first message";
+    private static final String SECOND = "second message";
+    private static final String FIRST_XML = "<?xml version=\"1.0\"?><data>hello</data>";
+    private static final String SECOND_XML = "<?xml version=\"1.0\"?><data>goodbye</data>";
+
+    @Test
+    public void framesLengthMessagesReceivedInChunks() throws Exception
+    {
+        LengthProtocol protocol = new LengthProtocol();
+        TcpFrameDecoder decoder = protocol.createFrameDecoder();
+        byte[] data = concat(write(protocol, FIRST), write(protocol, SECOND));
+
+        // Header split in two chunks
+        ByteBuffer buffer = ByteBuffer.allocate(data.length);
+        buffer.put(data, 0, 2).flip();
+        assertThat(decoder.decode(buffer, true), nullValue());
+
+        buffer.compact().put(data, 2, data.length - 5).flip();
+        assertThat(readFrame(protocol, decoder.decode(buffer, true)), equalTo(FIRST));
+        assertThat(decoder.decode(buffer, true), nullValue());
+
+        buffer.compact().put(data, data.length - 3, 3).flip();
+        assertThat(readFrame(protocol, decoder.decode(buffer, true)), equalTo(SECOND));
+        assertThat(decoder.decodeLast(buffer), nullValue());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsLengthOverLimit() throws Exception
+    {
+        LengthProtocol protocol = new LengthProtocol(FIRST.length() - 1);
+
+        protocol.createFrameDecoder().decode(ByteBuffer.wrap(write(new LengthProtocol(), FIRST)), true);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsIncompleteLengthMessageOnClose() throws Exception
+    {
+        LengthProtocol protocol = new LengthProtocol();
+        byte[] data = write(protocol, FIRST);
+
+        protocol.createFrameDecoder().decodeLast(ByteBuffer.wrap(data, 0, data.length - 1));
+    }
+
+    @Test
+    public void framesCookieAndDataOfSafeMessages() throws Exception
+    {
+        SafeProtocol protocol = new SafeProtocol();
+        TcpFrameDecoder decoder = protocol.createFrameDecoder();
+        byte[] first = write(protocol, FIRST);
+        ByteBuffer buffer = ByteBuffer.wrap(concat(first, write(protocol, SECOND)));
+
+        // Only the cookie
+        buffer.limit(SafeProtocol.COOKIE.length() + 4);
+        assertThat(decoder.decode(buffer, true), nullValue());
+
+        buffer.limit(buffer.capacity());
+        byte[] frame = decoder.decode(buffer, true);
+        assertThat(frame.length, equalTo(first.length));
+        assertThat(readFrame(protocol, frame), equalTo(FIRST));
+        assertThat(readFrame(protocol, decoder.decode(buffer, true)), equalTo(SECOND));
+    }
+
+    @Test
+    public void framesDirectMessageWhenDrained() throws Exception
+    {
+        DirectProtocol protocol = new DirectProtocol();
+        TcpFrameDecoder decoder = protocol.createFrameDecoder();
+        ByteBuffer buffer = ByteBuffer.wrap(FIRST.getBytes());
+
+        assertThat(decoder.decode(buffer, false), nullValue());
+        assertThat(readFrame(protocol, decoder.decode(buffer, true)), equalTo(FIRST));
+        assertThat(decoder.decode(buffer, true), nullValue());
+    }
+
+    @Test
+    public void framesEofMessageOnClose() throws Exception
+    {
+        EOFProtocol protocol = new EOFProtocol();
+        TcpFrameDecoder decoder = protocol.createFrameDecoder();
+        ByteBuffer buffer = ByteBuffer.wrap(FIRST.getBytes());
+
+        assertThat(decoder.decode(buffer, true), nullValue());
+        assertThat(readFrame(protocol, decoder.decodeLast(buffer)), equalTo(FIRST));
+        assertThat(decoder.decodeLast(buffer), nullValue());
+    }
+
+    @Test
+    public void framesXmlDocumentsAtDeclaration() throws Exception
+    {
+        XmlMessageEOFProtocol protocol = new XmlMessageEOFProtocol();
+        TcpFrameDecoder decoder = protocol.createFrameDecoder();
+        byte[] data = (FIRST_XML + SECOND_XML).getBytes();
+
+        // Declaration of the second document split in two chunks
+        ByteBuffer buffer = ByteBuffer.allocate(data.length);
+        buffer.put(data, 0, FIRST_XML.length() + 3).flip();
+        assertThat(decoder.decode(buffer, true), nullValue());
+
+        buffer.compact().put(data, FIRST_XML.length() + 3, SECOND_XML.length() - 3).flip();
+        assertThat(readFrame(protocol, decoder.decode(buffer, true)), equalTo(FIRST_XML));
+        assertThat(decoder.decode(buffer, true), nullValue());
+        assertThat(readFrame(protocol, decoder.decodeLast(buffer)), equalTo(SECOND_XML));
+    }
+
+    @Test
+    public void framesXmlDocumentWhenDrained() throws Exception
+    {
+        XmlMessageProtocol protocol = new XmlMessageProtocol();
+        TcpFrameDecoder decoder = protocol.createFrameDecoder();
+        ByteBuffer buffer = ByteBuffer.wrap(FIRST_XML.getBytes());
+
+        assertThat(decoder.decode(buffer, false), nullValue());
+        assertThat(readFrame(protocol, decoder.decode(buffer, true)), equalTo(FIRST_XML));
+    }
+
+    private byte[] write(IncrementalTcpProtocol protocol, String message) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        protocol.write(out, message);
+
+        return out.toByteArray();
+    }
+
+    private String readFrame(IncrementalTcpProtocol protocol, byte[] frame) throws IOException
+    {
+        return new String((byte[]) protocol.readFrame(frame));
+    }
+
+    private byte[] concat(byte[] first, byte[] second)
+    {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+
+        return result;
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.udp;
+
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleException;
+import org.mule.api.MuleMessage;
+import org.mule.api.config.MuleProperties;
+import org.mule.api.construct.FlowConstruct;
+import org.mule.api.endpoint.InboundEndpoint;
+import org.mule.api.lifecycle.CreateException;
+import org.mule.api.transport.Connector;
+import org.mule.api.transport.PropertyScope;
+import org.mule.config.i18n.CoreMessages;
+import org.mule.transport.AbstractMessageReceiver;
+import org.mule.transport.ConnectException;
+import org.mule.transport.udp.i18n.UdpMessages;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.resource.spi.work.Work;
+import javax.resource.spi.work.WorkException;
+import javax.resource.spi.work.WorkManager;
+
+/**
+ * <code>UdpChannelMessageReceiver</code> receives UDP message packets from a non blocking
+ * {@link DatagramChannel}.
+ * <p/>
+ * Every time the channel is selected all the packets waiting on it are read, up to
+ * {@link #MAX_PACKETS_PER_SELECT}, using a single direct buffer. Each packet is copied
+ * to a byte array of its exact size and handed to the work manager, so no socket is
+ * opened per packet. Responses are sent back from the receiving channel.
+ */
+public class UdpChannelMessageReceiver extends AbstractMessageReceiver implements Work
+{
+
+    /**
+     * Maximum number of packets read from the channel each time it is selected
+     */
+    public static final int MAX_PACKETS_PER_SELECT = 256;
+
+    /**
+     * Time to wait for packets before checking if the receiver has been disconnected
+     */
+    protected static final long SELECT_TIMEOUT = 1000;
+
+    protected DatagramChannel channel;
+    protected Selector selector;
+    protected final InetSocketAddress bindAddress;
+    protected final ByteBuffer receiveBuffer;
+    private final URI uri;
+
+    protected final AtomicBoolean disposing = new AtomicBoolean(false);
+
+    public UdpChannelMessageReceiver(Connector connector, FlowConstruct flowConstruct, InboundEndpoint endpoint)
+            throws CreateException
+    {
+        super(connector, flowConstruct, endpoint);
+
+        receiveBuffer = ByteBuffer.allocateDirect(((UdpConnector) connector).getReceiveBufferSize());
+
+        uri = endpoint.getEndpointURI().getUri();
+        int port = Math.max(uri.getPort(), 0);
+
+        try
+        {
+            if ("null".equalsIgnoreCase(uri.getHost()))
+            {
+                bindAddress = new InetSocketAddress(port);
+            }
+            else
+            {
+                bindAddress = new InetSocketAddress(InetAddress.getByName(uri.getHost()), port);
+            }
+        }
+        catch (UnknownHostException e)
+        {
+            throw new CreateException(UdpMessages.failedToLocateHost(uri), e, this);
+        }
+    }
+
+    @Override
+    protected void doConnect() throws Exception
+    {
+        disposing.set(false);
+
+        try
+        {
+            channel = openChannel();
+            selector = Selector.open();
+            channel.register(selector, SelectionKey.OP_READ);
+        }
+        catch (Exception e)
+        {
+            closeChannel();
+            throw new ConnectException(UdpMessages.failedToBind(uri), e, this);
+        }
+
+        try
+        {
+            getWorkManager().scheduleWork(this, WorkManager.INDEFINITE, null, connector);
+        }
+        catch (WorkException e)
+        {
+            throw new ConnectException(CoreMessages.failedToScheduleWork(), e, this);
+        }
+    }
+
+    @Override
+    protected void doDisconnect() throws Exception
+    {
+        // this will cause the receiving thread to quit
+        disposing.set(true);
+        closeChannel();
+    }
+
+    @Override
+    protected void doStart() throws MuleException
+    {
+        // nothing to do
+    }
+
+    protected DatagramChannel openChannel() throws IOException
+    {
+        UdpConnector udpConnector = (UdpConnector) connector;
+        DatagramChannel datagramChannel = DatagramChannel.open();
+
+        try
+        {
+            DatagramSocket socket = datagramChannel.socket();
+            if (udpConnector.getReceiveBufferSize() != Connector.INT_VALUE_NOT_SET)
+            {
+                socket.setReceiveBufferSize(udpConnector.getReceiveBufferSize());
+            }
+            if (udpConnector.getSendBufferSize() != Connector.INT_VALUE_NOT_SET)
+            {
+                socket.setSendBufferSize(udpConnector.getSendBufferSize());
+            }
+            socket.setBroadcast(udpConnector.isBroadcast());
+            socket.bind(bindAddress);
+            datagramChannel.configureBlocking(false);
+        }
+        catch (IOException e)
+        {
+            datagramChannel.close();
+            throw e;
+        }
+
+        return datagramChannel;
+    }
+
+    /** Obtain the channel packets are received from */
+    public DatagramChannel getChannel()
+    {
+        return channel;
+    }
+
+    public void run()
+    {
+        while (!disposing.get())
+        {
+            try
+            {
+                if (!connector.isStarted())
+                {
+                    Thread.sleep(SELECT_TIMEOUT);
+                }
+                else if (selector.select(SELECT_TIMEOUT) > 0)
+                {
+                    selector.selectedKeys().clear();
+                    receivePackets();
+                }
+            }
+            catch (ClosedSelectorException e)
+            {
+                // The receiver has been disconnected
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (Exception e)
+            {
+                if (!connector.isDisposed() && !disposing.get())
+                {
+                    logger.debug("Receive failed on channel: " + e, e);
+                    getEndpoint().getMuleContext().getExceptionListener().handleException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the packets waiting on the channel and schedules the work to process each
+     * one of them
+     */
+    protected void receivePackets() throws IOException
+    {
+        for (int i = 0; i < MAX_PACKETS_PER_SELECT; i++)
+        {
+            receiveBuffer.clear();
+            SocketAddress sender = channel.receive(receiveBuffer);
+            if (sender == null)
+            {
+                return;
+            }
+
+            receiveBuffer.flip();
+            byte[] data = new byte[receiveBuffer.remaining()];
+            receiveBuffer.get(data);
+
+            if (logger.isTraceEnabled())
+            {
+                logger.trace("Received packet on: " + uri);
+            }
+
+            try
+            {
+                getWorkManager().scheduleWork(createWork(new DatagramPacket(data, data.length, sender)), WorkManager.INDEFINITE, null, connector);
+            }
+            catch (WorkException e)
+            {
+                logger.error("Udp receiver interrupted: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public void release()
+    {
+        dispose();
+    }
+
+    @Override
+    protected void doDispose()
+    {
+        disposing.set(true);
+        if (channel != null && channel.isOpen())
+        {
+            logger.debug("Closing Udp channel: " + uri);
+            closeChannel();
+            logger.info("Closed Udp channel: " + uri);
+        }
+    }
+
+    protected void closeChannel()
+    {
+        try
+        {
+            if (channel != null)
+            {
+                channel.close();
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn("Channel close failed: " + e.getMessage());
+        }
+
+        try
+        {
+            if (selector != null)
+            {
+                selector.close();
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn("Selector close failed: " + e.getMessage());
+        }
+    }
+
+    protected Work createWork(DatagramPacket packet) throws IOException
+    {
+        return new UdpChannelWorker(packet);
+    }
+
+    protected class UdpChannelWorker implements Work
+    {
+        private final DatagramPacket packet;
+
+        public UdpChannelWorker(DatagramPacket packet)
+        {
+            this.packet = packet;
+        }
+
+        public void release()
+        {
+            // nothing to release
+        }
+
+        /** Processes a packet and sends the response back to its sender */
+        public void run()
+        {
+            try
+            {
+                MuleMessage message = createMuleMessage(packet, endpoint.getEncoding());
+                SocketAddress clientAddress = packet.getSocketAddress();
+                message.setProperty(MuleProperties.MULE_REMOTE_CLIENT_ADDRESS, clientAddress, PropertyScope.INBOUND);
+
+                MuleEvent event = routeMessage(message);
+                MuleMessage returnMessage = event == null ? null : event.getMessage();
+
+                if (endpoint.getExchangePattern().hasResponse() && returnMessage != null)
+                {
+                    byte[] data = returnMessage.getPayloadAsBytes();
+                    if (channel.send(ByteBuffer.wrap(data), clientAddress) == 0)
+                    {
+                        logger.warn("Response to " + clientAddress + " was dropped as the send buffer of " + uri + " is full");
+                    }
+                }
+            }
+            catch (Exception e)
+            {
+                if (!disposing.get())
+                {
+                    getEndpoint().getMuleContext().getExceptionListener().handleException(e);
+                }
+            }
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.mule.api.construct.FlowConstruct;
 import org.mule.api.endpoint.ImmutableEndpoint;
 import org.mule.api.endpoint.InboundEndpoint;
 import org.mule.api.lifecycle.InitialisationException;
+import org.mule.api.transport.MessageReceiver;
 import org.mule.transport.AbstractConnector;
 
 import java.net.DatagramSocket;
@@ -35,6 +36,7 @@ public class UdpConnector extends AbstractConnector
     protected int receiveBufferSize = DEFAULT_BUFFER_SIZE;
     protected boolean keepSendSocketOpen = true;
     protected boolean broadcast;
+    protected boolean channelReceiver;
     protected GenericKeyedObjectPool dispatcherSocketsPool = new GenericKeyedObjectPool();
     protected UdpSocketFactory socketFactory;
 
@@ -149,6 +151,21 @@ public class UdpConnector extends AbstractConnector
     }
 
 
+    public boolean isChannelReceiver()
+    {
+        return channelReceiver;
+    }
+
+    /**
+     * Sets whether inbound endpoints receive packets with a {@link UdpChannelMessageReceiver},
+     * which reads them from a non blocking channel without opening a socket per packet,
+     * instead of the default {@link UdpMessageReceiver}.
+     */
+    public void setChannelReceiver(boolean channelReceiver)
+    {
+        this.channelReceiver = channelReceiver;
+    }
+
     public boolean isKeepSendSocketOpen()
     {
         return keepSendSocketOpen;
@@ -188,6 +205,17 @@ public class UdpConnector extends AbstractConnector
         }
     }
 
+    @Override
+    protected MessageReceiver createReceiver(FlowConstruct flowConstruct, InboundEndpoint endpoint) throws Exception
+    {
+        if (channelReceiver)
+        {
+            return new UdpChannelMessageReceiver(this, flowConstruct, endpoint);
+        }
+
+        return super.createReceiver(flowConstruct, endpoint);
+    }
+
     @Override
     protected Object getReceiverKey(FlowConstruct flowConstruct, InboundEndpoint endpoint)
     {
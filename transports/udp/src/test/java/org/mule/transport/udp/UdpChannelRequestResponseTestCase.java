@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.transport.udp;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import org.mule.api.MuleMessage;
+import org.mule.api.transport.MessageReceiver;
+import org.mule.tck.junit4.FunctionalTestCase;
+import org.mule.tck.junit4.rule.DynamicPort;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class UdpChannelRequestResponseTestCase extends FunctionalTestCase
+{
+    private static final String EXPECTED = TEST_MESSAGE + " received";
+
+    @Rule
+    public DynamicPort dynamicPort = new DynamicPort("port1");
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "udp-channel-request-response.xml";
+    }
+
+    @Test
+    public void usesChannelReceiver() throws Exception
+    {
+        UdpConnector connector = (UdpConnector) muleContext.getRegistry().lookupConnector("udpChannelConnector");
+        MessageReceiver receiver = connector.getReceivers().values().iterator().next();
+
+        assertThat(receiver, instanceOf(UdpChannelMessageReceiver.class));
+    }
+
+    @Test
+    public void testRequestResponse() throws Exception
+    {
+        MuleMessage response = muleContext.getClient().send("vm://fromTest", TEST_MESSAGE, null);
+        assertEquals(EXPECTED, response.getPayloadAsString());
+    }
+
+    @Test
+    public void processesSequentialRequests() throws Exception
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            MuleMessage response = muleContext.getClient().send("vm://fromTest", TEST_MESSAGE + i, null);
+            assertEquals(TEST_MESSAGE + i + " received", response.getPayloadAsString());
+        }
+    }
+}